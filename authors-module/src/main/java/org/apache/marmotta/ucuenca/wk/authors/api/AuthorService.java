@@ -17,6 +17,10 @@
  */
 package org.apache.marmotta.ucuenca.wk.authors.api;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
 import org.apache.marmotta.ucuenca.wk.authors.exceptions.DaoException;
 import org.apache.marmotta.ucuenca.wk.authors.exceptions.UpdateException;
 import org.openrdf.query.QueryEvaluationException;
@@ -25,7 +29,8 @@ public interface AuthorService {
 
    
     /**
-     * Run update with all Active EndPoints  MultipleEP
+     * Run update with all Active EndPoints  MultipleEP, the endpoints are
+     * updated in background and their progress is in getUpdateStatus
      * @param sparqlEndpoint
      * @param graphUri
      * @return
@@ -34,6 +39,26 @@ public interface AuthorService {
      */
     String runAuthorsUpdateMultipleEP(String sparqlEndpoint, String graphUri) throws DaoException, UpdateException, QueryEvaluationException;
     
-    String saveAuthorFromFile(String... args);
+    /**
+     * Save one author of a CSV file
+     * @param args endpoint, endpointName, names, surnames and keywords
+     * @return counts of rows and saved authors, and the errors of the row
+     */
+    Map<String, Object> saveAuthorFromFile(String... args);
+
+    /**
+     * Save the authors of an uploaded CSV file while it is read, in
+     * transactions of authorsUploadBatchSize authors
+     * @param input body of the upload ( rows, endpoint and endpointName )
+     * @return counts of rows and saved authors, and the errors of each row
+     * @throws IOException 
+     */
+    Map<String, Object> saveAuthorsFromFile(InputStream input) throws IOException;
+
+    /**
+     * State and progress of the last update of each endpoint
+     * @return 
+     */
+    List<Map<String, Object>> getUpdateStatus();
     
 }
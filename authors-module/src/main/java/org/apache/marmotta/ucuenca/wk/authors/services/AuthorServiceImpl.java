@@ -26,10 +26,28 @@ package org.apache.marmotta.ucuenca.wk.authors.services;
 //import java.util.Iterator;
 //import java.util.List;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import org.slf4j.Logger;
 
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import org.apache.marmotta.commons.sesame.model.ModelCommons;
@@ -40,18 +58,27 @@ import org.apache.marmotta.ldclient.model.ClientConfiguration;
 import org.apache.marmotta.ldclient.model.ClientResponse;
 import org.apache.marmotta.ldclient.services.ldclient.LDClient;
 import org.apache.marmotta.platform.core.api.config.ConfigurationService;
+import org.apache.marmotta.platform.core.api.triplestore.SesameService;
 //import org.apache.marmotta.platform.core.exception.InvalidArgumentException;
 import org.apache.marmotta.ucuenca.wk.authors.api.AuthorService;
 import org.apache.marmotta.ucuenca.wk.authors.api.SparqlFunctionsService;
 import org.apache.marmotta.ucuenca.wk.authors.exceptions.AskException;
 import org.apache.marmotta.ucuenca.wk.authors.exceptions.DaoException;
 import org.apache.marmotta.ucuenca.wk.authors.exceptions.UpdateException;
+import org.apache.marmotta.ucuenca.wk.commons.function.ConfigurationSnapshot;
 import org.apache.marmotta.ucuenca.wk.commons.service.QueriesService;
 import org.apache.marmotta.ucuenca.wk.authors.api.EndpointService;
 import org.apache.marmotta.ucuenca.wk.authors.api.SparqlEndpoint;
 import org.apache.marmotta.ucuenca.wk.commons.service.CommonsServices;
 import org.apache.marmotta.ucuenca.wk.commons.service.ConstantService;
 import org.apache.marmotta.ucuenca.wk.commons.service.KeywordsService;
+import org.openrdf.model.Literal;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.vocabulary.XMLSchema;
 import org.openrdf.query.BindingSet;
 import org.openrdf.query.MalformedQueryException;
 import org.openrdf.query.QueryEvaluationException;
@@ -61,10 +88,19 @@ import org.openrdf.query.TupleQueryResult;
 import org.openrdf.repository.Repository;
 import org.openrdf.repository.RepositoryConnection;
 import org.openrdf.repository.RepositoryException;
+import org.openrdf.repository.RepositoryResult;
 import org.openrdf.repository.sparql.SPARQLRepository;
+import org.openrdf.rio.RDFHandlerException;
 
 /**
  * Default Implementation of {@link AuthorService} Fernando B. CEDIA
+ *
+ * The endpoints are updated at the same time in a pool of
+ * authorsUpdateThreads threads, each endpoint with its own LDClient and
+ * SPARQLRepository, and its progress in an {@link EndpointUpdate}. An
+ * endpoint is aborted after authorsEndpointTimeout milliseconds and skipped
+ * by the {@link EndpointCircuitBreaker} after authorsEndpointFailures failed
+ * updates in a row.
  */
 @ApplicationScoped
 public class AuthorServiceImpl implements AuthorService {
@@ -93,11 +129,25 @@ public class AuthorServiceImpl implements AuthorService {
     @Inject
     private ConstantService constantService;
 
+    @Inject
+    private SesameService sesameService;
+
+    private static final String UPDATE_STATUS = "/authors-module/update/status";
+
+    private static final int DEFAULT_THREADS = 4;
+
     private int limit = 5000;
 
-    private int processpercent = 0;
+    /* last update of each endpoint */
+    private final Map<String, EndpointUpdate> updates = new LinkedHashMap<>();
+
+    private final EndpointCircuitBreaker circuitBreaker = new EndpointCircuitBreaker();
 
-    private boolean provenanceinsert = false; //variable to know if the provenance of an author was already inserted
+    private ExecutorService executor;
+
+    private ExecutorService enrichmentExecutor;
+
+    private ScheduledExecutorService watchdog;
 
     /**
      * authorDocumentProperty : http://rdaregistry.info/Elements/a/P50161 |
@@ -106,42 +156,106 @@ public class AuthorServiceImpl implements AuthorService {
     private String authorDocumentProperty = "http://rdaregistry.info";
 
     @Override
-    public String runAuthorsUpdateMultipleEP(String endpp, String graph) throws DaoException, UpdateException {
-        Boolean someUpdate = false;
+    public synchronized String runAuthorsUpdateMultipleEP(String endpp, String graph) {
+        for (EndpointUpdate update : updates.values()) {
+            if (update.isActive()) {
+                return "Carga de autores en ejecucion. Revise " + UPDATE_STATUS;
+            }
+        }
+        List<SparqlEndpoint> endpoints = authorsendpointService.listEndpoints();
+        if (endpoints.isEmpty()) {
+            return "No Endpoints";
+        }
+        ConfigurationSnapshot configuration = ConfigurationSnapshot.current();
+        final long timeout = configuration.getInt(ConfigurationSnapshot.PARAMETERS, "authorsEndpointTimeout", 7200000);
+        final int maxFailures = Math.max(1, configuration.getInt(ConfigurationSnapshot.PARAMETERS, "authorsEndpointFailures", 3));
+        long retryInterval = configuration.getInt(ConfigurationSnapshot.PARAMETERS, "authorsEndpointRetryInterval", 3600000);
+        final boolean bulkLoad = configuration.getBoolean(ConfigurationSnapshot.PARAMETERS, "authorsBulkLoad", true);
+        updates.clear();
         StringBuilder response = new StringBuilder();
-        if (authorsendpointService.listEndpoints().size() != 0) {
-            for (SparqlEndpoint endpoint : authorsendpointService.listEndpoints()) {
-                if (endpoint.getStatus().equals("true")) {
-                    response.append("\n ENDPOINT: ");
-                    response.append(endpoint.getName());
-                    response.append(":  ");
-                    try {
-                        response.append(getAuthorsMultipleEP(endpoint));
-
-                    } catch (RepositoryException ex) {
-                        log.error("Excepcion de repositorio. Problemas en conectarse a " + endpoint.getName());
-                        java.util.logging.Logger.getLogger(AuthorServiceImpl.class.getName()).log(Level.SEVERE, null, ex);
-                    } catch (MalformedQueryException ex) {
-                        log.error("Excepcion de forma de consulta. Revise consultas SPARQL y sintaxis. Revise estandar SPARQL");
-                        java.util.logging.Logger.getLogger(AuthorServiceImpl.class.getName()).log(Level.SEVERE, null, ex);
-                    } catch (QueryEvaluationException ex) {
-                        log.error("Excepcion de ejecucion de consulta. No se ha ejecutado la consulta general para la obtencion de los Authores.");
-                        java.util.logging.Logger.getLogger(AuthorServiceImpl.class.getName()).log(Level.SEVERE, null, ex);
-                    }
-                    someUpdate = true;
-                }// end if endpoint.status == true
+        for (final SparqlEndpoint endpoint : endpoints) {
+            if (!endpoint.getStatus().equals("true")) {
+                continue;
             }
-            if (!someUpdate) {
-                return "Any  Endpoints";
+            final EndpointUpdate update = new EndpointUpdate(endpoint.getResourceId(), endpoint.getName());
+            updates.put(endpoint.getResourceId(), update);
+            response.append("\n ENDPOINT: ");
+            response.append(endpoint.getName());
+            response.append(":  ");
+            if (!circuitBreaker.allow(endpoint.getResourceId(), retryInterval)) {
+                update.skip("Omitido despues de " + maxFailures + " cargas fallidas, se reintenta en " + retryInterval + " ms");
+                log.error("Endpoint " + endpoint.getName() + " omitido despues de " + maxFailures + " cargas fallidas");
+                response.append("Omitido");
+                continue;
             }
-            return response.toString();
-        } else {
-            return "No Endpoints";
+            getExecutor(configuration).submit(new Runnable() {
+                @Override
+                public void run() {
+                    updateEndpoint(endpoint, update, bulkLoad, timeout, maxFailures);
+                }
+            });
+            response.append("En cola");
+        }
+        if (updates.isEmpty()) {
+            return "Any  Endpoints";
         }
+        response.append("\n Revise el estado de la carga en ").append(UPDATE_STATUS);
+        return response.toString();
+    }
+
+    @Override
+    public synchronized List<Map<String, Object>> getUpdateStatus() {
+        List<Map<String, Object>> status = new ArrayList<>();
+        for (EndpointUpdate update : updates.values()) {
+            status.add(update.toMap());
+        }
+        return status;
+    }
 
+    /*
+     * Update of one endpoint in a thread of the pool, aborted by the watchdog
+     * after timeout milliseconds
+     */
+    private void updateEndpoint(SparqlEndpoint endpoint, final EndpointUpdate update, boolean bulkLoad, long timeout, int maxFailures) {
+        update.start();
+        ScheduledFuture<?> abort = getWatchdog().schedule(new Runnable() {
+            @Override
+            public void run() {
+                log.error("Tiempo de carga agotado en el endpoint " + update.getName());
+                update.abort();
+            }
+        }, timeout, TimeUnit.MILLISECONDS);
+        try {
+            if (bulkLoad) {
+                update.finish(getAuthorsBulkEP(endpoint, update, maxFailures));
+            } else {
+                update.finish(getAuthorsMultipleEP(endpoint, update, maxFailures));
+            }
+        } catch (RepositoryException ex) {
+            log.error("Excepcion de repositorio. Problemas en conectarse a " + endpoint.getName());
+            update.fail(ex.toString());
+        } catch (MalformedQueryException ex) {
+            log.error("Excepcion de forma de consulta. Revise consultas SPARQL y sintaxis. Revise estandar SPARQL");
+            update.fail(ex.toString());
+        } catch (QueryEvaluationException ex) {
+            log.error("Excepcion de ejecucion de consulta. No se ha ejecutado la consulta general para la obtencion de los Authores.");
+            update.fail(ex.toString());
+        } catch (DaoException | UpdateException | RuntimeException ex) {
+            log.error("Fallo la carga de autores de " + endpoint.getName() + ": " + ex);
+            update.fail(ex.toString());
+        } finally {
+            abort.cancel(false);
+            // the update is finished, an interrupt of the watchdog is not for the next endpoint
+            Thread.interrupted();
+        }
+        if (update.isFailed()) {
+            circuitBreaker.failure(endpoint.getResourceId(), maxFailures);
+        } else {
+            circuitBreaker.success(endpoint.getResourceId());
+        }
     }
 
-    public String getAuthorsMultipleEP(SparqlEndpoint endpoint) throws DaoException, UpdateException, RepositoryException, MalformedQueryException, QueryEvaluationException {
+    public String getAuthorsMultipleEP(SparqlEndpoint endpoint, EndpointUpdate update, int maxFailures) throws DaoException, UpdateException, RepositoryException, MalformedQueryException, QueryEvaluationException {
         int tripletasCargadas = 0; //cantidad de tripletas actualizadaas
         int contAutoresNuevosNoCargados = 0; //cantidad de actores nuevos no cargados
         int contAutoresNuevosEncontrados = 0; //hace referencia a la cantidad de actores existentes en el archivo temporal antes de la actualizacion
@@ -151,29 +265,40 @@ public class AuthorServiceImpl implements AuthorService {
         ClientConfiguration config = new ClientConfiguration();
         config.addEndpoint(new SPARQLEndpoint(endpoint.getName(), endpoint.getEndpointUrl(), "^" + "http://" + ".*"));
         LDClientService ldClientEndpoint = new LDClient(config);
+        DocumentEnrichment enrichment = new DocumentEnrichment(endpoint, ldClientEndpoint, update);
 
         Repository endpointTemp = new SPARQLRepository(endpoint.getEndpointUrl());
-        endpointTemp.initialize();
-        //After that you can use the endpoint like any other Sesame Repository, by creating a connection and doing queries on that:
-        RepositoryConnection conn = endpointTemp.getConnection();
-        String querytoCount = "";
-        querytoCount = queriesService.getCountPersonQuery(endpoint.getGraph());
-        TupleQueryResult countPerson = conn.prepareTupleQuery(QueryLanguage.SPARQL, querytoCount).evaluate();
-        BindingSet bindingCount = countPerson.next();
-        int allPersons = Integer.parseInt(bindingCount.getValue("count").stringValue());
-        //Query that let me obtain all resource related with author from source sparqlendpoint 
-        String getAuthorsQuery = queriesService.getAuthorsQuery(endpoint.getGraph());
-        String resource = "";
-        for (int offset = 0; offset < allPersons; offset += 5000) {
+        update.setRepository(endpointTemp);
+        RepositoryConnection conn = null;
+        try {
+            endpointTemp.initialize();
+            //After that you can use the endpoint like any other Sesame Repository, by creating a connection and doing queries on that:
+            conn = endpointTemp.getConnection();
+            String querytoCount = "";
+            querytoCount = queriesService.getCountPersonQuery(endpoint.getGraph());
+            TupleQueryResult countPerson = conn.prepareTupleQuery(QueryLanguage.SPARQL, querytoCount).evaluate();
+            BindingSet bindingCount = countPerson.next();
+            int allPersons = Integer.parseInt(bindingCount.getValue("count").stringValue());
+            update.setTotal(allPersons);
+            //Query that let me obtain all resource related with author from source sparqlendpoint 
+            String getAuthorsQuery = queriesService.getAuthorsQuery(endpoint.getGraph());
+            final String graph = endpoint.getGraph();
+            KeysetQueryResult authorsResult = new KeysetQueryResult(conn, new KeysetQueryResult.PageQuery() {
+                @Override
+                public String getQuery(BindingSet last) {
+                    return queriesService.getAuthorsKeysetQuery(graph, last == null ? null : last.getValue("s").stringValue(), String.valueOf(limit));
+                }
+            });
+            String resource = "";
+            int processedPersons = 0;
             try {
-                TupleQueryResult authorsResult = conn.prepareTupleQuery(QueryLanguage.SPARQL, getAuthorsQuery + getLimitOffset(limit, offset)).evaluate();
-                while (authorsResult.hasNext()) {
+                while (!update.isAborted() && hasNextAuthor(authorsResult, update, maxFailures)) {
                     BindingSet binding = authorsResult.next();
                     resource = String.valueOf(binding.getValue("s"));
+                    printPercentProcess(update, ++processedPersons);
                     try {
                         if (!sparqlFunctionsService.askAuthor(queriesService.getAskResourceQuery(constantService.getAuthorsGraph(), resource))) {
                             contAutoresNuevosEncontrados++;
-                            printPercentProcess(contAutoresNuevosEncontrados, allPersons, endpoint.getName());
                             //properties and values quering with LDClient Library de Marmotta
                             String getResourcePropertyQuery = "";
                             try {
@@ -184,7 +309,8 @@ public class AuthorServiceImpl implements AuthorService {
                                 getResourcePropertyQuery = queriesService.getRetrieveResourceQuery();
                                 TupleQuery resourcequery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getResourcePropertyQuery); //
                                 TupleQueryResult tripletasResult = resourcequery.evaluate();
-                                provenanceinsert = false;
+                                boolean provenanceinsert = false; //to know if the provenance of the author was already inserted
+                                int tripletasAutor = 0;
                                 while (tripletasResult.hasNext()) {
                                     //obtengo name, lastname, firstname, type, etc.,   para formar tripletas INSERT
                                     BindingSet tripletsResource = tripletasResult.next();
@@ -192,10 +318,12 @@ public class AuthorServiceImpl implements AuthorService {
                                     String predicado = tripletsResource.getValue("y").toString();
                                     String objeto = tripletsResource.getValue("z").toString();
                                     ///insert sparql query,
-                                    tripletasCargadas = tripletasCargadas + executeInsertQuery(sujeto, predicado, objeto, endpoint, provenanceinsert);
+                                    tripletasAutor = tripletasAutor + executeInsertQuery(sujeto, predicado, objeto, endpoint, provenanceinsert, enrichment);
                                 }
                                 conUri.commit();
                                 conUri.close();
+                                tripletasCargadas = tripletasCargadas + tripletasAutor;
+                                update.addLoaded(1, tripletasAutor);
                             } catch (QueryEvaluationException ex) {
                                 log.error("Al evaluar la consulta: " + getResourcePropertyQuery);
                                 //java.util.logging.Logger.getLogger(AuthorServiceImpl.class.getName()).log(Level.SEVERE, null, ex);
@@ -209,80 +337,207 @@ public class AuthorServiceImpl implements AuthorService {
                         log.error("Failure to ask existence of: " + resource);
                     }
                 }// while (authorsResult.hasNext()) 
-            } catch (QueryEvaluationException ex) {
-                log.error("Fallo consulta ASK de:  " + resource+ "error"+ ex.getMessage());
+            } finally {
+                authorsResult.close();
             }
-
-        }//END FOR   Obteniedo resultados de acuerdo a LIMIT y OFFSET
-                /*    
-         *    @deprecated
-         *    ESCRIBIENDO URIS DE AUTORES EN ARCHIVO TEMPORAL
-         *    @param conn, conection endpoint and configuration
-         *    @param query, query to obtain all resource uris of authors
-         *    @param lastUpdateUrisFile path of temporal file to save last uris update   */
-        sparqlFunctionsService.updateLastAuthorsFile(conn, getAuthorsQuery, lastUpdateUrisFile);
-        ldClientEndpoint.shutdown();
+                    /*    
+             *    @deprecated
+             *    ESCRIBIENDO URIS DE AUTORES EN ARCHIVO TEMPORAL
+             *    @param conn, conection endpoint and configuration
+             *    @param query, query to obtain all resource uris of authors
+             *    @param lastUpdateUrisFile path of temporal file to save last uris update   */
+            if (!update.isAborted()) {
+                sparqlFunctionsService.updateLastAuthorsFile(conn, getAuthorsQuery, lastUpdateUrisFile);
+            }
+            // the documents of the authors after the data of all authors
+            enrichment.run();
+        } finally {
+            ldClientEndpoint.shutdown();
+            if (conn != null) {
+                conn.close();
+            }
+            endpointTemp.shutDown();
+        }
         log.info(endpoint.getName() + " endpoint. Se detectaron " + contAutoresNuevosEncontrados + " autores nuevos ");
         log.info(endpoint.getName() + " endpoint. Se cargaron " + (contAutoresNuevosEncontrados - contAutoresNuevosNoCargados) + " autores nuevos exitosamente");
         log.info(endpoint.getName() + " endpoint. Se cargaron " + tripletasCargadas + " tripletas ");
         log.info(endpoint.getName() + " endpoint. No se pudieron cargar " + contAutoresNuevosNoCargados + " autores");
-        conn.close();
         return "Carga Finalizada. Revise Archivo Log Para mas detalles";
     }
 
-    public void insertKeywordsAndAbstractValues(String publication, String author, SparqlEndpoint endpoint) throws DataRetrievalException, QueryEvaluationException, RepositoryException, MalformedQueryException, IOException, ClassNotFoundException {
+    /**
+     * Carga de los autores de un endpoint con consultas CONSTRUCT por paginas
+     * de authorsPageSize autores, en lugar de una consulta del LDClient por
+     * autor. Las tripletas de los autores que no estan en el grafo de autores
+     * se guardan en transacciones de authorsBatchSize tripletas y los
+     * documentos de los autores nuevos se procesan al final de la carga.
+     *
+     * @param endpoint
+     * @param update estado de la carga del endpoint
+     * @param maxFailures paginas fallidas consecutivas que detienen la carga
+     * @return
+     */
+    public String getAuthorsBulkEP(SparqlEndpoint endpoint, EndpointUpdate update, int maxFailures) throws RepositoryException, MalformedQueryException, QueryEvaluationException {
+        ConfigurationSnapshot configuration = ConfigurationSnapshot.current();
+        int pageSize = Math.max(1, configuration.getInt(ConfigurationSnapshot.PARAMETERS, "authorsPageSize", limit));
+        int batchSize = Math.max(1, configuration.getInt(ConfigurationSnapshot.PARAMETERS, "authorsBatchSize", 10000));
+        AuthorsBatchHandler handler = new AuthorsBatchHandler(endpoint.getResourceId(), constantService.getAuthorsGraph(), authorDocumentProperty,
+                loadSubjects(constantService.getAuthorsGraph()), batchSize) {
+            @Override
+            protected void save(List<Statement> statements, URI graph) throws RepositoryException {
+                saveStatements(statements, graph);
+            }
+        };
+
+        Repository endpointTemp = new SPARQLRepository(endpoint.getEndpointUrl());
+        update.setRepository(endpointTemp);
+        RepositoryConnection conn = null;
+        try {
+            endpointTemp.initialize();
+            conn = endpointTemp.getConnection();
+            TupleQueryResult countPerson = conn.prepareTupleQuery(QueryLanguage.SPARQL, queriesService.getCountPersonQuery(endpoint.getGraph())).evaluate();
+            int allPersons = Integer.parseInt(countPerson.next().getValue("count").stringValue());
+            countPerson.close();
+            update.setTotal(allPersons);
+            final String graph = endpoint.getGraph();
+            final String authorsLimit = String.valueOf(pageSize);
+            KeysetQueryResult authorsResult = new KeysetQueryResult(conn, new KeysetQueryResult.PageQuery() {
+                @Override
+                public String getQuery(BindingSet last) {
+                    return queriesService.getAuthorsKeysetQuery(graph, last == null ? null : last.getValue("s").stringValue(), authorsLimit);
+                }
+            });
+            int processedPersons = 0;
+            try {
+                while (!update.isAborted()) {
+                    // the authors of the page are read from the keyset SELECT, the end is its first empty page
+                    List<String> page = new ArrayList<>();
+                    while (page.size() < pageSize && hasNextAuthor(authorsResult, update, maxFailures)) {
+                        page.add(authorsResult.next().getValue("s").stringValue());
+                    }
+                    if (page.isEmpty()) {
+                        break;
+                    }
+                    loadAuthorsPage(conn, page, handler, update, maxFailures);
+                    processedPersons += page.size();
+                    printPercentProcess(update, Math.min(processedPersons, allPersons));
+                }
+            } finally {
+                authorsResult.close();
+            }
+        } finally {
+            if (conn != null) {
+                conn.close();
+            }
+            endpointTemp.shutDown();
+        }
+
+        log.info(endpoint.getName() + " endpoint. Se cargaron " + handler.getLoadedAuthors() + " autores nuevos exitosamente");
+        log.info(endpoint.getName() + " endpoint. Se cargaron " + handler.getLoadedTriples() + " tripletas ");
+
         ClientConfiguration config = new ClientConfiguration();
         config.addEndpoint(new SPARQLEndpoint(endpoint.getName(), endpoint.getEndpointUrl(), "^" + "http://" + ".*"));
         LDClientService ldClientEndpoint = new LDClient(config);
-        String getRetrieveKeysQuery = "";
-            ClientResponse respPub = ldClientEndpoint.retrieveResource(utf8DecodeQuery(publication));
-            RepositoryConnection conUriPub = ModelCommons.asRepository(respPub.getData()).getConnection();
-            conUriPub.begin();
-            // SPARQL to get all data of a Resource
-            getRetrieveKeysQuery = queriesService.getRetrieveKeysQuery();
-            TupleQuery keysquery = conUriPub.prepareTupleQuery(QueryLanguage.SPARQL, getRetrieveKeysQuery); //
-            TupleQueryResult tripletaskeysResult = keysquery.evaluate();
-            while (tripletaskeysResult.hasNext()) {
-                BindingSet tripletskeysResource = tripletaskeysResult.next();
-                String subjectproperty = tripletskeysResource.getValue("y").toString();
-                String keyword = tripletskeysResource.getValue("z").toString();
-               //only insert Literal Subjects
-                if ((!commonsService.isURI(keyword)) && (kservice.isValidKeyword(keyword))) {
-                    executeInsertQuery(author, subjectproperty, kservice.cleaningText(keyword).toUpperCase(), endpoint, provenanceinsert);
-                }
+        try {
+            DocumentEnrichment enrichment = new DocumentEnrichment(endpoint, ldClientEndpoint, update);
+            for (String[] document : handler.getDocuments()) {
+                enrichment.add(document[0], document[1]);
             }
-            String getAbstractAndTitleQuery = queriesService.getAbstractAndTitleQuery(publication);
-            TupleQuery abstractTitlequery = conUriPub.prepareTupleQuery(QueryLanguage.SPARQL, getAbstractAndTitleQuery); //
-            TupleQueryResult tripletasATResult = abstractTitlequery.evaluate();
-            while (tripletasATResult.hasNext()) {
-                BindingSet tripletsATResource = tripletasATResult.next();
-                StringBuilder textAnalized = new StringBuilder();
-                if (tripletsATResource.getValue("title") != null) {
-                    String title = tripletsATResource.getValue("title").toString();
-                    textAnalized.append(title);
+            enrichment.run();
+        } finally {
+            ldClientEndpoint.shutdown();
+        }
+        return "Carga Finalizada. Revise Archivo Log Para mas detalles";
+    }
+
+    /*
+     * CONSTRUCT of the triples of the authors of a page, a failed page is
+     * queried again until maxFailures pages fail in a row
+     */
+    private void loadAuthorsPage(RepositoryConnection conn, List<String> page, AuthorsBatchHandler handler, EndpointUpdate update, int maxFailures)
+            throws RepositoryException, MalformedQueryException, QueryEvaluationException {
+        String query = queriesService.getAuthorsConstructQuery(page);
+        while (true) {
+            int authors = handler.getLoadedAuthors();
+            int triples = handler.getLoadedTriples();
+            try {
+                conn.prepareGraphQuery(QueryLanguage.SPARQL, query).evaluate(handler);
+                handler.endPage();
+                update.pageLoaded();
+                return;
+            } catch (QueryEvaluationException | RDFHandlerException ex) {
+                handler.discardPage();
+                log.error("Fallo la carga de los autores desde " + page.get(0) + " de " + update.getName() + ": " + ex);
+                if (update.pageFailed(maxFailures) || update.isAborted()) {
+                    throw new QueryEvaluationException(maxFailures + " paginas de autores fallidas en " + update.getName(), ex);
                 }
-                if (tripletsATResource.getValue("abstract") != null) {
-                    String abstractvalue = tripletsATResource.getValue("abstract").toString();
-                    executeInsertQuery(author, "dct:description", abstractvalue, endpoint, provenanceinsert);
-                    textAnalized.append(abstractvalue);
+            } finally {
+                update.addLoaded(handler.getLoadedAuthors() - authors, handler.getLoadedTriples() - triples);
+            }
+        }
+    }
+
+    /*
+     * Next author of the endpoint, a failed page is queried again until
+     * maxFailures pages fail in a row
+     */
+    private boolean hasNextAuthor(KeysetQueryResult authors, EndpointUpdate update, int maxFailures) throws QueryEvaluationException {
+        while (true) {
+            try {
+                boolean next = authors.hasNext();
+                update.pageLoaded();
+                return next;
+            } catch (QueryEvaluationException ex) {
+                log.error("Fallo la consulta de autores de " + update.getName() + ": " + ex.getMessage());
+                if (update.pageFailed(maxFailures) || update.isAborted()) {
+                    throw new QueryEvaluationException(maxFailures + " paginas de autores fallidas en " + update.getName(), ex);
                 }
-                if (tripletsATResource.getValue("description") != null)
-                {
-                    String abstractvalue = tripletsATResource.getValue("description").toString();
-                    executeInsertQuery(author, "dct:description", abstractvalue, endpoint, provenanceinsert);
-                    textAnalized.append(abstractvalue);
-                }    
-                /*insert keywords from the abstract of publications from dspace*/
-                for (String keywordfromAbstract : kservice.getKeywords(textAnalized.toString())) {
-                    executeInsertQuery(author, "dct:subject","\"" +  keywordfromAbstract.toUpperCase() + "\"", endpoint, provenanceinsert);
+            }
+        }
+    }
+
+    /*
+     * Add the statements to the graph of the local store in one transaction
+     */
+    private void saveStatements(List<Statement> statements, URI graph) throws RepositoryException {
+        RepositoryConnection connection = sesameService.getConnection();
+        try {
+            connection.begin();
+            connection.add(statements, graph);
+            connection.commit();
+        } catch (RepositoryException ex) {
+            connection.rollback();
+            throw ex;
+        } finally {
+            connection.close();
+        }
+    }
+
+    /*
+     * Subjects of a graph of the local store, to skip the authors already
+     * loaded without an ASK query for each author
+     */
+    private Set<String> loadSubjects(String graph) throws RepositoryException {
+        Set<String> subjects = new HashSet<>();
+        RepositoryConnection connection = sesameService.getConnection();
+        try {
+            connection.begin();
+            RepositoryResult<Statement> statements = connection.getStatements(null, null, null, false, connection.getValueFactory().createURI(graph));
+            try {
+                while (statements.hasNext()) {
+                    subjects.add(statements.next().getSubject().stringValue());
                 }
+            } finally {
+                statements.close();
             }
-            conUriPub.commit();
-            conUriPub.close();
-        
+            connection.commit();
+        } finally {
+            connection.close();
+        }
+        return subjects;
     }
 
-    public int executeInsertQuery(String sujeto, String predicado, String objeto, SparqlEndpoint endpoint, boolean provenanceinsert) throws DataRetrievalException, QueryEvaluationException {
+    private int executeInsertQuery(String sujeto, String predicado, String objeto, SparqlEndpoint endpoint, boolean provenanceinsert, DocumentEnrichment enrichment) {
         ///insert sparql query,
         if (!predicado.contains(authorDocumentProperty)) {
             //insert provenance triplet query
@@ -296,26 +551,19 @@ public class AuthorServiceImpl implements AuthorService {
             updateAuthor(queryAuthorInsert);
             return 1;
         } else {
-            try {
-                insertKeywordsAndAbstractValues(objeto, sujeto, endpoint);
-            } catch (RepositoryException | MalformedQueryException | IOException | ClassNotFoundException ex) {
-                java.util.logging.Logger.getLogger(AuthorServiceImpl.class.getName()).log(Level.SEVERE, null, ex);
-            }
+            enrichment.add(sujeto, objeto);
         }
         return 0;
     }
 
     /*
      * 
-     * @param contAutoresNuevosEncontrados
-     * @param allPersons
-     * @param endpointName 
+     * @param update
+     * @param processedPersons
      */
-    public void printPercentProcess(int contAutoresNuevosEncontrados, int allPersons, String endpointName) {
-
-        if ((contAutoresNuevosEncontrados * 100 / allPersons) != processpercent) {
-            processpercent = contAutoresNuevosEncontrados * 100 / allPersons;
-            log.info("Procesado el: " + processpercent + " % del Endpoint: " + endpointName);
+    public void printPercentProcess(EndpointUpdate update, int processedPersons) {
+        if (update.setProcessed(processedPersons)) {
+            log.info("Procesado el: " + update.getPercent() + " % del Endpoint: " + update.getName());
         }
     }
 
@@ -348,53 +596,37 @@ public class AuthorServiceImpl implements AuthorService {
     }
     
     @Override
-    public String saveAuthorFromFile(String... args) {
-        String output = "";
-        String graphUri = args[0];
-        //String university = args[1];
-        String name = args[2].trim();
-        String surname = args[3].trim();
-        String keywords = null;
-        if (args[4] != null) {
-            keywords = args[4].trim();
-        }
-        
-        String sujeto = "http://ucuenca.edu.ec/resource/author/" + (surname.replace(" ", "_").toUpperCase() + "__" + name.replace(" ", "_").toUpperCase()).replace(".", "");
-        
-        //Type rdf:type person
-        String queryAuthorProvenanceInsert = buildInsertQuery(constantService.getAuthorsGraph(), sujeto, "dct:provenance", graphUri);
-        updateAuthor(queryAuthorProvenanceInsert);
-
-        //Type rdf:type person
-        String queryAuthorTypeInsert = buildInsertQuery(constantService.getAuthorsGraph(), sujeto, "rdf:type", "http://xmlns.com/foaf/0.1/Person");
-        updateAuthor(queryAuthorTypeInsert);
-        
-        //FirstName
-        String queryAuthorNameInsert = buildInsertQuery(constantService.getAuthorsGraph(), sujeto, "foaf:firstName ", "" + name + "");
-        updateAuthor(queryAuthorNameInsert);
-        
-        //Lastname
-        String queryAuthorSurnameInsert = buildInsertQuery(constantService.getAuthorsGraph(), sujeto, "foaf:lastName ", "" + surname + "");
-        updateAuthor(queryAuthorSurnameInsert);
-        
-        //FullName
-        String queryAuthorFullNameInsert = buildInsertQuery(constantService.getAuthorsGraph(), sujeto, "foaf:name", "" + surname + ", " + name + "");
-        updateAuthor(queryAuthorFullNameInsert);
-        
-        //Source: File
-        String queryAuthorSourceInsert = buildInsertQuery(constantService.getAuthorsGraph(), sujeto, "<http://ucuenca.edu.ec/ontology#source>", " file ");
-        updateAuthor(queryAuthorSourceInsert);
-        
-        //Subjects Optional
-        if (keywords != null) {
-            String[] subjects = keywords.split(";");
-            for (String subject : subjects) {
-                String querySubjectInsert = buildInsertQuery(constantService.getAuthorsGraph(), sujeto, "dct:subject",  subject.trim() + "");
-                updateAuthor(querySubjectInsert);
+    public Map<String, Object> saveAuthorFromFile(String... args) {
+        AuthorsFileImport fileImport = newFileImport(1);
+        fileImport.setEndpoint(args[0]);
+        fileImport.setEndpointName(args[1]);
+        fileImport.addRow(1, args[2], args[3], args[4]);
+        return logSummary(fileImport.finish());
+    }
+
+    @Override
+    public Map<String, Object> saveAuthorsFromFile(InputStream input) throws IOException {
+        int batchSize = ConfigurationSnapshot.current().getInt(ConfigurationSnapshot.PARAMETERS, "authorsUploadBatchSize", 1000);
+        return logSummary(newFileImport(Math.max(1, batchSize)).read(input));
+    }
+
+    private AuthorsFileImport newFileImport(int batchSize) {
+        return new AuthorsFileImport(commonsService, constantService.getAuthorsGraph(), batchSize) {
+            @Override
+            protected void save(List<Statement> statements, URI graph) throws RepositoryException {
+                saveStatements(statements, graph);
             }
-        }        
-        
-        return output;
+        };
+    }
+
+    private Map<String, Object> logSummary(Map<String, Object> summary) {
+        Object endpointName = summary.get("endpointName");
+        log.info("Archivo de autores" + (endpointName != null ? " de " + endpointName : "") + ". Se guardaron " + summary.get("savedAuthors")
+                + " autores de " + summary.get("rows") + " filas, " + summary.get("failedRows") + " filas con errores");
+        for (Object error : (List<?>) summary.get("errors")) {
+            log.error("Archivo de autores: " + error);
+        }
+        return summary;
     }
 
     /*
@@ -429,6 +661,258 @@ public class AuthorServiceImpl implements AuthorService {
         }
     }
 
+    /**
+     * Keywords ( dct:subject ) and abstracts ( dct:description ) of the
+     * authors from their documents ( authorDocumentProperty ). The documents
+     * are added while the authors are loaded and fetched after the data of
+     * the authors is saved, each document once for all its authors, in the
+     * pool of authorsEnrichmentThreads threads shared by the updates of all
+     * endpoints. A document that fails is logged and skipped. The values are
+     * saved in the authors graph in transactions of authorsBatchSize
+     * statements.
+     */
+    private class DocumentEnrichment {
+
+        private final ValueFactory factory = ValueFactoryImpl.getInstance();
+
+        private final URI descriptionProperty = factory.createURI("http://purl.org/dc/terms/description");
+
+        private final URI subjectProperty = factory.createURI("http://purl.org/dc/terms/subject");
+
+        private final URI authorsGraph = factory.createURI(constantService.getAuthorsGraph());
+
+        private final SparqlEndpoint endpoint;
+
+        private final LDClientService ldClientEndpoint;
+
+        private final EndpointUpdate update;
+
+        /* authors of each document */
+        private final Map<String, Set<String>> documents = new LinkedHashMap<>();
+
+        private final List<Statement> batch = new ArrayList<>();
+
+        private final int batchSize;
+
+        private final AtomicInteger documentsNotLoaded = new AtomicInteger();
+
+        private final AtomicInteger savedStatements = new AtomicInteger();
+
+        DocumentEnrichment(SparqlEndpoint endpoint, LDClientService ldClientEndpoint, EndpointUpdate update) {
+            ConfigurationSnapshot configuration = ConfigurationSnapshot.current();
+            this.endpoint = endpoint;
+            this.ldClientEndpoint = ldClientEndpoint;
+            this.update = update;
+            this.batchSize = Math.max(1, configuration.getInt(ConfigurationSnapshot.PARAMETERS, "authorsBatchSize", 10000));
+        }
+
+        void add(String author, String document) {
+            Set<String> authors = documents.get(document);
+            if (authors == null) {
+                authors = new LinkedHashSet<>();
+                documents.put(document, authors);
+            }
+            authors.add(author);
+        }
+
+        /*
+         * Fetch all documents and wait until they are saved
+         */
+        void run() {
+            if (documents.isEmpty() || update.isAborted()) {
+                return;
+            }
+            ExecutorService pool = getEnrichmentExecutor();
+            List<Future<?>> tasks = new ArrayList<>();
+            try {
+                for (final Map.Entry<String, Set<String>> document : documents.entrySet()) {
+                    tasks.add(pool.submit(new Runnable() {
+                        @Override
+                        public void run() {
+                            if (update.isAborted()) {
+                                return;
+                            }
+                            try {
+                                collect(enrich(document.getKey(), document.getValue()));
+                            } catch (DataRetrievalException | QueryEvaluationException | RepositoryException | MalformedQueryException | IOException | ClassNotFoundException ex) {
+                                documentsNotLoaded.incrementAndGet();
+                            } catch (RuntimeException ex) {
+                                documentsNotLoaded.incrementAndGet();
+                                log.error("Fallo la carga del documento " + document.getKey() + " de " + endpoint.getName() + ": " + ex);
+                            }
+                        }
+                    }));
+                }
+                for (Future<?> task : tasks) {
+                    try {
+                        task.get();
+                    } catch (ExecutionException ex) {
+                        log.error("Fallo la carga de los documentos de " + endpoint.getName() + ": " + ex.getCause());
+                    }
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } finally {
+                // the pool is shared, only the documents of this update are cancelled
+                for (Future<?> task : tasks) {
+                    task.cancel(true);
+                }
+                save(takeBatch(0));
+            }
+            log.info(endpoint.getName() + " endpoint. Se cargaron " + savedStatements.get() + " palabras clave y resumenes de " + documents.size() + " documentos");
+            log.info(endpoint.getName() + " endpoint. No se pudieron cargar " + documentsNotLoaded.get() + " de " + documents.size() + " documentos");
+        }
+
+        /*
+         * Keywords and abstracts of the document for each one of its authors
+         */
+        private List<Statement> enrich(String publication, Set<String> authors) throws DataRetrievalException, QueryEvaluationException, RepositoryException, MalformedQueryException, IOException, ClassNotFoundException {
+            List<Statement> statements = new ArrayList<>();
+            ClientResponse respPub = ldClientEndpoint.retrieveResource(utf8DecodeQuery(publication));
+            RepositoryConnection conUriPub = ModelCommons.asRepository(respPub.getData()).getConnection();
+            try {
+                conUriPub.begin();
+                // SPARQL to get all data of a Resource
+                TupleQueryResult tripletaskeysResult = conUriPub.prepareTupleQuery(QueryLanguage.SPARQL, queriesService.getRetrieveKeysQuery()).evaluate();
+                while (tripletaskeysResult.hasNext()) {
+                    BindingSet tripletskeysResource = tripletaskeysResult.next();
+                    Value keyword = tripletskeysResource.getValue("z");
+                    //only insert Literal Subjects
+                    if (keyword instanceof Literal && kservice.isValidKeyword(keyword.stringValue())) {
+                        addValue(statements, authors, factory.createURI(tripletskeysResource.getValue("y").stringValue()), kservice.cleaningText(keyword.stringValue()).toUpperCase());
+                    }
+                }
+                TupleQueryResult tripletasATResult = conUriPub.prepareTupleQuery(QueryLanguage.SPARQL, queriesService.getAbstractAndTitleQuery(publication)).evaluate();
+                while (tripletasATResult.hasNext()) {
+                    BindingSet tripletsATResource = tripletasATResult.next();
+                    StringBuilder textAnalized = new StringBuilder();
+                    if (tripletsATResource.getValue("title") != null) {
+                        textAnalized.append(tripletsATResource.getValue("title").stringValue());
+                    }
+                    for (String property : new String[]{"abstract", "description"}) {
+                        if (tripletsATResource.getValue(property) != null) {
+                            String abstractvalue = tripletsATResource.getValue(property).stringValue();
+                            addValue(statements, authors, descriptionProperty, abstractvalue);
+                            textAnalized.append(abstractvalue);
+                        }
+                    }
+                    /*insert keywords from the abstract of publications from dspace*/
+                    for (String keywordfromAbstract : kservice.getKeywords(textAnalized.toString())) {
+                        addValue(statements, authors, subjectProperty, keywordfromAbstract.toUpperCase());
+                    }
+                }
+                conUriPub.commit();
+            } finally {
+                conUriPub.close();
+            }
+            return statements;
+        }
+
+        private void addValue(List<Statement> statements, Set<String> authors, URI property, String value) {
+            for (String author : authors) {
+                statements.add(factory.createStatement(factory.createURI(author), property, factory.createLiteral(value, XMLSchema.STRING)));
+            }
+        }
+
+        /*
+         * Statements of a document, saved when there are batchSize statements
+         */
+        private void collect(List<Statement> statements) {
+            save(append(statements));
+        }
+
+        private List<Statement> append(List<Statement> statements) {
+            synchronized (batch) {
+                batch.addAll(statements);
+                return takeBatch(batchSize);
+            }
+        }
+
+        /*
+         * The statements of the batch when it has at least minimum statements,
+         * null otherwise
+         */
+        private List<Statement> takeBatch(int minimum) {
+            synchronized (batch) {
+                if (batch.isEmpty() || batch.size() < minimum) {
+                    return null;
+                }
+                List<Statement> statements = new ArrayList<>(batch);
+                batch.clear();
+                return statements;
+            }
+        }
+
+        private void save(List<Statement> statements) {
+            if (statements == null) {
+                return;
+            }
+            try {
+                saveStatements(statements, authorsGraph);
+                savedStatements.addAndGet(statements.size());
+            } catch (RepositoryException ex) {
+                log.error("Fallo al guardar " + statements.size() + " palabras clave y resumenes de " + endpoint.getName() + ": " + ex);
+            }
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        if (enrichmentExecutor != null) {
+            enrichmentExecutor.shutdownNow();
+            enrichmentExecutor = null;
+        }
+        if (watchdog != null) {
+            watchdog.shutdownNow();
+            watchdog = null;
+        }
+    }
+
+    private synchronized ExecutorService getExecutor(ConfigurationSnapshot configuration) {
+        if (executor == null) {
+            int threads = configuration.getInt(ConfigurationSnapshot.PARAMETERS, "authorsUpdateThreads", DEFAULT_THREADS);
+            executor = Executors.newFixedThreadPool(threads > 0 ? threads : DEFAULT_THREADS, new UpdateThreadFactory("authors-update-"));
+        }
+        return executor;
+    }
+
+    private synchronized ExecutorService getEnrichmentExecutor() {
+        if (enrichmentExecutor == null) {
+            int threads = ConfigurationSnapshot.current().getInt(ConfigurationSnapshot.PARAMETERS, "authorsEnrichmentThreads", DEFAULT_THREADS);
+            enrichmentExecutor = Executors.newFixedThreadPool(threads > 0 ? threads : DEFAULT_THREADS, new UpdateThreadFactory("authors-enrichment-"));
+        }
+        return enrichmentExecutor;
+    }
+
+    private synchronized ScheduledExecutorService getWatchdog() {
+        if (watchdog == null) {
+            watchdog = Executors.newSingleThreadScheduledExecutor(new UpdateThreadFactory("authors-update-watchdog-"));
+        }
+        return watchdog;
+    }
+
+    private static class UpdateThreadFactory implements ThreadFactory {
+
+        private final String prefix;
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        UpdateThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
     /**
      * Permite decodificar la uri formato UTF-8
      *
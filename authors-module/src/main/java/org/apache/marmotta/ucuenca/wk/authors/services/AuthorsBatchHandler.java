@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.authors.services;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.openrdf.model.Literal;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.vocabulary.XMLSchema;
+import org.openrdf.repository.RepositoryException;
+import org.openrdf.rio.RDFHandlerException;
+import org.openrdf.rio.helpers.RDFHandlerBase;
+
+/**
+ * Tripletas de las consultas CONSTRUCT de los autores. Se descartan las
+ * tripletas de los autores que ya estan en el grafo de autores, los enlaces a
+ * documentos ( documentProperty ) se guardan para procesarlos al final y las
+ * demas tripletas, con la procedencia de cada autor nuevo, se guardan en el
+ * grafo de autores por lotes con {@link #save}.
+ *
+ * Each CONSTRUCT query is a page of authors, the page ends with
+ * {@link #endPage()} when the query is finished and with
+ * {@link #discardPage()} when it failed.
+ */
+abstract class AuthorsBatchHandler extends RDFHandlerBase {
+
+    private final ValueFactory factory = ValueFactoryImpl.getInstance();
+
+    private final URI provenanceProperty = factory.createURI("http://purl.org/dc/terms/provenance");
+
+    private final URI provenance;
+
+    private final URI authorsGraph;
+
+    private final String documentProperty;
+
+    private final Set<String> knownAuthors;
+
+    /* authors of the page that are loaded */
+    private final Set<String> pageAuthors = new HashSet<>();
+
+    private final List<Statement> batch = new ArrayList<>();
+
+    private final List<String[]> documents = new ArrayList<>();
+
+    private final int batchSize;
+
+    private int loadedAuthors = 0;
+
+    private int loadedTriples = 0;
+
+    private int pageTriples = 0;
+
+    private int pageDocuments = 0;
+
+    /**
+     * @param provenance endpoint of the authors
+     * @param authorsGraph
+     * @param documentProperty predicates with this text are documents
+     * @param knownAuthors authors already in the authors graph
+     * @param batchSize statements of each transaction
+     */
+    AuthorsBatchHandler(String provenance, String authorsGraph, String documentProperty, Set<String> knownAuthors, int batchSize) {
+        this.provenance = factory.createURI(provenance);
+        this.authorsGraph = factory.createURI(authorsGraph);
+        this.documentProperty = documentProperty;
+        this.knownAuthors = knownAuthors;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Save the statements in the graph in one transaction
+     *
+     * @param statements
+     * @param graph
+     * @throws RepositoryException
+     */
+    protected abstract void save(List<Statement> statements, URI graph) throws RepositoryException;
+
+    @Override
+    public void handleStatement(Statement st) throws RDFHandlerException {
+        String author = st.getSubject().stringValue();
+        // the triples of an author are not consecutive, the authors of the page are known at the end of the page
+        if (knownAuthors.contains(author)) {
+            return;
+        }
+        if (pageAuthors.add(author)) {
+            batch.add(factory.createStatement(st.getSubject(), provenanceProperty, provenance));
+        }
+        if (st.getPredicate().stringValue().contains(documentProperty)) {
+            documents.add(new String[]{author, st.getObject().stringValue()});
+            pageDocuments++;
+        } else {
+            batch.add(factory.createStatement(st.getSubject(), st.getPredicate(), toLocalValue(st.getObject())));
+            pageTriples++;
+        }
+        if (batch.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Save the rest of the page. The authors of the page are counted and not
+     * loaded again in the next pages only when the rest of the page is saved,
+     * a page that fails to save is discarded and the exception is thrown
+     *
+     * @throws RDFHandlerException
+     */
+    void endPage() throws RDFHandlerException {
+        try {
+            flush();
+        } catch (RDFHandlerException ex) {
+            discardPage();
+            throw ex;
+        }
+        knownAuthors.addAll(pageAuthors);
+        loadedAuthors += pageAuthors.size();
+        loadedTriples += pageTriples;
+        clearPage();
+    }
+
+    /**
+     * Discard the rest of the page, the authors of the page are loaded again
+     * when the page is queried again
+     */
+    void discardPage() {
+        batch.clear();
+        documents.subList(documents.size() - pageDocuments, documents.size()).clear();
+        clearPage();
+    }
+
+    List<String[]> getDocuments() {
+        return documents;
+    }
+
+    int getLoadedAuthors() {
+        return loadedAuthors;
+    }
+
+    int getLoadedTriples() {
+        return loadedTriples;
+    }
+
+    private void clearPage() {
+        pageAuthors.clear();
+        pageTriples = 0;
+        pageDocuments = 0;
+    }
+
+    private void flush() throws RDFHandlerException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            save(batch, authorsGraph);
+        } catch (RepositoryException ex) {
+            throw new RDFHandlerException(ex);
+        } finally {
+            batch.clear();
+        }
+    }
+
+    /*
+     * Literals without datatype are saved as xsd:string, like the INSERT
+     * queries of getInsertDataLiteralQuery
+     */
+    private Value toLocalValue(Value object) {
+        if (object instanceof Literal && ((Literal) object).getDatatype() == null) {
+            return factory.createLiteral(object.stringValue(), XMLSchema.STRING);
+        }
+        return object;
+    }
+
+}
@@ -0,0 +1,311 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.authors.services;
+
+import au.com.bytecode.opencsv.CSVParser;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import org.apache.marmotta.ucuenca.wk.commons.service.CommonsServices;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.vocabulary.RDF;
+import org.openrdf.model.vocabulary.XMLSchema;
+import org.openrdf.repository.RepositoryException;
+
+/**
+ * Autores de un archivo CSV ( nombres, apellidos y palabras clave separadas
+ * por ; ). Cada fila se valida y las tripletas de cada batchSize autores se
+ * guardan en el grafo de autores en una sola transaccion con {@link #save}.
+ * Los autores de las filas anteriores a la linea del endpoint reciben su
+ * procedencia ( dct:provenance ) al final.
+ */
+abstract class AuthorsFileImport {
+
+    static final String AUTHOR_FILE_RESOURCE = "http://ucuenca.edu.ec/resource/author/";
+
+    private static final Pattern INVALID_URI_CHARACTERS = Pattern.compile("[\\s<>\"{}|\\\\^`]");
+
+    private final ValueFactory factory = ValueFactoryImpl.getInstance();
+
+    private final URI provenanceProperty = factory.createURI("http://purl.org/dc/terms/provenance");
+
+    private final URI personType = factory.createURI("http://xmlns.com/foaf/0.1/Person");
+
+    private final URI firstNameProperty = factory.createURI("http://xmlns.com/foaf/0.1/firstName");
+
+    private final URI lastNameProperty = factory.createURI("http://xmlns.com/foaf/0.1/lastName");
+
+    private final URI nameProperty = factory.createURI("http://xmlns.com/foaf/0.1/name");
+
+    private final URI sourceProperty = factory.createURI("http://ucuenca.edu.ec/ontology#source");
+
+    private final URI subjectProperty = factory.createURI("http://purl.org/dc/terms/subject");
+
+    /* quoted values with commas, no escape character */
+    private final CSVParser parser = new CSVParser(',', '"', '\0');
+
+    private final CommonsServices commonsService;
+
+    private final URI authorsGraph;
+
+    private final int batchSize;
+
+    private final List<Statement> statements = new ArrayList<>();
+
+    /* authors of the chunk without provenance */
+    private final List<URI> chunkWithoutProvenance = new ArrayList<>();
+
+    /* saved authors without provenance */
+    private final List<URI> withoutProvenance = new ArrayList<>();
+
+    private final List<String> errors = new ArrayList<>();
+
+    private URI endpoint;
+
+    private String endpointName;
+
+    private int chunkAuthors;
+
+    private int firstRow;
+
+    private int lastRow;
+
+    private int rows;
+
+    private int savedAuthors;
+
+    private int failedRows;
+
+    /**
+     * @param commonsService
+     * @param authorsGraph
+     * @param batchSize authors of each transaction
+     */
+    AuthorsFileImport(CommonsServices commonsService, String authorsGraph, int batchSize) {
+        this.commonsService = commonsService;
+        this.authorsGraph = factory.createURI(authorsGraph);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Save the statements in the graph in one transaction
+     *
+     * @param statements
+     * @param graph
+     * @throws RepositoryException
+     */
+    protected abstract void save(List<Statement> statements, URI graph) throws RepositoryException;
+
+    /**
+     * Save the authors of the body of an upload while it is read line by
+     * line: the line two lines after endpointName is the name of the
+     * endpoint, the line with http:// is the endpoint and the lines with two
+     * or more values are the authors
+     *
+     * @param input
+     * @return summary of the upload, see {@link #finish()}
+     * @throws IOException
+     */
+    Map<String, Object> read(InputStream input) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        try {
+            int row = 0;
+            int endpointNameRow = -1;
+            String line = reader.readLine();
+            while (line != null) {
+                row++;
+                if (line.contains("endpointName")) {
+                    endpointNameRow = row + 2;
+                }
+                if (row == endpointNameRow) {
+                    setEndpointName(line);
+                } else if (line.contains("http://")) {
+                    setEndpoint(line);
+                } else {
+                    addLine(row, line);
+                }
+                line = reader.readLine();
+            }
+        } finally {
+            reader.close();
+        }
+        return finish();
+    }
+
+    void setEndpoint(String value) {
+        String uri = value.trim();
+        if (commonsService.isURI(uri)) {
+            endpoint = factory.createURI(uri);
+        } else {
+            errors.add("Endpoint no valido: " + uri);
+        }
+    }
+
+    void setEndpointName(String value) {
+        endpointName = value.trim();
+    }
+
+    void addRow(int row, String name, String surname, String keywords) {
+        rows++;
+        String firstName = unquote(name);
+        String lastName = unquote(surname);
+        if (firstName.isEmpty() || lastName.isEmpty()) {
+            rowFailed(row, "faltan los nombres o los apellidos");
+            return;
+        }
+        String uri = AUTHOR_FILE_RESOURCE + (lastName.replace(" ", "_").toUpperCase() + "__" + firstName.replace(" ", "_").toUpperCase()).replace(".", "");
+        if (INVALID_URI_CHARACTERS.matcher(uri).find()) {
+            rowFailed(row, "caracteres no validos en " + uri);
+            return;
+        }
+        URI author = factory.createURI(uri);
+        statements.add(factory.createStatement(author, RDF.TYPE, personType));
+        addLiteral(author, firstNameProperty, firstName);
+        addLiteral(author, lastNameProperty, lastName);
+        addLiteral(author, nameProperty, lastName + ", " + firstName);
+        addLiteral(author, sourceProperty, "file");
+        if (keywords != null) {
+            for (String keyword : keywords.split(";")) {
+                String subject = unquote(keyword);
+                if (!subject.isEmpty()) {
+                    addLiteral(author, subjectProperty, subject);
+                }
+            }
+        }
+        if (endpoint != null) {
+            statements.add(factory.createStatement(author, provenanceProperty, endpoint));
+        } else {
+            chunkWithoutProvenance.add(author);
+        }
+        if (chunkAuthors == 0) {
+            firstRow = row;
+        }
+        lastRow = row;
+        chunkAuthors++;
+        if (chunkAuthors >= batchSize) {
+            saveChunk();
+        }
+    }
+
+    /**
+     * Save the last chunk and the pending provenance of the authors
+     *
+     * @return counts of rows and saved authors, and the errors of each row
+     */
+    Map<String, Object> finish() {
+        saveChunk();
+        if (rows == 0) {
+            errors.add("File not in the correct format.");
+        }
+        if (endpoint == null) {
+            if (!withoutProvenance.isEmpty()) {
+                errors.add("El archivo no tiene endpoint, " + withoutProvenance.size() + " autores se guardaron sin procedencia");
+            }
+        } else {
+            for (int i = 0; i < withoutProvenance.size(); i += batchSize) {
+                List<Statement> provenance = new ArrayList<>();
+                for (URI author : withoutProvenance.subList(i, Math.min(i + batchSize, withoutProvenance.size()))) {
+                    provenance.add(factory.createStatement(author, provenanceProperty, endpoint));
+                }
+                try {
+                    save(provenance, authorsGraph);
+                } catch (RepositoryException ex) {
+                    errors.add("Fallo al guardar la procedencia de " + provenance.size() + " autores: " + ex);
+                }
+            }
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        if (endpoint != null) {
+            summary.put("endpoint", endpoint.stringValue());
+        }
+        if (endpointName != null) {
+            summary.put("endpointName", endpointName);
+        }
+        summary.put("rows", rows);
+        summary.put("savedAuthors", savedAuthors);
+        summary.put("failedRows", failedRows);
+        summary.put("errors", errors);
+        return summary;
+    }
+
+    /*
+     * Values of a line, the lines with less than two values are not authors
+     */
+    private void addLine(int row, String line) {
+        String[] researcher;
+        try {
+            researcher = parser.parseLine(line);
+        } catch (IOException ex) {
+            rows++;
+            rowFailed(row, ex.getMessage());
+            return;
+        }
+        if (researcher.length >= 2) {
+            addRow(row, researcher[0], researcher[1], researcher.length > 2 ? researcher[2] : null);
+        }
+    }
+
+    private void saveChunk() {
+        if (chunkAuthors == 0) {
+            return;
+        }
+        try {
+            save(statements, authorsGraph);
+            savedAuthors += chunkAuthors;
+            withoutProvenance.addAll(chunkWithoutProvenance);
+        } catch (RepositoryException ex) {
+            failedRows += chunkAuthors;
+            errors.add("Filas " + firstRow + " a " + lastRow + ": " + ex);
+        } finally {
+            statements.clear();
+            chunkWithoutProvenance.clear();
+            chunkAuthors = 0;
+        }
+    }
+
+    private void addLiteral(URI author, URI property, String value) {
+        statements.add(factory.createStatement(author, property, factory.createLiteral(value, XMLSchema.STRING)));
+    }
+
+    private void rowFailed(int row, String message) {
+        failedRows++;
+        errors.add("Fila " + row + ": " + message);
+    }
+
+    /*
+     * Value of a field without spaces and without its double quotes
+     */
+    private String unquote(String value) {
+        String text = value.trim();
+        if (text.length() > 1 && text.startsWith("\"") && text.endsWith("\"")) {
+            text = text.substring(1, text.length() - 1).trim();
+        }
+        return text;
+    }
+
+}
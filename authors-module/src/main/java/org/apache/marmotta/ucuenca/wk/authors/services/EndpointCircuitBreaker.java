@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.authors.services;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Consecutive failed updates of each endpoint. An endpoint with maxFailures
+ * failed updates in a row is skipped by the next updates until retryInterval
+ * milliseconds have passed, then it is tried again and one more failure skips
+ * it for another retryInterval.
+ */
+public class EndpointCircuitBreaker {
+
+    private final Map<String, Integer> failures = new HashMap<>();
+
+    private final Map<String, Long> opened = new HashMap<>();
+
+    public synchronized boolean allow(String endpoint, long retryInterval) {
+        Long since = opened.get(endpoint);
+        return since == null || System.currentTimeMillis() - since >= retryInterval;
+    }
+
+    public synchronized void success(String endpoint) {
+        failures.remove(endpoint);
+        opened.remove(endpoint);
+    }
+
+    public synchronized void failure(String endpoint, int maxFailures) {
+        Integer count = failures.get(endpoint);
+        count = count == null ? 1 : count + 1;
+        failures.put(endpoint, count);
+        if (count >= maxFailures) {
+            opened.put(endpoint, System.currentTimeMillis());
+        }
+    }
+
+}
@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.authors.services;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.openrdf.repository.Repository;
+import org.openrdf.repository.RepositoryException;
+
+/**
+ * State and progress of the update of the authors of one endpoint.
+ *
+ * The update runs in a thread of the pool of {@link AuthorServiceImpl} and it
+ * is aborted when it takes more than authorsEndpointTimeout: the thread is
+ * interrupted and the repository of the endpoint is shutdown, so the blocked
+ * queries of the endpoint fail and the thread is released.
+ */
+public class EndpointUpdate {
+
+    public enum State {
+        QUEUED, RUNNING, FINISHED, FAILED, TIMEOUT, SKIPPED
+    }
+
+    private final String id;
+
+    private final String name;
+
+    private volatile State state = State.QUEUED;
+
+    private volatile int total;
+
+    private volatile int processed;
+
+    private volatile int percent;
+
+    private volatile int loadedAuthors;
+
+    private volatile int loadedTriples;
+
+    /* consecutive pages of the endpoint that failed */
+    private int failedPages;
+
+    private volatile String result;
+
+    private volatile String error;
+
+    private final long submitted = System.currentTimeMillis();
+
+    private volatile long started;
+
+    private volatile long finished;
+
+    private Thread worker;
+
+    private Repository repository;
+
+    public EndpointUpdate(String id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    synchronized void start() {
+        worker = Thread.currentThread();
+        started = System.currentTimeMillis();
+        state = State.RUNNING;
+    }
+
+    synchronized void finish(String message) {
+        result = message;
+        end(State.FINISHED);
+    }
+
+    synchronized void fail(String message) {
+        error = message;
+        end(State.FAILED);
+    }
+
+    synchronized void skip(String message) {
+        error = message;
+        end(State.SKIPPED);
+    }
+
+    /**
+     * Stop the running update, it ends as TIMEOUT
+     */
+    synchronized void abort() {
+        if (state != State.RUNNING) {
+            return;
+        }
+        state = State.TIMEOUT;
+        if (worker != null) {
+            worker.interrupt();
+        }
+        if (repository != null) {
+            try {
+                repository.shutDown();
+            } catch (RepositoryException ex) {
+                error = ex.toString();
+            }
+        }
+    }
+
+    private void end(State last) {
+        if (state != State.TIMEOUT) {
+            state = last;
+        }
+        worker = null;
+        repository = null;
+        finished = System.currentTimeMillis();
+    }
+
+    /**
+     * Repository of the endpoint, shutdown when the update is aborted
+     *
+     * @param repository
+     */
+    synchronized void setRepository(Repository repository) {
+        this.repository = repository;
+    }
+
+    public boolean isAborted() {
+        return state == State.TIMEOUT || Thread.currentThread().isInterrupted();
+    }
+
+    public boolean isActive() {
+        return state == State.QUEUED || state == State.RUNNING;
+    }
+
+    public boolean isFailed() {
+        return state == State.FAILED || state == State.TIMEOUT;
+    }
+
+    void setTotal(int total) {
+        this.total = total;
+    }
+
+    /**
+     * @param processed authors of the endpoint already processed
+     * @return true when the processed percent changed
+     */
+    boolean setProcessed(int processed) {
+        this.processed = processed;
+        int current = total > 0 ? processed * 100 / total : 0;
+        if (current != percent) {
+            percent = current;
+            return true;
+        }
+        return false;
+    }
+
+    void addLoaded(int authors, int triples) {
+        loadedAuthors += authors;
+        loadedTriples += triples;
+    }
+
+    /**
+     * @param maxFailures
+     * @return true when the last maxFailures pages failed
+     */
+    boolean pageFailed(int maxFailures) {
+        failedPages++;
+        return failedPages >= maxFailures;
+    }
+
+    void pageLoaded() {
+        failedPages = 0;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public int getPercent() {
+        return percent;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("id", id);
+        map.put("name", name);
+        map.put("state", state.name());
+        map.put("processed", processed);
+        map.put("total", total);
+        map.put("percent", percent);
+        map.put("loadedAuthors", loadedAuthors);
+        map.put("loadedTriples", loadedTriples);
+        map.put("submitted", submitted);
+        if (started != 0) {
+            map.put("started", started);
+        }
+        if (finished != 0) {
+            map.put("finished", finished);
+        }
+        if (result != null) {
+            map.put("result", result);
+        }
+        if (error != null) {
+            map.put("error", error);
+        }
+        return map;
+    }
+
+}
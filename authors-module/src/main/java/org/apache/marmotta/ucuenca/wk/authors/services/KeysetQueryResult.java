@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.authors.services;
+
+import info.aduna.iteration.CloseableIteration;
+import java.util.NoSuchElementException;
+import org.openrdf.query.BindingSet;
+import org.openrdf.query.MalformedQueryException;
+import org.openrdf.query.QueryEvaluationException;
+import org.openrdf.query.QueryLanguage;
+import org.openrdf.query.TupleQueryResult;
+import org.openrdf.repository.RepositoryConnection;
+import org.openrdf.repository.RepositoryException;
+
+/**
+ * Results of a SELECT query of a remote endpoint read page by page with
+ * keyset pagination: each page is ordered by its key and starts after the key
+ * of the last result of the previous page, so the endpoint does not skip
+ * OFFSET results in each page and the results are the same in each run.
+ *
+ * Only one page is open at the same time. When a page fails the page is
+ * closed, and the next call to hasNext queries the same page again. The
+ * results end with the first empty page: an endpoint can return less results
+ * than the LIMIT of the query ( e.g. the maximum rows of Virtuoso ), so a short
+ * page is not the last one.
+ */
+public class KeysetQueryResult implements CloseableIteration<BindingSet, QueryEvaluationException> {
+
+    /**
+     * Query of a page ordered by its key
+     */
+    public interface PageQuery {
+
+        /**
+         * @param last last result of the previous page, null for the first
+         * page
+         * @return
+         */
+        String getQuery(BindingSet last);
+    }
+
+    private final RepositoryConnection connection;
+
+    private final PageQuery pageQuery;
+
+    private TupleQueryResult page;
+
+    /* results read of the page */
+    private int pageResults;
+
+    private BindingSet last;
+
+    private boolean finished = false;
+
+    public KeysetQueryResult(RepositoryConnection connection, PageQuery pageQuery) {
+        this.connection = connection;
+        this.pageQuery = pageQuery;
+    }
+
+    @Override
+    public boolean hasNext() throws QueryEvaluationException {
+        while (!finished) {
+            if (page == null) {
+                openPage();
+            }
+            try {
+                if (page.hasNext()) {
+                    return true;
+                }
+            } catch (QueryEvaluationException ex) {
+                closePage();
+                throw ex;
+            }
+            closePage();
+            finished = pageResults == 0;
+        }
+        return false;
+    }
+
+    @Override
+    public BindingSet next() throws QueryEvaluationException {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        last = page.next();
+        pageResults++;
+        return last;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void close() throws QueryEvaluationException {
+        finished = true;
+        closePage();
+    }
+
+    private void openPage() throws QueryEvaluationException {
+        try {
+            page = evaluate(pageQuery.getQuery(last));
+            pageResults = 0;
+        } catch (RepositoryException | MalformedQueryException ex) {
+            throw new QueryEvaluationException(ex);
+        }
+    }
+
+    /**
+     * Results of the query of a page
+     */
+    protected TupleQueryResult evaluate(String query) throws RepositoryException, MalformedQueryException, QueryEvaluationException {
+        return connection.prepareTupleQuery(QueryLanguage.SPARQL, query).evaluate();
+    }
+
+    private void closePage() {
+        if (page == null) {
+            return;
+        }
+        try {
+            page.close();
+        } catch (QueryEvaluationException ex) {
+            // the page is not used again
+        } finally {
+            page = null;
+        }
+    }
+
+}
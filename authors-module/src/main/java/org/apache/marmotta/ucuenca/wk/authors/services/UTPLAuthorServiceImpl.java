@@ -58,8 +58,11 @@ public class UTPLAuthorServiceImpl implements UTPLAuthorService {
      */
     private String authorDocumentProperty = "http://rdaregistry.info";
 
+    /* documents and authors of each page of getDocumentsAuthorsKeysetQuery */
+    private static final int PAGE_SIZE = 5000;
+
     @Override
-    public String runAuthorsSplit(String sparqlEndpoint, String graphUri) throws RepositoryException, MalformedQueryException, QueryEvaluationException {
+    public String runAuthorsSplit(String sparqlEndpoint, final String graphUri) throws RepositoryException, MalformedQueryException, QueryEvaluationException {
         ClientConfiguration config = new ClientConfiguration();
         config.addEndpoint(new SPARQLEndpoint("UTPL", sparqlEndpoint, "^" + "http://" + ".*"));
         LDClientService ldClientEndpoint = new LDClient(config);
@@ -71,13 +74,21 @@ public class UTPLAuthorServiceImpl implements UTPLAuthorService {
         TupleQueryResult sourcesResult = conn.prepareTupleQuery(QueryLanguage.SPARQL, getSources).evaluate();
         while (sourcesResult.hasNext()) {
             BindingSet binding = sourcesResult.next();
-            String dataset = String.valueOf(binding.getValue("dataset"));
+            final String dataset = String.valueOf(binding.getValue("dataset"));
             String nameu = String.valueOf(binding.getValue("nameu")).replace(" ", "");
             String targetgraph = getGraphName(nameu);
             log.info(dataset);
+            KeysetQueryResult documentsAuthorsResult = new KeysetQueryResult(conn, new KeysetQueryResult.PageQuery() {
+                @Override
+                public String getQuery(BindingSet last) {
+                    if (last == null) {
+                        return queriesService.getDocumentsAuthorsKeysetQuery(dataset, graphUri, null, null, String.valueOf(PAGE_SIZE));
+                    }
+                    return queriesService.getDocumentsAuthorsKeysetQuery(dataset, graphUri,
+                            last.getValue("author").stringValue(), last.getValue("document").stringValue(), String.valueOf(PAGE_SIZE));
+                }
+            });
             try {
-                String getDocumentsAuthorsQuery = queriesService.getDocumentsAuthors(dataset, graphUri);
-                TupleQueryResult documentsAuthorsResult = conn.prepareTupleQuery(QueryLanguage.SPARQL, getDocumentsAuthorsQuery).evaluate();
                 while (documentsAuthorsResult.hasNext()) {
                     BindingSet bindingdocuments = documentsAuthorsResult.next();
                     String document = String.valueOf(bindingdocuments.getValue("document"));
@@ -138,8 +149,10 @@ public class UTPLAuthorServiceImpl implements UTPLAuthorService {
                         updateAuthor(queryAuthorInsert);
                     }//end if
                 }
-            } catch (QueryEvaluationException | RepositoryException | AskException ex) {
+            } catch (QueryEvaluationException | AskException ex) {
                 log.error("Al evaluar la consulta de getDocumentsAuthorsQuery");
+            } finally {
+                documentsAuthorsResult.close();
             }
         }
         return "Finish: ok!";
@@ -19,12 +19,8 @@ package org.apache.marmotta.ucuenca.wk.authors.webservices;
 
 import com.google.common.io.CharStreams;
 import com.sun.jersey.multipart.FormDataParam;
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.StringReader;
-import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -75,6 +71,7 @@ public class AuthorWebService {
     private EndpointService endpointService;
 
     public static final String AUTHOR_UPDATE = "/update";
+    public static final String AUTHOR_UPDATE_STATUS = "/update/status";
     public static final String ADD_ENDPOINT = "/addendpoint";
     public static final String AUTHOR_SPLIT = "/split";
 
@@ -228,6 +225,18 @@ public class AuthorWebService {
         return null;
     }
 
+    /**
+     * State and progress of the last update of each endpoint
+     *
+     * @return
+     */
+    @GET
+    @Path(AUTHOR_UPDATE_STATUS)
+    @Produces("application/json")
+    public Response updateStatus() {
+        return Response.ok().entity(authorService.getUpdateStatus()).build();
+    }
+
     @POST
     @Path(AUTHOR_SPLIT)
     public Response split(@QueryParam("endpointuri") String endpointuri, @QueryParam("graphuri") String graphuri) {
@@ -244,89 +253,27 @@ public class AuthorWebService {
     }
 
     /**
+     * Upload of a CSV file of authors, the authors are saved in chunks while
+     * the file is read
      *
+     * @return counts of rows and saved authors, and the errors of each row
      */
     @POST
     @Path("/upload")
     @Consumes(MediaType.MULTIPART_FORM_DATA)
+    @Produces("application/json")
     public Response uploadFile(
             @FormDataParam("file") InputStream uploadedInputStream//, @FormDataParam("file") FormDataContentDisposition fileDetail
             //, @FormParam("endpoint") String endpoint
     ) {
-
-        String result = "";
-        String endpoint = "";
-        String endpointName = "";
-        
-        InputStreamReader inputStreamReader = new InputStreamReader(uploadedInputStream, StandardCharsets.UTF_8);
-
-        String line = "";
-        String cvsSplitBy = ",";
-        int cont = 0;
-        String saveAuthor = null;
-        int contEPName = -1;
-        
         try {
-            BufferedReader br = new BufferedReader(inputStreamReader);
-            line = br.readLine();
-            while (line != null) {
-                int two = 2;
-                if (line.contains("endpointName")) {
-                    contEPName = cont + 2; 
-                }
-                if (cont == contEPName) {
-                    endpointName = line;
-                }
-                if (line.contains("http://")) {
-                    endpoint = line;
-                } else if (line.split(cvsSplitBy).length >= two)
-                // use comma as separator
-                {
-                    result += line + "\n";
-                }
-                cont++;
-                line = br.readLine();
-            }
-            
-            BufferedReader reader = new BufferedReader(new StringReader(result));
-            line = reader.readLine();
-            while (line != null) {
-                String[] researcher = line.split(cvsSplitBy);
-                String keywords = null;
-
-                int size = researcher.length;
-                int two = 2;
-                if (size > two) {
-                    //Separate the keywords
-                    keywords = researcher[2];
-                }
-
-                saveAuthor = authorService.saveAuthorFromFile(endpoint, endpointName, researcher[0], researcher[1], keywords);
-                line = reader.readLine();
-            }
-            
-
-            if (br != null) {
-                br.close();
-            }
+            return Response.ok().entity(authorService.saveAuthorsFromFile(uploadedInputStream)).build();
         } catch (IOException ex) {
             java.util.logging.Logger.getLogger(AuthorWebService.class.getName()).log(Level.SEVERE, null, ex);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("Error al leer el archivo: " + ex.getMessage()).build();
         }
-        //Prepare output message
-        String output = "";
-        if ("".equals(result)){
-            output = "File not in the correct format.";
-        } else {
-            output = "Resultado: " + saveAuthor;
-        }
-
-        return Response.status(200).entity(output).build();
-
     }
-    
-    
-    
-    
+
     /**
      * AUTHOR UPDATE IMPLEMENTATION
      *
@@ -41,11 +41,16 @@ myApp.service('fileUpload', ['$http', function ($http) {
             fd.append('endpoint', selectedEndpoint.id);
             $http.post(uploadUrl, fd, {
                 transformRequest: angular.identity,
-                headers: {'Content-Type': undefined, 'Accept': 'text/plain'}
+                headers: {'Content-Type': undefined, 'Accept': 'application/json'}
             }).then(function successCallback(response) {
                 // this callback will be called asynchronously
                 // when the response is available
-                alert("Success at uploading the file! " + response.data);
+                var summary = response.data;
+                var message = "Success at uploading the file! " + summary.savedAuthors + " of " + summary.rows + " authors saved.";
+                if (summary.errors.length > 0) {
+                    message += "\n" + summary.errors.slice(0, 20).join("\n");
+                }
+                alert(message);
             }, function errorCallback(response) {
                 // called asynchronously if an error occurs
                 // or server returns response with an error status.
@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.authors.services;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.vocabulary.XMLSchema;
+import org.openrdf.repository.RepositoryException;
+import org.openrdf.rio.RDFHandlerException;
+
+/**
+ * Pages of authors of the CONSTRUCT queries saved by {@link AuthorsBatchHandler}
+ */
+public class AuthorsBatchHandlerTest {
+
+    private static final String ENDPOINT = "http://example.org/endpoint/1";
+
+    private static final String AUTHORS_GRAPH = "http://example.org/authors";
+
+    private static final String DOCUMENT_PROPERTY = "http://rdaregistry.info";
+
+    private final ValueFactory factory = ValueFactoryImpl.getInstance();
+
+    private final URI name = factory.createURI("http://xmlns.com/foaf/0.1/name");
+
+    private final URI document = factory.createURI("http://rdaregistry.info/Elements/a/P50161");
+
+    private final URI provenance = factory.createURI("http://purl.org/dc/terms/provenance");
+
+    /* transactions of the handler */
+    private final List<List<Statement>> saved = new ArrayList<>();
+
+    private Set<String> knownAuthors;
+
+    /* the next saves fail */
+    private boolean failSave;
+
+    private AuthorsBatchHandler handler;
+
+    @Before
+    public void setUp() {
+        knownAuthors = new HashSet<>();
+        knownAuthors.add("http://example.org/author/known");
+        handler = new AuthorsBatchHandler(ENDPOINT, AUTHORS_GRAPH, DOCUMENT_PROPERTY, knownAuthors, 4) {
+            @Override
+            protected void save(List<Statement> statements, URI graph) throws RepositoryException {
+                Assert.assertEquals(AUTHORS_GRAPH, graph.stringValue());
+                if (failSave) {
+                    throw new RepositoryException("save failed");
+                }
+                saved.add(new ArrayList<>(statements));
+            }
+        };
+    }
+
+    @Test
+    public void testPageIsSavedInBatches() throws Exception {
+        handler.handleStatement(literal("b", "Espinoza"));
+        handler.handleStatement(literal("known", "Known"));
+        handler.handleStatement(literal("a", "Saquicela"));
+        handler.handleStatement(factory.createStatement(author("a"), document, factory.createURI("http://example.org/document/1")));
+        handler.handleStatement(literal("b", "Mauricio"));
+
+        // two provenances and two names fill the first batch
+        Assert.assertEquals(1, saved.size());
+        Assert.assertEquals(4, saved.get(0).size());
+        Assert.assertEquals(0, handler.getLoadedAuthors());
+
+        handler.endPage();
+
+        Assert.assertEquals(2, saved.size());
+        Assert.assertEquals(1, saved.get(1).size());
+        Assert.assertEquals(2, handler.getLoadedAuthors());
+        Assert.assertEquals(3, handler.getLoadedTriples());
+        Assert.assertTrue(knownAuthors.contains("http://example.org/author/a"));
+        Assert.assertTrue(saved.get(0).contains(factory.createStatement(author("b"), provenance, factory.createURI(ENDPOINT))));
+        Assert.assertTrue(saved.get(0).contains(factory.createStatement(author("b"), name, factory.createLiteral("Espinoza", XMLSchema.STRING))));
+        Assert.assertEquals(1, handler.getDocuments().size());
+        Assert.assertArrayEquals(new String[]{"http://example.org/author/a", "http://example.org/document/1"}, handler.getDocuments().get(0));
+    }
+
+    @Test
+    public void testAuthorsOfLoadedPagesAreSkipped() throws Exception {
+        handler.handleStatement(literal("a", "Saquicela"));
+        handler.endPage();
+        int transactions = saved.size();
+
+        handler.handleStatement(literal("a", "Saquicela"));
+        handler.endPage();
+
+        Assert.assertEquals(transactions, saved.size());
+        Assert.assertEquals(1, handler.getLoadedAuthors());
+    }
+
+    @Test
+    public void testFailedSaveDoesNotCountThePage() throws Exception {
+        handler.handleStatement(literal("a", "Saquicela"));
+        handler.handleStatement(factory.createStatement(author("a"), document, factory.createURI("http://example.org/document/1")));
+        failSave = true;
+        try {
+            handler.endPage();
+            Assert.fail();
+        } catch (RDFHandlerException ex) {
+            // the page is queried again
+        }
+        Assert.assertEquals(0, handler.getLoadedAuthors());
+        Assert.assertEquals(0, handler.getLoadedTriples());
+        Assert.assertFalse(knownAuthors.contains("http://example.org/author/a"));
+        Assert.assertTrue(handler.getDocuments().isEmpty());
+
+        failSave = false;
+        handler.handleStatement(literal("a", "Saquicela"));
+        handler.handleStatement(factory.createStatement(author("a"), document, factory.createURI("http://example.org/document/1")));
+        handler.endPage();
+        Assert.assertEquals(1, handler.getLoadedAuthors());
+        Assert.assertEquals(1, handler.getDocuments().size());
+    }
+
+    @Test
+    public void testDiscardPage() throws Exception {
+        handler.handleStatement(literal("a", "Saquicela"));
+        handler.endPage();
+        handler.handleStatement(literal("b", "Espinoza"));
+        handler.handleStatement(factory.createStatement(author("b"), document, factory.createURI("http://example.org/document/2")));
+        int transactions = saved.size();
+
+        handler.discardPage();
+        handler.endPage();
+
+        Assert.assertEquals(transactions, saved.size());
+        Assert.assertEquals(1, handler.getLoadedAuthors());
+        Assert.assertTrue(handler.getDocuments().isEmpty());
+        Assert.assertFalse(knownAuthors.contains("http://example.org/author/b"));
+    }
+
+    private URI author(String id) {
+        return factory.createURI("http://example.org/author/" + id);
+    }
+
+    private Statement literal(String id, String value) {
+        return factory.createStatement(author(id), name, factory.createLiteral(value));
+    }
+
+}
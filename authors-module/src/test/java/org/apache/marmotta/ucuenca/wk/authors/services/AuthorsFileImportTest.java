@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.authors.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.apache.marmotta.ucuenca.wk.commons.impl.CommonsServicesImpl;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.vocabulary.XMLSchema;
+import org.openrdf.repository.RepositoryException;
+
+/**
+ * Uploads of CSV files of authors read by {@link AuthorsFileImport}
+ */
+public class AuthorsFileImportTest {
+
+    private static final String AUTHORS_GRAPH = "http://example.org/authors";
+
+    private static final String ENDPOINT = "http://example.org/endpoint/1";
+
+    private final ValueFactory factory = ValueFactoryImpl.getInstance();
+
+    private final URI provenance = factory.createURI("http://purl.org/dc/terms/provenance");
+
+    /* transactions of the import */
+    private final List<List<Statement>> saved = new ArrayList<>();
+
+    /* the transaction that fails, -1 for none */
+    private int failedSave = -1;
+
+    @Test
+    public void testReadUpload() throws IOException {
+        Map<String, Object> summary = newImport(2).read(body(
+                "------WebKitFormBoundary",
+                "Content-Disposition: form-data; name=\"endpointName\"",
+                "",
+                "Universidad de Cuenca",
+                "------WebKitFormBoundary",
+                "Content-Disposition: form-data; name=\"file\"; filename=\"authors.csv\"",
+                "Content-Type: text/csv",
+                "",
+                "Victor,Saquicela,\"semantic web; linked data\"",
+                "\"Mauricio, Jr\",Espinoza",
+                "Juan,",
+                "------WebKitFormBoundary",
+                "Content-Disposition: form-data; name=\"endpoint\"",
+                "",
+                ENDPOINT,
+                "------WebKitFormBoundary--"));
+
+        Assert.assertEquals(ENDPOINT, summary.get("endpoint"));
+        Assert.assertEquals("Universidad de Cuenca", summary.get("endpointName"));
+        Assert.assertEquals(3, summary.get("rows"));
+        Assert.assertEquals(2, summary.get("savedAuthors"));
+        Assert.assertEquals(1, summary.get("failedRows"));
+        Assert.assertEquals("Fila 11: faltan los nombres o los apellidos", ((List<?>) summary.get("errors")).get(0));
+
+        // the authors, and their provenance after the endpoint line
+        Assert.assertEquals(2, saved.size());
+        URI saquicela = factory.createURI(AuthorsFileImport.AUTHOR_FILE_RESOURCE + "SAQUICELA__VICTOR");
+        URI espinoza = factory.createURI(AuthorsFileImport.AUTHOR_FILE_RESOURCE + "ESPINOZA__MAURICIO,_JR");
+        URI subject = factory.createURI("http://purl.org/dc/terms/subject");
+        Assert.assertTrue(saved.get(0).contains(factory.createStatement(saquicela, subject, factory.createLiteral("linked data", XMLSchema.STRING))));
+        Assert.assertTrue(saved.get(0).contains(factory.createStatement(espinoza, factory.createURI("http://xmlns.com/foaf/0.1/firstName"),
+                factory.createLiteral("Mauricio, Jr", XMLSchema.STRING))));
+        Assert.assertEquals(2, saved.get(1).size());
+        Assert.assertTrue(saved.get(1).contains(factory.createStatement(espinoza, provenance, factory.createURI(ENDPOINT))));
+    }
+
+    @Test
+    public void testChunks() throws IOException {
+        Map<String, Object> summary = newImport(2).read(body(ENDPOINT,
+                "A,Uno", "B,Dos", "C,Tres", "D,Cuatro", "E,Cinco"));
+
+        Assert.assertEquals(5, summary.get("savedAuthors"));
+        // type, names, source and provenance of each author
+        Assert.assertEquals(3, saved.size());
+        Assert.assertEquals(12, saved.get(0).size());
+        Assert.assertEquals(12, saved.get(1).size());
+        Assert.assertEquals(6, saved.get(2).size());
+    }
+
+    @Test
+    public void testFailedChunk() throws IOException {
+        failedSave = 1;
+        Map<String, Object> summary = newImport(2).read(body(ENDPOINT,
+                "A,Uno", "B,Dos", "C,Tres", "D,Cuatro", "E,Cinco"));
+
+        Assert.assertEquals(5, summary.get("rows"));
+        Assert.assertEquals(3, summary.get("savedAuthors"));
+        Assert.assertEquals(2, summary.get("failedRows"));
+        Assert.assertTrue(((List<?>) summary.get("errors")).get(0).toString().startsWith("Filas 4 a 5: "));
+        Assert.assertEquals(2, saved.size());
+    }
+
+    @Test
+    public void testUnterminatedQuote() throws IOException {
+        Map<String, Object> summary = newImport(2).read(body(ENDPOINT, "\"Victor,Saquicela", "B,Dos"));
+
+        Assert.assertEquals(2, summary.get("rows"));
+        Assert.assertEquals(1, summary.get("savedAuthors"));
+        Assert.assertEquals(1, summary.get("failedRows"));
+        Assert.assertTrue(((List<?>) summary.get("errors")).get(0).toString().startsWith("Fila 2: "));
+    }
+
+    private AuthorsFileImport newImport(int batchSize) {
+        return new AuthorsFileImport(new CommonsServicesImpl(), AUTHORS_GRAPH, batchSize) {
+            @Override
+            protected void save(List<Statement> statements, URI graph) throws RepositoryException {
+                Assert.assertEquals(AUTHORS_GRAPH, graph.stringValue());
+                if (failedSave-- == 0) {
+                    throw new RepositoryException("save failed");
+                }
+                saved.add(new ArrayList<>(statements));
+            }
+        };
+    }
+
+    private static InputStream body(String... lines) throws IOException {
+        StringBuilder body = new StringBuilder();
+        for (String line : lines) {
+            body.append(line).append("\r\n");
+        }
+        return new ByteArrayInputStream(body.toString().getBytes("UTF-8"));
+    }
+
+}
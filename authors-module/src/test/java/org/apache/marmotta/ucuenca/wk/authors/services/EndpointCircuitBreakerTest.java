@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.authors.services;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Endpoints skipped by {@link EndpointCircuitBreaker} after failed updates
+ */
+public class EndpointCircuitBreakerTest {
+
+    private static final String ENDPOINT = "http://example.org/endpoint/1";
+
+    private static final long HOUR = 3600000;
+
+    private final EndpointCircuitBreaker breaker = new EndpointCircuitBreaker();
+
+    @Test
+    public void testOpensAfterMaxFailures() {
+        Assert.assertTrue(breaker.allow(ENDPOINT, HOUR));
+        breaker.failure(ENDPOINT, 3);
+        breaker.failure(ENDPOINT, 3);
+        Assert.assertTrue(breaker.allow(ENDPOINT, HOUR));
+        breaker.failure(ENDPOINT, 3);
+        Assert.assertFalse(breaker.allow(ENDPOINT, HOUR));
+        // the other endpoints are not skipped
+        Assert.assertTrue(breaker.allow("http://example.org/endpoint/2", HOUR));
+    }
+
+    @Test
+    public void testSuccessCloses() {
+        breaker.failure(ENDPOINT, 2);
+        breaker.success(ENDPOINT);
+        breaker.failure(ENDPOINT, 2);
+        // the failures before the success are not counted
+        Assert.assertTrue(breaker.allow(ENDPOINT, HOUR));
+
+        breaker.failure(ENDPOINT, 2);
+        Assert.assertFalse(breaker.allow(ENDPOINT, HOUR));
+        breaker.success(ENDPOINT);
+        Assert.assertTrue(breaker.allow(ENDPOINT, HOUR));
+    }
+
+    @Test
+    public void testRetryAfterInterval() throws InterruptedException {
+        breaker.failure(ENDPOINT, 1);
+        Assert.assertFalse(breaker.allow(ENDPOINT, HOUR));
+        Thread.sleep(20);
+        Assert.assertTrue(breaker.allow(ENDPOINT, 10));
+
+        // one more failure of the retry skips it again
+        breaker.failure(ENDPOINT, 1);
+        Assert.assertFalse(breaker.allow(ENDPOINT, HOUR));
+    }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.authors.services;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openrdf.repository.sparql.SPARQLRepository;
+
+/**
+ * States of the update of an endpoint in {@link EndpointUpdate}, and the
+ * abort of an update that takes too long
+ */
+public class EndpointUpdateTest {
+
+    @Test
+    public void testFinish() {
+        EndpointUpdate update = new EndpointUpdate("http://example.org/endpoint/1", "Endpoint 1");
+        Assert.assertEquals(EndpointUpdate.State.QUEUED, update.getState());
+        Assert.assertTrue(update.isActive());
+
+        update.start();
+        Assert.assertEquals(EndpointUpdate.State.RUNNING, update.getState());
+        update.finish("Carga Finalizada");
+
+        Assert.assertEquals(EndpointUpdate.State.FINISHED, update.getState());
+        Assert.assertFalse(update.isActive());
+        Assert.assertFalse(update.isFailed());
+        Map<String, Object> status = update.toMap();
+        Assert.assertEquals("FINISHED", status.get("state"));
+        Assert.assertEquals("Carga Finalizada", status.get("result"));
+        Assert.assertTrue(status.containsKey("finished"));
+    }
+
+    @Test
+    public void testFailAndSkip() {
+        EndpointUpdate failed = new EndpointUpdate("http://example.org/endpoint/1", "Endpoint 1");
+        failed.start();
+        failed.fail("connection refused");
+        Assert.assertTrue(failed.isFailed());
+        Assert.assertEquals("connection refused", failed.toMap().get("error"));
+
+        EndpointUpdate skipped = new EndpointUpdate("http://example.org/endpoint/2", "Endpoint 2");
+        skipped.skip("Omitido");
+        Assert.assertEquals(EndpointUpdate.State.SKIPPED, skipped.getState());
+        Assert.assertFalse(skipped.isFailed());
+        Assert.assertFalse(skipped.toMap().containsKey("started"));
+    }
+
+    @Test
+    public void testAbortInterruptsTheWorker() throws Exception {
+        final EndpointUpdate update = new EndpointUpdate("http://example.org/endpoint/1", "Endpoint 1");
+        final SPARQLRepository repository = new SPARQLRepository("http://localhost:1/sparql");
+        repository.initialize();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch ended = new CountDownLatch(1);
+        final boolean[] interrupted = new boolean[1];
+        Thread worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                update.start();
+                update.setRepository(repository);
+                started.countDown();
+                try {
+                    // a query of the endpoint that does not answer
+                    Thread.sleep(60000);
+                    update.finish("Carga Finalizada");
+                } catch (InterruptedException ex) {
+                    interrupted[0] = true;
+                    update.fail(ex.toString());
+                }
+                ended.countDown();
+            }
+        });
+        worker.start();
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        update.abort();
+
+        Assert.assertTrue(ended.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(interrupted[0]);
+        Assert.assertFalse(repository.isInitialized());
+        // the update ends as TIMEOUT, not as the failure of the interrupted query
+        Assert.assertEquals(EndpointUpdate.State.TIMEOUT, update.getState());
+        Assert.assertTrue(update.isFailed());
+        Assert.assertTrue(update.isAborted());
+        Assert.assertTrue(update.toMap().containsKey("finished"));
+    }
+
+    @Test
+    public void testAbortAfterTheEnd() {
+        EndpointUpdate update = new EndpointUpdate("http://example.org/endpoint/1", "Endpoint 1");
+        update.start();
+        update.finish("Carga Finalizada");
+        update.abort();
+        Assert.assertEquals(EndpointUpdate.State.FINISHED, update.getState());
+        Assert.assertFalse(update.isAborted());
+    }
+
+    @Test
+    public void testProgress() {
+        EndpointUpdate update = new EndpointUpdate("http://example.org/endpoint/1", "Endpoint 1");
+        update.setTotal(200);
+        Assert.assertTrue(update.setProcessed(50));
+        Assert.assertFalse(update.setProcessed(51));
+        Assert.assertEquals(25, update.getPercent());
+        update.addLoaded(10, 100);
+        update.addLoaded(5, 20);
+        Map<String, Object> status = update.toMap();
+        Assert.assertEquals(15, status.get("loadedAuthors"));
+        Assert.assertEquals(120, status.get("loadedTriples"));
+
+        Assert.assertFalse(update.pageFailed(2));
+        update.pageLoaded();
+        Assert.assertFalse(update.pageFailed(2));
+        Assert.assertTrue(update.pageFailed(2));
+    }
+
+}
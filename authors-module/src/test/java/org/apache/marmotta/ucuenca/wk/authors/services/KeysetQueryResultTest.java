@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.authors.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.query.BindingSet;
+import org.openrdf.query.QueryEvaluationException;
+import org.openrdf.query.TupleQueryResult;
+import org.openrdf.query.impl.MapBindingSet;
+import org.openrdf.query.impl.TupleQueryResultImpl;
+
+/**
+ * Pages of {@link KeysetQueryResult} of an endpoint that returns less rows
+ * than the LIMIT of the queries
+ */
+public class KeysetQueryResultTest {
+
+    /* rows of each page of the endpoint */
+    private static final int MAX_ROWS = 2;
+
+    private final List<String> authors = Arrays.asList("a", "b", "c", "d", "e");
+
+    /* the key of each query, "" for the first page */
+    private final List<String> queries = new ArrayList<>();
+
+    /* queries that fail */
+    private final List<Integer> failures = new ArrayList<>();
+
+    @Test
+    public void testShortPagesAreNotTheLast() throws QueryEvaluationException {
+        KeysetQueryResult result = new EndpointResult();
+
+        Assert.assertEquals(authors, readAll(result));
+        // the end is the first empty page
+        Assert.assertEquals(Arrays.asList("", "b", "d", "e"), queries);
+        Assert.assertFalse(result.hasNext());
+        Assert.assertEquals(4, queries.size());
+    }
+
+    @Test
+    public void testFailedPageIsQueriedAgain() throws QueryEvaluationException {
+        failures.add(1);
+        KeysetQueryResult result = new EndpointResult();
+        List<String> read = new ArrayList<>();
+        read.add(value(result.next()));
+        read.add(value(result.next()));
+        try {
+            result.hasNext();
+            Assert.fail();
+        } catch (QueryEvaluationException ex) {
+            // the page after b failed
+        }
+
+        read.addAll(readAll(result));
+        Assert.assertEquals(authors, read);
+        Assert.assertEquals(Arrays.asList("", "b", "b", "d", "e"), queries);
+    }
+
+    @Test
+    public void testEmptyResults() throws QueryEvaluationException {
+        KeysetQueryResult result = new KeysetQueryResult(null, new KeysetQueryResult.PageQuery() {
+            @Override
+            public String getQuery(BindingSet last) {
+                return "";
+            }
+        }) {
+            @Override
+            protected TupleQueryResult evaluate(String query) {
+                queries.add(query);
+                return new TupleQueryResultImpl(Collections.singletonList("s"), Collections.<BindingSet>emptyList());
+            }
+        };
+        Assert.assertFalse(result.hasNext());
+        Assert.assertFalse(result.hasNext());
+        Assert.assertEquals(1, queries.size());
+    }
+
+    private List<String> readAll(KeysetQueryResult result) throws QueryEvaluationException {
+        List<String> read = new ArrayList<>();
+        while (result.hasNext()) {
+            read.add(value(result.next()));
+        }
+        return read;
+    }
+
+    private static String value(BindingSet binding) {
+        return binding.getValue("s").stringValue();
+    }
+
+    /*
+     * The query of each page is its key, the endpoint answers MAX_ROWS rows
+     * after the key at most
+     */
+    private class EndpointResult extends KeysetQueryResult {
+
+        EndpointResult() {
+            super(null, new KeysetQueryResult.PageQuery() {
+                @Override
+                public String getQuery(BindingSet last) {
+                    return last == null ? "" : value(last);
+                }
+            });
+        }
+
+        @Override
+        protected TupleQueryResult evaluate(String query) throws QueryEvaluationException {
+            queries.add(query);
+            if (failures.remove(Integer.valueOf(queries.size() - 1))) {
+                throw new QueryEvaluationException("endpoint timeout");
+            }
+            List<BindingSet> page = new ArrayList<>();
+            for (String author : authors) {
+                if (author.compareTo(query) > 0 && page.size() < MAX_ROWS) {
+                    MapBindingSet binding = new MapBindingSet();
+                    binding.addBinding("s", ValueFactoryImpl.getInstance().createLiteral(author));
+                    page.add(binding);
+                }
+            }
+            return new TupleQueryResultImpl(Collections.singletonList("s"), page);
+        }
+    }
+
+}
@@ -16,10 +16,6 @@
  */
 package org.apache.marmotta.ucuenca.wk.provider.ak;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
-import java.io.BufferedReader;
-
 import org.apache.marmotta.ldclient.api.endpoint.Endpoint;
 import org.apache.marmotta.ldclient.exception.DataRetrievalException;
 import org.apache.marmotta.ldclient.services.provider.AbstractHttpProvider;
@@ -30,20 +26,14 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.apache.marmotta.commons.vocabulary.FOAF;
 import org.apache.marmotta.ucuenca.wk.provider.ak.util.JSONtoRDF;
-import org.apache.marmotta.ucuenca.wk.provider.ak.util.MapPublications;
-import org.apache.marmotta.ucuenca.wk.provider.ak.util.Publication;
-import org.json.simple.parser.ParseException;
 
 /**
  * Support Google Scholar information as RDF
@@ -55,6 +45,7 @@ public class AcademicsKnowledgeProvider extends AbstractHttpProvider {
     public static final String NAME = "Academics Knowlodge Provider";
     public static final String API = "https://api.projectoxford.ai/academic/v1.0/evaluate?expr=Composite(AA.AuN==%27victor%20saquicela%27)&attributes=Id,Ti,Y,D,CC,ECC,AA.AuN,AA.AuId,AA.AfN,AA.AfId,F.FN,F.FId,J.JN,J.JId,C.CN,C.CId,RId,W,E,D&E=DN,D,S,S.Ty,S.U,VFN,VSN,V,I,FP,LP,DOI&subscription-key=f66e8b1a39634d9591151a8efd80cfc2";
     public static final String PATTERN = "https://api\\.projectoxford\\.ai/academic/(.*)";
+    private static final Pattern COMPILED_PATTERN = Pattern.compile(PATTERN);
     //https://api\\.projectoxford\\.ai/academic/v1\\.0/evaluate?expr\\=Composite\\(AA\\.AuN==%27(.*)%27)\\&attributes=Id,Ti,Y,D,CC,ECC,AA.AuN,AA.AuId,AA.AfN,AA.AfId,F.FN,F.FId,J.JN,J.JId,C.CN,C.CId,RId,W,E,D\\&E=DN,D,S,S.Ty,S.U,VFN,VSN,V,I,FP,LP,DOI\\&subscription-key=(.*)\\&count=100$
     public static final String PATTERNA = "http://academic\\.research\\.microsoft\\.com/json\\.svc/search\\?AppId\\=(.*)\\&AuthorQuery\\=(.*)\\&ResultObjects\\=Publication\\&PublicationContent\\=AllInfo\\&StartIdx\\=1\\&EndIdx\\=1(.*)$";
 
@@ -62,8 +53,6 @@ public class AcademicsKnowledgeProvider extends AbstractHttpProvider {
     private static Logger log = LoggerFactory.getLogger(AcademicsKnowledgeProvider.class);
     public String stringSearch = null, authorSearch = null, advancedSearch = null, appId = null;
     public static final ConcurrentMap<String, String> MAPPINGSCHEMA = new ConcurrentHashMap<String, String>();
-    private MapPublications mapPublications = new MapPublications();
-    private int limitPublications = 100;
 
     static {
         MAPPINGSCHEMA.put("entity::type", "http://purl.org/ontology/bibo/Document");
@@ -130,7 +119,7 @@ public class AcademicsKnowledgeProvider extends AbstractHttpProvider {
     @Override
     public List<String> buildRequestUrl(String resource, Endpoint endpoint) {
         String url = null;
-        Matcher m = Pattern.compile(PATTERN).matcher(resource);
+        Matcher m = COMPILED_PATTERN.matcher(resource);
         if (m.find()) {
 
             url = resource;
@@ -142,40 +131,11 @@ public class AcademicsKnowledgeProvider extends AbstractHttpProvider {
     public List<String> parseResponse(String resource, String requestUrl, Model triples, InputStream input, String contentType) throws DataRetrievalException {
         log.debug("Request Successful to {0}", requestUrl);
 
+        JSONtoRDF parser = new JSONtoRDF(MAPPINGSCHEMA, triples);
         try {
-            BufferedReader streamReader = new BufferedReader(new InputStreamReader(input, "UTF-8"));
-            StringBuilder responseStrBuilder = new StringBuilder();
-
-            String inputStr = streamReader.readLine();
-            while (inputStr != null) {
-                responseStrBuilder.append(inputStr);
-                inputStr = streamReader.readLine();
-            }
-            List<Publication> resultOutput = new ArrayList();
-
-            resultOutput = mapPublications.getPublications(responseStrBuilder.toString());
-            if (resultOutput.size() == limitPublications) {
-                resultOutput = resultOutput.subList(0, 20);
-            }
-
-            Gson gson = new Gson();
-            JsonArray json = new JsonArray();
-            for (Publication d : resultOutput) {
-                json.add(gson.toJsonTree(d).getAsJsonObject());
-            }
-            JSONtoRDF parser = new JSONtoRDF(MAPPINGSCHEMA, json, triples);
-            //Model model2 = new TreeModel();
-
-            try {
-                parser.parse();
-            } catch (Exception e) {
-                throw new DataRetrievalException("I/O exception while retrieving resource: " + requestUrl, e);
-            }
-
-        } catch (IOException e) {
-            //e.printStackTrace();
-        } catch (ParseException ex) {
-            java.util.logging.Logger.getLogger(AcademicsKnowledgeProvider.class.getName()).log(Level.SEVERE, null, ex);
+            parser.parse(input);
+        } catch (IOException | IllegalStateException e) {
+            throw new DataRetrievalException("I/O exception while retrieving resource: " + requestUrl, e);
         }
 
         return Collections.emptyList();
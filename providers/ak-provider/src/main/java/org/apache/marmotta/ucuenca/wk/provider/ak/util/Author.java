@@ -1,58 +0,0 @@
-/*
- * To change this license header, choose License Headers in Project Properties.
- * To change this template file, choose Tools | Templates
- * and open the template in the editor.
- */
-package org.apache.marmotta.ucuenca.wk.provider.ak.util;
-
-/**
- *
- * @author Freddy Sumba
- */
-public class Author {
-    
-    private long id;
-    private String name;
-    private String afiliation;
-    private String afiliationID;
-
-    public long getId() {
-        return id;
-    }
-
-    public void setId(long id) {
-        this.id = id;
-    }
-
-    public String getName() {
-        return name;
-    }
-
-    public void setName(String name) {
-        this.name = name;
-    }
-
-    public String getAfiliation() {
-        return afiliation;
-    }
-
-    public void setAfiliation(String afiliation) {
-        this.afiliation = afiliation;
-    }
-
-    public String getAfiliationID() {
-        return afiliationID;
-    }
-
-    public void setAfiliationID(String afiliationID) {
-        this.afiliationID = afiliationID;
-    }
-
-
-    
-
-
-    
-    
-    
-}
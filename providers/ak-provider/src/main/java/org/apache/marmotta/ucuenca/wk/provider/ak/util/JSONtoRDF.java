@@ -1,206 +1,223 @@
 package org.apache.marmotta.ucuenca.wk.provider.ak.util;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
+import org.apache.marmotta.ucuenca.wk.provider.commons.StreamingJSONtoRDF;
 import org.openrdf.model.Model;
-import org.openrdf.model.ValueFactory;
-import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.URI;
 import org.openrdf.model.vocabulary.RDF;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
-public class JSONtoRDF {
+/**
+ * Conversion of the response of Academics Knowledge ( entities of evaluate )
+ * to RDF in one pass over the stream, without a tree of the response. The
+ * statements of each publication are added to the model at the end of its
+ * entity, because the Id can be after the other attributes.
+ */
+public class JSONtoRDF extends StreamingJSONtoRDF {
 
-    private JsonArray data;
-    private Model model;
-    private Map<String, String> schema;
-    private final ValueFactory factory = ValueFactoryImpl.getInstance();
     private String academicsUrl = "https://academic.microsoft.com/#/detail/";
 
-    public JSONtoRDF(Map<String, String> schema, JsonArray data, Model model) {
-        this.schema = schema;
-        this.data = data;
-        this.model = model;
+    public JSONtoRDF(Map<String, String> schema, Model model) {
+        super(schema, model);
     }
 
     /**
-     * @see Parce object json format to RDF
-     * @throws Exception
+     * @see Parse the response in json format to RDF
+     * @param input response of the evaluate method
+     * @throws IOException when the response is not valid json
      */
-    public void parse() throws Exception {
-        Integer i = 0;
-        while (i < data.size()) {
-            JsonObject json = data.get(i).getAsJsonObject();
-            this.mappingProcess(academicsUrl + Long.toString(json.get("id").getAsLong()) + "/", json);
-            i++;
+    @Override
+    public void parse(InputStream input) throws IOException {
+        JsonReader reader = newReader(input);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if ("entities".equals(reader.nextName())) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    parseEntity(reader);
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
         }
-        /*
-         PrintWriter out = new PrintWriter("/home/santteegt/JSON" + this.hashCode() + ".ttl");
-         out.print(data.toString());
-         out.close();*/
+        reader.endObject();
     }
 
     /**
      * @see build publication in RDF format
-     * @param resource
-     * @param json
+     * @param reader
+     * @throws IOException
      */
-    private void mappingProcess(String resource, JsonObject json) {
-        for (String key : schema.keySet()) {
-            if (key.matches("^entity::type$")) {
-                model.add(factory.createStatement(factory.createURI(resource),
-                        RDF.TYPE, factory.createURI(schema.get("entity::type"))));
-                continue;
+    private void parseEntity(JsonReader reader) throws IOException {
+        clearStatements();
+        String id = null;
+        StringBuilder text = new StringBuilder();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "Id":
+                    id = nextString(reader);
+                    break;
+                case "Ti":
+                    addLiteral("entity::property:title", nextString(reader));
+                    break;
+                case "Y":
+                    addLiteral("entity::property:year", toString(nextString(reader)));
+                    break;
+                case "D":
+                    addLiteral("entity::property:created", toString(nextString(reader)));
+                    break;
+                case "CC":
+                    addLiteral("entity::property:citationCount", toString(nextString(reader)));
+                    break;
+                case "ECC":
+                    addLiteral("entity::property:estimatedCitationCount", toString(nextString(reader)));
+                    break;
+                case "AA":
+                    parseAuthors(reader, text);
+                    break;
+                case "W":
+                    for (String word : nextStrings(reader)) {
+                        addLiteral("entity::list:keyWord", word);
+                    }
+                    break;
+                case "F":
+                    for (String field : nextStrings(reader, "FN")) {
+                        addLiteral("entity::list:fields", field);
+                    }
+                    break;
+                case "J":
+                    addLiteral("entity::list:journals", toString(nextString(reader, "JN")));
+                    break;
+                case "RId":
+                    for (String reference : nextStrings(reader)) {
+                        addUri("entity::property:references", academicsUrl + reference + "/");
+                    }
+                    break;
+                case "E":
+                    parseExtendedMetadata(toString(nextString(reader)));
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
             }
-
-            //build properties
-            Matcher m = Pattern.compile("^(entity::property:)(.*)$").matcher(key);
-            if (m.find()) {
-
-                getGenericAttributes(m, key, json, resource);
-            }
-
-            //Build list properties
-            Matcher mUri = Pattern.compile("^(entity::list:)(.*)$").matcher(key);
-            if (mUri.find()) {
-
-                getGenericAttributesBucle(mUri, key, json, resource);
-            }
-
-            //Build manual properties
-            getAttributesPartOne(key, json, resource);
-            getAttributesPartTwo(key, json, resource);
-
         }
-
-    }
-
-    /**
-     * @see MEthod to build manual properties
-     * @param key
-     * @param json
-     * @param resource
-     */
-    public void getAttributesPartOne(String key, JsonObject json, String resource) {
-        JsonArray aux = new JsonArray();
-
-        switch (key) {
-            case "entity::property:text":
-                aux = json.get("authors").getAsJsonArray();
-                String text = "";
-                for (int iterator = 0; iterator < aux.size(); iterator++) {
-                    JsonElement element = aux.get(iterator);
-
-                    text = text + (element.getAsJsonObject().get("afiliation") != null ? element.getAsJsonObject().get("afiliation").getAsString() : "") + " -";
-                }
-                model.add(factory.createStatement(factory.createURI(resource),
-                        factory.createURI(schema.get(key)), factory.createLiteral(text)));
-                break;
-
-            case "entity::property:fullversionurl":
-                aux = json.get("sources").getAsJsonArray();
-                for (JsonElement version : aux) {
-                    model.add(factory.createStatement(factory.createURI(resource),
-                            factory.createURI(schema.get(key)), factory.createURI(version.getAsString())));
-
-                }
-                break;
-            case "entity::property:references":
-                aux = json.get("referencesId").getAsJsonArray();
-                for (JsonElement references : aux) {
-                    model.add(factory.createStatement(factory.createURI(resource),
-                            factory.createURI(schema.get(key)), factory.createURI(academicsUrl + references.getAsString() + "/")));
-
-                }
-                break;
-            default:
-                break;
-
+        reader.endObject();
+        if (id == null) {
+            return;
         }
-    }
-
-    /**
-     * @see MEthod to build manual properties
-     * @param key
-     * @param json
-     * @param resource
-     */
-    public void getAttributesPartTwo(String key, JsonObject json, String resource) {
-        JsonArray aux = new JsonArray();
-
-        switch (key) {
-            case "entity::property:uri":
-                model.add(factory.createStatement(factory.createURI(resource),
-                        factory.createURI(schema.get(key)), factory.createLiteral(academicsUrl + json.get("id").getAsLong() + "/")));
-                break;
-
-            case "entity::property:creator":
-                aux = json.get("authors").getAsJsonArray();
-                model.add(factory.createStatement(factory.createURI(resource),
-                        factory.createURI(schema.get(key)), factory.createURI(academicsUrl + aux.get(0).getAsJsonObject().get("id").getAsString())));
-                //author name
-                model.add(factory.createStatement(factory.createURI(academicsUrl + aux.get(0).getAsJsonObject().get("id").getAsString()),
-                        factory.createURI(schema.get("entity::property:name")), factory.createLiteral(aux.get(0).getAsJsonObject().get("name").getAsString())));
-
-                break;
-            case "entity::property:contributor":
-                aux = json.get("authors").getAsJsonArray();
-
-                for (int iterator = 1; iterator < aux.size(); iterator++) {
-                    JsonElement element = aux.get(iterator);
-                    model.add(factory.createStatement(factory.createURI(resource),
-                            factory.createURI(schema.get(key)), factory.createURI(academicsUrl + element.getAsJsonObject().get("id").getAsString())));
-                    //author name
-                    model.add(factory.createStatement(factory.createURI(academicsUrl + element.getAsJsonObject().get("id").getAsString()),
-                            factory.createURI(schema.get("entity::property:name")), factory.createLiteral(element.getAsJsonObject().get("name").getAsString())));
-
-                }
-                break;
-            default:
-                break;
-
+        String resource = academicsUrl + id + "/";
+        URI subject = factory.createURI(resource);
+        model.add(factory.createStatement(subject, RDF.TYPE, factory.createURI(schema.get("entity::type"))));
+        if (schema.containsKey("entity::property:uri")) {
+            model.add(factory.createStatement(subject, factory.createURI(schema.get("entity::property:uri")), factory.createLiteral(resource)));
         }
-
+        if (text.length() > 0) {
+            addLiteral("entity::property:text", text.toString());
+        }
+        addStatements(subject);
     }
 
     /**
-     * @see Method to build literal properties of publications
-     * @param m
-     * @param key
-     * @param json
-     * @param resource
+     * @see The first author is the creator and the others are contributors,
+     * with their names
+     * @param reader
+     * @param text affiliations of the authors
+     * @throws IOException
      */
-    public void getGenericAttributes(Matcher m, String key, JsonObject json, String resource) {
-        if (json.has(m.group(2))) {
-            String value = json.get(m.group(2)).getAsString();
-
-            model.add(factory.createStatement(factory.createURI(resource),
-                    factory.createURI(schema.get(key)), factory.createLiteral(value)));
+    private void parseAuthors(JsonReader reader, StringBuilder text) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+            reader.skipValue();
+            return;
+        }
+        boolean first = true;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String id = null;
+            String name = null;
+            String affiliation = "";
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "AuId":
+                        id = nextString(reader);
+                        break;
+                    case "AuN":
+                        name = nextString(reader);
+                        break;
+                    case "AfN":
+                        affiliation = toString(nextString(reader));
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+            reader.endObject();
+            text.append(affiliation).append(" -");
+            if (id == null) {
+                continue;
+            }
+            String author = academicsUrl + id;
+            addUri(first ? "entity::property:creator" : "entity::property:contributor", author);
+            first = false;
+            if (name != null && schema.containsKey("entity::property:name")) {
+                model.add(factory.createStatement(factory.createURI(author),
+                        factory.createURI(schema.get("entity::property:name")), factory.createLiteral(name)));
+            }
         }
+        reader.endArray();
     }
 
     /**
-     * @see Method to build properties list of publications
-     * @param m
-     * @param key
-     * @param json
-     * @param resource
+     * @see The extended metadata ( abstract, doi, venue and sources ) is a
+     * json object inside a string
+     * @param metadata
+     * @throws IOException
      */
-    public void getGenericAttributesBucle(Matcher m, String key, JsonObject json, String resource) {
-        if (json.has(m.group(2))) {
-            JsonArray aux = new JsonArray();
-
-            aux = json.get(m.group(2)).getAsJsonArray();
-            for (JsonElement element : aux) {
-                model.add(factory.createStatement(factory.createURI(resource),
-                        factory.createURI(schema.get(key)), factory.createLiteral(element.getAsString())));
-
+    private void parseExtendedMetadata(String metadata) throws IOException {
+        String abstractt = "";
+        String doi = "";
+        String venue = "";
+        String venueShort = "";
+        if (!metadata.isEmpty()) {
+            JsonReader reader = new JsonReader(new StringReader(metadata));
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "D":
+                        abstractt = toString(nextString(reader));
+                        break;
+                    case "DOI":
+                        doi = toString(nextString(reader));
+                        break;
+                    case "VFN":
+                        venue = toString(nextString(reader));
+                        break;
+                    case "VSN":
+                        venueShort = toString(nextString(reader));
+                        break;
+                    case "S":
+                        for (String source : nextStrings(reader, "U")) {
+                            addUri("entity::property:fullversionurl", source);
+                        }
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
             }
-
+            reader.endObject();
         }
+        addLiteral("entity::property:abstractt", abstractt);
+        addLiteral("entity::property:doi", doi);
+        addLiteral("entity::property:conference", venue + " " + venueShort);
     }
 }
@@ -0,0 +1,63 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package test.ak;
+
+import java.io.IOException;
+import java.io.InputStream;
+import org.apache.marmotta.ucuenca.wk.provider.ak.AcademicsKnowledgeProvider;
+import org.apache.marmotta.ucuenca.wk.provider.ak.util.JSONtoRDF;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openrdf.model.Model;
+import org.openrdf.model.URI;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.LinkedHashModel;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.vocabulary.RDF;
+
+/**
+ * Conversion of a saved response of Academics Knowledge to RDF
+ */
+public class JSONtoRDFTest {
+
+    private static final String ACADEMICS_URL = "https://academic.microsoft.com/#/detail/";
+
+    private final ValueFactory factory = ValueFactoryImpl.getInstance();
+
+    @Test
+    public void testParse() throws IOException {
+        System.out.println("parse");
+        Model model = new LinkedHashModel();
+        try (InputStream input = JSONtoRDFTest.class.getResourceAsStream("/ak/evaluate-response.json")) {
+            new JSONtoRDF(AcademicsKnowledgeProvider.MAPPINGSCHEMA, model).parse(input);
+        }
+        URI document = uri("entity::type");
+        Assert.assertEquals(2, model.filter(null, RDF.TYPE, document).size());
+
+        // the Id is the first attribute of the first entity and the last of the second
+        URI publication = factory.createURI(ACADEMICS_URL + "2127485836/");
+        Assert.assertTrue(model.contains(publication, RDF.TYPE, document));
+        Assert.assertTrue(model.contains(factory.createURI(ACADEMICS_URL + "2301234567/"), RDF.TYPE, document));
+
+        Assert.assertTrue(model.contains(publication, uri("entity::property:title"), factory.createLiteral("semantic annotation of web services")));
+        Assert.assertTrue(model.contains(publication, uri("entity::property:creator"), factory.createURI(ACADEMICS_URL + "2106442851")));
+        Assert.assertEquals(2, model.filter(publication, uri("entity::property:contributor"), null).size());
+        Assert.assertTrue(model.contains(factory.createURI(ACADEMICS_URL + "2098472231"), uri("entity::property:name"), factory.createLiteral("mauricio espinoza")));
+        Assert.assertEquals(3, model.filter(publication, uri("entity::list:keyWord"), null).size());
+        Assert.assertEquals(2, model.filter(publication, uri("entity::property:references"), null).size());
+
+        // extended metadata, a json object inside a string
+        Assert.assertTrue(model.contains(publication, uri("entity::property:abstractt"), factory.createLiteral("We present an approach to annotate \"RESTful\" services.")));
+        Assert.assertTrue(model.contains(publication, uri("entity::property:doi"), factory.createLiteral("10.1016/j.websem.2014.01.001")));
+        Assert.assertTrue(model.contains(publication, uri("entity::property:conference"), factory.createLiteral("Journal of Web Semantics JWS")));
+        Assert.assertEquals(2, model.filter(publication, uri("entity::property:fullversionurl"), null).size());
+    }
+
+    private URI uri(String key) {
+        return factory.createURI(AcademicsKnowledgeProvider.MAPPINGSCHEMA.get(key));
+    }
+
+}
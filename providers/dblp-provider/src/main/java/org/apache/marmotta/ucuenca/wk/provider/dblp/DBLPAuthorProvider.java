@@ -27,8 +27,6 @@ import com.google.common.collect.ImmutableList;
 import org.apache.marmotta.ldclient.api.endpoint.Endpoint;
 import org.apache.marmotta.ldclient.api.provider.DataProvider;
 import org.apache.marmotta.ldclient.exception.DataRetrievalException;
-import org.apache.marmotta.ldclient.model.ClientConfiguration;
-import org.apache.marmotta.ldclient.model.ClientResponse;
 import org.apache.marmotta.ldclient.provider.xml.AbstractXMLDataProvider;
 import org.apache.marmotta.ldclient.provider.xml.mapping.XPathLiteralMapper;
 import org.apache.marmotta.ldclient.provider.xml.mapping.XPathValueMapper;
@@ -46,10 +44,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
@@ -67,6 +65,8 @@ public class DBLPAuthorProvider extends AbstractXMLDataProvider implements DataP
     public static final String NAME = "DBLP Author Provider";
     public static final String PATTERN = "http://dblp\\.org/pers/(.*)";
     public static final String LEGACY_PATTERN = "(http://dblp\\.uni\\-trier\\.de/pers/)(.*)";
+    private static final Pattern COMPILED_LEGACY_PATTERN = Pattern.compile(LEGACY_PATTERN);
+    private static final Pattern COMPILED_PATTERN = Pattern.compile(PATTERN);
     
     private static ConcurrentMap<String,String> dblpNamespaces = new ConcurrentHashMap<String, String>();
     static {
@@ -127,11 +127,11 @@ public class DBLPAuthorProvider extends AbstractXMLDataProvider implements DataP
     @Override
     public List<String> buildRequestUrl(String resource, Endpoint endpoint) {
     	String uri = "http://dblp.dagstuhl.de/pers/xr/";
-    	Matcher m = Pattern.compile(LEGACY_PATTERN).matcher(resource);
+    	Matcher m = COMPILED_LEGACY_PATTERN.matcher(resource);
     	if(m.find()) {
     		uri += m.group(2);
     	} else {
-    		m = Pattern.compile(PATTERN).matcher(resource);
+    		m = COMPILED_PATTERN.matcher(resource);
         	Preconditions.checkState(StringUtils.isNotBlank(resource) && m.find());
         	uri = resource;
     	}
@@ -144,25 +144,13 @@ public class DBLPAuthorProvider extends AbstractXMLDataProvider implements DataP
     	log.debug("Request {0} succesful");
     	ValueFactory factory = ValueFactoryImpl.getInstance();
     	
-    	ClientConfiguration conf = new ClientConfiguration();
-        conf.addEndpoint(new DBLPResourceEndpoint());
-        LDClient ldClient = new LDClient(conf);
-        Set<Value> resources = triples.filter(factory.createURI(resource), FOAF.publications, null).objects();
-        if(!resources.isEmpty()) {
-	        Model resourceModel = null;
-	        for(Value dblpResource: resources) {
-	    		String resourceDoc = ((Resource)dblpResource).stringValue();
-	    		ClientResponse response = ldClient.retrieveResource(resourceDoc);
-	        	Model rsModel = response.getData();
-	        	if(resourceModel == null) {
-	        		resourceModel = rsModel;
-	        	} else {
-	        		resourceModel.addAll(rsModel);
-	        	}
-	    	}
-	        triples.addAll(resourceModel);
+    	LDClient ldClient = DBLPRawProvider.LDCLIENTS.get(DBLPAuthorProvider.class, new DBLPResourceEndpoint());
+        List<String> resources = new ArrayList<>();
+        for(Value dblpResource: triples.filter(factory.createURI(resource), FOAF.publications, null).objects()) {
+        	resources.add(((Resource)dblpResource).stringValue());
         }
-        if(!resource.matches(PATTERN)) {
+        DBLPRawProvider.LDCLIENTS.retrieveAll(ldClient, resources, triples);
+        if(!COMPILED_PATTERN.matcher(resource).matches()) {
     		triples.add(factory.createURI(resource), OWL.SAMEAS, factory.createURI(requestUrl));
     	}
     	return Collections.emptyList();
@@ -23,8 +23,6 @@ import com.google.common.base.Preconditions;
 
 import org.apache.marmotta.ldclient.api.endpoint.Endpoint;
 import org.apache.marmotta.ldclient.exception.DataRetrievalException;
-import org.apache.marmotta.ldclient.model.ClientConfiguration;
-import org.apache.marmotta.ldclient.model.ClientResponse;
 import org.apache.marmotta.ldclient.services.ldclient.LDClient;
 import org.apache.marmotta.ldclient.services.provider.AbstractHttpProvider;
 import org.openrdf.model.Model;
@@ -41,9 +39,9 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
@@ -60,6 +58,8 @@ public class DBLPAuthorRawProvider extends AbstractHttpProvider {
     public static final String NAME = "DBLP Author Raw Provider";
     public static final String PATTERN = "(http://dblp\\.org/pers/)(.*)";
     public static final String LEGACY_PATTERN = "(http://dblp\\.(.*)\\.de/pers/)(.*)";
+    private static final Pattern COMPILED_LEGACY_PATTERN = Pattern.compile(LEGACY_PATTERN);
+    private static final Pattern COMPILED_PATTERN = Pattern.compile(PATTERN);
 
     private static ConcurrentMap<String, String> dblpNamespaces = new ConcurrentHashMap<String, String>();
 
@@ -112,11 +112,11 @@ public class DBLPAuthorRawProvider extends AbstractHttpProvider {
     @Override
     public List<String> buildRequestUrl(String resource, Endpoint endpoint) {
         String uri = "http://dblp.dagstuhl.de/pers/";
-        Matcher m = Pattern.compile(LEGACY_PATTERN).matcher(resource);
+        Matcher m = COMPILED_LEGACY_PATTERN.matcher(resource);
         Boolean isLegacy = Boolean.TRUE;
         if (!m.find()) {
             isLegacy = Boolean.FALSE;
-            m = Pattern.compile(PATTERN).matcher(resource);
+            m = COMPILED_PATTERN.matcher(resource);
             Preconditions.checkState(StringUtils.isNotBlank(resource) && m.find());
         }
 
@@ -130,8 +130,7 @@ public class DBLPAuthorRawProvider extends AbstractHttpProvider {
         log.debug("Request {0} succesful", requestUrl);
         ValueFactory factory = ValueFactoryImpl.getInstance();
         RDFFormat format = RDFFormat.forMIMEType(contentType);
-        ClientConfiguration conf = new ClientConfiguration();
-        LDClient ldClient = new LDClient(conf);
+        LDClient ldClient = DBLPRawProvider.LDCLIENTS.get(DBLPAuthorRawProvider.class);
         try {
             ModelCommons.add(triples, input, resource, format);
         } catch (UnsupportedRDFormatException e) {
@@ -145,21 +144,11 @@ public class DBLPAuthorRawProvider extends AbstractHttpProvider {
                 factory.createURI("http://"+dblpNamespaces.get("dblp") + "authorOf"), null);
         Resource subject = publications.subjects().iterator().next();
         triples.add(factory.createURI(resource), OWL.SAMEAS, subject);
-        Set<Value> resources = publications.objects();
-        if (!resources.isEmpty()) {
-            Model resourceModel = null;
-            for (Value dblpResource : resources) {
-                String resourceDoc = ((Resource) dblpResource).stringValue();
-                ClientResponse response = ldClient.retrieveResource(resourceDoc);
-                Model rsModel = response.getData();
-                if (resourceModel == null) {
-                    resourceModel = rsModel;
-                } else {
-                    resourceModel.addAll(rsModel);
-                }
-            }
-            triples.addAll(resourceModel);
+        List<String> resources = new ArrayList<>();
+        for (Value dblpResource : publications.objects()) {
+            resources.add(((Resource) dblpResource).stringValue());
         }
+        DBLPRawProvider.LDCLIENTS.retrieveAll(ldClient, resources, triples);
         return Collections.emptyList();
 
     }
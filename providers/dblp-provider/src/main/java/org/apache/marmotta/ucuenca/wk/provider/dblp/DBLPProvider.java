@@ -26,8 +26,6 @@ import com.google.common.collect.ImmutableList;
 import org.apache.marmotta.ldclient.api.endpoint.Endpoint;
 import org.apache.marmotta.ldclient.api.provider.DataProvider;
 import org.apache.marmotta.ldclient.exception.DataRetrievalException;
-import org.apache.marmotta.ldclient.model.ClientConfiguration;
-import org.apache.marmotta.ldclient.model.ClientResponse;
 import org.apache.marmotta.ldclient.provider.xml.AbstractXMLDataProvider;
 import org.apache.marmotta.ldclient.provider.xml.mapping.XPathValueMapper;
 import org.apache.marmotta.ldclient.services.ldclient.LDClient;
@@ -41,10 +39,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
@@ -61,6 +59,7 @@ public class DBLPProvider extends AbstractXMLDataProvider implements DataProvide
     public static final String NAME = "DBLP Provider";
     public static final String API = "http://dblp.uni-trier.de/search/author/api?q=%s&format=xml";
     public static final String SERVICE_PATTERN = "http://dblp\\.uni\\-trier\\.de/search/author/api\\?q\\=(.*)(\\&format\\=xml)?$";
+    private static final Pattern COMPILED_SERVICE_PATTERN = Pattern.compile(SERVICE_PATTERN);
     public static final String PATTERN = "http(s?)://rdf\\.dblp\\.com/ns/search/.*";
     
     private static ConcurrentMap<String,XPathValueMapper> mediaOntMappings = new ConcurrentHashMap<String, XPathValueMapper>();
@@ -107,7 +106,7 @@ public class DBLPProvider extends AbstractXMLDataProvider implements DataProvide
     @Override
     public List<String> buildRequestUrl(String resource, Endpoint endpoint) {
     	String url = null;
-    	Matcher m = Pattern.compile(SERVICE_PATTERN).matcher(resource);
+    	Matcher m = COMPILED_SERVICE_PATTERN.matcher(resource);
     	if(m.find()) {
     		url = resource;
     	} else {
@@ -124,23 +123,12 @@ public class DBLPProvider extends AbstractXMLDataProvider implements DataProvide
     	log.debug("Request Successful to {0}", requestUrl);
     	ValueFactory factory = ValueFactoryImpl.getInstance();
     	
-    	ClientConfiguration conf = new ClientConfiguration();
-        LDClient ldClient = new LDClient(conf);
-        Set<Value> candidates = triples.filter(factory.createURI(resource), FOAF.member, null).objects();
-        if(!candidates.isEmpty()) {
-	        Model candidateModel = null;
-	    	for(Value dblpAuthor: candidates) {
-	    		String author = ((Resource)dblpAuthor).stringValue();
-	    		ClientResponse response = ldClient.retrieveResource(author);
-	        	Model authorModel = response.getData();
-	        	if(candidateModel == null) {
-	        		candidateModel = authorModel;
-	        	} else {
-	        		candidateModel.addAll(authorModel);
-	        	}
-	    	}
-	    	triples.addAll(candidateModel);
+    	LDClient ldClient = DBLPRawProvider.LDCLIENTS.get(DBLPProvider.class);
+        List<String> candidates = new ArrayList<>();
+        for(Value dblpAuthor: triples.filter(factory.createURI(resource), FOAF.member, null).objects()) {
+        	candidates.add(((Resource)dblpAuthor).stringValue());
         }
+        DBLPRawProvider.LDCLIENTS.retrieveAll(ldClient, candidates, triples);
     	return Collections.emptyList();
     }
 
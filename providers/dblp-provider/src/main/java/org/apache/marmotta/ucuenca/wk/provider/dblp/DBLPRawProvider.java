@@ -24,10 +24,9 @@ import com.google.common.base.Preconditions;
 
 import org.apache.marmotta.ldclient.api.endpoint.Endpoint;
 import org.apache.marmotta.ldclient.exception.DataRetrievalException;
-import org.apache.marmotta.ldclient.model.ClientConfiguration;
-import org.apache.marmotta.ldclient.model.ClientResponse;
 import org.apache.marmotta.ldclient.services.ldclient.LDClient;
 import org.apache.marmotta.ldclient.services.provider.AbstractHttpProvider;
+import org.apache.marmotta.ucuenca.wk.provider.commons.ProviderLDClients;
 import org.jdom2.Document;
 import org.jdom2.Element;
 import org.jdom2.JDOMException;
@@ -59,10 +58,14 @@ public class DBLPRawProvider extends AbstractHttpProvider{
     public static final String NAME = "DBLP Raw Provider";
     public static final String API = "http://dblp.uni-trier.de/search/author/api?q=%s&format=xml";
     public static final String SERVICE_PATTERN = "http://dblp\\.uni\\-trier\\.de/search/author/api\\?q\\=(.*)(\\&format\\=xml)?$";
+    private static final Pattern COMPILED_SERVICE_PATTERN = Pattern.compile(SERVICE_PATTERN);
     public static final String PATTERN = "http(s?)://rdf\\.dblp\\.com/ns/search/.*";
     
     private static Logger log = LoggerFactory.getLogger(DBLPRawProvider.class);
 
+    /* clients of the DBLP providers, 8 requests at the same time of each client */
+    static final ProviderLDClients LDCLIENTS = new ProviderLDClients("dblp", 8);
+
     /**
      * Return the name of this data provider. To be used e.g. in the configuration and in log messages.
      *
@@ -98,7 +101,7 @@ public class DBLPRawProvider extends AbstractHttpProvider{
     @Override
     public List<String> buildRequestUrl(String resource, Endpoint endpoint) {
     	String url = null;
-    	Matcher m = Pattern.compile(SERVICE_PATTERN).matcher(resource);
+    	Matcher m = COMPILED_SERVICE_PATTERN.matcher(resource);
     	if(m.find()) {
     		url = resource;
     	} else {
@@ -121,21 +124,8 @@ public class DBLPRawProvider extends AbstractHttpProvider{
 	    		triples.add(factory.createStatement(factory.createURI( resource ), FOAF.member, factory.createURI( candidate ) ));
 	    		candidates.add(candidate);
 	    	}
-	    	ClientConfiguration conf = new ClientConfiguration();
-	        LDClient ldClient = new LDClient(conf);
-	        if(!candidates.isEmpty()) {
-		        Model candidateModel = null;
-		    	for(String author: candidates) {
-		    		ClientResponse response = ldClient.retrieveResource(author);
-		        	Model authorModel = response.getData();
-		        	if(candidateModel == null) {
-		        		candidateModel = authorModel;
-		        	} else {
-		        		candidateModel.addAll(authorModel);
-		        	}
-		    	}
-		    	triples.addAll(candidateModel);
-	        }
+	    	LDClient ldClient = LDCLIENTS.get(DBLPRawProvider.class);
+	        LDCLIENTS.retrieveAll(ldClient, candidates, triples);
     	}catch (IOException e) {
             throw new DataRetrievalException("I/O error while parsing HTML response", e);
         }catch (JDOMException e) {
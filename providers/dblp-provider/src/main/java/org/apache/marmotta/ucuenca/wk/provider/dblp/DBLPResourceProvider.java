@@ -51,6 +51,8 @@ public class DBLPResourceProvider extends AbstractXMLDataProvider implements Dat
     public static final String NAME = "DBLP Resource Provider";
     public static final String PATTERN = "http://dblp\\.(org|dagstuhl\\.de)\\/rec/(.*)";
     public static final String LEGACY_PATTERN = "(http://dblp\\.uni\\-trier\\.de/rec/)(.*)";
+    private static final Pattern COMPILED_LEGACY_PATTERN = Pattern.compile(LEGACY_PATTERN);
+    private static final Pattern COMPILED_PATTERN = Pattern.compile(PATTERN);
 
     private static ConcurrentMap<String, String> dblpNamespaces = new ConcurrentHashMap<String, String>();
 
@@ -118,11 +120,11 @@ public class DBLPResourceProvider extends AbstractXMLDataProvider implements Dat
     @Override
     public List<String> buildRequestUrl(String resource, Endpoint endpoint) {
         String uri = "http://dblp.dagstuhl.de/rec/";
-        Matcher m = Pattern.compile(LEGACY_PATTERN).matcher(resource);
+        Matcher m = COMPILED_LEGACY_PATTERN.matcher(resource);
         if (m.find()) {
             uri += m.group(2);
         } else {
-            m = Pattern.compile(PATTERN).matcher(resource);
+            m = COMPILED_PATTERN.matcher(resource);
             Preconditions.checkState(StringUtils.isNotBlank(resource) && m.find());
             uri = resource;
         }
@@ -48,6 +48,8 @@ public class DBLPResourceRawProvider extends AbstractHttpProvider {
 	public static final String NAME = "DBLP Resource Raw Provider";
     public static final String PATTERN = "(http://dblp\\.dagstuhl\\.de\\.de/rec/)(.*)";
     public static final String LEGACY_PATTERN = "(http://dblp\\.uni\\-trier\\.de/rec/)(.*)";
+    private static final Pattern COMPILED_LEGACY_PATTERN = Pattern.compile(LEGACY_PATTERN);
+    private static final Pattern COMPILED_PATTERN = Pattern.compile(PATTERN);
 
     private static Logger log = LoggerFactory.getLogger(DBLPResourceRawProvider.class);
 
@@ -86,9 +88,9 @@ public class DBLPResourceRawProvider extends AbstractHttpProvider {
     @Override
     public List<String> buildRequestUrl(String resource, Endpoint endpoint) {
     	String uri = "http://dblp.dagstuhl.de/rec/rdf/";
-    	Matcher m = Pattern.compile(LEGACY_PATTERN).matcher(resource);
+    	Matcher m = COMPILED_LEGACY_PATTERN.matcher(resource);
     	if(!m.find()) {
-    		m = Pattern.compile(PATTERN).matcher(resource);
+    		m = COMPILED_PATTERN.matcher(resource);
         	Preconditions.checkState(StringUtils.isNotBlank(resource) && m.find());
     	}
     	uri += m.group(2);
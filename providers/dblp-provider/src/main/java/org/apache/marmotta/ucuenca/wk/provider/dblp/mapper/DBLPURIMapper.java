@@ -26,6 +26,7 @@ import org.openrdf.model.ValueFactory;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 /**
  * Common URI Mapper
@@ -34,6 +35,11 @@ import java.util.Map;
  */
 public class DBLPURIMapper extends XPathValueMapper {
 
+	private static final Pattern AUTHOR = Pattern.compile(DBLPAuthorProvider.PATTERN);
+	private static final Pattern LEGACY_AUTHOR = Pattern.compile(DBLPAuthorProvider.LEGACY_PATTERN);
+	private static final Pattern RESOURCE = Pattern.compile(DBLPResourceProvider.PATTERN);
+	private static final Pattern LEGACY_RESOURCE = Pattern.compile(DBLPResourceProvider.LEGACY_PATTERN);
+
 	private static String nsEntity;
 	
 	public DBLPURIMapper(String namespace, String xpath) {
@@ -62,13 +68,13 @@ public class DBLPURIMapper extends XPathValueMapper {
     @Override
     public List<Value> map(String resourceUri, String selectedValue, ValueFactory factory) {
     	Value uri = null;
-    	if( selectedValue.matches(DBLPAuthorProvider.LEGACY_PATTERN) || 
-    			selectedValue.matches(DBLPAuthorProvider.PATTERN)) {
-    		uri = (Value)factory.createURI(selectedValue.replaceAll("/pers/", "/pers/xr/"));
-    	} else if( selectedValue.matches(DBLPResourceProvider.LEGACY_PATTERN) ) {
-    		uri = (Value)factory.createURI(selectedValue.replaceAll("http://dblp.uni-trier.de/rec/", "http://dblp.dagstuhl.de/rec/rdf/conf/agile/"));
-    	} else if( selectedValue.matches(DBLPResourceProvider.PATTERN) ) {
-    		uri = (Value)factory.createURI(selectedValue.replaceAll("/rec/", "/rec/rdf/conf/agile/"));
+    	if( LEGACY_AUTHOR.matcher(selectedValue).matches() || 
+    			AUTHOR.matcher(selectedValue).matches()) {
+    		uri = (Value)factory.createURI(selectedValue.replace("/pers/", "/pers/xr/"));
+    	} else if( LEGACY_RESOURCE.matcher(selectedValue).matches() ) {
+    		uri = (Value)factory.createURI(selectedValue.replace("http://dblp.uni-trier.de/rec/", "http://dblp.dagstuhl.de/rec/rdf/conf/agile/"));
+    	} else if( RESOURCE.matcher(selectedValue).matches() ) {
+    		uri = (Value)factory.createURI(selectedValue.replace("/rec/", "/rec/rdf/conf/agile/"));
     	} else if(nsEntity != null) {
     		uri = (Value)factory.createURI(nsEntity + selectedValue);
     	} else {
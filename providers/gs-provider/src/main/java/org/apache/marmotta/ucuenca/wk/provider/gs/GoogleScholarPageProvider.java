@@ -72,6 +72,7 @@ public class GoogleScholarPageProvider extends AbstractHttpProvider{
     //public static final String API = "http://dblp.uni-trier.de/search/author/api?q=%s&format=xml";
     //public static final String SERVICE_PATTERN = "http://dblp\\.uni\\-trier\\.de/search/author/api\\?q\\=(.*)(\\&format\\=xml)?$";
     public static final String PATTERN = "http(s?)://scholar\\.google\\.com/scholar\\?start\\=[1-9]\\d*&q=author\\:%22([A-Z|a-z|á-ú|\\+]*)%22\\&hl=en\\&as_sdt\\=1%2C15\\&as_vis\\=1(.*)$";
+    private static final Pattern COMPILED_PATTERN = Pattern.compile(PATTERN);
     
     
     private static Logger log = LoggerFactory.getLogger(GoogleScholarPageProvider.class);
@@ -113,7 +114,7 @@ public class GoogleScholarPageProvider extends AbstractHttpProvider{
     @Override
     public List<String> buildRequestUrl(String resource, Endpoint endpoint) {
     	String url = null;
-    	Matcher m = Pattern.compile(PATTERN).matcher(resource);
+    	Matcher m = COMPILED_PATTERN.matcher(resource);
     	if(m.find()) {
     		stringSearch = m.group(2);
     		authorSearch = m.group(3);
@@ -0,0 +1,123 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.provider.gs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import org.apache.marmotta.ldclient.exception.DataRetrievalException;
+import org.apache.marmotta.ldclient.services.ldclient.LDClient;
+import org.apache.marmotta.ucuenca.wk.provider.commons.ProviderLDClients;
+import org.openrdf.model.Model;
+
+/**
+ * Retrieval of the pages of results of an author ( {@link #retrievePages} ) by
+ * the threads of a source, with a request every 1 / pagesPerSecond seconds.
+ * The pace is kept for the authors of the same instance, each Google Scholar
+ * provider has its own.
+ */
+public final class GoogleScholarPages {
+
+    public static final double DEFAULT_PAGES_PER_SECOND = 2;
+
+    private final ProviderLDClients source;
+
+    /* milliseconds between the requests of pages */
+    private volatile long interval;
+
+    private long nextRequest;
+
+    /**
+     * @param source source with the threads of the requests
+     */
+    public GoogleScholarPages(ProviderLDClients source) {
+        this.source = source;
+        setPagesPerSecond(DEFAULT_PAGES_PER_SECOND);
+    }
+
+    /**
+     * Requests of pages per second of all authors
+     *
+     * @param pagesPerSecond 0 or less is without limit
+     */
+    public void setPagesPerSecond(double pagesPerSecond) {
+        interval = pagesPerSecond > 0 ? (long) (1000 / pagesPerSecond) : 0;
+    }
+
+    /**
+     * Retrieve the pages with the client at the same time and add the data of
+     * each page to the triples when it is retrieved
+     *
+     * @param client
+     * @param pages
+     * @param triples
+     * @throws DataRetrievalException the first error of the pages
+     */
+    public void retrievePages(final LDClient client, List<String> pages, Model triples) throws DataRetrievalException {
+        if (pages.isEmpty()) {
+            return;
+        }
+        CompletionService<Model> completion = new ExecutorCompletionService<>(source.getExecutor());
+        List<Future<Model>> results = new ArrayList<>(pages.size());
+        try {
+            for (final String page : pages) {
+                results.add(completion.submit(new Callable<Model>() {
+                    @Override
+                    public Model call() throws Exception {
+                        pace();
+                        return client.retrieveResource(page).getData();
+                    }
+                }));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                triples.addAll(completion.take().get());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DataRetrievalException("Interrupted while retrieving the pages of results", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof DataRetrievalException) {
+                throw (DataRetrievalException) ex.getCause();
+            }
+            throw new DataRetrievalException("Error while retrieving the pages of results", ex.getCause());
+        } finally {
+            for (Future<Model> result : results) {
+                result.cancel(true);
+            }
+        }
+    }
+
+    /* wait for the turn of the request */
+    private void pace() throws InterruptedException {
+        long wait;
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            long start = Math.max(now, nextRequest);
+            nextRequest = start + interval;
+            wait = start - now;
+        }
+        if (wait > 0) {
+            Thread.sleep(wait);
+        }
+    }
+
+}
@@ -25,9 +25,9 @@ import com.google.gson.JsonArray;
 import org.apache.marmotta.ldclient.api.endpoint.Endpoint;
 import org.apache.marmotta.ldclient.exception.DataRetrievalException;
 import org.apache.marmotta.ldclient.model.ClientConfiguration;
-import org.apache.marmotta.ldclient.model.ClientResponse;
 import org.apache.marmotta.ldclient.services.ldclient.LDClient;
 import org.apache.marmotta.ldclient.services.provider.AbstractHttpProvider;
+import org.apache.marmotta.ucuenca.wk.provider.commons.ProviderLDClients;
 import org.apache.marmotta.ucuenca.wk.provider.gs.util.GSXMLHandler;
 import org.apache.marmotta.ucuenca.wk.provider.gs.util.GSresult;
 import org.apache.marmotta.ucuenca.wk.provider.gs.util.JSONtoRDF;
@@ -51,6 +51,7 @@ import org.xml.sax.helpers.XMLReaderFactory;
 import java.io.IOException;
 import java.io.InputStream;
 //import java.net.URL;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -70,12 +71,21 @@ public class GoogleScholarProvider extends AbstractHttpProvider {
     public static final String NAME = "Google Scholar Provider";
     public static final String API = "http://scholar.google.com/scholar?start=%s&q=author:%%22%s%%22%s&hl=en&as_sdt=1%%2C15&as_vis=1%s";
     public static final String PATTERN = "http(s?)://scholar\\.google\\.com/scholar\\?start\\=0\\&q=author\\:%22(.*)%22\\&hl=en\\&as_sdt\\=1%2C15\\&as_vis\\=1(.*)$";
+    private static final Pattern COMPILED_PATTERN = Pattern.compile(PATTERN);
     private static String nsUcuenca = "https://www.cedia.org.ec/";
 
     private static Logger log = LoggerFactory.getLogger(GoogleScholarProvider.class);
 
+    /* clients of the Google Scholar providers, 2 requests at the same time of each client */
+    static final ProviderLDClients LDCLIENTS = new ProviderLDClients("gs", 2);
+
     private String stringSearch = null, authorSearch = null, advancedSearch = null;
 
+    /* pages of results of an author, 0 is all pages */
+    private volatile int maxPages = 0;
+
+    private final GoogleScholarPages pages = new GoogleScholarPages(LDCLIENTS);
+
     public static final ConcurrentMap<String, String> MAPPINGSCHEMA = new ConcurrentHashMap<String, String>();
 
     static {
@@ -101,6 +111,50 @@ public class GoogleScholarProvider extends AbstractHttpProvider {
 
     }
 
+    /**
+     * Maximum pages of results of each author, for example to refresh only
+     * the recent publications
+     *
+     * @param pages 0 or less is all pages
+     */
+    public void setMaxPages(int pages) {
+        maxPages = pages > 0 ? pages : 0;
+    }
+
+    /**
+     * Requests of pages per second of the authors of this provider
+     *
+     * @param pagesPerSecond 0 or less is without limit
+     */
+    public void setPagesPerSecond(double pagesPerSecond) {
+        pages.setPagesPerSecond(pagesPerSecond);
+    }
+
+    /**
+     * Urls of the pages after the first one of the search of an author, at
+     * most maxPages pages with the first one
+     *
+     * @param resource url of the first page of the search
+     * @param results results of the search
+     * @return
+     */
+    public List<String> getPageUrls(String resource, int results) {
+        int numPages = results / 10 + 1;
+        if (maxPages > 0 && numPages > maxPages) {
+            numPages = maxPages;
+        }
+        // the search of this response, the fields of the provider are of the last request
+        Matcher m = COMPILED_PATTERN.matcher(resource);
+        List<String> urls = new ArrayList<>();
+        if (m.find()) {
+            for (int pagesLoaded = 1; pagesLoaded < numPages; pagesLoaded++) {
+                String pagenumquery = Integer.toString(pagesLoaded * 10);
+                urls.add(String.format(API, pagenumquery, m.group(2), "", m.group(3)));
+            }
+        }
+        return urls;
+    }
+
     /**
      * Return the name of this data provider. To be used e.g. in the
      * configuration and in log messages.
@@ -139,7 +193,7 @@ public class GoogleScholarProvider extends AbstractHttpProvider {
     @Override
     public List<String> buildRequestUrl(String resource, Endpoint endpoint) {
         String url = null;
-        Matcher m = Pattern.compile(PATTERN).matcher(resource);
+        Matcher m = COMPILED_PATTERN.matcher(resource);
         if (m.find()) {
             stringSearch = m.group(2);
             authorSearch = m.group(3);
@@ -180,25 +234,8 @@ public class GoogleScholarProvider extends AbstractHttpProvider {
             } catch (Exception e) {
                 throw new DataRetrievalException("I/O exception while retrieving resource: " + requestUrl, e);
             }
-            int numPages = (int) ((double) (gsXMLHandler.getNumResults() / 10)) + 1;
-            int pagesLoaded = 1;
-            Model model = null;
-            while (pagesLoaded < numPages) {
-               
-                String pagenumquery = Integer.toString(pagesLoaded * 10);
-                String moreDataUrl = String.format(API, pagenumquery, stringSearch, authorSearch, advancedSearch);
-                ClientConfiguration conf = new ClientConfiguration();
-                LDClient ldClient = new LDClient(conf);
-                ClientResponse response = ldClient.retrieveResource(moreDataUrl);
-                Model pageModel = response.getData();
-                if (model == null) {
-                    model = pageModel;
-                } else {
-                    model.addAll(pageModel);
-                }
-                pagesLoaded++;
-            }
-            triples.addAll(model);
+            LDClient ldClient = LDCLIENTS.get(GoogleScholarProvider.class);
+            pages.retrievePages(ldClient, getPageUrls(resource, gsXMLHandler.getNumResults()), triples);
 
         } catch (SAXException | IOException e) {
             throw new DataRetrievalException("I/O exception while retrieving resource: " + requestUrl, e);
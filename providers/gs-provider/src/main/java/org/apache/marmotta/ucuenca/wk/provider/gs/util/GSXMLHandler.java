@@ -23,18 +23,23 @@ import org.xml.sax.helpers.DefaultHandler;
 //import android.util.Log;
 public class GSXMLHandler extends DefaultHandler {
 
-    private static GSresult gsresult;
-    private Set<GSresult> gsresultlist = new HashSet<>();
-
-    private String builder;
-    private static String currenttext = null;
-    private static int pageresultcount = 0;
-    private static Pattern resulttag;
-    private static Matcher resultmatch;
-    private static Pattern citestag;
-    private static Matcher citesmatch;
-    private static int numresults = 0;
-    private static int level = 0;
+    private static final Pattern RESULTS = Pattern.compile("[\\w]*\\s?([0-9,]+) results", Pattern.MULTILINE);
+    private static final Pattern CITES = Pattern.compile("Cited by (.*?) .*?", Pattern.MULTILINE);
+
+    /**
+     * The state of the parsing is of the instance, each page is parsed with its
+     * own handler ( the pages of an author are parsed at the same time ). The
+     * state is reset at the start of each document, so a handler can parse
+     * several pages one after another
+     */
+    private GSresult gsresult;
+    private final Set<GSresult> gsresultlist = new HashSet<>();
+
+    private final StringBuilder builder = new StringBuilder();
+    private String currenttext = null;
+    private int pageresultcount = 0;
+    private int numresults = 0;
+    private int level = 0;
 
     /**
      * The following variables act as flags to keep track of state during
@@ -77,10 +82,22 @@ public class GSXMLHandler extends DefaultHandler {
     //private boolean D = false;
 
     public GSXMLHandler() {
-        builder = new String();
         gsresult = new GSresult();
     }
 
+    @Override
+    public void startDocument() throws SAXException {
+        gsresult = new GSresult();
+        gsresultlist.clear();
+        builder.setLength(0);
+        currenttext = null;
+        pageresultcount = 0;
+        numresults = 0;
+        level = OUTGSR;
+        isfreepdf = false;
+        isbook = false;
+    }
+
     //public static GSresultList gsresultlist = null;
     //private static final String TAG = "MyActivity";
     /**
@@ -151,7 +168,7 @@ public class GSXMLHandler extends DefaultHandler {
         } //#3
         else if ((level == OUTGSRT) && ("gs_a".equalsIgnoreCase(currenttext))) {
             level = INAUTHOR;
-            builder = new String();
+            builder.setLength(0);
         } //#3
         else {
             ifOneFirst(uri, localName, qName, attributes);
@@ -163,11 +180,11 @@ public class GSXMLHandler extends DefaultHandler {
     public void ifOneFirst(String uri, String localName, String qName, Attributes attributes) {
         if ((level == OUTAUTHOR) && ("gs_rs".equalsIgnoreCase(currenttext))) {
             level = INTEXT;
-            builder = new String();
+            builder.setLength(0);
         } //#3
         else if ((level == OUTTEXT) && ("gs_fl".equalsIgnoreCase(currenttext))) {
             level = INCITE;
-            builder = new String();
+            builder.setLength(0);
 
         } //#3
         else if ((level == OUTCHECKPDF) && ("gs_br".equalsIgnoreCase(currenttext))) {
@@ -184,9 +201,8 @@ public class GSXMLHandler extends DefaultHandler {
             /**
              * New Google Scholar shows it on upper left
              */
-            resulttag = Pattern.compile("[\\w]*\\s?([0-9,]+) results", Pattern.MULTILINE);
             //if(D) Log.d(TAG,"\nString="+builder);
-            resultmatch = resulttag.matcher(builder);
+            Matcher resultmatch = RESULTS.matcher(builder);
             if (resultmatch.find()) {
                 NumberFormat format = NumberFormat.getInstance(Locale.US);
                 try {
@@ -222,7 +238,7 @@ public class GSXMLHandler extends DefaultHandler {
         else if ((level == INGSRT) || (level == OUTCHECKBOOK)) {
             //if(D) Log.d(TAG,"link="+attributes.getValue("href"));
             gsresult.setLink(attributes.getValue("href"));
-            builder = new String();
+            builder.setLength(0);
             level = INTITLE;
             if ((!isfreepdf) && (!isbook)) {
                 gsresult.setType(ONLYLINK);
@@ -240,12 +256,12 @@ public class GSXMLHandler extends DefaultHandler {
 
         if ((level == INPDF) && div1.equalsIgnoreCase(currenttext)) {
             level = INCHECKPDF;
-            builder = new String();
+            builder.setLength(0);
 
         } //#3
         else if ((level == INGSRT) && div2.equalsIgnoreCase(currenttext)) {
             level = INCHECKBOOK;
-            builder = new String();
+            builder.setLength(0);
 
         } //#3
     }
@@ -284,13 +300,13 @@ public class GSXMLHandler extends DefaultHandler {
                 level = OUTPDF;
                 break;
             case INAUTHOR:
-                gsresult.setAuthor(builder);
+                gsresult.setAuthor(builder.toString());
 
                 level = OUTAUTHOR;
                 break;
             case INTEXT:
-                gsresult.setText(builder.replaceAll("\n", " "));
-                builder = new String();
+                gsresult.setText(builder.toString().replaceAll("\n", " "));
+                builder.setLength(0);
                 level = OUTTEXT;
                 break;
 
@@ -307,8 +323,7 @@ public class GSXMLHandler extends DefaultHandler {
 
             case INCITE:
                 level = OUTCITE;
-                citestag = Pattern.compile("Cited by (.*?) .*?", Pattern.MULTILINE);
-                citesmatch = citestag.matcher(builder);
+                Matcher citesmatch = CITES.matcher(builder);
                 if (citesmatch.find()) {
                     try {
                         //if(D) Log.d(TAG,"Cites="+citesmatch.group(1));
@@ -353,7 +368,7 @@ public class GSXMLHandler extends DefaultHandler {
         if (level == INTITLE) {
             level = OUTTITLE;
             //if(D) Log.d(TAG,"title="+builder);
-            gsresult.setTitle(builder);
+            gsresult.setTitle(builder.toString());
 
         } //#3
     }
@@ -365,14 +380,14 @@ public class GSXMLHandler extends DefaultHandler {
         else if (level == INCHECKPDF) {
             //if(D) Log.d("MyApp","Type="+builder);
             String axu="[PDF]";
-            if (builder.equalsIgnoreCase(axu)) {
+            if (axu.equalsIgnoreCase(builder.toString())) {
                 isfreepdf = true;
                 gsresult.setType(FREEPDF);
             }
             level = OUTCHECKPDF;
         } //#3
         else if (level == INCHECKBOOK) {
-            if ("[BOOK]".equalsIgnoreCase(builder)) {
+            if ("[BOOK]".equalsIgnoreCase(builder.toString())) {
                 isbook = true;
                 if (isfreepdf) {
                     gsresult.setType(BOOKANDPDF);
@@ -390,8 +405,7 @@ public class GSXMLHandler extends DefaultHandler {
      */
     @Override
     public void characters(char[] ch, int start, int length) throws SAXException {
-        currenttext = new String(ch, start, length);
-        builder = builder + currenttext;
+        builder.append(ch, start, length);
 
     }
 
@@ -1,28 +1,39 @@
 package org.apache.marmotta.ucuenca.wk.provider.gs.util;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.openrdf.model.Model;
+import org.openrdf.model.URI;
 import org.openrdf.model.ValueFactory;
 import org.openrdf.model.impl.ValueFactoryImpl;
 import org.openrdf.model.vocabulary.RDF;
 
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
 public class JSONtoRDF {
 
+    private static final String TYPE = "entity::type";
+    private static final String PROPERTY = "entity::property:";
+    private static final String CREATOR = "entity::property:creator";
+    private static final String LINK = "entity::property:link";
+
+    /* dispatch table of each schema, the schemas are static maps of the providers */
+    private static final Map<Map<String, String>, Mapping> MAPPINGS = new IdentityHashMap<>();
+
     private String resource;
     private JsonArray data;
     private Model model;
-    private Map<String, String> schema;
+    private Mapping mapping;
     private final ValueFactory factory = ValueFactoryImpl.getInstance();
 
     public JSONtoRDF(String resource, Map<String, String> schema, JsonArray data, Model model) {
         this.resource = resource;
-        this.schema = schema;
+        this.mapping = getMapping(schema);
         this.data = data;
         this.model = model;
     }
@@ -34,7 +45,7 @@ public class JSONtoRDF {
             if (json.has("link")) {
                 String value = json.get("link").getAsString();
                 model.add(factory.createStatement(factory.createURI(resource),
-                        factory.createURI(schema.get("entity::property:link")), factory.createURI(value)));
+                        mapping.link, factory.createURI(value)));
                 this.mappingProcess(value, json);
             }
 
@@ -47,50 +58,41 @@ public class JSONtoRDF {
     }
 
     private void mappingProcess(String resource, JsonObject json) {
-        for (String key : schema.keySet()) {
-            if (key.matches("^entity::type$")) {
-                model.add(factory.createStatement(factory.createURI(resource),
-                        RDF.TYPE, factory.createURI(schema.get("entity::type"))));
-                continue;
-            }
-            Matcher m = Pattern.compile("^(entity::property:creator)(.*)$").matcher(key);
-            if (m.find()) {
-                getAllAttributesAuthor(key, json, resource);
-            } else {
-                m = Pattern.compile("^(entity::property:)(.*)$").matcher(key);
-                if (m.find()) {
-                    getAllAttributes(m, key, json, resource);
-                }
-            }
-
+        URI subject = factory.createURI(resource);
+        if (mapping.type != null) {
+            model.add(factory.createStatement(subject, RDF.TYPE, mapping.type));
+        }
+        if (mapping.creator != null) {
+            getAllAttributesAuthor(json, subject);
+        }
+        for (int i = 0; i < mapping.attributes.size(); i++) {
+            getAllAttributes(mapping.attributes.get(i), mapping.properties.get(i), json, subject);
         }
-
     }
 
-    public void getAllAttributes(Matcher m, String key, JsonObject json, String resource) {
-        if (json.has(m.group(2))) {
-            String value = json.get(m.group(2)).getAsString();
-            model.add(factory.createStatement(factory.createURI(resource),
-                    factory.createURI(schema.get(key)), factory.createLiteral(value)));
+    public void getAllAttributes(String attribute, URI property, JsonObject json, URI subject) {
+        JsonElement value = json.get(attribute);
+        if (value != null) {
+            model.add(factory.createStatement(subject, property, factory.createLiteral(value.getAsString())));
         }
 
     }
 
-    private void getAllAttributesAuthor(String key, JsonObject json, String resource) {
+    private void getAllAttributesAuthor(JsonObject json, URI subject) {
         if (json.has("author")) {
             String aux = json.get("author").getAsString();
             if (aux.length() > 0) {
-                String guion = "… -";
-                try {
-                    aux = aux.substring(0, aux.indexOf(guion));
-                } catch (Exception e) {
-                    String guion2 = " - ";
-                    aux = aux.substring(0, aux.indexOf(guion2));
+                int end = aux.indexOf("… -");
+                if (end < 0) {
+                    end = aux.indexOf(" - ");
+                }
+                if (end >= 0) {
+                    aux = aux.substring(0, end);
                 }
                 String[] authors = aux.split(",");
                 for (String author : authors) {
-                    model.add(factory.createStatement(factory.createURI(resource),
-                            factory.createURI(schema.get(key)), factory.createURI("https://scholar.google.com/scholar?start=0&q=author:%22" + author.replace(" ", "+") + "%22&hl=en&as_sdt=1%2C15&as_vis=1")));
+                    model.add(factory.createStatement(subject,
+                            mapping.creator, factory.createURI("https://scholar.google.com/scholar?start=0&q=author:%22" + author.replace(" ", "+") + "%22&hl=en&as_sdt=1%2C15&as_vis=1")));
 
                 }
             }
@@ -98,4 +100,52 @@ public class JSONtoRDF {
 
     }
 
+    /**
+     * Dispatch table of the schema, built with the first response
+     *
+     * @param schema
+     * @return
+     */
+    private static synchronized Mapping getMapping(Map<String, String> schema) {
+        Mapping mapping = MAPPINGS.get(schema);
+        if (mapping == null) {
+            mapping = new Mapping(schema);
+            MAPPINGS.put(schema, mapping);
+        }
+        return mapping;
+    }
+
+    /**
+     * Property of each key of the schema: the type, the creators, and the
+     * literal of each attribute of the json ( entity::property:attribute )
+     */
+    private static final class Mapping {
+
+        private final URI type;
+        private final URI creator;
+        private final URI link;
+        private final List<String> attributes = new ArrayList<>();
+        private final List<URI> properties = new ArrayList<>();
+
+        Mapping(Map<String, String> schema) {
+            ValueFactory factory = ValueFactoryImpl.getInstance();
+            URI typeUri = null;
+            URI creatorUri = null;
+            for (Map.Entry<String, String> entry : schema.entrySet()) {
+                String key = entry.getKey();
+                if (TYPE.equals(key)) {
+                    typeUri = factory.createURI(entry.getValue());
+                } else if (key.startsWith(CREATOR)) {
+                    creatorUri = factory.createURI(entry.getValue());
+                } else if (key.startsWith(PROPERTY)) {
+                    attributes.add(key.substring(PROPERTY.length()));
+                    properties.add(factory.createURI(entry.getValue()));
+                }
+            }
+            this.type = typeUri;
+            this.creator = creatorUri;
+            this.link = schema.containsKey(LINK) ? factory.createURI(schema.get(LINK)) : null;
+        }
+    }
+
 }
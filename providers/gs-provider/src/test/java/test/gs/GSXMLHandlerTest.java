@@ -0,0 +1,107 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package test.gs;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.marmotta.ucuenca.wk.provider.gs.util.GSXMLHandler;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.XMLReaderFactory;
+
+/**
+ * Parsing of a saved page of results of Google Scholar, one by one and at the
+ * same time with a handler for each page
+ */
+public class GSXMLHandlerTest {
+
+    private static final int PAGES = 200;
+
+    private static final int THREADS = 4;
+
+    private static byte[] page;
+
+    @BeforeClass
+    public static void setUpClass() throws IOException {
+        try (InputStream input = GSXMLHandlerTest.class.getResourceAsStream("/gs/results-page.html")) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+            page = output.toByteArray();
+        }
+    }
+
+    @Test
+    public void testParsePage() throws SAXException, IOException {
+        System.out.println("parsePage");
+        GSXMLHandler handler = parse(new GSXMLHandler());
+        Assert.assertEquals(10, handler.getGSresultList().size());
+        Assert.assertEquals(1230, handler.getNumResults());
+        // the same handler parses another page
+        parse(handler);
+        Assert.assertEquals(10, handler.getGSresultList().size());
+        Assert.assertEquals(1230, handler.getNumResults());
+    }
+
+    @Test
+    public void testParallelParse() throws Exception {
+        System.out.println("parallelParse");
+        long start = System.nanoTime();
+        for (int i = 0; i < PAGES; i++) {
+            Assert.assertEquals(10, parse(new GSXMLHandler()).getGSresultList().size());
+        }
+        long serial = System.nanoTime() - start;
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<GSXMLHandler>> results = new ArrayList<>();
+            start = System.nanoTime();
+            for (int i = 0; i < PAGES; i++) {
+                results.add(executor.submit(new Callable<GSXMLHandler>() {
+                    @Override
+                    public GSXMLHandler call() throws Exception {
+                        return parse(new GSXMLHandler());
+                    }
+                }));
+            }
+            for (Future<GSXMLHandler> result : results) {
+                GSXMLHandler handler = result.get();
+                Assert.assertEquals(10, handler.getGSresultList().size());
+                Assert.assertEquals(1230, handler.getNumResults());
+            }
+            long parallel = System.nanoTime() - start;
+            System.out.println(PAGES + " pages: " + serial / 1000000 + " ms one by one, "
+                    + parallel / 1000000 + " ms with " + THREADS + " threads");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static GSXMLHandler parse(GSXMLHandler handler) throws SAXException, IOException {
+        XMLReader xr = XMLReaderFactory.createXMLReader("org.ccil.cowan.tagsoup.Parser");
+        xr.setContentHandler(handler);
+        InputSource gsxml = new InputSource(new ByteArrayInputStream(page));
+        gsxml.setEncoding("iso-8859-1");
+        xr.parse(gsxml);
+        return handler;
+    }
+
+}
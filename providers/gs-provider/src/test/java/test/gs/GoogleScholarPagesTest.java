@@ -0,0 +1,160 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package test.gs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.marmotta.ldclient.exception.DataRetrievalException;
+import org.apache.marmotta.ldclient.model.ClientConfiguration;
+import org.apache.marmotta.ldclient.model.ClientResponse;
+import org.apache.marmotta.ldclient.services.ldclient.LDClient;
+import org.apache.marmotta.ucuenca.wk.provider.commons.ProviderLDClients;
+import org.apache.marmotta.ucuenca.wk.provider.gs.GoogleScholarPages;
+import org.apache.marmotta.ucuenca.wk.provider.gs.GoogleScholarProvider;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.openrdf.model.Model;
+import org.openrdf.model.Statement;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.LinkedHashModel;
+import org.openrdf.model.impl.ValueFactoryImpl;
+
+/**
+ * Retrieval of the pages of results of an author and the urls of the pages of
+ * a search
+ */
+public class GoogleScholarPagesTest {
+
+    private static final ValueFactory VF = ValueFactoryImpl.getInstance();
+
+    private static final String SEARCH = "https://scholar.google.com/scholar?start=0&q=author:%22Victor+Saquicela%22&hl=en&as_sdt=1%2C15&as_vis=1";
+
+    private ProviderLDClients source;
+
+    private PageClient client;
+
+    @Before
+    public void setUp() {
+        source = new ProviderLDClients("test", 2);
+        client = new PageClient();
+    }
+
+    @After
+    public void tearDown() {
+        client.shutdown();
+        source.shutdown();
+    }
+
+    @Test
+    public void testRetrievePages() throws Exception {
+        GoogleScholarPages pages = new GoogleScholarPages(source);
+        pages.setPagesPerSecond(20);
+        List<String> urls = Arrays.asList("http://example.org/1", "http://example.org/2", "http://example.org/3", "http://example.org/4");
+
+        Model triples = new LinkedHashModel();
+        pages.retrievePages(client, urls, triples);
+
+        Set<String> subjects = new HashSet<>();
+        for (Statement triple : triples) {
+            subjects.add(triple.getSubject().stringValue());
+        }
+        Assert.assertEquals(new HashSet<>(urls), subjects);
+        // a request every 50 milliseconds, with some room for the timer
+        List<Long> starts = client.getStarts();
+        for (int i = 1; i < starts.size(); i++) {
+            Assert.assertTrue(starts.get(i) - starts.get(i - 1) >= 40);
+        }
+    }
+
+    @Test(expected = DataRetrievalException.class)
+    public void testRetrievePagesError() throws Exception {
+        GoogleScholarPages pages = new GoogleScholarPages(source);
+        pages.setPagesPerSecond(0);
+        pages.retrievePages(client, Arrays.asList("http://example.org/1", "http://example.org/error"), new LinkedHashModel());
+    }
+
+    @Test
+    public void testPageUrls() {
+        GoogleScholarProvider provider = new GoogleScholarProvider();
+
+        List<String> urls = provider.getPageUrls(SEARCH, 95);
+
+        Assert.assertEquals(9, urls.size());
+        Assert.assertEquals("http://scholar.google.com/scholar?start=10&q=author:%22Victor+Saquicela%22&hl=en&as_sdt=1%2C15&as_vis=1", urls.get(0));
+        Assert.assertEquals("http://scholar.google.com/scholar?start=90&q=author:%22Victor+Saquicela%22&hl=en&as_sdt=1%2C15&as_vis=1", urls.get(8));
+        Assert.assertEquals("http://scholar.google.com/scholar?start=10&q=author:%22Victor+Saquicela%22&hl=en&as_sdt=1%2C15&as_vis=1&as_ylo=2015",
+                provider.getPageUrls(SEARCH + "&as_ylo=2015", 15).get(0));
+        Assert.assertEquals(Collections.<String>emptyList(), provider.getPageUrls(SEARCH, 5));
+        Assert.assertEquals(Collections.<String>emptyList(), provider.getPageUrls("http://example.org/other", 95));
+    }
+
+    @Test
+    public void testMaxPages() {
+        GoogleScholarProvider provider = new GoogleScholarProvider();
+        provider.setMaxPages(3);
+
+        List<String> urls = provider.getPageUrls(SEARCH, 95);
+
+        Assert.assertEquals(2, urls.size());
+        Assert.assertTrue(urls.get(1).contains("start=20&"));
+        Assert.assertEquals(1, provider.getPageUrls(SEARCH, 15).size());
+        provider.setMaxPages(0);
+        Assert.assertEquals(9, provider.getPageUrls(SEARCH, 95).size());
+    }
+
+    /**
+     * Client that answers each page with one triple, the page ending in
+     * error fails
+     */
+    private static class PageClient extends LDClient {
+
+        private final List<Long> starts = new ArrayList<>();
+
+        PageClient() {
+            super(new ClientConfiguration());
+        }
+
+        @Override
+        public ClientResponse retrieveResource(String resource) throws DataRetrievalException {
+            synchronized (starts) {
+                starts.add(System.currentTimeMillis());
+            }
+            if (resource.endsWith("error")) {
+                throw new DataRetrievalException("Error page " + resource);
+            }
+            Model data = new LinkedHashModel();
+            data.add(VF.createStatement(VF.createURI(resource), VF.createURI("http://example.org/p"), VF.createLiteral(resource)));
+            return new ClientResponse(200, data);
+        }
+
+        List<Long> getStarts() {
+            synchronized (starts) {
+                List<Long> sorted = new ArrayList<>(starts);
+                Collections.sort(sorted);
+                return sorted;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package test.gs;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.marmotta.ucuenca.wk.provider.gs.GoogleScholarProvider;
+import org.apache.marmotta.ucuenca.wk.provider.gs.util.GSXMLHandler;
+import org.apache.marmotta.ucuenca.wk.provider.gs.util.GSresult;
+import org.apache.marmotta.ucuenca.wk.provider.gs.util.JSONtoRDF;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openrdf.model.Model;
+import org.openrdf.model.URI;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.LinkedHashModel;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.vocabulary.RDF;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.XMLReaderFactory;
+
+/**
+ * Mapping of the results of a saved page of Google Scholar with the schema of
+ * the provider
+ */
+public class JSONtoRDFTest {
+
+    private static final String RESOURCE = "https://scholar.google.com/scholar?start=0&q=author:%22victor+saquicela%22";
+
+    private static JsonArray results;
+
+    private final ValueFactory factory = ValueFactoryImpl.getInstance();
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        GSXMLHandler handler = new GSXMLHandler();
+        try (InputStream input = JSONtoRDFTest.class.getResourceAsStream("/gs/results-page.html")) {
+            XMLReader xr = XMLReaderFactory.createXMLReader("org.ccil.cowan.tagsoup.Parser");
+            xr.setContentHandler(handler);
+            InputSource gsxml = new InputSource(input);
+            gsxml.setEncoding("iso-8859-1");
+            xr.parse(gsxml);
+        }
+        Gson gson = new Gson();
+        results = new JsonArray();
+        for (GSresult result : handler.getGSresultList()) {
+            results.add(gson.toJsonTree(result).getAsJsonObject());
+        }
+    }
+
+    @Test
+    public void testParse() throws Exception {
+        System.out.println("parse");
+        Model model = new LinkedHashModel();
+        new JSONtoRDF(RESOURCE, GoogleScholarProvider.MAPPINGSCHEMA, results, model).parse();
+
+        URI link = uri("entity::property:link");
+        Assert.assertEquals(10, model.filter(factory.createURI(RESOURCE), link, null).size());
+        Assert.assertEquals(10, model.filter(null, RDF.TYPE, uri("entity::type")).size());
+        Assert.assertEquals(10, model.filter(null, uri("entity::property:title"), null).size());
+        Assert.assertFalse(model.filter(null, uri("entity::property:creator"), null).isEmpty());
+    }
+
+    @Test
+    public void testParsePages() throws Exception {
+        System.out.println("parsePages");
+        // the dispatch table of the schema is built once and gives the same statements for each page
+        Model first = new LinkedHashModel();
+        new JSONtoRDF(RESOURCE, GoogleScholarProvider.MAPPINGSCHEMA, results, first).parse();
+        for (int i = 0; i < 3; i++) {
+            Model model = new LinkedHashModel();
+            new JSONtoRDF(RESOURCE, GoogleScholarProvider.MAPPINGSCHEMA, results, model).parse();
+            Assert.assertEquals(first, model);
+        }
+    }
+
+    @Test
+    public void testParseResult() throws Exception {
+        System.out.println("parseResult");
+        Model model = new LinkedHashModel();
+        new JSONtoRDF(RESOURCE, GoogleScholarProvider.MAPPINGSCHEMA, page(), model).parse();
+
+        URI paper = factory.createURI("http://example.org/paper");
+        Assert.assertTrue(model.contains(factory.createURI(RESOURCE), uri("entity::property:link"), paper));
+        Assert.assertTrue(model.contains(paper, RDF.TYPE, uri("entity::type")));
+        Assert.assertTrue(model.contains(paper, uri("entity::property:title"), factory.createLiteral("Semantic annotation of web services")));
+        Assert.assertTrue(model.contains(paper, uri("entity::property:text"), factory.createLiteral("We present an approach")));
+        Assert.assertTrue(model.contains(paper, uri("entity::property:creator"),
+                factory.createURI("https://scholar.google.com/scholar?start=0&q=author:%22V+Saquicela%22&hl=en&as_sdt=1%2C15&as_vis=1")));
+        Assert.assertTrue(model.contains(paper, uri("entity::property:creator"),
+                factory.createURI("https://scholar.google.com/scholar?start=0&q=author:%22+M+Espinoza%22&hl=en&as_sdt=1%2C15&as_vis=1")));
+        Assert.assertEquals(2, model.filter(paper, uri("entity::property:creator"), null).size());
+        Assert.assertTrue(model.filter(null, null, factory.createLiteral("A result without link")).isEmpty());
+        Assert.assertEquals(7, model.size());
+    }
+
+    @Test
+    public void testParseOtherSchema() throws Exception {
+        System.out.println("parseOtherSchema");
+        // each schema has its own dispatch table
+        Map<String, String> schema = new HashMap<>();
+        schema.put("entity::type", "http://purl.org/ontology/bibo/Document");
+        schema.put("entity::property:link", "http://purl.org/ontology/bibo/uri");
+        schema.put("entity::property:title", "http://purl.org/dc/terms/title");
+        Model model = new LinkedHashModel();
+        new JSONtoRDF(RESOURCE, schema, page(), model).parse();
+
+        URI paper = factory.createURI("http://example.org/paper");
+        Assert.assertTrue(model.contains(paper, factory.createURI("http://purl.org/dc/terms/title"), factory.createLiteral("Semantic annotation of web services")));
+        Assert.assertTrue(model.filter(null, uri("entity::property:creator"), null).isEmpty());
+        Assert.assertTrue(model.filter(null, uri("entity::property:text"), null).isEmpty());
+        // the link of the search, the type, the link and the title of the result
+        Assert.assertEquals(4, model.size());
+    }
+
+    /* a result with link and a result without it */
+    private static JsonArray page() {
+        JsonObject result = new JsonObject();
+        result.addProperty("link", "http://example.org/paper");
+        result.addProperty("title", "Semantic annotation of web services");
+        result.addProperty("text", "We present an approach");
+        result.addProperty("author", "V Saquicela, M Espinoza - Journal of Web Semantics, 2014");
+        JsonObject withoutLink = new JsonObject();
+        withoutLink.addProperty("title", "A result without link");
+        JsonArray page = new JsonArray();
+        page.add(result);
+        page.add(withoutLink);
+        return page;
+    }
+
+    private URI uri(String key) {
+        return factory.createURI(GoogleScholarProvider.MAPPINGSCHEMA.get(key));
+    }
+
+}
@@ -16,9 +16,6 @@
  */
 package org.apache.marmotta.ucuenca.wk.provider.ma;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
-import java.io.BufferedReader;
 
 import org.apache.marmotta.ldclient.api.endpoint.Endpoint;
 import org.apache.marmotta.ldclient.exception.DataRetrievalException;
@@ -30,19 +27,13 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.apache.marmotta.ucuenca.wk.provider.ma.util.JSONtoRDF;
-import org.apache.marmotta.ucuenca.wk.provider.ma.util.MapPublications;
-import org.apache.marmotta.ucuenca.wk.provider.ma.util.Publication;
-import org.json.simple.parser.ParseException;
 
 
 /**
@@ -56,13 +47,13 @@ public class MicrosoftAcademicsProvider extends AbstractHttpProvider {
     public static final String API = "http://academic.research.microsoft.com/";
     public static final String PATTERN2 = "http(s?)://scholar\\.google\\.com/scholar\\?start\\=0\\&q=(.*)\\+article(.*)\\&hl=en\\&as_sdt\\=1%2C15\\&as_vis\\=1(.*)$";
     public static final String PATTERN = "http://academic\\.research\\.microsoft\\.com/json\\.svc/search\\?AppId\\=(.*)\\&AuthorQuery\\=(.*)\\&ResultObjects\\=Publication\\&PublicationContent\\=AllInfo\\&StartIdx\\=1\\&EndIdx\\=1(.*)$";
+    private static final Pattern COMPILED_PATTERN = Pattern.compile(PATTERN);
     public static final String PATTERN3 = "http(s?):.*";
 
     private static String nsUcuenca = "https://www.cedia.org.ec/";
     private static Logger log = LoggerFactory.getLogger(MicrosoftAcademicsProvider.class);
     public String stringSearch = null, authorSearch = null, advancedSearch = null, appId = null;
     public static final ConcurrentMap<String, String> MAPPINGSCHEMA = new ConcurrentHashMap<String, String>();
-    private MapPublications mapPublications = new MapPublications();
 
     static {
         MAPPINGSCHEMA.put("entity::type", "http://purl.org/ontology/bibo/Document");
@@ -124,7 +115,7 @@ public class MicrosoftAcademicsProvider extends AbstractHttpProvider {
     @Override
     public List<String> buildRequestUrl(String resource, Endpoint endpoint) {
         String url = null;
-        Matcher m = Pattern.compile(PATTERN).matcher(resource);
+        Matcher m = COMPILED_PATTERN.matcher(resource);
         if (m.find()) {
             appId = m.group(1);
             authorSearch = m.group(2);
@@ -145,36 +136,11 @@ public class MicrosoftAcademicsProvider extends AbstractHttpProvider {
     public List<String> parseResponse(String resource, String requestUrl, Model triples, InputStream input, String contentType) throws DataRetrievalException {
         log.debug("Request Successful to {0}", requestUrl);
 
+        JSONtoRDF parser = new JSONtoRDF(resource, MAPPINGSCHEMA, triples);
         try {
-            BufferedReader streamReader = new BufferedReader(new InputStreamReader(input, "UTF-8"));
-            StringBuilder responseStrBuilder = new StringBuilder();
-
-            String inputStr=streamReader.readLine();
-            while (inputStr  != null) {
-                responseStrBuilder.append(inputStr);
-                inputStr = streamReader.readLine();
-            }
-            List<Publication> resultOutput = new ArrayList();
-
-            resultOutput = mapPublications.getPublications(responseStrBuilder.toString());
-            Gson gson = new Gson();
-            JsonArray json = new JsonArray();
-            for (Publication d : resultOutput) {
-                json.add(gson.toJsonTree(d).getAsJsonObject());
-            }
-            JSONtoRDF parser = new JSONtoRDF(resource, MAPPINGSCHEMA, json, triples);
-            //Model model2 = new TreeModel();
-
-            try {
-                parser.parse();
-            } catch (Exception e) {
-                throw new DataRetrievalException("I/O exception while retrieving resource: " + requestUrl, e);
-            }
-
-        } catch (IOException e) {
-            //e.printStackTrace();
-        } catch (ParseException ex) {
-            java.util.logging.Logger.getLogger(MicrosoftAcademicsProvider.class.getName()).log(Level.SEVERE, null, ex);
+            parser.parse(input);
+        } catch (IOException | IllegalStateException e) {
+            throw new DataRetrievalException("I/O exception while retrieving resource: " + requestUrl, e);
         }
 
         return Collections.emptyList();
@@ -1,69 +0,0 @@
-/*
- * To change this license header, choose License Headers in Project Properties.
- * To change this template file, choose Tools | Templates
- * and open the template in the editor.
- */
-package org.apache.marmotta.ucuenca.wk.provider.ma.util;
-
-/**
- *
- * @author f35
- */
-public class Author {
-    
-    private String id;
-    private String firstName;
-    private String lastName;
-    private String middleName;
-    private String nativeName;
-
-    public String getID() {
-        return id;
-    }
-
-    public void setID(String id) {
-        this.id = id;
-    }
-
-    public String getFirstName() {
-        return firstName;
-    }
-
-    public void setFirstName(String firstName) {
-        this.firstName = firstName;
-    }
-
-    public String getLastName() {
-        return lastName;
-    }
-
-    public void setLastName(String lastName) {
-        this.lastName = lastName;
-    }
-
-    public String getMiddleName() {
-        return middleName;
-    }
-
-    public void setMiddleName(String middleName) {
-        this.middleName = middleName;
-    }
-
-    public String getNativeName() {
-        return nativeName;
-    }
-
-    public void setNativeName(String nativeName) {
-        this.nativeName = nativeName;
-    }
-
-    @Override
-    public String toString() {
-        return "Author{" + "ID=" + id + ", FirstName=" + firstName + ", LastName=" + lastName + ", MiddleName=" + middleName + ", NativeName=" + nativeName + '}';
-    }
-
-
-    
-    
-    
-}
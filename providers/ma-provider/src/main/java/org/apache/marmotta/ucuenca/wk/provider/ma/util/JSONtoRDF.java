@@ -1,157 +1,137 @@
 package org.apache.marmotta.ucuenca.wk.provider.ma.util;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
+import org.apache.marmotta.ucuenca.wk.provider.commons.StreamingJSONtoRDF;
 import org.openrdf.model.Model;
-import org.openrdf.model.ValueFactory;
-import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.URI;
 import org.openrdf.model.vocabulary.RDF;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
-public class JSONtoRDF {
+/**
+ * Conversion of the response of Microsoft Academic Search ( d.Publication.Result
+ * of json.svc ) to RDF in one pass over the stream, without a tree of the
+ * response. The statements of each publication are added to the model at the
+ * end of its object, because the ID can be after the other attributes.
+ */
+public class JSONtoRDF extends StreamingJSONtoRDF {
+
+    private static final String PUBLICATION_URL = "http://academic.research.microsoft.com/Publication/";
+    private static final String AUTHOR_URL = "http://academic.research.microsoft.com/Author/";
 
     private String resource;
-    private JsonArray data;
-    private Model model;
-    private Map<String, String> schema;
-    private final ValueFactory factory = ValueFactoryImpl.getInstance();
 
-    public JSONtoRDF(String resource, Map<String, String> schema, JsonArray data, Model model) {
+    public JSONtoRDF(String resource, Map<String, String> schema, Model model) {
+        super(schema, model);
         this.resource = resource;
-        this.schema = schema;
-        this.data = data;
-        this.model = model;
     }
 
-    public void buldHead() {
+    @Override
+    public void parse(InputStream input) throws IOException {
         model.add(factory.createStatement(factory.createURI(resource),
-                RDF.TYPE, factory.createURI(schema.get("entity::type")))
-        );
-
-        int i = 0;
-
-        while (i < data.size()) {
-            JsonObject json = data.get(i).getAsJsonObject();
-
-            model.add(factory.createStatement(factory.createURI(resource),
-                    factory.createURI("http://xmlns.com/foaf/0.1/publications"), factory.createURI("http://academic.research.microsoft.com/Publication/" + json.get("id").getAsString() + "/")));
-            i++;
-        }
-
-    }
-
-    public void parse() throws Exception {
-        Integer i = 0;
-        buldHead();
-        while (i < data.size()) {
-            JsonObject json = data.get(i).getAsJsonObject();
-            this.mappingProcess("http://academic.research.microsoft.com/Publication/" + json.get("id").getAsString() + "/", json);
-            i++;
-        }
-        /*
-         PrintWriter out = new PrintWriter("/home/santteegt/JSON" + this.hashCode() + ".ttl");
-         out.print(data.toString());
-         out.close();*/
-    }
-
-    private void mappingProcess(String resource, JsonObject json) {
-        for (String key : schema.keySet()) {
-            if (key.matches("^entity::type$")) {
-                model.add(factory.createStatement(factory.createURI(resource),
-                        RDF.TYPE, factory.createURI(schema.get("entity::type"))));
-                continue;
-            }
-            Matcher m = Pattern.compile("^(entity::property:)(.*)$").matcher(key);
-            if (m.find()) {
-
-                getGenericAttributes(m, key, json, resource);
+                RDF.TYPE, factory.createURI(schema.get("entity::type"))));
+        JsonReader reader = newReader(input);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if ("d".equals(reader.nextName()) && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                parseObject(reader, "Publication");
+            } else {
+                reader.skipValue();
             }
-            getAttributesPartOne(key, json, resource);
-            getAttributesPartTwo(key, json, resource);
-
         }
-
+        reader.endObject();
     }
 
-    public void getAttributesPartOne(String key, JsonObject json, String resource) {
-
-        switch (key) {
-            case "entity::property:abstract":
-                String value = json.get("abstractt").getAsString();
-                model.add(factory.createStatement(factory.createURI(resource),
-                        factory.createURI(schema.get(key)), factory.createLiteral(value)));
-                break;
-            case "entity::property:fullversionurl":
-                JsonArray aux = json.get("fullVersionURL").getAsJsonArray();
-                for (JsonElement version : aux) {
-                    model.add(factory.createStatement(factory.createURI(resource),
-                            factory.createURI(schema.get(key)), factory.createURI(version.getAsString())));
-
+    /*
+     * d and d.Publication, the publications are in the array Result
+     */
+    private void parseObject(JsonReader reader, String child) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (child.equals(name) && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                parseObject(reader, "Result");
+            } else if ("Result".equals(child) && "Result".equals(name) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    parsePublication(reader);
                 }
-                break;
-            case "entity::property:date":
-                value = json.get("year").getAsString();
-                model.add(factory.createStatement(factory.createURI(resource),
-                        factory.createURI(schema.get(key)), factory.createLiteral(value)));
-                break;
-            default:
-                break;
-
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
         }
+        reader.endObject();
     }
 
-    public void getAttributesPartTwo(String key, JsonObject json, String resource) {
-
-        switch (key) {
-            case "entity::property:uri":
-                model.add(factory.createStatement(factory.createURI(resource),
-                        factory.createURI(schema.get(key)), factory.createURI("http://academic.research.microsoft.com/Publication/" + json.get("id").getAsString() + "/")));
-                break;
-            case "entity::property:quote":
-                JsonArray aux = json.get("keyWord").getAsJsonArray();
-                for (JsonElement version : aux) {
-                    model.add(factory.createStatement(factory.createURI(resource),
-                            factory.createURI(schema.get(key)), factory.createLiteral(version.getAsString())));
-
-                }
-                break;
-            case "entity::property:authorlist":
-                aux = json.get("authors").getAsJsonArray();
-                String authors = "";
-                for (JsonElement version : aux) {
-                    authors += "<" + (("http://academic.research.microsoft.com/Author/" + version.getAsJsonObject().get("id").getAsString() + "/").trim()) + "> ";
-
-                }
-
-                model.add(factory.createStatement(factory.createURI(resource),
-                        factory.createURI(schema.get(key)), factory.createLiteral("(" + authors + ")")));
-                break;
-            case "entity::property:creator":
-                aux = json.get("authors").getAsJsonArray();
-                for (JsonElement version : aux) {
-                    model.add(factory.createStatement(factory.createURI(resource),
-                            factory.createURI(schema.get(key)), factory.createURI("http://academic.research.microsoft.com/Author/" + version.getAsJsonObject().get("id").getAsString() + "/")));
-
-                }
-                break;
-            default:
-                break;
-
+    private void parsePublication(JsonReader reader) throws IOException {
+        clearStatements();
+        String id = null;
+        StringBuilder authors = new StringBuilder();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "ID":
+                    id = nextString(reader);
+                    break;
+                case "Title":
+                    addLiteral("entity::property:title", nextString(reader));
+                    break;
+                case "Abstract":
+                    addLiteral("entity::property:abstract", nextString(reader));
+                    break;
+                case "Year":
+                    addLiteral("entity::property:date", nextString(reader));
+                    break;
+                case "DOI":
+                    addLiteral("entity::property:doi", nextString(reader));
+                    break;
+                case "Type":
+                    addLiteral("entity::property:type", nextString(reader));
+                    break;
+                case "CitationCount":
+                    addLiteral("entity::property:citationCount", nextString(reader));
+                    break;
+                case "ReferenceCount":
+                    addLiteral("entity::property:referenceCount", nextString(reader));
+                    break;
+                case "FullVersionURL":
+                    for (String url : nextStrings(reader)) {
+                        addUri("entity::property:fullversionurl", url);
+                    }
+                    break;
+                case "Keyword":
+                    for (String keyword : nextStrings(reader, "Name")) {
+                        addLiteral("entity::property:quote", keyword);
+                    }
+                    break;
+                case "Author":
+                    for (String author : nextStrings(reader, "ID")) {
+                        String uri = AUTHOR_URL + author + "/";
+                        addUri("entity::property:creator", uri);
+                        authors.append('<').append(uri).append("> ");
+                    }
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
         }
-
-    }
-
-    public void getGenericAttributes(Matcher m, String key, JsonObject json, String resource) {
-        if (json.has(m.group(2))) {
-            String value = json.get(m.group(2)).getAsString();
-
-            model.add(factory.createStatement(factory.createURI(resource),
-                    factory.createURI(schema.get(key)), factory.createLiteral(value)));
+        reader.endObject();
+        if (id == null) {
+            return;
         }
+        String publication = PUBLICATION_URL + id + "/";
+        URI subject = factory.createURI(publication);
+        model.add(factory.createStatement(factory.createURI(resource),
+                factory.createURI("http://xmlns.com/foaf/0.1/publications"), subject));
+        model.add(factory.createStatement(subject, RDF.TYPE, factory.createURI(schema.get("entity::type"))));
+        addUri("entity::property:uri", publication);
+        addLiteral("entity::property:authorlist", "(" + authors + ")");
+        addStatements(subject);
     }
 }
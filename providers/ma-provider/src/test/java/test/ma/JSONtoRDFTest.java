@@ -0,0 +1,90 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package test.ma;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import org.apache.marmotta.ucuenca.wk.provider.ma.MicrosoftAcademicsAuthorProvider;
+import org.apache.marmotta.ucuenca.wk.provider.ma.util.JSONtoRDF;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openrdf.model.Model;
+import org.openrdf.model.URI;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.LinkedHashModel;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.vocabulary.RDF;
+
+/**
+ * Conversion of a saved response of Microsoft Academic Search to RDF
+ */
+public class JSONtoRDFTest {
+
+    private static final String RESOURCE = "http://academic.research.microsoft.com/json.svc/search?AppId=1&AuthorQuery=victor%20saquicela";
+
+    private static final String PUBLICATION_URL = "http://academic.research.microsoft.com/Publication/";
+
+    private static final String AUTHOR_URL = "http://academic.research.microsoft.com/Author/";
+
+    private final ValueFactory factory = ValueFactoryImpl.getInstance();
+
+    @Test
+    public void testParse() throws IOException {
+        Model model = new LinkedHashModel();
+        try (InputStream input = JSONtoRDFTest.class.getResourceAsStream("/ma/publications-response.json")) {
+            new JSONtoRDF(RESOURCE, MicrosoftAcademicsAuthorProvider.MAPPINGSCHEMA, model).parse(input);
+        }
+        URI document = uri("entity::type");
+        URI search = factory.createURI(RESOURCE);
+        // the search and the two publications with ID, the ID of the second one is its last attribute
+        Assert.assertEquals(3, model.filter(null, RDF.TYPE, document).size());
+        Assert.assertEquals(2, model.filter(search, factory.createURI("http://xmlns.com/foaf/0.1/publications"), null).size());
+
+        URI publication = factory.createURI(PUBLICATION_URL + "52381029/");
+        Assert.assertTrue(model.contains(publication, uri("entity::property:uri"), publication));
+        Assert.assertTrue(model.contains(publication, uri("entity::property:title"), factory.createLiteral("Semantic annotation of web services")));
+        Assert.assertTrue(model.contains(publication, uri("entity::property:abstract"), factory.createLiteral("We present an approach to annotate \"RESTful\" services.")));
+        Assert.assertTrue(model.contains(publication, uri("entity::property:date"), factory.createLiteral("2014")));
+        Assert.assertTrue(model.contains(publication, uri("entity::property:doi"), factory.createLiteral("10.1016/j.websem.2014.01.001")));
+        Assert.assertTrue(model.contains(publication, uri("entity::property:citationCount"), factory.createLiteral("12")));
+        Assert.assertTrue(model.contains(publication, uri("entity::property:referenceCount"), factory.createLiteral("30")));
+        Assert.assertEquals(2, model.filter(publication, uri("entity::property:fullversionurl"), null).size());
+        Assert.assertTrue(model.contains(publication, uri("entity::property:quote"), factory.createLiteral("semantic web")));
+        Assert.assertEquals(2, model.filter(publication, uri("entity::property:quote"), null).size());
+        Assert.assertTrue(model.contains(publication, uri("entity::property:creator"), factory.createURI(AUTHOR_URL + "1834123/")));
+        Assert.assertTrue(model.contains(publication, uri("entity::property:creator"), factory.createURI(AUTHOR_URL + "2210345/")));
+        Assert.assertTrue(model.contains(publication, uri("entity::property:authorlist"),
+                factory.createLiteral("(<" + AUTHOR_URL + "1834123/> <" + AUTHOR_URL + "2210345/> )")));
+
+        // the properties of a publication are not mixed with the next one
+        URI second = factory.createURI(PUBLICATION_URL + "61002233/");
+        Assert.assertTrue(model.contains(second, uri("entity::property:title"), factory.createLiteral("Linked data for the ecuadorian universities")));
+        Assert.assertEquals(1, model.filter(second, uri("entity::property:creator"), null).size());
+        Assert.assertTrue(model.filter(second, uri("entity::property:quote"), null).isEmpty());
+        Assert.assertTrue(model.filter(null, uri("entity::property:title"), factory.createLiteral("A publication without identifier")).isEmpty());
+    }
+
+    @Test
+    public void testParseWithoutPublications() throws IOException {
+        Model model = new LinkedHashModel();
+        new JSONtoRDF(RESOURCE, MicrosoftAcademicsAuthorProvider.MAPPINGSCHEMA, model)
+                .parse(new ByteArrayInputStream("{\"d\":{\"ResultCode\":0,\"Publication\":null}}".getBytes("UTF-8")));
+        Assert.assertEquals(1, model.size());
+        Assert.assertTrue(model.contains(factory.createURI(RESOURCE), RDF.TYPE, uri("entity::type")));
+    }
+
+    @Test(expected = IOException.class)
+    public void testParseInvalidJson() throws IOException {
+        new JSONtoRDF(RESOURCE, MicrosoftAcademicsAuthorProvider.MAPPINGSCHEMA, new LinkedHashModel())
+                .parse(new ByteArrayInputStream("{\"d\":{\"Publication\":{\"Result\":[{\"ID\":".getBytes("UTF-8")));
+    }
+
+    private URI uri(String key) {
+        return factory.createURI(MicrosoftAcademicsAuthorProvider.MAPPINGSCHEMA.get(key));
+    }
+
+}
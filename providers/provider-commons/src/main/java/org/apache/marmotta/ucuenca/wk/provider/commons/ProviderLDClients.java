@@ -0,0 +1,260 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.provider.commons;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.marmotta.ldclient.api.endpoint.Endpoint;
+import org.apache.marmotta.ldclient.exception.DataRetrievalException;
+import org.apache.marmotta.ldclient.model.ClientConfiguration;
+import org.apache.marmotta.ldclient.services.ldclient.LDClient;
+import org.openrdf.model.Model;
+
+/**
+ * LDClients that the providers of a source ( DBLP, Scopus, Google Scholar )
+ * use for the requests of their responses. One client for each provider is
+ * created with the first response and used for all of them, so the
+ * connections to the source are kept alive and the connection pool and
+ * threads of a client are not created ( and never shutdown ) in every
+ * response.
+ *
+ * Each provider has its own client because the request of a client runs
+ * the providers of the response, a provider that waits for a free request of
+ * its own client would block the client.
+ *
+ * The resources of a response are retrieved at the same time with
+ * {@link #retrieveAll}, with the threads of the source and at most
+ * maxPerHost requests to each host.
+ *
+ * The clients and the threads of all sources are shutdown with
+ * {@link #shutdownAll()}.
+ */
+public final class ProviderLDClients {
+
+    private static final List<ProviderLDClients> SOURCES = new ArrayList<>();
+
+    /* requests of retrieveAll at the same time to a host */
+    private static final int MAX_PER_HOST = 4;
+
+    /* the thread runs a request of retrieveAll */
+    private static final ThreadLocal<Boolean> IN_REQUEST = new ThreadLocal<>();
+
+    private final String name;
+
+    /* requests at the same time of each client */
+    private final int maxConnections;
+
+    private final int maxPerHost;
+
+    private final ConcurrentMap<String, Semaphore> hosts = new ConcurrentHashMap<>();
+
+    private final Map<Class<?>, LDClient> clients = new HashMap<>();
+
+    private ExecutorService executor;
+
+    /**
+     * @param name name of the source for the threads
+     * @param maxConnections requests at the same time of each client and
+     * threads of the source
+     */
+    public ProviderLDClients(String name, int maxConnections) {
+        this(name, maxConnections, MAX_PER_HOST);
+    }
+
+    /**
+     * @param name name of the source for the threads
+     * @param maxConnections requests at the same time of each client and
+     * threads of the source
+     * @param maxPerHost requests of retrieveAll at the same time to a host
+     */
+    public ProviderLDClients(String name, int maxConnections, int maxPerHost) {
+        this.name = name;
+        this.maxConnections = maxConnections;
+        this.maxPerHost = maxPerHost;
+        synchronized (SOURCES) {
+            SOURCES.add(this);
+        }
+    }
+
+    /**
+     * Client of the provider, the endpoints are added when the client is
+     * created
+     *
+     * @param provider
+     * @param endpoints endpoints besides the registered ones
+     * @return
+     */
+    public synchronized LDClient get(Class<?> provider, Endpoint... endpoints) {
+        LDClient client = clients.get(provider);
+        if (client == null) {
+            ClientConfiguration conf = new ClientConfiguration();
+            conf.setMaxParallelRequests(maxConnections);
+            for (Endpoint endpoint : endpoints) {
+                conf.addEndpoint(endpoint);
+            }
+            client = new LDClient(conf);
+            clients.put(provider, client);
+        }
+        return client;
+    }
+
+    /**
+     * Threads of the requests of the source, without free threads a task runs
+     * in the thread that submits it
+     *
+     * @return
+     */
+    public synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = new ThreadPoolExecutor(0, maxConnections, 60L, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(), new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, name + "-ldclient-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+        }
+        return executor;
+    }
+
+    /**
+     * Retrieve the resources with the client at the same time and add their
+     * data to the triples, in the order of the resources. A provider that
+     * runs inside a request of retrieveAll retrieves its resources one by one
+     * in the same thread, its thread already has a request to the host and
+     * the requests never wait for each other.
+     *
+     * @param client
+     * @param resources
+     * @param triples
+     * @throws DataRetrievalException the first error of the resources
+     */
+    public void retrieveAll(final LDClient client, Collection<String> resources, Model triples) throws DataRetrievalException {
+        if (resources.size() < 2 || Boolean.TRUE.equals(IN_REQUEST.get())) {
+            for (String resource : resources) {
+                triples.addAll(client.retrieveResource(resource).getData());
+            }
+            return;
+        }
+        ExecutorService pool = getExecutor();
+        List<Future<Model>> results = new ArrayList<>(resources.size());
+        try {
+            for (final String resource : resources) {
+                results.add(pool.submit(new Callable<Model>() {
+                    @Override
+                    public Model call() throws Exception {
+                        return retrieve(client, resource);
+                    }
+                }));
+            }
+            for (Future<Model> result : results) {
+                triples.addAll(result.get());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DataRetrievalException("Interrupted while retrieving the resources of the response", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof DataRetrievalException) {
+                throw (DataRetrievalException) ex.getCause();
+            }
+            throw new DataRetrievalException("Error while retrieving the resources of the response", ex.getCause());
+        } finally {
+            for (Future<Model> result : results) {
+                result.cancel(true);
+            }
+        }
+    }
+
+    private Model retrieve(LDClient client, String resource) throws DataRetrievalException, InterruptedException {
+        Semaphore host = getHost(resource);
+        host.acquire();
+        Boolean inRequest = IN_REQUEST.get();
+        IN_REQUEST.set(Boolean.TRUE);
+        try {
+            return client.retrieveResource(resource).getData();
+        } finally {
+            IN_REQUEST.set(inRequest);
+            host.release();
+        }
+    }
+
+    private Semaphore getHost(String resource) {
+        String host;
+        try {
+            host = URI.create(resource).getHost();
+        } catch (IllegalArgumentException ex) {
+            host = null;
+        }
+        host = host != null ? host : "";
+        Semaphore semaphore = hosts.get(host);
+        if (semaphore == null) {
+            Semaphore created = new Semaphore(maxPerHost);
+            semaphore = hosts.putIfAbsent(host, created);
+            semaphore = semaphore != null ? semaphore : created;
+        }
+        return semaphore;
+    }
+
+    /**
+     * Shutdown the clients and the threads of the source, the next request
+     * creates a new client
+     */
+    public synchronized void shutdown() {
+        for (LDClient client : clients.values()) {
+            client.shutdown();
+        }
+        clients.clear();
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Shutdown the clients and the threads of all sources
+     */
+    public static void shutdownAll() {
+        List<ProviderLDClients> sources;
+        synchronized (SOURCES) {
+            sources = new ArrayList<>(SOURCES);
+        }
+        for (ProviderLDClients source : sources) {
+            source.shutdown();
+        }
+    }
+
+}
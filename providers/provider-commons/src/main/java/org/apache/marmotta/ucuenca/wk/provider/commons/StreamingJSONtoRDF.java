@@ -0,0 +1,200 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.provider.commons;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.openrdf.model.Model;
+import org.openrdf.model.Resource;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+
+/**
+ * Base of the conversions of json responses to RDF in one pass over the
+ * stream with a {@link JsonReader}, without a tree of the response. The
+ * properties of the entity being read are kept with {@link #addLiteral} and
+ * {@link #addUri} until its subject is known, and added to the model with
+ * {@link #addStatements}.
+ */
+public abstract class StreamingJSONtoRDF {
+
+    protected final Model model;
+    protected final Map<String, String> schema;
+    protected final ValueFactory factory = ValueFactoryImpl.getInstance();
+
+    /* properties of the entity being read */
+    private final List<URI> predicates = new ArrayList<>();
+    private final List<Value> objects = new ArrayList<>();
+
+    /**
+     * @param schema predicates of the keys of the entities
+     * @param model model of the statements
+     */
+    protected StreamingJSONtoRDF(Map<String, String> schema, Model model) {
+        this.schema = schema;
+        this.model = model;
+    }
+
+    /**
+     * Parse the response in json format to RDF
+     *
+     * @param input response
+     * @throws IOException when the response is not valid json
+     */
+    public abstract void parse(InputStream input) throws IOException;
+
+    protected static JsonReader newReader(InputStream input) throws IOException {
+        return new JsonReader(new InputStreamReader(input, "UTF-8"));
+    }
+
+    /**
+     * Start the properties of a new entity
+     */
+    protected void clearStatements() {
+        predicates.clear();
+        objects.clear();
+    }
+
+    /**
+     * Add the properties of the entity with the subject to the model
+     *
+     * @param subject
+     */
+    protected void addStatements(Resource subject) {
+        for (int i = 0; i < predicates.size(); i++) {
+            model.add(factory.createStatement(subject, predicates.get(i), objects.get(i)));
+        }
+        clearStatements();
+    }
+
+    protected void addLiteral(String key, String value) {
+        if (value != null && schema.containsKey(key)) {
+            predicates.add(factory.createURI(schema.get(key)));
+            objects.add(factory.createLiteral(value));
+        }
+    }
+
+    protected void addUri(String key, String value) {
+        if (value != null && !value.isEmpty() && schema.containsKey(key)) {
+            predicates.add(factory.createURI(schema.get(key)));
+            objects.add(factory.createURI(value));
+        }
+    }
+
+    /**
+     * Value of a string, number or boolean, null for other values
+     *
+     * @param reader
+     * @return
+     * @throws IOException
+     */
+    protected static String nextString(JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case STRING:
+            case NUMBER:
+                return reader.nextString();
+            case BOOLEAN:
+                return Boolean.toString(reader.nextBoolean());
+            default:
+                reader.skipValue();
+                return null;
+        }
+    }
+
+    /**
+     * Value of the attribute of an object, null when it is not an object
+     *
+     * @param reader
+     * @param attribute
+     * @return
+     * @throws IOException
+     */
+    protected static String nextString(JsonReader reader, String attribute) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+        String value = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (attribute.equals(reader.nextName())) {
+                value = nextString(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return value;
+    }
+
+    /**
+     * Values of an array of strings or numbers
+     *
+     * @param reader
+     * @return
+     * @throws IOException
+     */
+    protected static List<String> nextStrings(JsonReader reader) throws IOException {
+        return nextStrings(reader, null);
+    }
+
+    /**
+     * Values of the attribute of an array of objects, or of the array when
+     * the attribute is null
+     *
+     * @param reader
+     * @param attribute
+     * @return
+     * @throws IOException
+     */
+    protected static List<String> nextStrings(JsonReader reader, String attribute) throws IOException {
+        List<String> values = new ArrayList<>();
+        if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+            reader.skipValue();
+            return values;
+        }
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String value = attribute == null ? nextString(reader) : nextString(reader, attribute);
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        reader.endArray();
+        return values;
+    }
+
+    /**
+     * The value, or an empty string when it is null
+     *
+     * @param value
+     * @return
+     */
+    protected static String toString(String value) {
+        return value == null ? "" : value;
+    }
+
+}
@@ -0,0 +1,186 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.provider.test.commons;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.marmotta.ldclient.exception.DataRetrievalException;
+import org.apache.marmotta.ldclient.model.ClientConfiguration;
+import org.apache.marmotta.ldclient.model.ClientResponse;
+import org.apache.marmotta.ldclient.services.ldclient.LDClient;
+import org.apache.marmotta.ucuenca.wk.provider.commons.ProviderLDClients;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openrdf.model.Model;
+import org.openrdf.model.Statement;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.LinkedHashModel;
+import org.openrdf.model.impl.ValueFactoryImpl;
+
+/**
+ * Tests of the retrieval of the resources of a response with
+ * {@link ProviderLDClients#retrieveAll}
+ */
+public class ProviderLDClientsTest {
+
+    private static final ValueFactory VF = ValueFactoryImpl.getInstance();
+
+    private ProviderLDClients source;
+
+    @After
+    public void tearDown() {
+        if (source != null) {
+            source.shutdown();
+        }
+    }
+
+    @Test
+    public void testRequestsToAHostAreLimited() throws Exception {
+        source = new ProviderLDClients("test", 8, 2);
+        SlowClient client = new SlowClient(50);
+        List<String> resources = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            resources.add("http://a.example.org/" + i);
+        }
+        resources.add("http://b.example.org/0");
+
+        Model triples = new LinkedHashModel();
+        source.retrieveAll(client, resources, triples);
+
+        Assert.assertEquals(resources, subjects(triples));
+        Assert.assertTrue(client.maxRequests("a.example.org") <= 2);
+        Assert.assertEquals(1, client.maxRequests("b.example.org"));
+        client.shutdown();
+    }
+
+    @Test
+    public void testRunsInTheCallerWithoutFreeThreads() throws Exception {
+        source = new ProviderLDClients("test", 1, 4);
+        SlowClient client = new SlowClient(100);
+        List<String> resources = Arrays.asList("http://a.example.org/0", "http://a.example.org/1");
+
+        Model triples = new LinkedHashModel();
+        source.retrieveAll(client, resources, triples);
+
+        Assert.assertEquals(resources, subjects(triples));
+        Assert.assertEquals(Thread.currentThread().getName(), client.threads.get("http://a.example.org/1"));
+        Assert.assertFalse(Thread.currentThread().getName().equals(client.threads.get("http://a.example.org/0")));
+        client.shutdown();
+    }
+
+    @Test
+    public void testNestedRetrievalRunsInTheRequestThread() throws Exception {
+        source = new ProviderLDClients("test", 4, 1);
+        final SlowClient inner = new SlowClient(0);
+        SlowClient outer = new SlowClient(0) {
+            @Override
+            public ClientResponse retrieveResource(String resource) throws DataRetrievalException {
+                ClientResponse response = super.retrieveResource(resource);
+                source.retrieveAll(inner, Arrays.asList(resource + "/a", resource + "/b"), response.getData());
+                return response;
+            }
+        };
+        List<String> resources = Arrays.asList("http://a.example.org/0", "http://a.example.org/1");
+
+        Model triples = new LinkedHashModel();
+        source.retrieveAll(outer, resources, triples);
+
+        Assert.assertEquals(Arrays.asList("http://a.example.org/0", "http://a.example.org/0/a", "http://a.example.org/0/b",
+                "http://a.example.org/1", "http://a.example.org/1/a", "http://a.example.org/1/b"), subjects(triples));
+        for (String resource : resources) {
+            Assert.assertEquals(outer.threads.get(resource), inner.threads.get(resource + "/a"));
+            Assert.assertEquals(outer.threads.get(resource), inner.threads.get(resource + "/b"));
+        }
+        inner.shutdown();
+        outer.shutdown();
+    }
+
+    private static List<String> subjects(Model triples) {
+        List<String> subjects = new ArrayList<>();
+        for (Statement triple : triples) {
+            subjects.add(triple.getSubject().stringValue());
+        }
+        return subjects;
+    }
+
+    /**
+     * Client that answers each resource with one triple after a delay, and
+     * keeps the requests at the same time to each host and the thread of
+     * each resource
+     */
+    private static class SlowClient extends LDClient {
+
+        private final long delay;
+
+        private final Map<String, AtomicInteger> current = new ConcurrentHashMap<>();
+
+        private final Map<String, AtomicInteger> max = new ConcurrentHashMap<>();
+
+        private final Map<String, String> threads = Collections.synchronizedMap(new HashMap<String, String>());
+
+        SlowClient(long delay) {
+            super(new ClientConfiguration());
+            this.delay = delay;
+        }
+
+        @Override
+        public ClientResponse retrieveResource(String resource) throws DataRetrievalException {
+            threads.put(resource, Thread.currentThread().getName());
+            String host = URI.create(resource).getHost();
+            AtomicInteger requests = counter(current, host);
+            int now = requests.incrementAndGet();
+            AtomicInteger highest = counter(max, host);
+            synchronized (highest) {
+                highest.set(Math.max(highest.get(), now));
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new DataRetrievalException("Interrupted", ex);
+            } finally {
+                requests.decrementAndGet();
+            }
+            Model data = new LinkedHashModel();
+            data.add(VF.createStatement(VF.createURI(resource), VF.createURI("http://example.org/p"), VF.createLiteral(resource)));
+            return new ClientResponse(200, data);
+        }
+
+        int maxRequests(String host) {
+            return counter(max, host).get();
+        }
+
+        private static synchronized AtomicInteger counter(Map<String, AtomicInteger> counters, String host) {
+            AtomicInteger counter = counters.get(host);
+            if (counter == null) {
+                counter = new AtomicInteger();
+                counters.put(host, counter);
+            }
+            return counter;
+        }
+    }
+
+}
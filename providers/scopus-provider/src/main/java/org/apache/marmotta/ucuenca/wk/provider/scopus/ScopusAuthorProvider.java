@@ -14,7 +14,6 @@ import java.util.regex.Pattern;
 import org.apache.marmotta.ldclient.api.endpoint.Endpoint;
 import org.apache.marmotta.ldclient.api.provider.DataProvider;
 import org.apache.marmotta.ldclient.exception.DataRetrievalException;
-import org.apache.marmotta.ldclient.model.ClientConfiguration;
 import org.apache.marmotta.ldclient.model.ClientResponse;
 import org.apache.marmotta.ldclient.provider.xml.AbstractXMLDataProvider;
 import org.apache.marmotta.ldclient.provider.xml.mapping.XPathLiteralMapper;
@@ -39,6 +38,7 @@ public class ScopusAuthorProvider
     public static final String NAME = "Scopus Author Provider";
     public static final String API = "http://api.elsevier.com/content/author/author_id/?apiKey=&view=ENHANCED&httpAccept=application/rdf%2Bxml";
     public static final String PATTERN = "http://api\\.elsevier\\.com/content/author/author\\_id/(.*)\\?apiKey\\=(.*)\\&view\\=(.*)\\&httpAccept\\=application/rdf%2Bxml";
+    private static final Pattern COMPILED_PATTERN = Pattern.compile(PATTERN);
     public static final String URLRESOURCEAUTHOR = "http://api.elsevier.com/content/author/author_id/AuthorIdParam?apiKey=apiKeyParam&view=ENHANCED&httpAccept=application/rdf%2Bxml";
     private static Logger log = LoggerFactory.getLogger((Class) ScopusAuthorProvider.class);
     private static String apiKeyParam = "";
@@ -55,7 +55,7 @@ public class ScopusAuthorProvider
 
     public List<String> buildRequestUrl(String resource, Endpoint endpoint) {
         String url = null;
-        Matcher m = Pattern.compile(PATTERN).matcher(resource);
+        Matcher m = COMPILED_PATTERN.matcher(resource);
         if (m.find()) {
             url = resource;
             apiKeyParam = m.group(2);
@@ -67,9 +67,7 @@ public class ScopusAuthorProvider
         super.parseResponse(resource, requestUrl, triples, input, contentType);
         log.debug("Request Successful to {0}", (Object) requestUrl);
         ValueFactoryImpl factory = ValueFactoryImpl.getInstance();
-        ClientConfiguration conf = new ClientConfiguration();
-        conf.addEndpoint((Endpoint) new ScopusPublicationSearchEndpoint());
-        LDClient ldClient = new LDClient(conf);
+        LDClient ldClient = ScopusAuthorSearchProvider.LDCLIENTS.get(ScopusAuthorProvider.class, new ScopusPublicationSearchEndpoint());
         Set<Value> resources = triples.filter((Resource) factory.createURI(resource), factory.createURI("http://www.elsevier.com/xml/svapi/rdf/dtd/searchResults"), null, new Resource[0]).objects();
         if (!resources.isEmpty()) {
             Model resourceModel = null;
@@ -88,7 +86,7 @@ public class ScopusAuthorProvider
             }
             triples.addAll((Collection) resourceModel);
         }
-        if (!resource.matches(PATTERN)) {
+        if (!COMPILED_PATTERN.matcher(resource).matches()) {
             triples.add((Resource) factory.createURI(resource), OWL.SAMEAS, (Value) factory.createURI(requestUrl), new Resource[0]);
         }
         return Collections.emptyList();
@@ -23,10 +23,10 @@ import com.google.common.base.Preconditions;
 
 import org.apache.marmotta.ldclient.api.endpoint.Endpoint;
 import org.apache.marmotta.ldclient.exception.DataRetrievalException;
-import org.apache.marmotta.ldclient.model.ClientConfiguration;
 import org.apache.marmotta.ldclient.model.ClientResponse;
 import org.apache.marmotta.ldclient.services.ldclient.LDClient;
 import org.apache.marmotta.ldclient.services.provider.AbstractHttpProvider;
+import org.apache.marmotta.ucuenca.wk.provider.commons.ProviderLDClients;
 import org.jdom2.Document;
 import org.jdom2.Element;
 import org.jdom2.JDOMException;
@@ -59,8 +59,12 @@ public class ScopusAuthorSearchProvider extends AbstractHttpProvider {
     public static final String NAME = "Scopus Provider";
     public static final String API = "http://api.elsevier.com/content/search/author?query=%s&format=xml";
     public static final String PATTERN = "http://api\\.elsevier\\.com/content/search/author\\?query\\=authfirst%28(.*)%29authlast%28(.*)%29(.*)\\&apiKey\\=(.*)\\&httpAccept\\=application/xml";
+    private static final Pattern COMPILED_PATTERN = Pattern.compile(PATTERN);
     public static final String URLRESOURCE = "http://api.elsevier.com/content/author/author_id/AuthorIdParam?apiKey=apiKeyParam&view=ENHANCED&httpAccept=application/rdf%2Bxml";
     private static Logger log = LoggerFactory.getLogger(ScopusAuthorSearchProvider.class);
+
+    /* clients of the Scopus providers, 8 requests at the same time of each client */
+    static final ProviderLDClients LDCLIENTS = new ProviderLDClients("scopus", 8);
     private static String apiKeyParam = "";
     public static final Namespace NAMESPACE_DC = Namespace.getNamespace("dc", "http://purl.org/dc/elements/1.1/");
     public static final Namespace NAMESPACE_PRISM = Namespace.getNamespace("prism", "http://prismstandard.org/namespaces/basic/2.0/");
@@ -103,7 +107,7 @@ public class ScopusAuthorSearchProvider extends AbstractHttpProvider {
     @Override
     public List<String> buildRequestUrl(String resource, Endpoint endpoint) {
         String url = null;
-        Matcher m = Pattern.compile(PATTERN).matcher(resource);
+        Matcher m = COMPILED_PATTERN.matcher(resource);
         if (m.find()) {
             url = resource;
             apiKeyParam = m.group(4);
@@ -125,8 +129,7 @@ public class ScopusAuthorSearchProvider extends AbstractHttpProvider {
             for (Element element : aux.getChildren("entry", aux.getNamespace())) {
                 String authorIDParam = element.getChildText("identifier", NAMESPACE_DC);
                 String authorURL = element.getChildText("url", NAMESPACE_PRISM);
-                ClientConfiguration conf = new ClientConfiguration();
-                LDClient ldClient = new LDClient(conf);
+                LDClient ldClient = LDCLIENTS.get(ScopusAuthorSearchProvider.class);
 
                 if (authorIDParam != null) {
                     Model candidateModel = null;
@@ -24,6 +24,7 @@ public class ScopusPublicationProvider
     public static final String NAME = "Scopus Publication Provider";
     public static final String API = "http://api.elsevier.com/content/abstract/doi/?apiKey=&httpAccept=application/rdf%2Bxml";
     public static final String PATTERN = "http://api\\.elsevier\\.com/content/abstract/doi/(.*)\\?apiKey\\=(.*)\\&httpAccept\\=application/rdf%2Bxml";
+    private static final Pattern COMPILED_PATTERN = Pattern.compile(PATTERN);
     private static Logger log = LoggerFactory.getLogger((Class) ScopusPublicationProvider.class);
 
     public String getName() {
@@ -36,7 +37,7 @@ public class ScopusPublicationProvider
 
     public List<String> buildRequestUrl(String resource, Endpoint endpoint) {
         String url = null;
-        Matcher m = Pattern.compile("http://api\\.elsevier\\.com/content/abstract/doi/(.*)\\?apiKey\\=(.*)\\&httpAccept\\=application/rdf%2Bxml").matcher(resource);
+        Matcher m = COMPILED_PATTERN.matcher(resource);
         if (m.find()) {
             url = resource;
         }
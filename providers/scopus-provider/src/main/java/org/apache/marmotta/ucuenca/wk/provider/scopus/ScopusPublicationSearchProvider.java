@@ -19,9 +19,6 @@ package org.apache.marmotta.ucuenca.wk.provider.scopus;
 //import org.apache.marmotta.ucuenca.wk.provider.dblp.*;
 import org.apache.marmotta.ldclient.api.endpoint.Endpoint;
 import org.apache.marmotta.ldclient.exception.DataRetrievalException;
-import org.apache.marmotta.ldclient.model.ClientConfiguration;
-import org.apache.marmotta.ldclient.model.ClientResponse;
-import org.apache.marmotta.ldclient.services.ldclient.LDClient;
 import org.apache.marmotta.ldclient.services.provider.AbstractHttpProvider;
 import org.jdom2.Document;
 import org.jdom2.Element;
@@ -56,6 +53,7 @@ import org.openrdf.model.vocabulary.FOAF;
     public static final String NAME = "Scopus  Search Publication Provider";
     public static final String API = "http://api.elsevier.com/content/search/scopus?query=&apiKey=";
     public static final String PATTERN = "http://api\\.elsevier\\.com/content/search/scopus\\?query\\=au\\-id%28(.*)%29\\&apiKey\\=(.*)\\&httpAccept\\=application/xml\\&view\\=COMPLETE";
+    private static final Pattern COMPILED_PATTERN = Pattern.compile(PATTERN);
     public static final String URL_RESOURCE_PUBLICATION = "http://api.elsevier.com/content/abstract/doi/DOIParam?apiKey=apiKeyParam&httpAccept=application/rdf%2Bxml";
     public static final String URL_RESOURCE_PUBLICATIONPARAM = "http://api.elsevier.com/content/abstract/doi/DOIParam";
     private static Logger log = LoggerFactory.getLogger(ScopusPublicationSearchProvider.class);
@@ -103,7 +101,7 @@ import org.openrdf.model.vocabulary.FOAF;
     @Override
     public List<String> buildRequestUrl(String resource, Endpoint endpoint) {
         String url = null;
-        Matcher m = Pattern.compile(PATTERN).matcher(resource);
+        Matcher m = COMPILED_PATTERN.matcher(resource);
         if (m.find()) {
             url = resource;
             apiKeyParam = m.group(2);
@@ -126,6 +124,8 @@ import org.openrdf.model.vocabulary.FOAF;
                 }
             }
             if (ecuatoriano) {
+                ValueFactory factory = ValueFactoryImpl.getInstance();
+                List<String> publications = new ArrayList<>();
                 for (Element element : aux.getChildren("entry", aux.getNamespace())) {
                     String abstractDoiParam = element.getChildText("doi", NAMESPACE_PRISM);
                     String abstractURLParam = element.getChildText("url", NAMESPACE_PRISM);
@@ -136,14 +136,8 @@ import org.openrdf.model.vocabulary.FOAF;
                         creatorsList.add(author.getChildText("author-url",NAMESPACE_ATOM));
                     }
 
-                    ClientConfiguration conf = new ClientConfiguration();
-                    LDClient ldClient = new LDClient(conf);
                     if (abstractDoiParam != null) {
-                        Model candidateModel = null;
-                        String authorUrlResourceCleaned = URL_RESOURCE_PUBLICATION.replace("DOIParam", abstractDoiParam).replace("apiKeyParam", apiKeyParam);
-
-                        ClientResponse response = ldClient.retrieveResource(authorUrlResourceCleaned);
-                        ValueFactory factory = ValueFactoryImpl.getInstance();
+                        publications.add(URL_RESOURCE_PUBLICATION.replace("DOIParam", abstractDoiParam).replace("apiKeyParam", apiKeyParam));
                         triples.add(factory.createURI("http://api.elsevier.com/content/author/author_id/" + authorIdParam), FOAF.PUBLICATIONS, factory.createURI(abstractURLParam));
                         if (abstractAbstractParam != null) {
                             triples.add(factory.createStatement(factory.createURI(abstractURLParam),
@@ -154,17 +148,10 @@ import org.openrdf.model.vocabulary.FOAF;
                                     factory.createURI("http://purl.org/dc/terms/contributor"), factory.createURI(uriCreator)));
 
                         }
-                        Model authorModel = response.getData();
-                        if (candidateModel == null) {
-                            candidateModel = authorModel;
-                        } else {
-                            candidateModel.addAll(authorModel);
-                        }
-                        triples.addAll(candidateModel);
-
                     }
 
                 }
+                ScopusAuthorSearchProvider.LDCLIENTS.retrieveAll(ScopusAuthorSearchProvider.LDCLIENTS.get(ScopusPublicationSearchProvider.class), publications, triples);
             }
         } catch (IOException e) {
             throw new DataRetrievalException("I/O error while parsing HTML response", e);
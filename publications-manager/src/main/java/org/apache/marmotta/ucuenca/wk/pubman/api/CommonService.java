@@ -34,4 +34,28 @@ public interface CommonService {
 
     String createReport(String hostname, String realPath, String name, String type, List<String> params);
 
+    /**
+     * State and progress of the last job of each type
+     *
+     * @return
+     */
+    JsonArray getJobs();
+
+    /**
+     * State and progress of the last job of the type, null when there is no
+     * job of the type
+     *
+     * @param type
+     * @return
+     */
+    JsonObject getJob(String type);
+
+    /**
+     * Cancel the queued or running job of the type
+     *
+     * @param type
+     * @return false when there is not an active job of the type
+     */
+    boolean cancelJob(String type);
+
 }
@@ -17,23 +17,19 @@
  */
 package org.apache.marmotta.ucuenca.wk.pubman.services;
 
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
-import java.util.Properties;
-import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import org.apache.marmotta.commons.sesame.model.ModelCommons;
 import org.apache.marmotta.ldclient.exception.DataRetrievalException;
-import org.apache.marmotta.ldclient.model.ClientConfiguration;
 import org.apache.marmotta.ldclient.model.ClientResponse;
 import org.apache.marmotta.ldclient.services.ldclient.LDClient;
 import org.apache.marmotta.platform.core.exception.InvalidArgumentException;
 import org.apache.marmotta.platform.sparql.api.sparql.SparqlService;
+import org.apache.marmotta.ucuenca.wk.commons.function.ConfigurationSnapshot;
 import org.apache.marmotta.ucuenca.wk.commons.service.ConstantService;
 import org.apache.marmotta.ucuenca.wk.commons.service.QueriesService;
 import org.apache.marmotta.ucuenca.wk.commons.service.CommonsServices;
@@ -81,183 +77,191 @@ public class AcademicsKnowledgeProviderServiceImpl implements AcademicsKnowledge
     @Inject
     private GetAuthorsGraphData getauthorsData;
 
+    @Inject
+    private HarvestEngine harvestEngine;
+
+    @Inject
+    private LDClientPool ldClientPool;
+
     private int processpercent = 0;
 
     @Override
     public String runPublicationsProviderTaskImpl() {
         try {
 
-            ClientConfiguration conf = new ClientConfiguration();
-            LDClient ldClient = new LDClient(conf);
+            final LDClient ldClient = ldClientPool.getClient(LDClientPool.ACADEMICS_KNOWLEDGE);
 
-            String nameToFind = "";
-            String authorResource = "";
             List<Map<String, Value>> resultAllAuthors = getauthorsData.getListOfAuthors();
 
+            harvestEngine.run("Academics Knowledge", ProviderRateLimiter.fromConfiguration("AcademicsKnowledge", 0.25, 1), resultAllAuthors, new HarvestEngine.AuthorTask() {
+                @Override
+                public boolean harvest(Map<String, Value> author, ProviderRateLimiter limiter) throws Exception {
+                    return harvestAuthor(author, limiter, ldClient);
+                }
+            });
+            return "True for publications";
+
+        } catch (InvalidArgumentException ex) {
+            log.error("Marmotta Exception: " + ex);
+
+        }
 
-            /*To Obtain Processed Percent*/
-            int allPersons = resultAllAuthors.size();
-            int processedPersons = 0;
+        return "fail";
+    }
 
-            RepositoryConnection conUri = null;
-            ClientResponse response = null;
+    /*
+     * Search of one author in Academics Knowledge, the requests to Academics
+     * Knowledge go through the limiter
+     */
+    private boolean harvestAuthor(Map<String, Value> map, ProviderRateLimiter limiter, LDClient ldClient) throws InterruptedException {
+        BatchedTripleWriter tripleWriter = BatchedTripleWriter.create(sparqlFunctionsService, queriesService, commonsServices);
+        RepositoryConnection conUri = null;
+        ClientResponse response = null;
+        String nameToFind = "";
+        String authorResource = map.get("subject").stringValue();
+        String firstName = map.get("fname").stringValue();
+        String lastName = map.get("lname").stringValue();
+        String nick = map.get("nick") != null ? map.get("nick").stringValue() : null;
+        boolean harvested = true;
+
+        boolean AuthorDataisLoad = false;
+        boolean ask = false;
+        int proceced = 0;
+        String keysubscriptions = readPropertyFromFile("seachProperties.properties", "apiKey");
+        String nameOfSource = readPropertyFromFile("seachProperties.properties", "source");
+        String authorSeachQuery = null;
 
-            for (Map<String, Value> map : resultAllAuthors) {
+        try {
+            nameToFind = stripAccents(nick == null ? priorityFindQueryBuilding(firstName, lastName) : nick.toLowerCase().replace(" ", "%20"));
+            proceced++;
+            String URL_TO_FIND_AK1 = "https://api.projectoxford.ai/academic/v1.0/evaluate?expr=And(Composite(AA.AuN==%27" + nameToFind + "%27),Composite(AA.AfN==%27" + nameOfSource.replace(" ", "%20") + "%27))&attributes=Id,Ti,Y,D,CC,ECC,AA.AuN,AA.AuId,AA.AfN,AA.AfId,F.FN,F.FId,J.JN,J.JId,C.CN,C.CId,RId,W,E,D&E=DN,D,S,S.Ty,S.U,VFN,VSN,V,I,FP,LP,DOI&subscription-key=" + keysubscriptions + "&count=100&sort=2";
+            String URL_TO_FIND_AK2 = "https://api.projectoxford.ai/academic/v1.0/evaluate?expr=Composite(AA.AuN==%27" + nameToFind + "%27)&attributes=Id,Ti,Y,D,CC,ECC,AA.AuN,AA.AuId,AA.AfN,AA.AfId,F.FN,F.FId,J.JN,J.JId,C.CN,C.CId,RId,W,E,D&E=DN,D,S,S.Ty,S.U,VFN,VSN,V,I,FP,LP,DOI&subscription-key=" + keysubscriptions + "&count=100&sort=2";
+            boolean dataretrievee = false;
+            boolean retrievalFailed = false;
 
-                processedPersons++;
-                log.info("Autores procesados con Academics Knowledge: " + processedPersons + " de " + allPersons);
-                authorResource = map.get("subject").stringValue();
-                String firstName = map.get("fname").stringValue();
-                String lastName = map.get("lname").stringValue();
-                String nick = map.get("nick") != null ? map.get("nick").stringValue() : null;
+            String nameEndpointofPublications = ldClient.getEndpoint(URL_TO_FIND_AK1).getName();
+            String providerGraph = constantService.getProviderNsGraph() + "/" + nameEndpointofPublications.replace(" ", "");
 
-                boolean AuthorDataisLoad = false;
-                boolean ask = false;
-                int proceced = 0;
-                String keysubscriptions = readPropertyFromFile("seachProperties.properties", "apiKey");
-                String nameOfSource = readPropertyFromFile("seachProperties.properties", "source");
-                String authorSeachQuery = null;
+            //Ask if already search query is in triple Store .
+            if (!sparqlService.ask(QueryLanguage.SPARQL, queriesService.getAskResourceQuery(providerGraph, URL_TO_FIND_AK1))
+                    && !sparqlService.ask(QueryLanguage.SPARQL, queriesService.getAskResourceQuery(providerGraph, URL_TO_FIND_AK2))) {
 
+                limiter.acquire();
                 try {
-                    nameToFind = stripAccents(nick == null ? priorityFindQueryBuilding(firstName, lastName) : nick.toLowerCase().replace(" ", "%20"));
-                    proceced++;
-                    String URL_TO_FIND_AK1 = "https://api.projectoxford.ai/academic/v1.0/evaluate?expr=And(Composite(AA.AuN==%27" + nameToFind + "%27),Composite(AA.AfN==%27" + nameOfSource.replace(" ", "%20") + "%27))&attributes=Id,Ti,Y,D,CC,ECC,AA.AuN,AA.AuId,AA.AfN,AA.AfId,F.FN,F.FId,J.JN,J.JId,C.CN,C.CId,RId,W,E,D&E=DN,D,S,S.Ty,S.U,VFN,VSN,V,I,FP,LP,DOI&subscription-key=" + keysubscriptions + "&count=100&sort=2";
-                    String URL_TO_FIND_AK2 = "https://api.projectoxford.ai/academic/v1.0/evaluate?expr=Composite(AA.AuN==%27" + nameToFind + "%27)&attributes=Id,Ti,Y,D,CC,ECC,AA.AuN,AA.AuId,AA.AfN,AA.AfId,F.FN,F.FId,J.JN,J.JId,C.CN,C.CId,RId,W,E,D&E=DN,D,S,S.Ty,S.U,VFN,VSN,V,I,FP,LP,DOI&subscription-key=" + keysubscriptions + "&count=100&sort=2";
-                    boolean dataretrievee = false;
-
-                    String nameEndpointofPublications = ldClient.getEndpoint(URL_TO_FIND_AK1).getName();
-                    String providerGraph = constantService.getProviderNsGraph() + "/" + nameEndpointofPublications.replace(" ", "");
-
-                    //Ask if already search query is in triple Store .
-                    if (!sparqlService.ask(QueryLanguage.SPARQL, queriesService.getAskResourceQuery(providerGraph, URL_TO_FIND_AK1))
-                            && !sparqlService.ask(QueryLanguage.SPARQL, queriesService.getAskResourceQuery(providerGraph, URL_TO_FIND_AK2))) {
-
-                        try {
-                            response = ldClient.retrieveResource(URL_TO_FIND_AK1);
-                            if (!response.getData().isEmpty()) {
-                                //load retrieve triples in Sesame repository to make some searchs.
-                                conUri = ModelCommons.asRepository(response.getData()).getConnection();
-                                conUri.begin();
+                    response = ldClient.retrieveResource(URL_TO_FIND_AK1);
+                    if (!response.getData().isEmpty()) {
+                        //load retrieve triples in Sesame repository to make some searchs.
+                        conUri = ModelCommons.asRepository(response.getData()).getConnection();
+                        conUri.begin();
+                        dataretrievee = true;
+                    }
+                } catch (DataRetrievalException e) {
+
+                    log.error("Data Retrieval emply to find: " + URL_TO_FIND_AK1 + " " + e.getMessage());
+                    dataretrievee = false;
+                    retrievalFailed = true;
+
+                } finally {
+                    //Save the search query with success result in triple store
+                    authorSeachQuery = URL_TO_FIND_AK1;
+                    limiter.release();
+
+                }
+                // Search author by other fields, like afiliation name, country or repository url
+                if (!dataretrievee) {
+                    limiter.acquire();
+                    try {
+                        response = ldClient.retrieveResource(URL_TO_FIND_AK2);
+                        if (!response.getData().isEmpty()) {
+                            //load retrieve triples in Sesame repository to make some searchs.
+                            conUri = ModelCommons.asRepository(response.getData()).getConnection();
+                            conUri.begin();
+
+                            //Search some string in data retrieved to find correct authors.
+                            String paramSearch = readPropertyFromFile("seachProperties.properties", "paramSearch");
+                            String getPublicationsFromProviderQuery = queriesService.getTriplesByFilter(paramSearch.split(",")[0], paramSearch.split(",")[1], paramSearch.split(",")[2], paramSearch.split(",")[3]);
+                            TupleQuery pubquery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getPublicationsFromProviderQuery); //
+                            TupleQueryResult tripletasResult = pubquery.evaluate();
+                            dataretrievee = tripletasResult.hasNext();
+
+                            /// If an author has three values in his name is more problably that the author is correct.
+                            if (!dataretrievee && nameToFind.split("%20").length > 1) {
                                 dataretrievee = true;
                             }
-                        } catch (DataRetrievalException e) {
-
-                            log.error("Data Retrieval emply to find: " + URL_TO_FIND_AK1 + " " + e.getMessage());
-                            dataretrievee = false;
-
-                        } finally {
-                            //Save the search query with success result in triple store
-                            authorSeachQuery = URL_TO_FIND_AK1;
-                            //Wait four seconds to do send other query
-                            try {
-                                Thread.sleep(4000);
-                            } catch (InterruptedException ex) {
-                                Thread.currentThread().interrupt();
-                            }
-
                         }
-                        // Search author by other fields, like afiliation name, country or repository url
-                        if (!dataretrievee) {
-                            try {
-                                response = ldClient.retrieveResource(URL_TO_FIND_AK2);
-                                if (!response.getData().isEmpty()) {
-                                    //load retrieve triples in Sesame repository to make some searchs.
-                                    conUri = ModelCommons.asRepository(response.getData()).getConnection();
-                                    conUri.begin();
-
-                                    //Search some string in data retrieved to find correct authors.
-                                    String paramSearch = readPropertyFromFile("seachProperties.properties", "paramSearch");
-                                    String getPublicationsFromProviderQuery = queriesService.getTriplesByFilter(paramSearch.split(",")[0], paramSearch.split(",")[1], paramSearch.split(",")[2], paramSearch.split(",")[3]);
-                                    TupleQuery pubquery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getPublicationsFromProviderQuery); //
-                                    TupleQueryResult tripletasResult = pubquery.evaluate();
-                                    dataretrievee = tripletasResult.hasNext();
-
-                                    /// If an author has three values in his name is more problably that the author is correct.
-                                    if (!dataretrievee && nameToFind.split("%20").length > 1) {
-                                        dataretrievee = true;
-                                    }
-                                }
-                            } catch (DataRetrievalException e) {
-
-                                log.error("Data Retrieval emply to find: " + URL_TO_FIND_AK2 + " " + e.getMessage());
-
-                                dataretrievee = false;
-
-                            } finally {
-                                authorSeachQuery = URL_TO_FIND_AK2;
-                                try {
-                                    Thread.sleep(4000);
-                                } catch (InterruptedException ex) {
-                                    Thread.currentThread().interrupt();
-                                }
-                            }
+                    } catch (DataRetrievalException e) {
 
-                        }
-                        // Save triples if data retrieval is not null.
-                        if (dataretrievee) {
+                        log.error("Data Retrieval emply to find: " + URL_TO_FIND_AK2 + " " + e.getMessage());
+
+                        dataretrievee = false;
+                        retrievalFailed = true;
+
+                    } finally {
+                        authorSeachQuery = URL_TO_FIND_AK2;
+                        limiter.release();
+                    }
+
+                }
+                //no query could be retrieved, the author is searched again in the next harvest
+                if (retrievalFailed && !dataretrievee) {
+                    harvested = false;
+                }
+                // Save triples if data retrieval is not null.
+                if (dataretrievee) {
 
-                            boolean existNativeAuthor = sparqlService.ask(QueryLanguage.SPARQL, queriesService.getAskResourceQuery(providerGraph, authorResource));
+                    boolean existNativeAuthor = sparqlService.ask(QueryLanguage.SPARQL, queriesService.getAskResourceQuery(providerGraph, authorResource));
 
 //                            String InsertQueryOneOf = buildInsertQuery(providerGraph, authorSeachQuery, OWL.ONE_OF, authorResource);
 //                            updatePub(InsertQueryOneOf);
 //                            if (existNativeAuthor) {
-                            String sameAsInsertQuery = buildInsertQuery(providerGraph, authorResource, OWL.SAME_AS, authorSeachQuery);
-                            updatePub(sameAsInsertQuery);
+                    tripleWriter.add(providerGraph, authorResource, OWL.SAME_AS, authorSeachQuery);
 //                            }
 
-                            if (!existNativeAuthor) {
-                                //SPARQL obtain all publications of author
-                                String getPublicationsFromProviderQuery = queriesService.getResourceUriByType("dc:creator");
-                                TupleQuery pubquery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getPublicationsFromProviderQuery); //
-                                TupleQueryResult tripletasResult = pubquery.evaluate();
-                                while (tripletasResult.hasNext()) {
-                                    AuthorDataisLoad = true;
-
-                                    BindingSet tripletsResource = tripletasResult.next();
-                                    String authorSourceResource = tripletsResource.getValue("authorResource").toString();
-                                    String publicationResource = tripletsResource.getValue("publicationResource").toString();
-                                    String publicationInsertQuery = buildInsertQuery(providerGraph, authorResource, "http://xmlns.com/foaf/0.1/publications", publicationResource);
-                                    updatePub(publicationInsertQuery);
-                                    //CODE TO SAVE A RELATION BETWEEN AUTOR URI AND CREATOR OF PUBLICATION    
-                                    // String sameAsInsertQuery = buildInsertQuery(providerGraph, authorSourceResource, "http://www.w3.org/2002/07/owl#sameAs", authorResource);
-                                    //updatePub(sameAsInsertQuery);
-                                }
-
-                                // save the publications properties in triple store.
-                                String getPublicationPropertiesQuery = queriesService.getPropertiesOfResourceByType("bibo:Document");
-                                TupleQuery resourcequery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getPublicationPropertiesQuery); //
-                                tripletasResult = resourcequery.evaluate();
-                                while (tripletasResult.hasNext()) {
-                                    BindingSet tripletsResource = tripletasResult.next();
-                                    String publicationResource = tripletsResource.getValue("publicationResource").toString();
-                                    String publicationProperties = tripletsResource.getValue("publicationProperties").toString();
-                                    String publicationPropertiesValue = tripletsResource.getValue("publicationPropertiesValue").toString();
-                                    ///insert sparql query, 
-                                    String publicationPropertiesInsertQuery = buildInsertQuery(providerGraph, publicationResource, publicationProperties, publicationPropertiesValue);
-                                    updatePub(publicationPropertiesInsertQuery);
-                                }
+                    if (!existNativeAuthor) {
+                        //SPARQL obtain all publications of author
+                        String getPublicationsFromProviderQuery = queriesService.getResourceUriByType("dc:creator");
+                        TupleQuery pubquery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getPublicationsFromProviderQuery); //
+                        TupleQueryResult tripletasResult = pubquery.evaluate();
+                        while (tripletasResult.hasNext()) {
+                            AuthorDataisLoad = true;
+
+                            BindingSet tripletsResource = tripletasResult.next();
+                            String authorSourceResource = tripletsResource.getValue("authorResource").toString();
+                            String publicationResource = tripletsResource.getValue("publicationResource").toString();
+                            tripleWriter.add(providerGraph, authorResource, "http://xmlns.com/foaf/0.1/publications", publicationResource);
+                            //CODE TO SAVE A RELATION BETWEEN AUTOR URI AND CREATOR OF PUBLICATION    
+                            // String sameAsInsertQuery = buildInsertQuery(providerGraph, authorSourceResource, "http://www.w3.org/2002/07/owl#sameAs", authorResource);
+                            //updatePub(sameAsInsertQuery);
+                        }
 
-                            }
-                            conUri.commit();
-                            conUri.close();
+                        // save the publications properties in triple store.
+                        String getPublicationPropertiesQuery = queriesService.getPropertiesOfResourceByType("bibo:Document");
+                        TupleQuery resourcequery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getPublicationPropertiesQuery); //
+                        tripletasResult = resourcequery.evaluate();
+                        while (tripletasResult.hasNext()) {
+                            BindingSet tripletsResource = tripletasResult.next();
+                            String publicationResource = tripletsResource.getValue("publicationResource").toString();
+                            String publicationProperties = tripletsResource.getValue("publicationProperties").toString();
+                            String publicationPropertiesValue = tripletsResource.getValue("publicationPropertiesValue").toString();
+                            ///insert sparql query, 
+                            tripleWriter.add(providerGraph, publicationResource, publicationProperties, publicationPropertiesValue);
                         }
-                    }
-                } catch (Exception e) {
 
-                    log.error("ioexception " + e.toString());
+                    }
+                    conUri.commit();
+                    conUri.close();
                 }
-
-                //** end View Data
-                printPercentProcess(processedPersons, allPersons, "Academics Knowledge");
             }
-            return "True for publications";
-
-        } catch (InvalidArgumentException ex) {
-            log.error("Marmotta Exception: " + ex);
+        } catch (InterruptedException ex) {
+            throw ex;
+        } catch (Exception e) {
 
+            log.error("ioexception " + e.toString());
+            harvested = false;
         }
 
-        return "fail";
+        //** end View Data
+        return tripleWriter.flush() && harvested;
     }
 
     /**
@@ -346,31 +350,7 @@ public class AcademicsKnowledgeProviderServiceImpl implements AcademicsKnowledge
      * @return
      */
     public String readPropertyFromFile(String file, String property) {
-        Properties propiedades = new Properties();
-        InputStream entrada = null;
-        ConcurrentHashMap<String, String> mapping = new ConcurrentHashMap<String, String>();
-        try {
-            ClassLoader classLoader = getClass().getClassLoader();
-            entrada = classLoader.getResourceAsStream(file);
-            propiedades.load(entrada);
-            for (String source : propiedades.stringPropertyNames()) {
-                String target = propiedades.getProperty(source);
-                mapping.put(source, target);
-            }
-        } catch (IOException ex) {
-            log.error("IOException in getReadPropertyFromFile CommonsServiceImpl " + ex);
-        } catch (Exception ex) {
-            log.error("Exception in getReadPropertyFromFile CommonsServiceImpl " + ex);
-        } finally {
-            if (entrada != null) {
-                try {
-                    entrada.close();
-                } catch (IOException e) {
-                    log.error("IOException un getReadPropertyFromFile line 106" + e);
-                }
-            }
-        }
-        return mapping.get(property);
+        return ConfigurationSnapshot.current().getString(file, property);
     }
 
 }
@@ -0,0 +1,173 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.pubman.services;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import org.apache.marmotta.ucuenca.wk.commons.function.ConfigurationSnapshot;
+import org.apache.marmotta.ucuenca.wk.commons.service.CommonsServices;
+import org.apache.marmotta.ucuenca.wk.commons.service.QueriesService;
+import org.apache.marmotta.ucuenca.wk.pubman.api.SparqlFunctionsService;
+import org.apache.marmotta.ucuenca.wk.pubman.exceptions.PubException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Accumulates the triples of a harvest by target graph and loads them in
+ * marmotta with one INSERT DATA query per graph, instead of one UPDATE per
+ * triple. The pending triples are sent when the batch size is reached, when
+ * the flush interval is exceeded or when {@link #flush()} is called.
+ *
+ * If a batch fails ( e.g. a bad literal ) its triples are inserted one by
+ * one, so only the wrong triple is lost as before, and {@link #flush()}
+ * reports it so the author is not checkpointed as harvested.
+ *
+ * The writer is thread safe, the queries are sent outside of its lock so the
+ * threads that add triples do not wait for the inserts of another thread.
+ * The harvests use one writer per author.
+ */
+public class BatchedTripleWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchedTripleWriter.class);
+
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    public static final long DEFAULT_FLUSH_INTERVAL = 30000;
+
+    private final SparqlFunctionsService sparqlFunctionsService;
+
+    private final QueriesService queriesService;
+
+    private final CommonsServices commonsServices;
+
+    private final int batchSize;
+
+    private final long flushInterval;
+
+    private Map<String, Set<String>> pending = new LinkedHashMap<>();
+
+    private int pendingSize = 0;
+
+    private long lastFlush = System.currentTimeMillis();
+
+    /* a triple of this writer could not be inserted */
+    private volatile boolean failed = false;
+
+    /**
+     * Writer with the batch size and flush interval of
+     * updatePlatformProcessConfig.properties
+     *
+     * @param sparqlFunctionsService
+     * @param queriesService
+     * @param commonsServices
+     * @return
+     */
+    public static BatchedTripleWriter create(SparqlFunctionsService sparqlFunctionsService, QueriesService queriesService,
+            CommonsServices commonsServices) {
+        ConfigurationSnapshot configuration = ConfigurationSnapshot.current();
+        return new BatchedTripleWriter(sparqlFunctionsService, queriesService, commonsServices,
+                configuration.getBatchSize(), configuration.getBatchFlushInterval());
+    }
+
+    public BatchedTripleWriter(SparqlFunctionsService sparqlFunctionsService, QueriesService queriesService,
+            CommonsServices commonsServices, int batchSize, long flushInterval) {
+        this.sparqlFunctionsService = sparqlFunctionsService;
+        this.queriesService = queriesService;
+        this.commonsServices = commonsServices;
+        this.batchSize = batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+        this.flushInterval = flushInterval > 0 ? flushInterval : DEFAULT_FLUSH_INTERVAL;
+    }
+
+    /**
+     * Same arguments of buildInsertQuery in the provider services, the object
+     * is inserted as URI or LITERAL.
+     *
+     * @param graph
+     * @param subject
+     * @param predicate
+     * @param object
+     */
+    public void add(String graph, String subject, String predicate, String object) {
+        String triple = commonsServices.isURI(object)
+                ? queriesService.getInsertDataUriTriple(subject, predicate, object)
+                : queriesService.getInsertDataLiteralTriple(subject, predicate, object);
+        Map<String, Set<String>> batch = null;
+        synchronized (this) {
+            Set<String> triples = pending.get(graph);
+            if (triples == null) {
+                triples = new LinkedHashSet<>();
+                pending.put(graph, triples);
+            }
+            if (triples.add(triple)) {
+                pendingSize++;
+            }
+            if (pendingSize >= batchSize || System.currentTimeMillis() - lastFlush >= flushInterval) {
+                batch = takePending();
+            }
+        }
+        if (batch != null) {
+            insert(batch);
+        }
+    }
+
+    /**
+     * Load all pending triples in marmotta.
+     *
+     * @return false if a triple added to this writer could not be inserted
+     */
+    public boolean flush() {
+        Map<String, Set<String>> batch;
+        synchronized (this) {
+            batch = takePending();
+        }
+        insert(batch);
+        return !failed;
+    }
+
+    public synchronized int getPendingSize() {
+        return pendingSize;
+    }
+
+    /*
+     * The pending triples, the next triples go to a new batch
+     */
+    private Map<String, Set<String>> takePending() {
+        Map<String, Set<String>> batch = pending;
+        pending = new LinkedHashMap<>();
+        pendingSize = 0;
+        lastFlush = System.currentTimeMillis();
+        return batch;
+    }
+
+    private void insert(Map<String, Set<String>> batch) {
+        for (Map.Entry<String, Set<String>> entry : batch.entrySet()) {
+            String graph = entry.getKey();
+            Set<String> triples = entry.getValue();
+            if (!update(queriesService.getInsertDataBatchQuery(graph, triples))) {
+                log.warn("Batch of " + triples.size() + " triples failed in " + graph + ", inserting one by one");
+                for (String triple : triples) {
+                    String query = queriesService.getInsertDataBatchQuery(graph, Collections.singleton(triple));
+                    if (!update(query)) {
+                        log.error("No se pudo insertar: " + query);
+                        failed = true;
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean update(String query) {
+        try {
+            return sparqlFunctionsService.updatePub(query);
+        } catch (PubException ex) {
+            return false;
+        }
+    }
+
+}
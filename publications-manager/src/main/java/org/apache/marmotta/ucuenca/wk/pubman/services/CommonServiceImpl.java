@@ -6,6 +6,7 @@
 package org.apache.marmotta.ucuenca.wk.pubman.services;
 
 import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
 import java.util.List;
 import javax.inject.Inject;
 import org.apache.marmotta.ucuenca.wk.pubman.api.AcademicsKnowledgeProviderService;
@@ -56,59 +57,52 @@ public class CommonServiceImpl implements CommonService {
     @Inject
     ReportsImpl reportsImpl;
 
+    @Inject
+    HarvestJobManager jobManager;
+
     @Override
     public String GetDataFromProvidersService() {
 
-        Thread ScopusThread = new Thread((Runnable) providerServiceScopus);
-        ScopusThread.start();
-
         //         return googleService.runPublicationsProviderTaskImpl("d");
-//        Thread googleProvider = new Thread(googleProviderService);
-//        googleProvider.start();
-        return "Data Provider SCOPUS are extracted in background.   Please review main.log file for details";
+        return submit(HarvestJobManager.SCOPUS, providerServiceScopus,
+                "Data Provider SCOPUS are extracted in background.   Please review main.log file for details");
 
     }
 
     @Override
     public String GetDataFromProvidersServiceDBLP() {
-        Thread DblpProvider = new Thread(dblpProviderService);
-        DblpProvider.start();
-        return "Data Provider DBLP are extracted in background.   Please review main.log file for details";
+        return submit(HarvestJobManager.DBLP, dblpProviderService,
+                "Data Provider DBLP are extracted in background.   Please review main.log file for details");
     }
 
     @Override
     public String GetDataFromProvidersServiceAcademicsKnowledge() {
-        Thread AKProvider = new Thread(academicsKnowledgeProviderService);
-        AKProvider.start();
-        return "Data Provider AK are extracted in background.   Please review main.log file for details";
+        return submit(HarvestJobManager.ACADEMICS_KNOWLEDGE, academicsKnowledgeProviderService,
+                "Data Provider AK are extracted in background.   Please review main.log file for details");
     }
 
     @Override
     public String GetDataFromProvidersServiceMicrosoftAcademics() {
-        Thread MicrosofProvider = new Thread(microsoftAcadProviderService);
-        MicrosofProvider.start();
-        return "Data Provider MICROSOFT ACEDEMICS are extracted in background.   Please review main.log file for details";
+        return submit(HarvestJobManager.MICROSOFT_ACADEMICS, microsoftAcadProviderService,
+                "Data Provider MICROSOFT ACEDEMICS are extracted in background.   Please review main.log file for details");
     }
 
     @Override
     public String GetDataFromProvidersServiceGoogleScholar() {
-        Thread GoogleProvider = new Thread(googleProviderService);
-        GoogleProvider.start();
-        return "Data Provider Google Scholar are extracted in background.   Please review main.log file for details";
+        return submit(HarvestJobManager.GOOGLE_SCHOLAR, googleProviderService,
+                "Data Provider Google Scholar are extracted in background.   Please review main.log file for details");
     }
 
     @Override
     public String Data2GlobalGraph() {
-        Thread data2globalTask = new Thread(data2GlobalGraphService);
-        data2globalTask.start();
-        return "Load Publications Data from Providers Graph to Global Graph. Task run in background.   Please review main.log file for details";
+        return submit(HarvestJobManager.CENTRAL_GRAPH, data2GlobalGraphService,
+                "Load Publications Data from Providers Graph to Global Graph. Task run in background.   Please review main.log file for details");
     }
 
     @Override
     public String CountPublications() {
-        Thread countPublications = new Thread(countPublicationsService);
-        countPublications.start();
-        return "Count Publications from Providers and  Global Graph. Task run in background.   Please review main.log file for details";
+        return submit(HarvestJobManager.COUNT_PUBLICATIONS, countPublicationsService,
+                "Count Publications from Providers and  Global Graph. Task run in background.   Please review main.log file for details");
     }
 
     @Override
@@ -121,4 +115,28 @@ public class CommonServiceImpl implements CommonService {
     public String createReport(String hostname, String realPath, String name, String type, List<String> params) {
         return reportService.createReport(hostname, realPath, name, type, params);
     }
+
+    @Override
+    public JsonArray getJobs() {
+        return jobManager.getJobs();
+    }
+
+    @Override
+    public JsonObject getJob(String type) {
+        HarvestJob job = jobManager.getJob(type);
+        return job != null ? job.toJson() : null;
+    }
+
+    @Override
+    public boolean cancelJob(String type) {
+        return jobManager.cancel(type);
+    }
+
+    /* run the task as a job, only one job of each type at the same time */
+    private String submit(String type, Runnable task, String message) {
+        if (jobManager.submit(type, task)) {
+            return message;
+        }
+        return "Task " + type + " is already queued or running.   Please review /pubman/jobs for details";
+    }
 }
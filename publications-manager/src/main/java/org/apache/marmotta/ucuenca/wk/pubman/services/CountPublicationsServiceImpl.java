@@ -5,13 +5,9 @@
  */
 package org.apache.marmotta.ucuenca.wk.pubman.services;
 
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Properties;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import org.apache.marmotta.kiwi.model.rdf.KiWiUriResource;
@@ -53,6 +49,9 @@ public class CountPublicationsServiceImpl implements CountPublicationsService, R
     @Inject
     private SparqlFunctionsService sparqlFunctionsService;
 
+    @Inject
+    private ProviderMappingRegistry providerMappingRegistry;
+
     private String graphCountName = "http://ucuenca.edu.ec/wkhuska/counters";
     /**
      * graphByProvider Graph to count publications data by provider and central
@@ -121,36 +120,9 @@ public class CountPublicationsServiceImpl implements CountPublicationsService, R
         CountPublicationsService();
     }
 
-    private void loadPropertiesProvider(KiWiUriResource providerGraphResource) {
-        Properties propiedades = new Properties();
-        InputStream entrada = null;
-        Map<String, String> mapping = new HashMap<String, String>();
-        try {
-            ClassLoader classLoader = getClass().getClassLoader();
-            //File file = new File(classLoader.getResource("DBLPProvider.properties").getFile());
-            entrada = classLoader.getResourceAsStream(providerGraphResource.getLocalName() + ".properties");
-            // cargamos el archivo de propiedades
-            propiedades.load(entrada);
-            for (String source : propiedades.stringPropertyNames()) {
-                String target = propiedades.getProperty(source);
-
-                mapping.put(source.replace("..", ":"), target.replace("..", ":"));
-
-            }
-        } catch (IOException ex) {
-            ex.printStackTrace();
-        } catch (Exception ex) {
-            ex.printStackTrace();
-        } finally {
-            if (entrada != null) {
-                try {
-                    entrada.close();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-            }
-        }
-
+    /* mapping of the properties of the provider graph, read once by the registry */
+    private ProviderMappingRegistry.Mapping loadPropertiesProvider(KiWiUriResource providerGraphResource) {
+        return providerMappingRegistry.getMapping(providerGraphResource.getLocalName());
     }
 
     //construyendo sparql query insert 
@@ -20,14 +20,10 @@ package org.apache.marmotta.ucuenca.wk.pubman.services;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonParser;
 import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.InputStream;
 import java.io.StringWriter;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Properties;
 import java.util.logging.Level;
 import org.slf4j.Logger;
 
@@ -37,12 +33,12 @@ import javax.inject.Inject;
 import org.apache.marmotta.commons.sesame.model.ModelCommons;
 import org.apache.marmotta.kiwi.model.rdf.KiWiUriResource;
 import org.apache.marmotta.ldclient.exception.DataRetrievalException;
-import org.apache.marmotta.ldclient.model.ClientConfiguration;
 import org.apache.marmotta.ldclient.model.ClientResponse;
 import org.apache.marmotta.ldclient.services.ldclient.LDClient;
 import org.apache.marmotta.platform.core.exception.InvalidArgumentException;
 import org.apache.marmotta.platform.core.exception.MarmottaException;
 import org.apache.marmotta.platform.sparql.api.sparql.SparqlService;
+import org.apache.marmotta.ucuenca.wk.commons.function.ConfigurationSnapshot;
 import org.apache.marmotta.ucuenca.wk.commons.service.ConstantService;
 import org.apache.marmotta.ucuenca.wk.commons.service.QueriesService;
 
@@ -58,6 +54,7 @@ import org.apache.marmotta.ucuenca.wk.commons.service.KeywordsService;
 
 import org.openrdf.model.Model;
 import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
 import org.openrdf.query.BindingSet;
 import org.openrdf.query.MalformedQueryException;
 import org.openrdf.query.QueryEvaluationException;
@@ -111,6 +108,15 @@ public class DBLPProviderServiceImpl implements DBLPProviderService, Runnable {
     @Inject
     private KeywordsService kservice;
 
+    @Inject
+    private ProviderMappingRegistry providerMappingRegistry;
+
+    @Inject
+    private HarvestEngine harvestEngine;
+
+    @Inject
+    private LDClientPool ldClientPool;
+
     private int processpercent = 0;
 
     @Inject
@@ -134,34 +140,7 @@ public class DBLPProviderServiceImpl implements DBLPProviderService, Runnable {
 
                 if (providerGraph.contains("provider")) {
 
-                    Properties propiedades = new Properties();
-                    InputStream entrada = null;
-                    Map<String, String> mapping = new HashMap<String, String>();
-                    try {
-                        ClassLoader classLoader = getClass().getClassLoader();
-                        //File file = new File(classLoader.getResource("DBLPProvider.properties").getFile());
-
-                        entrada = classLoader.getResourceAsStream(providerGraphResource.getLocalName() + ".properties");
-                        // cargamos el archivo de propiedades
-                        propiedades.load(entrada);
-
-                        for (String source : propiedades.stringPropertyNames()) {
-                            String target = propiedades.getProperty(source);
-                            mapping.put(source.replace("..", ":"), target.replace("..", ":"));
-                        }
-                    } catch (IOException ex) {
-                        ex.printStackTrace();
-                    } catch (Exception ex) {
-                        ex.printStackTrace();
-                    } finally {
-                        if (entrada != null) {
-                            try {
-                                entrada.close();
-                            } catch (IOException e) {
-                                e.printStackTrace();
-                            }
-                        }
-                    }
+                    ProviderMappingRegistry.Mapping mapping = providerMappingRegistry.getMapping(providerGraphResource.getLocalName());
 
                     List<Map<String, Value>> resultPublications = sparqlService.query(QueryLanguage.SPARQL, queriesService.getPublicationsQuery(providerGraph));
                     for (Map<String, Value> pubresource : resultPublications) {
@@ -186,12 +165,12 @@ public class DBLPProviderServiceImpl implements DBLPProviderService, Runnable {
 
                         List<Map<String, Value>> resultPubProperties = sparqlService.query(QueryLanguage.SPARQL, queriesService.getPublicationsPropertiesQuery(providerGraph, publicationResource));
                         for (Map<String, Value> pubproperty : resultPubProperties) {
-                            String nativeProperty = pubproperty.get("publicationProperties").toString();
-                            if (mapping.get(nativeProperty) != null) {
+                            Value nativeProperty = pubproperty.get("publicationProperties");
+                            URI newPublicationProperty = nativeProperty instanceof URI ? mapping.map((URI) nativeProperty) : null;
+                            if (newPublicationProperty != null) {
 
-                                String newPublicationProperty = mapping.get(nativeProperty);
                                 String publicacionPropertyValue = pubproperty.get("publicationPropertyValue").toString();
-                                String insertPublicationPropertyQuery = buildInsertQuery(constantService.getAuthorsGraph(), publicationResource, newPublicationProperty, publicacionPropertyValue);
+                                String insertPublicationPropertyQuery = buildInsertQuery(constantService.getAuthorsGraph(), publicationResource, newPublicationProperty.stringValue(), publicacionPropertyValue);
 
                                 try {
                                     sparqlService.update(QueryLanguage.SPARQL, insertPublicationPropertyQuery);
@@ -224,111 +203,102 @@ public class DBLPProviderServiceImpl implements DBLPProviderService, Runnable {
         try {
 
             //new AuthorVersioningJob(log).proveSomething();
-            ClientConfiguration conf = new ClientConfiguration();
-            //conf.addEndpoint(new DBLPEndpoint());
-            LDClient ldClient = new LDClient(conf);
-
-            int allMembers = 0;
+            final LDClient ldClient = ldClientPool.getClient(LDClientPool.DBLP);
 
             // TupleQueryResult result = sparqlService.query(QueryLanguage.SPARQL, getAuthors);
-            String nameToFind = "";
-            String authorResource = "";
-            int priorityToFind = 0;
             List<Map<String, Value>> resultAllAuthors = getauthorsData.getListOfAuthors();
-            /*To Obtain Processed Percent*/
-            int allPersons = resultAllAuthors.size();
-            int processedPersons = 0;
 
-            String NS_DBLP = "http://rdf.dblp.com/ns/search/";
-            RepositoryConnection conUri = null;
-            ClientResponse response = null;
-
-            Properties propiedades = new Properties();
-            InputStream entrada = null;
-            Map<String, String> mapping = new HashMap<String, String>();
-            try {
-                ClassLoader classLoader = getClass().getClassLoader();
-                entrada = classLoader.getResourceAsStream("updatePlatformProcessConfig.properties");
-                propiedades.load(entrada);
-                for (String source : propiedades.stringPropertyNames()) {
-                    String target = propiedades.getProperty(source);
-                    mapping.put(source, target);
+            ConfigurationSnapshot configuration = ConfigurationSnapshot.current();
+            final boolean proccesAllAuthors = configuration.isProcessAllAuthors();
+            final boolean semanticAnalizer = configuration.isSemanticAnalizer();
 
+            harvestEngine.run("DBLP", ProviderRateLimiter.fromConfiguration("DBLP", 4, 4), resultAllAuthors, new HarvestEngine.AuthorTask() {
+                @Override
+                public boolean harvest(Map<String, Value> author, ProviderRateLimiter limiter) throws Exception {
+                    return harvestAuthor(author, limiter, ldClient, proccesAllAuthors, semanticAnalizer);
                 }
-            } catch (IOException ex) {
-                ex.printStackTrace();
-            } catch (Exception ex) {
-                ex.printStackTrace();
-            } finally {
-                if (entrada != null) {
-                    try {
-                        entrada.close();
-                    } catch (IOException e) {
-                        e.printStackTrace();
-                    }
+            });
+            return "True for publications";
+        } catch (Exception ex) {
+            log.error("Exception: " + ex);
+        }
+        return "fail";
+    }
+
+    /*
+     * Search of one author in DBLP, the requests to DBLP go through the limiter
+     */
+    private boolean harvestAuthor(Map<String, Value> map, ProviderRateLimiter limiter, LDClient ldClient,
+            boolean proccesAllAuthors, boolean semanticAnalizer) throws InterruptedException {
+        BatchedTripleWriter tripleWriter = BatchedTripleWriter.create(sparqlFunctionsService, queriesService, commonsServices);
+        String NS_DBLP = "http://rdf.dblp.com/ns/search/";
+        RepositoryConnection conUri = null;
+        ClientResponse response = null;
+        int allMembers = 0;
+        String nameToFind = "";
+        String authorResource = map.get("subject").stringValue();
+        String firstName = map.get("fname").stringValue();
+        String lastName = map.get("lname").stringValue();
+        boolean harvested = true;
+        boolean retrievalFailed = false;
+        int priorityToFind = 1;
+        boolean ask = false;
+        //the authors of the checkpoint journal never get here, the ASK is only for the authors harvested before the journal
+        if (!proccesAllAuthors) {
+            String askTripletQuery = queriesService.getAskProcessAlreadyAuthorProvider(constantService.getDBLPGraph(), authorResource);
+
+            try {
+                ask = sparqlService.ask(QueryLanguage.SPARQL, askTripletQuery);
+                if (ask) {
+                    return true;
                 }
+            } catch (MarmottaException ex) {
+                log.info("Marmotta Exception: Special Characters while ask triplet: " + askTripletQuery);
+
+            } catch (Exception e) {
+                log.info("Special Characters while ask triplet: " + askTripletQuery);
+
             }
-            boolean proccesAllAuthors = Boolean.parseBoolean(mapping.get("proccesAllAuthors").toString());
-            boolean semanticAnalizer = Boolean.parseBoolean(mapping.get("semanticAnalizer").toString());
-
-            for (Map<String, Value> map : resultAllAuthors) {
-                processedPersons++;
-                log.info("Autores procesados con DBLP: " + processedPersons + " de " + allPersons);
-                authorResource = map.get("subject").stringValue();
-                String firstName = map.get("fname").stringValue();
-                String lastName = map.get("lname").stringValue();
-                priorityToFind = 1;
-                boolean ask = false;
-                if (!proccesAllAuthors) {
-                    String askTripletQuery = queriesService.getAskProcessAlreadyAuthorProvider(constantService.getDBLPGraph(), authorResource);
 
-                    try {
-                        ask = sparqlService.ask(QueryLanguage.SPARQL, askTripletQuery);
-                        if (ask) {
-                            continue;
-                        }
-                    } catch (MarmottaException ex) {
-                        log.info("Marmotta Exception: Special Characters while ask triplet: " + askTripletQuery);
+        }
+        do {
+            try {
+                boolean existNativeAuthor = false;
+                allMembers = 0;
+                nameToFind = commonsServices.removeAccents(priorityFindQueryBuilding(priorityToFind, firstName, lastName));
 
-                    } catch (Exception e) {
-                        log.info("Special Characters while ask triplet: " + askTripletQuery);
+                boolean dataretrievee = false;//( Data Retrieve Exception )
 
+                if (!proccesAllAuthors) {
+                    try {
+                        existNativeAuthor = sparqlService.ask(QueryLanguage.SPARQL, queriesService.getAskQuery(constantService.getDBLPGraph(), NS_DBLP + nameToFind, "http://www.w3.org/2002/07/owl#oneOf", authorResource));
+                    } catch (Exception e) {
+                        log.info("ERROR line 305" + constantService.getDBLPGraph() + NS_DBLP + nameToFind + "Exception" + e.getMessage());
+                        log.info("ERROR line 305" + existNativeAuthor);
                     }
-
                 }
-                do {
-                    try {
-                        boolean existNativeAuthor = false;
-                        allMembers = 0;
-                        nameToFind = commonsServices.removeAccents(priorityFindQueryBuilding(priorityToFind, firstName, lastName));
-
-                        boolean dataretrievee = false;//( Data Retrieve Exception )
+                if (!existNativeAuthor) {
 
-                        if (!proccesAllAuthors) {
-                            try {
-                                existNativeAuthor = sparqlService.ask(QueryLanguage.SPARQL, queriesService.getAskQuery(constantService.getDBLPGraph(), NS_DBLP + nameToFind, "http://www.w3.org/2002/07/owl#oneOf", authorResource));
-                            } catch (Exception e) {
-                                log.info("ERROR line 305" + constantService.getDBLPGraph() + NS_DBLP + nameToFind + "Exception" + e.getMessage());
-                                log.info("ERROR line 305" + existNativeAuthor);
-                            }
-                        }
-                        if (!existNativeAuthor) {
-
-                            try {
-                                response = ldClient.retrieveResource(NS_DBLP + nameToFind);
-                                dataretrievee = true;
-                            } catch (DataRetrievalException e) {
-                                log.error("Data Retrieval Exception: " + e);
-                                dataretrievee = false;
-                            }
-                            if (response.getHttpStatus() == 503) {
-                                log.error("ErrorCode: " + response.getHttpStatus());
-                            }
-                        }
-                        String nameEndpointofPublications = ldClient.getEndpoint(NS_DBLP + nameToFind).getName();
-                        String providerGraph = constantService.getProviderNsGraph() + "/" + nameEndpointofPublications.replace(" ", "");
-                        if (dataretrievee)//if the resource data were recovered
-                        {
+                    limiter.acquire();
+                    try {
+                        response = ldClient.retrieveResource(NS_DBLP + nameToFind);
+                        dataretrievee = true;
+                    } catch (DataRetrievalException e) {
+                        log.error("Data Retrieval Exception: " + e);
+                        dataretrievee = false;
+                        retrievalFailed = true;
+                    } finally {
+                        limiter.release();
+                    }
+                    if (response != null && response.getHttpStatus() == 503) {
+                        log.error("ErrorCode: " + response.getHttpStatus());
+                        retrievalFailed = true;
+                    }
+                }
+                String nameEndpointofPublications = ldClient.getEndpoint(NS_DBLP + nameToFind).getName();
+                String providerGraph = constantService.getProviderNsGraph() + "/" + nameEndpointofPublications.replace(" ", "");
+                if (dataretrievee)//if the resource data were recovered
+                {
 //                            Model model = response.getData();
 //                            FileOutputStream out = new FileOutputStream("C:\\Users\\Satellite\\Desktop\\" + nameToFind.replace("?", "_") + "_test.ttl");
 //                            RDFWriter writer = Rio.createWriter(RDFFormat.TURTLE, out);
@@ -341,147 +311,141 @@ public class DBLPProviderServiceImpl implements DBLPProviderService, Runnable {
 //                            } catch (RDFHandlerException e) {
 //                                // oh no, do something!
 //                            }
-                            //Save register of serach
-                            String InsertQueryOneOf = buildInsertQuery(providerGraph, NS_DBLP + nameToFind, OWL.ONE_OF, authorResource);
-                            updatePub(InsertQueryOneOf);
-
-                            conUri = ModelCommons.asRepository(response.getData()).getConnection();
-                            conUri.begin();
-                            String authorNativeResource = null;
-                            //verifying the number of persons retrieved. if it has recovered more than one persons then the filter is changed and search anew,
-                            String getMembersQuery = queriesService.getObjectByPropertyQuery("foaf:member");
-                            TupleQueryResult membersResult = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getMembersQuery).evaluate();
-                            //  allMembers = Iterations.asList(membersResult).size();
-                            String dblpfullname = "";
-                            String localfullname = "";
-                            while (membersResult.hasNext()) {
-                                allMembers++;
-                                BindingSet bindingCount = membersResult.next();
-                                authorNativeResource = bindingCount.getValue("object").toString();
-                                existNativeAuthor = sparqlService.ask(QueryLanguage.SPARQL, queriesService.getAskResourceQuery(providerGraph, authorNativeResource));
-                                dblpfullname = authorNativeResource.substring(authorNativeResource.lastIndexOf('/') + 1);
-                                localfullname = lastName + ":" + firstName;
-                            }
-                            //the author data was already loaded into the repository, only a sameAs property is associated 
-                            if (allMembers == 1 && existNativeAuthor) {
-                                //insert sameAs triplet    <http://190.15.141.102:8080/dspace/contribuidor/autor/SaquicelaGalarza_VictorHugo> owl:sameAs <http://dblp.org/pers/xr/s/Saquicela:Victor> 
-                                String sameAsInsertQuery = buildInsertQuery(providerGraph, authorResource, "http://www.w3.org/2002/07/owl#sameAs", authorNativeResource);
-                                updatePub(sameAsInsertQuery);
-                            }
-                            /**
-                             * Exception to avoid authorNativeResource equal to
-                             */
+                    //Save register of serach
+                    tripleWriter.add(providerGraph, NS_DBLP + nameToFind, OWL.ONE_OF, authorResource);
+
+                    conUri = ModelCommons.asRepository(response.getData()).getConnection();
+                    conUri.begin();
+                    String authorNativeResource = null;
+                    //verifying the number of persons retrieved. if it has recovered more than one persons then the filter is changed and search anew,
+                    String getMembersQuery = queriesService.getObjectByPropertyQuery("foaf:member");
+                    TupleQueryResult membersResult = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getMembersQuery).evaluate();
+                    //  allMembers = Iterations.asList(membersResult).size();
+                    String dblpfullname = "";
+                    String localfullname = "";
+                    while (membersResult.hasNext()) {
+                        allMembers++;
+                        BindingSet bindingCount = membersResult.next();
+                        authorNativeResource = bindingCount.getValue("object").toString();
+                        existNativeAuthor = sparqlService.ask(QueryLanguage.SPARQL, queriesService.getAskResourceQuery(providerGraph, authorNativeResource));
+                        dblpfullname = authorNativeResource.substring(authorNativeResource.lastIndexOf('/') + 1);
+                        localfullname = lastName + ":" + firstName;
+                    }
+                    //the author data was already loaded into the repository, only a sameAs property is associated 
+                    if (allMembers == 1 && existNativeAuthor) {
+                        //insert sameAs triplet    <http://190.15.141.102:8080/dspace/contribuidor/autor/SaquicelaGalarza_VictorHugo> owl:sameAs <http://dblp.org/pers/xr/s/Saquicela:Victor> 
+                        tripleWriter.add(providerGraph, authorResource, "http://www.w3.org/2002/07/owl#sameAs", authorNativeResource);
+                    }
+                    /**
+                     * Exception to avoid authorNativeResource equal to
+                     */
 
-                            try {
-                                if (allMembers == 1 && !existNativeAuthor
-                                        && distance.syntacticComparisonNames("local", localfullname, "dblp", dblpfullname)) {
-
-                                    priorityToFind = 5;
-
-                                    List<String> listA = kservice.getKeywordsOfAuthor(authorResource);//dspace
-                                    List<String> listB = new ArrayList<String>();//desde la fuente de pub
-                                    String getPublicationsAndTitleFromProviderQuery = queriesService.getSubjectAndObjectByPropertyQuery("dct:title");
-                                    TupleQuery abstracttitlequery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getPublicationsAndTitleFromProviderQuery); //
-                                    TupleQueryResult abstractResult = abstracttitlequery.evaluate();
-
-                                    while (abstractResult.hasNext()) {
-                                        BindingSet abstractResource = abstractResult.next();
-                                        // String abstracttext = abstractResource.getValue("abstract").toString();
-                                        String publication = abstractResource.getValue("subject").toString();
-
-                                        String titletext = abstractResource.getValue("object").toString();
-                                        listB = kservice.getKeywords(titletext);
-                                        int cero = 0;
-
-                                        if (semanticAnalizer && listB.size() != cero && listA.size() != cero && distance.semanticComparison(listA, listB)) {
-                                            //SPARQL obtain all publications of author
-                                            String getPublicationsFromProviderQuery = queriesService.getPublicationsPropertiesQuery(publication);
-                                            TupleQuery pubquery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getPublicationsFromProviderQuery); //
-                                            TupleQueryResult tripletasResult = pubquery.evaluate();
-
-                                            while (tripletasResult.hasNext()) {
-                                                BindingSet tripletsResource = tripletasResult.next();
-                                                //authorNativeResource = tripletsResource.getValue("authorResource").toString();
-                                                String publicationProperty = tripletsResource.getValue("property").toString();
-                                                String publicationObject = tripletsResource.getValue("value").toString();
-                                                ///insert sparql query, 
-                                                String publicationInsertQuery = buildInsertQuery(providerGraph, publication, publicationProperty, publicationObject);
-                                                updatePub(publicationInsertQuery);
-
-                                                // insert dct:contributor      <> dct:contributor <http://dblp.org/pers/xr/s/Saquicela:Victor> 
-                                                String contributorInsertQuery = buildInsertQuery(providerGraph, publication, "http://purl.org/dc/terms/contributor", authorNativeResource);
-                                                updatePub(contributorInsertQuery);
-
-                                                // sameAs triplet    <http://190.15.141.102:8080/dspace/contribuidor/autor/SaquicelaGalarza_VictorHugo> owl:sameAs <http://dblp.org/pers/xr/s/Saquicela:Victor> 
-                                                String sameAsInsertQuery = buildInsertQuery(providerGraph, authorResource, "http://www.w3.org/2002/07/owl#sameAs", authorNativeResource);
-                                                updatePub(sameAsInsertQuery);
-                                            }
-
-                                        }//end if semanticComparison
-                                        else if (!semanticAnalizer) {//In this case: No semantic Analizer
-                                            //SPARQL obtain all publications of author
-                                            String getPublicationsFromProviderQuery = queriesService.getPublicationsPropertiesQuery(publication);
-                                            TupleQuery pubquery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getPublicationsFromProviderQuery); //
-                                            TupleQueryResult tripletasResult = pubquery.evaluate();
-
-                                            while (tripletasResult.hasNext()) {
-                                                BindingSet tripletsResource = tripletasResult.next();
-                                                //authorNativeResource = tripletsResource.getValue("authorResource").toString();
-                                                String publicationProperty = tripletsResource.getValue("property").toString();
-                                                String publicationObject = tripletsResource.getValue("value").toString();
-                                                ///insert sparql query, 
-                                                String publicationInsertQuery = buildInsertQuery(providerGraph, publication, publicationProperty, publicationObject);
-                                                updatePub(publicationInsertQuery);
-
-                                                // insert dct:contributor      <> dct:contributor <http://dblp.org/pers/xr/s/Saquicela:Victor> 
-                                                String contributorInsertQuery = buildInsertQuery(providerGraph, publication, "http://purl.org/dc/terms/contributor", authorNativeResource);
-                                                updatePub(contributorInsertQuery);
-
-                                                // sameAs triplet    <http://190.15.141.102:8080/dspace/contribuidor/autor/SaquicelaGalarza_VictorHugo> owl:sameAs <http://dblp.org/pers/xr/s/Saquicela:Victor> 
-                                                String sameAsInsertQuery = buildInsertQuery(providerGraph, authorResource, "http://www.w3.org/2002/07/owl#sameAs", authorNativeResource);
-                                                updatePub(sameAsInsertQuery);
-                                            }
-                                        }
+                    try {
+                        if (allMembers == 1 && !existNativeAuthor
+                                && distance.syntacticComparisonNames("local", localfullname, "dblp", dblpfullname)) {
+
+                            priorityToFind = 5;
+
+                            List<String> listA = kservice.getKeywordsOfAuthor(authorResource);//dspace
+                            List<String> listB = new ArrayList<String>();//desde la fuente de pub
+                            String getPublicationsAndTitleFromProviderQuery = queriesService.getSubjectAndObjectByPropertyQuery("dct:title");
+                            TupleQuery abstracttitlequery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getPublicationsAndTitleFromProviderQuery); //
+                            TupleQueryResult abstractResult = abstracttitlequery.evaluate();
+
+                            while (abstractResult.hasNext()) {
+                                BindingSet abstractResource = abstractResult.next();
+                                // String abstracttext = abstractResource.getValue("abstract").toString();
+                                String publication = abstractResource.getValue("subject").toString();
+
+                                String titletext = abstractResource.getValue("object").toString();
+                                listB = kservice.getKeywords(titletext);
+                                int cero = 0;
+
+                                if (semanticAnalizer && listB.size() != cero && listA.size() != cero && distance.semanticComparison(listA, listB)) {
+                                    //SPARQL obtain all publications of author
+                                    String getPublicationsFromProviderQuery = queriesService.getPublicationsPropertiesQuery(publication);
+                                    TupleQuery pubquery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getPublicationsFromProviderQuery); //
+                                    TupleQueryResult tripletasResult = pubquery.evaluate();
+
+                                    while (tripletasResult.hasNext()) {
+                                        BindingSet tripletsResource = tripletasResult.next();
+                                        //authorNativeResource = tripletsResource.getValue("authorResource").toString();
+                                        String publicationProperty = tripletsResource.getValue("property").toString();
+                                        String publicationObject = tripletsResource.getValue("value").toString();
+                                        ///insert sparql query, 
+                                        tripleWriter.add(providerGraph, publication, publicationProperty, publicationObject);
+
+                                        // insert dct:contributor      <> dct:contributor <http://dblp.org/pers/xr/s/Saquicela:Victor> 
+                                        tripleWriter.add(providerGraph, publication, "http://purl.org/dc/terms/contributor", authorNativeResource);
+
+                                        // sameAs triplet    <http://190.15.141.102:8080/dspace/contribuidor/autor/SaquicelaGalarza_VictorHugo> owl:sameAs <http://dblp.org/pers/xr/s/Saquicela:Victor> 
+                                        tripleWriter.add(providerGraph, authorResource, "http://www.w3.org/2002/07/owl#sameAs", authorNativeResource);
                                     }
-                                }//end if numMembers=1
-                                conUri.commit();
-
-                            } catch (Exception e) {
-                                log.info("ERROR in full name:" + authorNativeResource);
-                            } finally {
-                                if (conUri != null) {
 
-                                    conUri.close();
+                                }//end if semanticComparison
+                                else if (!semanticAnalizer) {//In this case: No semantic Analizer
+                                    //SPARQL obtain all publications of author
+                                    String getPublicationsFromProviderQuery = queriesService.getPublicationsPropertiesQuery(publication);
+                                    TupleQuery pubquery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getPublicationsFromProviderQuery); //
+                                    TupleQueryResult tripletasResult = pubquery.evaluate();
+
+                                    while (tripletasResult.hasNext()) {
+                                        BindingSet tripletsResource = tripletasResult.next();
+                                        //authorNativeResource = tripletsResource.getValue("authorResource").toString();
+                                        String publicationProperty = tripletsResource.getValue("property").toString();
+                                        String publicationObject = tripletsResource.getValue("value").toString();
+                                        ///insert sparql query, 
+                                        tripleWriter.add(providerGraph, publication, publicationProperty, publicationObject);
+
+                                        // insert dct:contributor      <> dct:contributor <http://dblp.org/pers/xr/s/Saquicela:Victor> 
+                                        tripleWriter.add(providerGraph, publication, "http://purl.org/dc/terms/contributor", authorNativeResource);
+
+                                        // sameAs triplet    <http://190.15.141.102:8080/dspace/contribuidor/autor/SaquicelaGalarza_VictorHugo> owl:sameAs <http://dblp.org/pers/xr/s/Saquicela:Victor> 
+                                        tripleWriter.add(providerGraph, authorResource, "http://www.w3.org/2002/07/owl#sameAs", authorNativeResource);
+                                    }
                                 }
                             }
-                        }
-                    } catch (QueryEvaluationException | MalformedQueryException | RepositoryException ex) {
-                        log.error("Evaluation Exception: " + ex);
+                        }//end if numMembers=1
+                        conUri.commit();
+
                     } catch (Exception e) {
-                        log.error("ioexception " + e.toString());
+                        log.info("ERROR in full name:" + authorNativeResource);
+                        harvested = false;
+                    } finally {
+                        if (conUri != null) {
+
+                            conUri.close();
+                        }
                     }
-                    priorityToFind++;
-                } while (allMembers != 1 && priorityToFind < 5);//end do while
-                //** end View Data
-                printPercentProcess(processedPersons, allPersons, "DBLP");
+                }
+            } catch (InterruptedException ex) {
+                throw ex;
+            } catch (QueryEvaluationException | MalformedQueryException | RepositoryException ex) {
+                log.error("Evaluation Exception: " + ex);
+                harvested = false;
+            } catch (Exception e) {
+                log.error("ioexception " + e.toString());
+                harvested = false;
             }
-            return "True for publications";
-        } catch (Exception ex) {
-            log.error("Exception: " + ex);
+            priorityToFind++;
+        } while (allMembers != 1 && priorityToFind < 5);//end do while
+        //no name could be retrieved, the author is searched again in the next harvest
+        if (retrievalFailed && allMembers != 1) {
+            harvested = false;
         }
-        return "fail";
+        //** end View Data
+        return tripleWriter.flush() && harvested;
     }
 
     @Override
     public JsonArray SearchAuthorTaskImpl(String uri
     ) {
         JsonParser parser = new JsonParser();
+        final BatchedTripleWriter tripleWriter = BatchedTripleWriter.create(sparqlFunctionsService, queriesService, commonsServices);
         String scopusconcat = "?apiKey=a3b64e9d82a8f7b14967b9b9ce8d513d&view=ENHANCED&httpAccept=application/rdf%2Bxml";
         try {
 //new AuthorVersioningJob(log).proveSomething();
-            ClientConfiguration conf = new ClientConfiguration();
-            //conf.addEndpoint(new DBLPEndpoint());
-            LDClient ldClient = new LDClient(conf);
+            LDClient ldClient = ldClientPool.getClient(LDClientPool.DBLP);
             String nativeauthor = uri;
             //ClientResponse response = ldClient.retrieveResource("http://rdf.dblp.com/ns/m.0wqhskn");
 
@@ -493,18 +457,7 @@ public class DBLPProviderServiceImpl implements DBLPProviderService, Runnable {
             }
 
             String providerName = ldClient.getEndpoint(uri).getName();
-            Properties propiedades = new Properties();
-            InputStream entrada = null;
-            Map<String, String> mapping = new HashMap<String, String>();
-            ClassLoader classLoader = getClass().getClassLoader();
-            //File file = new File(classLoader.getResource("DBLPProvider.properties").getFile());
-            entrada = classLoader.getResourceAsStream(providerName.replace(" ", "") + ".properties");
-            // cargamos el archivo de propiedades
-            propiedades.load(entrada);
-            for (String source : propiedades.stringPropertyNames()) {
-                String target = propiedades.getProperty(source);
-                mapping.put(source.replace("..", ":"), target.replace("..", ":"));
-            }
+            ProviderMappingRegistry.Mapping mapping = providerMappingRegistry.getMapping(providerName.replace(" ", ""));
             RepositoryConnection conUri = null;
             ClientResponse response = null;
             log.info("Buscando Informacion de: " + uri);
@@ -556,8 +509,7 @@ public class DBLPProviderServiceImpl implements DBLPProviderService, Runnable {
                         String subjet = st.getSubject().stringValue();
                         String predicate = st.getPredicate().stringValue();
                         String object = st.getObject().stringValue();
-                        String querytoInsert = buildInsertQuery(constantService.getExternalAuthorsGraph(), subjet, predicate, object);
-                        updatePub(querytoInsert);
+                        tripleWriter.add(constantService.getExternalAuthorsGraph(), subjet, predicate, object);
                         writerjld.handleStatement(st);
                     }
                     writerjld.endRDF();
@@ -576,6 +528,8 @@ public class DBLPProviderServiceImpl implements DBLPProviderService, Runnable {
             //** end View Data
         } catch (Exception ex) {
             log.error("Marmotta Exception: " + ex);
+        } finally {
+            tripleWriter.flush();
         }
         return parser.parse(" [{\"Fail\":\"Any Data\"}]").getAsJsonArray();
     }
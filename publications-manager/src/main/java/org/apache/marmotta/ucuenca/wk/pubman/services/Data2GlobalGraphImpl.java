@@ -5,13 +5,19 @@
  */
 package org.apache.marmotta.ucuenca.wk.pubman.services;
 
+import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -19,6 +25,7 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import org.apache.marmotta.commons.vocabulary.FOAF;
 import org.apache.marmotta.kiwi.model.rdf.KiWiUriResource;
+import org.apache.marmotta.platform.core.api.triplestore.SesameService;
 import org.apache.marmotta.platform.core.exception.InvalidArgumentException;
 import org.apache.marmotta.platform.core.exception.MarmottaException;
 import org.apache.marmotta.platform.sparql.api.sparql.SparqlService;
@@ -28,18 +35,21 @@ import org.apache.marmotta.ucuenca.wk.pubman.api.Data2GlobalGraph;
 import org.apache.marmotta.ucuenca.wk.pubman.api.SparqlFunctionsService;
 import org.apache.marmotta.ucuenca.wk.commons.service.CommonsServices;
 import org.apache.marmotta.ucuenca.wk.commons.service.DistanceService;
+import org.apache.marmotta.ucuenca.wk.commons.function.ConfigurationSnapshot;
+import org.apache.marmotta.ucuenca.wk.commons.function.LocalTermIndex;
+import org.apache.marmotta.ucuenca.wk.commons.function.TitleMatcher;
+import org.openrdf.model.Literal;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
 import org.openrdf.model.Value;
 import org.openrdf.query.MalformedQueryException;
 import org.openrdf.query.QueryLanguage;
 import org.openrdf.query.UpdateExecutionException;
+import org.openrdf.repository.RepositoryConnection;
+import org.openrdf.repository.RepositoryException;
+import org.openrdf.repository.RepositoryResult;
 import org.semarglproject.vocab.OWL;
 import org.semarglproject.vocab.RDF;
-import org.simmetrics.StringMetric;
-import static org.simmetrics.StringMetricBuilder.with;
-import org.simmetrics.metrics.CosineSimilarity;
-import org.simmetrics.metrics.Levenshtein;
-import org.simmetrics.simplifiers.Simplifiers;
-import org.simmetrics.tokenizers.Tokenizers;
 import org.slf4j.Logger;
 
 /**
@@ -67,22 +77,31 @@ public class Data2GlobalGraphImpl implements Data2GlobalGraph, Runnable {
     @Inject
     private SparqlFunctionsService sparqlFunctionsService;
 
+    @Inject
+    private ProviderMappingRegistry providerMappingRegistry;
+
+    private static final double TITLE_THRESHOLD = 0.9;
+
+    /* tokens of the titles and names used in the URIs and the search queries */
+    private static final Pattern TITLE_TOKEN = Pattern.compile("[a-zA-Z0-9-]{2,100}");
+
+    private static final Pattern AUTHOR_TOKEN = Pattern.compile("[a-zA-Z0-9-ÑñáéíóúÁÉÍÓÚ]{1,100}");
+
+    private static final Pattern SEARCH_TOKEN = Pattern.compile("[a-zA-Z]{4,20}");
+
     private String namespaceGraph = "http://ucuenca.edu.ec/";
     private String wkhuskaGraph = namespaceGraph + "wkhuska";
     private String uriPublication = "http://ucuenca.edu.ec/wkhuska/publication/";
     private String bibloTitle = "http://purl.org/dc/terms/title";
     private String publicationOntology = "http://purl.org/ontology/bibo/Article";
     private String uriNewAuthor = "http://ucuenca.edu.ec/resource/author/";
-    private double total = 0;
-    private double totalPublicationRecognized = 0;
-    private double totalPublicationNotRecognized = 0;
-    private double totalPublications = 0;
-    private double totalPublicationsProcess = 0;
-    private double problemWithTitle = 0;
-    private boolean newInsert = false;
-    private String bufferTitle = null;
-    private int countPublicationAskIngnored = 0;
-    private List<String> results = new ArrayList<String>();
+    private AtomicInteger total = new AtomicInteger();
+    private AtomicInteger totalPublicationRecognized = new AtomicInteger();
+    private AtomicInteger totalPublicationNotRecognized = new AtomicInteger();
+    private AtomicInteger totalPublications = new AtomicInteger();
+    private AtomicInteger problemWithTitle = new AtomicInteger();
+    private AtomicInteger countPublicationAskIngnored = new AtomicInteger();
+    private List<String> results = Collections.synchronizedList(new ArrayList<String>());
     private String authorsGraph = "http://ucuenca.edu.ec/wkhuska/authors";
 
     private int processpercent = 0;
@@ -98,232 +117,44 @@ public class Data2GlobalGraphImpl implements Data2GlobalGraph, Runnable {
     @Inject
     private SparqlService sparqlService;
 
+    @Inject
+    private SesameService sesameService;
+
+    /* triples of the central graph, to avoid ASK queries of triples that are not there */
+    private TripleExistenceIndex centralGraphIndex = new TripleExistenceIndex();
+    private volatile boolean centralGraphIndexLoaded = false;
+
+    /* striped locks by central author URI, shared by the integration workers */
+    private final ReentrantLock[] authorLocks = new ReentrantLock[64];
+
+    {
+        for (int i = 0; i < authorLocks.length; i++) {
+            authorLocks[i] = new ReentrantLock();
+        }
+    }
+
     @Override
 
     public String LoadData2GlobalGraph() {
+        resetCounters();
+        loadCentralGraphIndex();
+        ExecutorService executor = Executors.newFixedThreadPool(getIntegrationThreads());
         try {
-
-            String providerGraph = "";
-            //String getAuthorsQuery = queriesService.getAuthorsQuery();
             String getGraphsListQuery = queriesService.getGraphsQuery();
             List<Map<String, Value>> resultGraph = sparqlService.query(QueryLanguage.SPARQL, getGraphsListQuery);
             /* FOR EACH GRAPH*/
 
             for (Map<String, Value> map : resultGraph) {
-                providerGraph = map.get("grafo").toString();
-                KiWiUriResource providerGraphResource = new KiWiUriResource(providerGraph);
-
+                String providerGraph = map.get("grafo").toString();
+                if (Thread.currentThread().isInterrupted()) {
+                    return "Integration interrupted";
+                }
                 if (providerGraph.contains("provider")) {
-                    String prefixTitleSource = "";
-                    String prefixTitleTarget = "";
-
-                    Properties propiedades = new Properties();
-                    InputStream entrada = null;
-                    Map<String, String> mapping = new HashMap<String, String>();
-                    try {
-                        ClassLoader classLoader = getClass().getClassLoader();
-                        //File file = new File(classLoader.getResource("DBLPProvider.properties").getFile());
-                        entrada = classLoader.getResourceAsStream(providerGraphResource.getLocalName() + ".properties");
-                        // cargamos el archivo de propiedades
-                        propiedades.load(entrada);
-                        for (String source : propiedades.stringPropertyNames()) {
-                            String target = propiedades.getProperty(source);
-                            if (target.contains("title")) {
-                                prefixTitleSource = source.replace("..", ":");
-                                prefixTitleTarget = target.replace("..", ":");
-
-                            }
-                            mapping.put(source.replace("..", ":"), target.replace("..", ":"));
-
-                        }
-                    } catch (IOException ex) {
-                        ex.printStackTrace();
-                    } catch (Exception ex) {
-                        ex.printStackTrace();
-                    } finally {
-                        if (entrada != null) {
-                            try {
-                                entrada.close();
-                            } catch (IOException e) {
-                                e.printStackTrace();
-                            }
-                        }
-                    }
-                    List<Map<String, Value>> auxPublications = sparqlService.query(QueryLanguage.SPARQL, queriesService.getPublicationsTitleScopusQuery(providerGraph, prefixTitleSource));
-                    List<Map<String, Value>> auxPublications2 = sparqlService.query(QueryLanguage.SPARQL, queriesService.getPublicationsTitleByType(providerGraph, "foaf:publications"));
-                    List<Map<String, Value>> result = sparqlService.query(QueryLanguage.SPARQL, queriesService.getPublicationsTitleScopusQuery(providerGraph, prefixTitleTarget));
-                    List<Map<String, Value>> resultPublications = auxPublications.isEmpty() ? result.isEmpty() ? auxPublications2 : result : auxPublications;
-
-                    results.add(providerGraph + " :size :" + resultPublications.size());
-                    totalPublicationsProcess = 0;
-                    for (Map<String, Value> pubresource : resultPublications) {
-                        totalPublicationsProcess += 1;
-                        String authorResource = pubresource.get("authorResource").stringValue();
-                        String publicationResource = pubresource.get("publicationResource").stringValue();
-                        String publicationTitleCleaned = cleanStringUri(pubresource.get("title").stringValue());
-                        String publicationTitle = pubresource.get("title").stringValue();
-                        String publicationProperty = pubVocabService.getPubProperty();
-                        totalPublications += 1;
-
-                        // asint SameAs between newUri publication and Uri of provider graph
-                        String insertPublicationPropertySameAs = buildInsertQuery(wkhuskaGraph, uriPublication + publicationTitleCleaned, OWL.SAME_AS, publicationResource);
-                        try {
-                            sparqlService.update(QueryLanguage.SPARQL, insertPublicationPropertySameAs);
-
-                        } catch (MalformedQueryException ex) {
-                            log.error("Malformed Query:  " + insertPublicationPropertySameAs);
-                        } catch (UpdateExecutionException ex) {
-                            log.error("Update Query:  " + insertPublicationPropertySameAs);
-                        } catch (MarmottaException ex) {
-                            log.error("Marmotta Exception:  " + insertPublicationPropertySameAs);
-                        }
-
-                        //verificar existencia de la publicacion y su author sobre el grafo general, y que la nueva uri este asignada la pub. al autor
-                        String newUriAuthorCentral = buildNewUri(authorResource);//adds the new author to the central graph if it is not already there
-                        String askTripletQuery = queriesService.getAskQuery(wkhuskaGraph, newUriAuthorCentral, publicationProperty, uriPublication + publicationTitleCleaned);
-                        boolean ask = false;
-                        try {
-                            //asks if the new author has the publication in the central graph
-                            ask = sparqlService.ask(QueryLanguage.SPARQL, askTripletQuery);
-                        } catch (Exception ex) {
-                            log.error("Marmotta Exception:  " + askTripletQuery);
-
-                            problemWithTitle += 1;
-                            continue;
-
-                        }
-
-                        if (!ask) {//Si no se encuentra el autor con esa publicacion, busca la publicacion actual del autor en el grafo central
-                            List<Map<String, Value>> resultPublicationsAuthor = sparqlService.query(QueryLanguage.SPARQL, queriesService.getAuthorPublicationsQuery(wkhuskaGraph, newUriAuthorCentral, "http://purl.org/dc/terms/title", getQuerySearchTextAuthor(publicationTitle)));
-                            List<Map<String, Value>> auxResultPublicationsAuthorOfProvider = sparqlService.query(QueryLanguage.SPARQL, queriesService.getAuthorPublicationsQueryFromProvider(providerGraph, authorResource, prefixTitleSource, getQuerySearchTextAuthor(publicationTitle)));
-                            List<Map<String, Value>> resultPublicationsAuthorOfGenericProvider = sparqlService.query(QueryLanguage.SPARQL, queriesService.getAuthorPublicationsQueryFromGenericProvider(providerGraph, authorResource, prefixTitleTarget, getQuerySearchTextAuthor(publicationTitle)));
-                            List<Map<String, Value>> resultPublicationsAuthorOfTargetProvider = sparqlService.query(QueryLanguage.SPARQL, queriesService.getAuthorPublicationsQueryFromProvider(providerGraph, authorResource, prefixTitleTarget, getQuerySearchTextAuthor(publicationTitle)));
-                            List<Map<String, Value>> resultPublicationsAuthorOfProvider = auxResultPublicationsAuthorOfProvider.isEmpty() ? resultPublicationsAuthorOfTargetProvider.isEmpty() ? resultPublicationsAuthorOfGenericProvider : resultPublicationsAuthorOfTargetProvider : auxResultPublicationsAuthorOfProvider;
-
-                            boolean flagPublicationAlreadyExist = false;
-                            String authorResourceBuilding = searchAuthorOfpublication(resultPublicationsAuthorOfProvider, authorResource, newUriAuthorCentral);
-                            String authorResourceCentral = authorResourceBuilding == null ? newUriAuthorCentral : authorResourceBuilding;
-                            String sameAsInsertQuery = buildInsertQuery(wkhuskaGraph, newUriAuthorCentral, OWL.SAME_AS, authorResource);
-                            try {
-                                sparqlService.update(QueryLanguage.SPARQL, sameAsInsertQuery);
-                            } catch (MalformedQueryException ex) {
-                                java.util.logging.Logger.getLogger(Data2GlobalGraphImpl.class.getName()).log(Level.SEVERE, null, ex);
-                            } catch (UpdateExecutionException ex) {
-                                java.util.logging.Logger.getLogger(Data2GlobalGraphImpl.class.getName()).log(Level.SEVERE, null, ex);
-                            }
-                            //Si la publicacion no esta en el grafo central
-                            for (Map<String, Value> publicacion : resultPublicationsAuthor) {
-                                if (compareTitlePublicationWithSimmetrics(publicationTitleCleaned, cleanStringUri(publicacion.get("title").stringValue()))) {
-                                    flagPublicationAlreadyExist = true;
-                                    bufferTitle = publicacion.get("publicationResource").stringValue();
-                                    String insertPublicationPropertyQuery = buildInsertQuery(wkhuskaGraph, bufferTitle, "http://purl.org/dc/terms/contributor", authorResourceCentral);
-                                    try {
-                                        sparqlService.update(QueryLanguage.SPARQL, insertPublicationPropertyQuery);
-
-                                    } catch (MalformedQueryException ex) {
-                                        log.error("Malformed Query:  " + insertPublicationPropertyQuery);
-                                    } catch (UpdateExecutionException ex) {
-                                        log.error("Update Query:  " + insertPublicationPropertyQuery);
-                                    } catch (MarmottaException ex) {
-                                        log.error("Marmotta Exception:  " + insertPublicationPropertyQuery);
-                                    }
-
-                                }
-
-                            }
-                            if (!flagPublicationAlreadyExist || resultPublicationsAuthor.isEmpty()) {
-                                //semanticComparison 
-                                insertPublicationToCentralGraph(authorResourceCentral, publicationProperty, uriPublication + publicationTitleCleaned);
-                                String queryKeysAut = "PREFIX dct: <http://purl.org/dc/terms/> "
-                                        + "SELECT DISTINCT ?value WHERE {"
-                                        + "  Graph <http://ucuenca.edu.ec/wkhuska/authors>"
-                                        + "  { <" + authorResource + ">  dct:subject ?value }"
-                                        + "} Limit 10 ";
-                                List<Map<String, Value>> keywordsAut = sparqlService.query(QueryLanguage.SPARQL, queryKeysAut);
-                                List<String> keyAut = new ArrayList<>();
-                                for (Map<String, Value> key : keywordsAut) {
-                                    keyAut.add(key.get("value").stringValue());
-                                }
-                                String queryKeyPub = " SELECT DISTINCT ?publicationPropertyValue "
-                                        + "WHERE {  "
-                                        + "  GRAPH <http://ucuenca.edu.ec/wkhuska/provider/ScopusProvider>  { "
-                                        + "    <" + publicationResource + "> <http://prismstandard.org/namespaces/basic/2.0/keyword> ?publicationPropertyValue.  } "
-                                        + "} "
-                                        + "Limit 10 ";
-                                List<Map<String, Value>> keywordsPub = sparqlService.query(QueryLanguage.SPARQL, queryKeyPub);
-                                List<String> keyPub = new ArrayList<>();
-                                for (Map<String, Value> key : keywordsPub) {
-                                    keyPub.add(key.get("publicationPropertyValue").stringValue());
-                                }
-                                boolean semanticComp = true;
-                                if (keyAut.size() > 4 && keyPub.size() > 4 && comparacionSemantica) {
-                                    semanticComp = distanceService.semanticComparison(keyAut, keyPub);
-                                }
-                                if (semanticComp) {
-                                    String insertSourceOfPublication = buildInsertQuery(wkhuskaGraph, uriPublication + publicationTitleCleaned, "http://xmlns.com/foaf/0.1/Organization", getNameOfProvider(providerGraph));
-                                    try {
-                                        sparqlService.update(QueryLanguage.SPARQL, insertSourceOfPublication);
-                                    } catch (MalformedQueryException ex) {
-                                        java.util.logging.Logger.getLogger(Data2GlobalGraphImpl.class.getName()).log(Level.SEVERE, null, ex);
-                                    } catch (UpdateExecutionException ex) {
-                                        java.util.logging.Logger.getLogger(Data2GlobalGraphImpl.class.getName()).log(Level.SEVERE, null, ex);
-                                    }
-                                } else {
-                                    countPublicationAskIngnored += 1;
-                                }
-                                newInsert = true;
-                            }
-                        } else {
-                            countPublicationAskIngnored += 1;
-
-                        }
-                        //Pregunta si la publicacion fue extraida del provider que se esta usando actualmente (Scopus, DBLP)
-                        String askTripletProcessPublicationQuery = queriesService.getAskQuery(wkhuskaGraph, uriPublication + publicationTitleCleaned, "http://xmlns.com/foaf/0.1/Organization", getNameOfProvider(providerGraph));
-                        boolean askPublication = false;
-                        try {
-
-                            askPublication = sparqlService.ask(QueryLanguage.SPARQL, askTripletProcessPublicationQuery);
-                            if (!askPublication || newInsert) {
-                                List<Map<String, Value>> resultPubProperties = sparqlService.query(QueryLanguage.SPARQL, queriesService.getPublicationsPropertiesQuery(providerGraph, publicationResource));
-                                resultPubProperties = resultPubProperties.size() > 150 ? resultPubProperties.subList(0, 150) : resultPubProperties;
-                                for (Map<String, Value> pubproperty : resultPubProperties) {
-                                    String nativeProperty = pubproperty.get("publicationProperties").toString();
-                                    if (mapping.get(nativeProperty) != null) {
-                                        String newPublicationProperty = mapping.get(nativeProperty);
-                                        String publicacionPropertyValue = pubproperty.get("publicationPropertyValue").toString();
-                                        String insertPublicationPropertyQuery = buildInsertQuery(wkhuskaGraph, newInsert ? (uriPublication + publicationTitleCleaned) : bufferTitle == null ? (uriPublication + publicationTitleCleaned) : bufferTitle, newPublicationProperty, publicacionPropertyValue);
-
-                                        try {
-                                            sparqlService.update(QueryLanguage.SPARQL, insertPublicationPropertyQuery);
-                                        } catch (MalformedQueryException ex) {
-                                            log.error("Malformed Query:  " + insertPublicationPropertyQuery);
-                                        } catch (UpdateExecutionException ex) {
-                                            log.error("Update Query:  " + insertPublicationPropertyQuery);
-                                        } catch (MarmottaException ex) {
-                                            log.error("Marmotta Exception:  " + insertPublicationPropertyQuery);
-                                        } catch (Exception ex) {
-
-                                        }
-                                    }
-                                }
-
-                            }
-
-                        } catch (Exception ex) {
-                            log.error("Marmotta Exception:  " + askTripletQuery);
-
-                        }
-
-                        //compare properties with the mapping and insert new properties
-                        //mapping.get(map)
-                        newInsert = false;
-                        bufferTitle = null;
-                        log.info("Integration process is: " + totalPublicationsProcess + " of : " + resultPublications.size() + " - from provider:" + providerGraphResource.getLocalName());
-
-                    }
+                    integrateProvider(executor, providerGraph);
                 }
                 //in this part, for each graph
             }
+            buildTermIndex();
             for (String aux : results) {
                 log.info(aux);
             }
@@ -339,7 +170,220 @@ public class Data2GlobalGraphImpl implements Data2GlobalGraph, Runnable {
             return "error:  " + ex;
         } catch (MarmottaException ex) {
             return "error:  " + ex;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /*
+     * Integrate the publications of a provider graph. The publications are
+     * partitioned by author and each partition runs in the executor, the
+     * method returns when all partitions are finished
+     */
+    private void integrateProvider(ExecutorService executor, final String providerGraph) throws MarmottaException, InvalidArgumentException {
+        final KiWiUriResource providerGraphResource = new KiWiUriResource(providerGraph);
+        final ProviderMappingRegistry.Mapping providerMapping = providerMappingRegistry.getMapping(providerGraphResource.getLocalName());
+        final String titleSource = providerMapping.getTitleSource();
+        final String titleTarget = providerMapping.getTitleTarget();
+        List<Map<String, Value>> auxPublications = sparqlService.query(QueryLanguage.SPARQL, queriesService.getPublicationsTitleScopusQuery(providerGraph, titleSource));
+        List<Map<String, Value>> auxPublications2 = sparqlService.query(QueryLanguage.SPARQL, queriesService.getPublicationsTitleByType(providerGraph, "foaf:publications"));
+        List<Map<String, Value>> result = sparqlService.query(QueryLanguage.SPARQL, queriesService.getPublicationsTitleScopusQuery(providerGraph, titleTarget));
+        List<Map<String, Value>> resultPublications = auxPublications.isEmpty() ? result.isEmpty() ? auxPublications2 : result : auxPublications;
+
+        results.add(providerGraph + " :size :" + resultPublications.size());
+
+        Map<String, List<Map<String, Value>>> partitions = new LinkedHashMap<>();
+        for (Map<String, Value> pubresource : resultPublications) {
+            String authorResource = pubresource.get("authorResource").stringValue();
+            if (!partitions.containsKey(authorResource)) {
+                partitions.put(authorResource, new ArrayList<Map<String, Value>>());
+            }
+            partitions.get(authorResource).add(pubresource);
+        }
+
+        final int publicationsSize = resultPublications.size();
+        final AtomicInteger totalPublicationsProcess = new AtomicInteger();
+        final HarvestJob job = HarvestJob.current();
+        if (job != null) {
+            job.begin(publicationsSize, 0);
+        }
+        List<Future<?>> tasks = new ArrayList<>();
+        for (final List<Map<String, Value>> partition : partitions.values()) {
+            tasks.add(executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    for (Map<String, Value> pubresource : partition) {
+                        try {
+                            integratePublication(providerGraph, providerMapping, titleSource, titleTarget, pubresource);
+                        } catch (InvalidArgumentException ex) {
+                            log.error("Invalid Argument:  " + ex);
+                        } catch (MarmottaException ex) {
+                            log.error("Marmotta Exception:  " + ex);
+                        }
+                        if (job != null) {
+                            job.increment();
+                        }
+                        log.info("Integration process is: " + totalPublicationsProcess.incrementAndGet() + " of : " + publicationsSize + " - from provider:" + providerGraphResource.getLocalName());
+                    }
+                }
+            }));
         }
+        for (Future<?> task : tasks) {
+            try {
+                task.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                log.error("Integration of " + providerGraph + " interrupted");
+                return;
+            } catch (ExecutionException ex) {
+                log.error("Integration task of " + providerGraph + " failed: " + ex.getCause());
+            }
+        }
+    }
+
+    /*
+     * Integrate a publication of the provider graph into the central graph,
+     * all the state of the publication is local to this call
+     */
+    private void integratePublication(String providerGraph, ProviderMappingRegistry.Mapping mapping, String prefixTitleSource, String prefixTitleTarget, Map<String, Value> pubresource) throws MarmottaException, InvalidArgumentException {
+        boolean newInsert = false;
+        String bufferTitle = null;
+        String authorResource = pubresource.get("authorResource").stringValue();
+        String publicationResource = pubresource.get("publicationResource").stringValue();
+        String publicationTitleCleaned = cleanStringUri(pubresource.get("title").stringValue());
+        String publicationTitle = pubresource.get("title").stringValue();
+        String publicationProperty = pubVocabService.getPubProperty();
+        totalPublications.incrementAndGet();
+
+        // asint SameAs between newUri publication and Uri of provider graph
+        insertCentralGraph(uriPublication + publicationTitleCleaned, OWL.SAME_AS, publicationResource);
+
+        //verificar existencia de la publicacion y su author sobre el grafo general, y que la nueva uri este asignada la pub. al autor
+        String newUriAuthorCentral = buildNewUri(authorResource);//adds the new author to the central graph if it is not already there
+        //the publications of the same central author are merged one at a time
+        ReentrantLock authorLock = getAuthorLock(newUriAuthorCentral);
+        authorLock.lock();
+        try {
+            boolean ask = false;
+            try {
+                //asks if the new author has the publication in the central graph
+                ask = askCentralGraph(newUriAuthorCentral, publicationProperty, uriPublication + publicationTitleCleaned);
+            } catch (Exception ex) {
+                log.error("Marmotta Exception:  " + queriesService.getAskQuery(wkhuskaGraph, newUriAuthorCentral, publicationProperty, uriPublication + publicationTitleCleaned));
+
+                problemWithTitle.incrementAndGet();
+                return;
+
+            }
+
+            if (!ask) {//Si no se encuentra el autor con esa publicacion, busca la publicacion actual del autor en el grafo central
+                List<Map<String, Value>> resultPublicationsAuthor = sparqlService.query(QueryLanguage.SPARQL, queriesService.getAuthorPublicationsQuery(wkhuskaGraph, newUriAuthorCentral, "http://purl.org/dc/terms/title", getQuerySearchTextAuthor(publicationTitle)));
+                List<Map<String, Value>> auxResultPublicationsAuthorOfProvider = sparqlService.query(QueryLanguage.SPARQL, queriesService.getAuthorPublicationsQueryFromProvider(providerGraph, authorResource, prefixTitleSource, getQuerySearchTextAuthor(publicationTitle)));
+                List<Map<String, Value>> resultPublicationsAuthorOfGenericProvider = sparqlService.query(QueryLanguage.SPARQL, queriesService.getAuthorPublicationsQueryFromGenericProvider(providerGraph, authorResource, prefixTitleTarget, getQuerySearchTextAuthor(publicationTitle)));
+                List<Map<String, Value>> resultPublicationsAuthorOfTargetProvider = sparqlService.query(QueryLanguage.SPARQL, queriesService.getAuthorPublicationsQueryFromProvider(providerGraph, authorResource, prefixTitleTarget, getQuerySearchTextAuthor(publicationTitle)));
+                List<Map<String, Value>> resultPublicationsAuthorOfProvider = auxResultPublicationsAuthorOfProvider.isEmpty() ? resultPublicationsAuthorOfTargetProvider.isEmpty() ? resultPublicationsAuthorOfGenericProvider : resultPublicationsAuthorOfTargetProvider : auxResultPublicationsAuthorOfProvider;
+
+                boolean flagPublicationAlreadyExist = false;
+                String authorResourceBuilding = searchAuthorOfpublication(resultPublicationsAuthorOfProvider, authorResource, newUriAuthorCentral);
+                String authorResourceCentral = authorResourceBuilding == null ? newUriAuthorCentral : authorResourceBuilding;
+                insertCentralGraph(newUriAuthorCentral, OWL.SAME_AS, authorResource);
+                //Si la publicacion no esta en el grafo central
+                TitleMatcher<Map<String, Value>> centralTitles = new TitleMatcher<>(TITLE_THRESHOLD);
+                for (Map<String, Value> publicacion : resultPublicationsAuthor) {
+                    centralTitles.add(publicacion, cleanStringUri(publicacion.get("title").stringValue()));
+                }
+                for (Map<String, Value> publicacion : centralTitles.candidates(publicationTitleCleaned)) {
+                    if (compareTitlePublicationWithSimmetrics(publicationTitleCleaned, cleanStringUri(publicacion.get("title").stringValue()))) {
+                        flagPublicationAlreadyExist = true;
+                        bufferTitle = publicacion.get("publicationResource").stringValue();
+                        insertCentralGraph(bufferTitle, "http://purl.org/dc/terms/contributor", authorResourceCentral);
+                    }
+
+                }
+                if (!flagPublicationAlreadyExist || resultPublicationsAuthor.isEmpty()) {
+                    //semanticComparison 
+                    insertPublicationToCentralGraph(authorResourceCentral, publicationProperty, uriPublication + publicationTitleCleaned);
+                    String queryKeysAut = "PREFIX dct: <http://purl.org/dc/terms/> "
+                            + "SELECT DISTINCT ?value WHERE {"
+                            + "  Graph <http://ucuenca.edu.ec/wkhuska/authors>"
+                            + "  { <" + authorResource + ">  dct:subject ?value }"
+                            + "} Limit 10 ";
+                    List<Map<String, Value>> keywordsAut = sparqlService.query(QueryLanguage.SPARQL, queryKeysAut);
+                    List<String> keyAut = new ArrayList<>();
+                    for (Map<String, Value> key : keywordsAut) {
+                        keyAut.add(key.get("value").stringValue());
+                    }
+                    String queryKeyPub = " SELECT DISTINCT ?publicationPropertyValue "
+                            + "WHERE {  "
+                            + "  GRAPH <http://ucuenca.edu.ec/wkhuska/provider/ScopusProvider>  { "
+                            + "    <" + publicationResource + "> <http://prismstandard.org/namespaces/basic/2.0/keyword> ?publicationPropertyValue.  } "
+                            + "} "
+                            + "Limit 10 ";
+                    List<Map<String, Value>> keywordsPub = sparqlService.query(QueryLanguage.SPARQL, queryKeyPub);
+                    List<String> keyPub = new ArrayList<>();
+                    for (Map<String, Value> key : keywordsPub) {
+                        keyPub.add(key.get("publicationPropertyValue").stringValue());
+                    }
+                    boolean semanticComp = true;
+                    if (keyAut.size() > 4 && keyPub.size() > 4 && comparacionSemantica) {
+                        semanticComp = distanceService.semanticComparison(keyAut, keyPub);
+                    }
+                    if (semanticComp) {
+                        insertCentralGraph(uriPublication + publicationTitleCleaned, "http://xmlns.com/foaf/0.1/Organization", getNameOfProvider(providerGraph));
+                    } else {
+                        countPublicationAskIngnored.incrementAndGet();
+                    }
+                    newInsert = true;
+                }
+            } else {
+                countPublicationAskIngnored.incrementAndGet();
+
+            }
+            //Pregunta si la publicacion fue extraida del provider que se esta usando actualmente (Scopus, DBLP)
+            boolean askPublication = false;
+            try {
+
+                askPublication = askCentralGraph(uriPublication + publicationTitleCleaned, "http://xmlns.com/foaf/0.1/Organization", getNameOfProvider(providerGraph));
+                if (!askPublication || newInsert) {
+                    List<Map<String, Value>> resultPubProperties = sparqlService.query(QueryLanguage.SPARQL, queriesService.getPublicationsPropertiesQuery(providerGraph, publicationResource));
+                    resultPubProperties = resultPubProperties.size() > 150 ? resultPubProperties.subList(0, 150) : resultPubProperties;
+                    for (Map<String, Value> pubproperty : resultPubProperties) {
+                        Value nativeProperty = pubproperty.get("publicationProperties");
+                        URI newPublicationProperty = nativeProperty instanceof URI ? mapping.map((URI) nativeProperty) : null;
+                        if (newPublicationProperty != null) {
+                            String publicacionPropertyValue = pubproperty.get("publicationPropertyValue").toString();
+                            insertCentralGraph(newInsert ? (uriPublication + publicationTitleCleaned) : bufferTitle == null ? (uriPublication + publicationTitleCleaned) : bufferTitle, newPublicationProperty.stringValue(), publicacionPropertyValue);
+                        }
+                    }
+
+                }
+
+            } catch (Exception ex) {
+                log.error("Marmotta Exception:  " + queriesService.getAskQuery(wkhuskaGraph, uriPublication + publicationTitleCleaned, "http://xmlns.com/foaf/0.1/Organization", getNameOfProvider(providerGraph)));
+
+            }
+        } finally {
+            authorLock.unlock();
+        }
+    }
+
+    private ReentrantLock getAuthorLock(String authorResource) {
+        return authorLocks[(authorResource.hashCode() & Integer.MAX_VALUE) % authorLocks.length];
+    }
+
+    private int getIntegrationThreads() {
+        int threads = ConfigurationSnapshot.current().getIntegrationThreads();
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    private void resetCounters() {
+        results.clear();
+        total.set(0);
+        totalPublicationRecognized.set(0);
+        totalPublicationNotRecognized.set(0);
+        totalPublications.set(0);
+        problemWithTitle.set(0);
+        countPublicationAskIngnored.set(0);
     }
 
     //construyendo sparql query insert 
@@ -357,56 +401,129 @@ public class Data2GlobalGraphImpl implements Data2GlobalGraph, Runnable {
     }
 
     public void insertPublicationToCentralGraph(String authorResource, String publicationProperty, String publicationResource) {
-        String insertPubQuery = buildInsertQuery(wkhuskaGraph, authorResource, publicationProperty, publicationResource);
+        insertCentralGraph(authorResource, publicationProperty, publicationResource);
+    }
+
+    /*
+     * Insert a triple in the central graph and register it in the index
+     */
+    private void insertCentralGraph(String subject, String predicate, String object) {
+        String insertQuery = buildInsertQuery(wkhuskaGraph, subject, predicate, object);
         try {
-            sparqlService.update(QueryLanguage.SPARQL, insertPubQuery);
+            sparqlService.update(QueryLanguage.SPARQL, insertQuery);
+            centralGraphIndex.add(subject, predicate, object);
         } catch (MalformedQueryException ex) {
-            log.error("Malformed Query:  " + insertPubQuery);
+            log.error("Malformed Query:  " + insertQuery);
         } catch (UpdateExecutionException ex) {
-            log.error("Update Query :  " + insertPubQuery);
+            log.error("Update Query :  " + insertQuery);
         } catch (MarmottaException ex) {
-            log.error("Marmotta Exception:  " + insertPubQuery);
+            log.error("Marmotta Exception:  " + insertQuery);
         }
     }
 
-    private boolean compareTitlePublicationWithSimmetrics(String publicationResourceOne, String publicationResourceTwo) {
+    /*
+     * ASK if a triple ( with URI object ) is in the central graph. The query is
+     * only sent to marmotta when the index can not discard the triple
+     */
+    private boolean askCentralGraph(String subject, String predicate, String object) throws MarmottaException {
+        if (centralGraphIndexLoaded && commonsServices.isURI(object) && !centralGraphIndex.mightContain(subject, predicate, object)) {
+            return false;
+        }
+        return sparqlService.ask(QueryLanguage.SPARQL, queriesService.getAskQuery(wkhuskaGraph, subject, predicate, object));
+    }
 
-        String a = publicationResourceOne;
-        String b = publicationResourceTwo;
+    /*
+     * Load all triples of the central graph in the index, if it fails the ASK
+     * queries are always sent to marmotta
+     */
+    private void loadCentralGraphIndex() {
+        centralGraphIndex.clear();
+        centralGraphIndexLoaded = false;
+        try {
+            RepositoryConnection connection = sesameService.getConnection();
+            try {
+                connection.begin();
+                RepositoryResult<Statement> statements = connection.getStatements(null, null, null, false, connection.getValueFactory().createURI(wkhuskaGraph));
+                try {
+                    while (statements.hasNext()) {
+                        Statement statement = statements.next();
+                        centralGraphIndex.add(statement.getSubject().stringValue(), statement.getPredicate().stringValue(), statement.getObject().stringValue());
+                    }
+                } finally {
+                    statements.close();
+                }
+                connection.commit();
+                centralGraphIndexLoaded = true;
+            } finally {
+                connection.close();
+            }
+            log.info("Index of central graph loaded with " + centralGraphIndex.size() + " triples");
+        } catch (RepositoryException ex) {
+            log.error("Index of central graph not loaded, using ASK queries: " + ex);
+        }
+    }
 
-        StringMetric metric
-                = with(new CosineSimilarity<String>())
-                .simplify(Simplifiers.toLowerCase())
-                .simplify(Simplifiers.removeNonWord()).simplifierCache()
-                .tokenize(Tokenizers.qGram(3)).tokenizerCache().build();
-        float compare = metric.compare(a, b);
+    /*
+     * Index of the words of titles, abstracts and quotes of the central graph,
+     * used by the semantic distance when termFrequencySource is local ( the
+     * index is not built for the other sources )
+     */
+    private void buildTermIndex() {
+        String source = commonsServices.readPropertyFromFile("parameters.properties", "termFrequencySource");
+        String directory = commonsServices.readPropertyFromFile("parameters.properties", "termIndexDirectory");
+        if (source == null || !"local".equalsIgnoreCase(source.trim()) || directory == null) {
+            return;
+        }
+        LocalTermIndex.Builder builder = new LocalTermIndex.Builder();
+        try {
+            RepositoryConnection connection = sesameService.getConnection();
+            try {
+                connection.begin();
+                for (String property : new String[]{bibloTitle, "http://purl.org/ontology/bibo/abstract", "http://purl.org/ontology/bibo/Quote"}) {
+                    RepositoryResult<Statement> statements = connection.getStatements(null, connection.getValueFactory().createURI(property), null, false, connection.getValueFactory().createURI(wkhuskaGraph));
+                    try {
+                        while (statements.hasNext()) {
+                            Statement statement = statements.next();
+                            if (statement.getObject() instanceof Literal) {
+                                builder.add(statement.getSubject().stringValue(), statement.getObject().stringValue());
+                            }
+                        }
+                    } finally {
+                        statements.close();
+                    }
+                }
+                connection.commit();
+            } finally {
+                connection.close();
+            }
+            builder.write(new File(directory.trim()));
+            log.info("Term index of central graph built with " + builder.documents() + " documents");
+        } catch (RepositoryException | IOException ex) {
+            log.error("Term index of central graph not built: " + ex);
+        }
+    }
 
-        StringMetric metric2
-                = with(new Levenshtein())
-                .simplify(Simplifiers.removeDiacritics())
-                .simplify(Simplifiers.toLowerCase()).build();
+    private boolean compareTitlePublicationWithSimmetrics(String publicationResourceOne, String publicationResourceTwo) {
 
-        float compare2 = metric2.compare(a, b);
+        float similarity = TitleMatcher.similarity(publicationResourceOne, publicationResourceTwo);
 
-        total += 1;
+        total.incrementAndGet();
 
-        float similarity = (float) ((compare + compare2) / 2.0);
         //log.info("Titulos " + publicationResourceOne + "," + publicationResourceTwo + ": similaridad " + similarity * 100 + "%");
 
-        if (similarity > 0.9) {
-            totalPublicationRecognized += 1;
+        if (similarity > TITLE_THRESHOLD) {
+            totalPublicationRecognized.incrementAndGet();
         } else {
-            totalPublicationNotRecognized += 1;
+            totalPublicationNotRecognized.incrementAndGet();
         }
-        return similarity > 0.9; // 0.8131
+        return similarity > TITLE_THRESHOLD; // 0.8131
     }
 
     public String cleanStringUri(String uri) {
         String titleUri = "";
         String dash = "-";
         for (String token : uri.split(" ")) {
-            Pattern pat = Pattern.compile("[a-zA-Z0-9-]{2,100}");
-            Matcher mat = pat.matcher(token);
+            Matcher mat = TITLE_TOKEN.matcher(token);
             if (mat.matches()) {
                 if (titleUri.length() > 1) {
                     titleUri += dash;
@@ -424,9 +541,8 @@ public class Data2GlobalGraphImpl implements Data2GlobalGraph, Runnable {
         uri = aux;
         String authorUri = "";
         String dash = "-";
-        for (String token : uri.replaceAll(dash, dash).split(" ")) {
-            Pattern pat = Pattern.compile("[a-zA-Z0-9-ÑñáéíóúÁÉÍÓÚ]{1,100}");
-            Matcher mat = pat.matcher(token);
+        for (String token : uri.split(" ")) {
+            Matcher mat = AUTHOR_TOKEN.matcher(token);
             if (mat.matches()) {
                 if (authorUri.length() > 1) {
                     authorUri += dash;
@@ -457,12 +573,16 @@ public class Data2GlobalGraphImpl implements Data2GlobalGraph, Runnable {
         try {
             List<String> authorName = getFirstAndLastNameAuthor(newUriAuthorCentral);
             List<Map<String, Value>> resultPublicationsTitle = sparqlService.query(QueryLanguage.SPARQL, queriesService.getAuthorPublicationFilter(wkhuskaGraph, authorName.isEmpty() ? "noThing" : authorName.get(0), authorName.isEmpty() ? "noThing" : authorName.get(1)));
+            TitleMatcher<Map<String, Value>> providerTitles = new TitleMatcher<>(TITLE_THRESHOLD);
+            for (Map<String, Value> publicacionParam : publications) {
+                providerTitles.add(publicacionParam, publicacionParam.get("title").stringValue());
+            }
             for (Map<String, Value> publicacion : resultPublicationsTitle) {
                 String authorResource = publicacion.get("authorResource").stringValue();
                 String publicationResource = publicacion.get("publicationResource").stringValue();
                 String title = publicacion.get("title").stringValue();
 
-                for (Map<String, Value> publicacionParam : publications) {
+                for (Map<String, Value> publicacionParam : providerTitles.candidates(title)) {
                     if (compareTitlePublicationWithSimmetrics(publicacionParam.get("title").stringValue(), title)) {
                         //log.info("publication that coinside between authors: 1:" + publicationResource + "2: " + publicacionParam + ", author: " + authorResource);
 
@@ -515,23 +635,19 @@ public class Data2GlobalGraphImpl implements Data2GlobalGraph, Runnable {
                 String lastName = publicacion.get("lname").stringValue();
 
                 String newuri = uriNewAuthor + cleanStringUriAuthor((fisrtName + " " + lastName).replace(".", ""));
-                String askTripletQuery = queriesService.getAskQuery(wkhuskaGraph, newuri, RDF.TYPE, FOAF.NAMESPACE + "Person");
-                boolean askNewAuthor = sparqlService.ask(QueryLanguage.SPARQL, askTripletQuery);
-                if (!askNewAuthor) {
-                    //If the author is not already added, get the properties of the author from the provider graph and add them to the new author in the central graph
-                    List<Map<String, Value>> resultAuthorProperties = sparqlService.query(QueryLanguage.SPARQL, queriesService.authorDetailsOfProvenance(authorsGraph, authorResource));
-                    for (Map<String, Value> property : resultAuthorProperties) {
-                        String insertPubQuery = buildInsertQuery(wkhuskaGraph, newuri, property.get("property").stringValue(), commonsServices.isURI(property.get("hasValue").stringValue()) ? property.get("hasValue").stringValue() : " " + property.get("hasValue").stringValue() + " ");
-                        try {
-                            sparqlService.update(QueryLanguage.SPARQL, insertPubQuery);
-                        } catch (MalformedQueryException ex) {
-                            log.error("Malformed Query:  " + insertPubQuery);
-                        } catch (UpdateExecutionException ex) {
-                            log.error("Update Query :  " + insertPubQuery);
-                        } catch (MarmottaException ex) {
-                            log.error("Marmotta Exception:  " + insertPubQuery);
+                ReentrantLock authorLock = getAuthorLock(newuri);
+                authorLock.lock();
+                try {
+                    boolean askNewAuthor = askCentralGraph(newuri, RDF.TYPE, FOAF.NAMESPACE + "Person");
+                    if (!askNewAuthor) {
+                        //If the author is not already added, get the properties of the author from the provider graph and add them to the new author in the central graph
+                        List<Map<String, Value>> resultAuthorProperties = sparqlService.query(QueryLanguage.SPARQL, queriesService.authorDetailsOfProvenance(authorsGraph, authorResource));
+                        for (Map<String, Value> property : resultAuthorProperties) {
+                            insertCentralGraph(newuri, property.get("property").stringValue(), commonsServices.isURI(property.get("hasValue").stringValue()) ? property.get("hasValue").stringValue() : " " + property.get("hasValue").stringValue() + " ");
                         }
                     }
+                } finally {
+                    authorLock.unlock();
                 }
                 return newuri;
 
@@ -581,8 +697,7 @@ public class Data2GlobalGraphImpl implements Data2GlobalGraph, Runnable {
         String query = "";
         String pipe = " & ";
         for (String token : title.split(" ")) {
-            Pattern pat = Pattern.compile("[a-zA-Z]{4,20}");
-            Matcher mat = pat.matcher(token);
+            Matcher mat = SEARCH_TOKEN.matcher(token);
             if (mat.matches()) {
                 if (query.length() > 1) {
                     query += pipe;
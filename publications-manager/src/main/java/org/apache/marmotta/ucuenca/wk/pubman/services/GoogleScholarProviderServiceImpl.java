@@ -35,18 +35,20 @@ import javax.inject.Inject;
 
 import org.apache.marmotta.commons.sesame.model.ModelCommons;
 import org.apache.marmotta.kiwi.model.rdf.KiWiUriResource;
+import org.apache.marmotta.ldclient.api.provider.DataProvider;
 import org.apache.marmotta.ldclient.exception.DataRetrievalException;
-import org.apache.marmotta.ldclient.model.ClientConfiguration;
 import org.apache.marmotta.ldclient.model.ClientResponse;
 import org.apache.marmotta.ldclient.services.ldclient.LDClient;
 import org.apache.marmotta.platform.core.exception.InvalidArgumentException;
 import org.apache.marmotta.platform.core.exception.MarmottaException;
 import org.apache.marmotta.platform.sparql.api.sparql.SparqlService;
+import org.apache.marmotta.ucuenca.wk.commons.function.ConfigurationSnapshot;
 import org.apache.marmotta.ucuenca.wk.commons.service.ConstantService;
 import org.apache.marmotta.ucuenca.wk.commons.service.QueriesService;
 import org.apache.marmotta.ucuenca.wk.pubman.api.SparqlFunctionsService;
 import org.apache.marmotta.ucuenca.wk.pubman.exceptions.PubException;
 import org.apache.marmotta.ucuenca.wk.pubman.api.GoogleScholarProviderService;
+import org.apache.marmotta.ucuenca.wk.provider.gs.GoogleScholarProvider;
 import org.apache.marmotta.ucuenca.wk.commons.service.DistanceService;
 import org.apache.marmotta.ucuenca.wk.commons.service.KeywordsService;
 import org.apache.marmotta.ucuenca.wk.commons.service.CommonsServices;
@@ -102,6 +104,12 @@ public class GoogleScholarProviderServiceImpl implements GoogleScholarProviderSe
     @Inject
     private SparqlFunctionsService sparqlFunctionsService;
 
+    @Inject
+    private HarvestEngine harvestEngine;
+
+    @Inject
+    private LDClientPool ldClientPool;
+
     private String namespaceGraph = "http://ucuenca.edu.ec/wkhuska/";
     private String authorGraph = namespaceGraph + "authors";
     private String endpointsGraph = namespaceGraph + "endpoints";
@@ -224,75 +232,89 @@ public class GoogleScholarProviderServiceImpl implements GoogleScholarProviderSe
 
         try {
             //new AuthorVersioningJob(log).proveSomething();
-            ClientConfiguration conf = new ClientConfiguration();
-            //conf.addEndpoint(new DBLPEndpoint());
-            LDClient ldClient = new LDClient(conf);
+            final LDClient ldClient = ldClientPool.getClient(LDClientPool.GOOGLE_SCHOLAR);
             //ClientResponse response = ldClient.retrieveResource("http://rdf.dblp.com/ns/m.0wqhskn");
 
-            int allMembers = 0;
-            String nameProviderGraph = "http://ucuenca.edu.ec/wkhuska/provider/GoogleScholarProvider";
+            final String nameProviderGraph = "http://ucuenca.edu.ec/wkhuska/provider/GoogleScholarProvider";
             String getAllAuthorsDataQuery = queriesService.getAuthorsDataQuery(authorGraph, endpointsGraph);
 
             // TupleQueryResult result = sparqlService.query(QueryLanguage.SPARQL, getAuthors);
-            String nameToFind = "";
-            String authorResource = "";
-            int priorityToFind = 0;
             List<Map<String, Value>> resultAllAuthors = sparqlService.query(QueryLanguage.SPARQL, getAllAuthorsDataQuery);
 
-            /*To Obtain Processed Percent*/
-            int allPersons = resultAllAuthors.size();
-            int processedPersons = 0;
-
-            RepositoryConnection conUri = null;
-            ClientResponse response = null;
-            for (Map<String, Value> map : resultAllAuthors) {
-                processedPersons++;
-                log.info("Autores procesados con GoogleScholar: " + processedPersons + " de " + allPersons);
-                authorResource = map.get("subject").stringValue();
-                String firstName = map.get("fname").stringValue();
-                String lastName = map.get("lname").stringValue();
-                priorityToFind = 1;
-                if (!sparqlService.ask(QueryLanguage.SPARQL, queriesService.getAskResourceQuery(nameProviderGraph, authorResource))) {
-                    boolean dataretrieve = false;//( Data Retrieve Exception )
-
-                    do {
+            ConfigurationSnapshot configuration = ConfigurationSnapshot.current();
+            // the pages and the pace of the searches are of the provider of this client
+            for (DataProvider provider : ldClient.getDataProviders()) {
+                if (provider instanceof GoogleScholarProvider) {
+                    GoogleScholarProvider gsProvider = (GoogleScholarProvider) provider;
+                    gsProvider.setMaxPages(configuration.getInt(ConfigurationSnapshot.PLATFORM, "maxPages.GoogleScholar", 0));
+                    gsProvider.setPagesPerSecond(configuration.getDouble(ConfigurationSnapshot.PLATFORM, "pagesPerSecond.GoogleScholar", 2));
+                }
+            }
+
+            harvestEngine.run("Google Scholar", ProviderRateLimiter.fromConfiguration("GoogleScholar", 1, 1), resultAllAuthors, new HarvestEngine.AuthorTask() {
+                @Override
+                public boolean harvest(Map<String, Value> author, ProviderRateLimiter limiter) throws Exception {
+                    return harvestAuthor(author, limiter, ldClient, nameProviderGraph);
+                }
+            });
+            return "True for GS publications";
+        } catch (MarmottaException ex) {
+            java.util.logging.Logger.getLogger(GoogleScholarProviderServiceImpl.class.getName()).log(Level.SEVERE, null, ex);
+        }
+        return "Fail for GS";
+    }
+
+    /*
+     * Search of one author in Google Scholar, the requests to Google Scholar
+     * go through the limiter
+     */
+    private boolean harvestAuthor(Map<String, Value> map, ProviderRateLimiter limiter, LDClient ldClient,
+            String nameProviderGraph) throws MarmottaException, InterruptedException {
+        BatchedTripleWriter tripleWriter = BatchedTripleWriter.create(sparqlFunctionsService, queriesService, commonsServices);
+        RepositoryConnection conUri = null;
+        ClientResponse response = null;
+        int allMembers = 0;
+        String nameToFind = "";
+        String authorResource = map.get("subject").stringValue();
+        String firstName = map.get("fname").stringValue();
+        String lastName = map.get("lname").stringValue();
+        boolean harvested = true;
+        int priorityToFind = 1;
+        if (!sparqlService.ask(QueryLanguage.SPARQL, queriesService.getAskResourceQuery(nameProviderGraph, authorResource))) {
+            boolean dataretrieve = false;//( Data Retrieve Exception )
+            boolean retrievalFailed = false;
+
+            do {
+                try {
+                    boolean existNativeAuthor = false;
+                    allMembers = 0;
+                    nameToFind = commonsServices.removeAccents(priorityFindQueryBuilding(priorityToFind, firstName, lastName).replace("_", "+"));
+                    //response = ldClient.retrieveResource(NS_DBLP + nameToFind);
+                    String URL_TO_FIND = "https://scholar.google.com/scholar?start=0&q=author:%22" + nameToFind + "%22&hl=en&as_sdt=1%2C15&as_vis=1";
+                    existNativeAuthor = sparqlService.ask(QueryLanguage.SPARQL, queriesService.getAskResourceQuery(nameProviderGraph, URL_TO_FIND));
+                    if (nameToFind.compareTo("") != 0 && !existNativeAuthor) {
+
+                        //the limiter of the provider keeps the pace between the queries
+                        limiter.acquire();
                         try {
-                            boolean existNativeAuthor = false;
-                            allMembers = 0;
-                            nameToFind = commonsServices.removeAccents(priorityFindQueryBuilding(priorityToFind, firstName, lastName).replace("_", "+"));
-                            //response = ldClient.retrieveResource(NS_DBLP + nameToFind);
-                            String URL_TO_FIND = "https://scholar.google.com/scholar?start=0&q=author:%22" + nameToFind + "%22&hl=en&as_sdt=1%2C15&as_vis=1";
-                            existNativeAuthor = sparqlService.ask(QueryLanguage.SPARQL, queriesService.getAskResourceQuery(nameProviderGraph, URL_TO_FIND));
-                            if (nameToFind.compareTo("") != 0 && !existNativeAuthor) {
-
-                                //do {
-                                try {//waint 1  second between queries
-                                    Thread.sleep(1000);
-                                } catch (InterruptedException ex) {
-                                    Thread.currentThread().interrupt();
-                                }
-                                try {
-                                    response = ldClient.retrieveResource(URL_TO_FIND);
-                                    dataretrieve = true;
-                                } catch (DataRetrievalException e) {
-                                    //do {
-                                    try {//waint 1 second if fail retrieve data
-                                        Thread.sleep(1000);
-                                    } catch (InterruptedException ex) {
-                                        Thread.currentThread().interrupt();
-                                    }
-                                    log.error("Error when retrieve: " + URL_TO_FIND + " -  Exception: " + e);
-                                    dataretrieve = false;
-                                }
+                            response = ldClient.retrieveResource(URL_TO_FIND);
+                            dataretrieve = true;
+                        } catch (DataRetrievalException e) {
+                            log.error("Error when retrieve: " + URL_TO_FIND + " -  Exception: " + e);
+                            dataretrieve = false;
+                            retrievalFailed = true;
+                        } finally {
+                            limiter.release();
+                        }
 
-                                // } while (true);
-                                //(!dataretrievee && response.getHttpStatus() == 503);
-                            }//end  if  nameToFind != ""
+                        // } while (true);
+                        //(!dataretrievee && response.getHttpStatus() == 503);
+                    }//end  if  nameToFind != ""
 
-                            //String nameEndpointofPublications = ldClient.getEndpoint(NS_DBLP + nameToFind).getName();
-                            String nameEndpointofPublications = ldClient.getEndpoint(URL_TO_FIND).getName();
-                            String providerGraph = graphByProviderNS + nameEndpointofPublications.replace(" ", "");
-                            if (dataretrieve) {
+                    //String nameEndpointofPublications = ldClient.getEndpoint(NS_DBLP + nameToFind).getName();
+                    String nameEndpointofPublications = ldClient.getEndpoint(URL_TO_FIND).getName();
+                    String providerGraph = graphByProviderNS + nameEndpointofPublications.replace(" ", "");
+                    if (dataretrieve) {
 //                                Model model = response.getData();
 //                                FileOutputStream out = new FileOutputStream("C:\\Users\\Satellite\\Desktop\\" + nameToFind.replace("?", "_") + "_test.ttl");
 //                                RDFWriter writer = Rio.createWriter(RDFFormat.TURTLE, out);
@@ -305,125 +327,124 @@ public class GoogleScholarProviderServiceImpl implements GoogleScholarProviderSe
 //                                } catch (RDFHandlerException e) {
 //                                    // oh no, do something!
 //                                }
-                                conUri = ModelCommons.asRepository(response.getData()).getConnection();
-                                conUri.begin();
-                                String authorNativeResource = null;
-
-                                //THIS DRIVER NO RETURN MEMBERS OF A SEARCH, ALL DATA IS RELATED WITH A AUTHOR
-                                authorNativeResource = URL_TO_FIND;
-                                //existNativeAuthor = sparqlService.ask(QueryLanguage.SPARQL, queriesService.getAskResourceQuery(providerGraph, authorNativeResource));
-
-                                if (!existNativeAuthor) {
-
-                                    /**
-                                     * First: Verify resource (publications)
-                                     * that contains the NameToFind in
-                                     * dc:creator property Second: Compare if
-                                     * some keywords of NameToFind author is
-                                     * contained into a retrieve publication
-                                     */
-                                    String getPublicationsFromProviderQuery = queriesService.getSubjectAndObjectByPropertyQuery("dc:creator");
-                                    TupleQuery pubquery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getPublicationsFromProviderQuery); //
-                                    TupleQueryResult gsPublicationsResult = pubquery.evaluate();
-
-                                    while (gsPublicationsResult.hasNext()) {
-                                        BindingSet gsResource = gsPublicationsResult.next();
-                                        String publication = gsResource.getValue("subject").toString();
-                                        String authorfromGS = gsResource.getValue("object").toString();
-                                        /**
-                                         * Getting and formating full name from
-                                         * google scholar Example ->
-                                         * author:%22M+Espinoza+Marin%22 Example
-                                         * 2 -> author:%22JM+Espinoza%22. The
-                                         * comparisonNames.syntacticComparison
-                                         * Service need the format : Name1
-                                         * Name2:Name3 Name4
-                                         */
-                                        String googlescholarfullname = authorfromGS;
-                                        googlescholarfullname = googlescholarfullname.substring(googlescholarfullname.indexOf("author:") + 10);
-                                        if (googlescholarfullname.indexOf("+") == 0) {
-                                            googlescholarfullname = googlescholarfullname.substring(1, googlescholarfullname.indexOf("%22"));
-                                        } else {
-                                            googlescholarfullname = googlescholarfullname.substring(0, googlescholarfullname.indexOf("%22"));
-                                        }
-                                        googlescholarfullname = googlescholarfullname.replace('+', ':');
-                                        /**
-                                         * case JM:Espinoza or JP:Carvallo
-                                         * replace with : J:Espinoza or
-                                         * J:Carvallo
-                                         */
-                                        if (googlescholarfullname.substring(0, googlescholarfullname.indexOf(":")).length() == 2) {
-                                            googlescholarfullname = googlescholarfullname.substring(0, 1) + googlescholarfullname.substring(2);
-                                        }
+                        conUri = ModelCommons.asRepository(response.getData()).getConnection();
+                        conUri.begin();
+                        String authorNativeResource = null;
+
+                        //THIS DRIVER NO RETURN MEMBERS OF A SEARCH, ALL DATA IS RELATED WITH A AUTHOR
+                        authorNativeResource = URL_TO_FIND;
+                        //existNativeAuthor = sparqlService.ask(QueryLanguage.SPARQL, queriesService.getAskResourceQuery(providerGraph, authorNativeResource));
+
+                        if (!existNativeAuthor) {
+
+                            /**
+                             * First: Verify resource (publications)
+                             * that contains the NameToFind in
+                             * dc:creator property Second: Compare if
+                             * some keywords of NameToFind author is
+                             * contained into a retrieve publication
+                             */
+                            String getPublicationsFromProviderQuery = queriesService.getSubjectAndObjectByPropertyQuery("dc:creator");
+                            TupleQuery pubquery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getPublicationsFromProviderQuery); //
+                            TupleQueryResult gsPublicationsResult = pubquery.evaluate();
+
+                            while (gsPublicationsResult.hasNext()) {
+                                BindingSet gsResource = gsPublicationsResult.next();
+                                String publication = gsResource.getValue("subject").toString();
+                                String authorfromGS = gsResource.getValue("object").toString();
+                                /**
+                                 * Getting and formating full name from
+                                 * google scholar Example ->
+                                 * author:%22M+Espinoza+Marin%22 Example
+                                 * 2 -> author:%22JM+Espinoza%22. The
+                                 * comparisonNames.syntacticComparison
+                                 * Service need the format : Name1
+                                 * Name2:Name3 Name4
+                                 */
+                                String googlescholarfullname = authorfromGS;
+                                googlescholarfullname = googlescholarfullname.substring(googlescholarfullname.indexOf("author:") + 10);
+                                if (googlescholarfullname.indexOf("+") == 0) {
+                                    googlescholarfullname = googlescholarfullname.substring(1, googlescholarfullname.indexOf("%22"));
+                                } else {
+                                    googlescholarfullname = googlescholarfullname.substring(0, googlescholarfullname.indexOf("%22"));
+                                }
+                                googlescholarfullname = googlescholarfullname.replace('+', ':');
+                                /**
+                                 * case JM:Espinoza or JP:Carvallo
+                                 * replace with : J:Espinoza or
+                                 * J:Carvallo
+                                 */
+                                if (googlescholarfullname.substring(0, googlescholarfullname.indexOf(":")).length() == 2) {
+                                    googlescholarfullname = googlescholarfullname.substring(0, 1) + googlescholarfullname.substring(2);
+                                }
+
+                                String localfullname = firstName + ":" + lastName;
+
+                                /**
+                                 * in comparisonNames send local because
+                                 * the syntax names are similar
+                                 */
+                                if (distance.syntacticComparisonNames("local", localfullname, "local", googlescholarfullname)) {
+
+                                    List<String> listA = kservice.getKeywordsOfAuthor(authorResource);
+                                    List<String> listB = new ArrayList<String>();
+                                    String getAbstractAndTitleFromProviderQuery = queriesService.getAbstractAndTitleQuery(publication);
+                                    TupleQuery abstracttitlequery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getAbstractAndTitleFromProviderQuery); //
+                                    TupleQueryResult abstractResult = abstracttitlequery.evaluate();
+
+                                    if (abstractResult.hasNext()) {
+                                        BindingSet abstractResource = abstractResult.next();
+                                        String abstracttext = abstractResource.getValue("abstract").toString();
+                                        String titletext = abstractResource.getValue("title").toString();
+                                        listB = kservice.getKeywords(titletext);
 
-                                        String localfullname = firstName + ":" + lastName;
-
-                                        /**
-                                         * in comparisonNames send local because
-                                         * the syntax names are similar
-                                         */
-                                        if (distance.syntacticComparisonNames("local", localfullname, "local", googlescholarfullname)) {
-
-                                            List<String> listA = kservice.getKeywordsOfAuthor(authorResource);
-                                            List<String> listB = new ArrayList<String>();
-                                            String getAbstractAndTitleFromProviderQuery = queriesService.getAbstractAndTitleQuery(publication);
-                                            TupleQuery abstracttitlequery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getAbstractAndTitleFromProviderQuery); //
-                                            TupleQueryResult abstractResult = abstracttitlequery.evaluate();
-
-                                            if (abstractResult.hasNext()) {
-                                                BindingSet abstractResource = abstractResult.next();
-                                                String abstracttext = abstractResource.getValue("abstract").toString();
-                                                String titletext = abstractResource.getValue("title").toString();
-                                                listB = kservice.getKeywords(titletext);
-
-                                            }
-                                            int cero = 0;
-                                            if (listB.size() != cero && listA.size() != cero && distance.semanticComparison(listA, listB)) {
-                                                //SPARQL obtain all data publications of author from Google Scholar Provider
-                                                String getPublicationDataFromProviderQuery = queriesService.getPublicationsPropertiesQuery(publication);
-                                                TupleQuery dataquery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getPublicationDataFromProviderQuery); //
-                                                TupleQueryResult tripletasResult = dataquery.evaluate();
-
-                                                while (tripletasResult.hasNext()) {
-                                                    BindingSet tripletsResource = tripletasResult.next();
-                                                    String predicate = tripletsResource.getValue("property").toString();
-                                                    String object = tripletsResource.getValue("value").toString();
-
-                                                    //String publicationProperty = tripletsResource.getValue("publicationProperty").toString();
-                                                    ///insert sparql query, 
-                                                    String publicationInsertQuery = buildInsertQuery(providerGraph, publication, predicate, object);
-                                                    updatePub(publicationInsertQuery);
-
-                                                    // insert dct:contributor      <> dct:contributor <http://dblp.org/pers/xr/s/Saquicela:Victor> 
-                                                    String contributorInsertQuery = buildInsertQuery(providerGraph, publication, "http://purl.org/dc/terms/contributor", authorNativeResource);
-                                                    updatePub(contributorInsertQuery);
-
-                                                    // sameAs triplet    <http://190.15.141.102:8080/dspace/contribuidor/autor/SaquicelaGalarza_VictorHugo> owl:sameAs <http://dblp.org/pers/xr/s/Saquicela:Victor> 
-                                                    String sameAsInsertQuery = buildInsertQuery(providerGraph, authorResource, "http://www.w3.org/2002/07/owl#sameAs", authorNativeResource);
-                                                    updatePub(sameAsInsertQuery);
-
-                                                }
-                                            }//end if semantic comparison
-
-                                        }//end if syntactic comparison
                                     }
-                                }//end if existNativeAuthor
-                                conUri.commit();
-                                conUri.close();
-                            }//fin   if (dataretrieve)
-                        } catch (Exception e) {
-                            log.error("ioexception " + e.toString());
-                        }
-                        priorityToFind++;
-                    } while (priorityToFind < 3 && !dataretrieve);//end do while
-                    printPercentProcess(processedPersons, allPersons, "Google Scholar");
+                                    int cero = 0;
+                                    if (listB.size() != cero && listA.size() != cero && distance.semanticComparison(listA, listB)) {
+                                        //SPARQL obtain all data publications of author from Google Scholar Provider
+                                        String getPublicationDataFromProviderQuery = queriesService.getPublicationsPropertiesQuery(publication);
+                                        TupleQuery dataquery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getPublicationDataFromProviderQuery); //
+                                        TupleQueryResult tripletasResult = dataquery.evaluate();
+
+                                        while (tripletasResult.hasNext()) {
+                                            BindingSet tripletsResource = tripletasResult.next();
+                                            String predicate = tripletsResource.getValue("property").toString();
+                                            String object = tripletsResource.getValue("value").toString();
+
+                                            //String publicationProperty = tripletsResource.getValue("publicationProperty").toString();
+                                            ///insert sparql query, 
+                                            tripleWriter.add(providerGraph, publication, predicate, object);
+
+                                            // insert dct:contributor      <> dct:contributor <http://dblp.org/pers/xr/s/Saquicela:Victor> 
+                                            tripleWriter.add(providerGraph, publication, "http://purl.org/dc/terms/contributor", authorNativeResource);
+
+                                            // sameAs triplet    <http://190.15.141.102:8080/dspace/contribuidor/autor/SaquicelaGalarza_VictorHugo> owl:sameAs <http://dblp.org/pers/xr/s/Saquicela:Victor> 
+                                            tripleWriter.add(providerGraph, authorResource, "http://www.w3.org/2002/07/owl#sameAs", authorNativeResource);
+
+                                        }
+                                    }//end if semantic comparison
+
+                                }//end if syntactic comparison
+                            }
+                        }//end if existNativeAuthor
+                        conUri.commit();
+                        conUri.close();
+                    }//fin   if (dataretrieve)
+                } catch (InterruptedException ex) {
+                    throw ex;
+                } catch (Exception e) {
+                    log.error("ioexception " + e.toString());
+                    harvested = false;
                 }
+                priorityToFind++;
+            } while (priorityToFind < 3 && !dataretrieve);//end do while
+            //no name could be retrieved, the author is searched again in the next harvest
+            if (retrievalFailed && !dataretrieve) {
+                harvested = false;
             }
-            return "True for GS publications";
-        } catch (MarmottaException ex) {
-            java.util.logging.Logger.getLogger(GoogleScholarProviderServiceImpl.class.getName()).log(Level.SEVERE, null, ex);
+            harvested = tripleWriter.flush() && harvested;
         }
-        return "Fail for GS";
+        return harvested;
     }
 
     public String priorityFindQueryBuilding(int priority, String firstName, String lastName) {
@@ -0,0 +1,205 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.pubman.services;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Journal of the authors already harvested in a provider, so a harvest that
+ * dies ( or a restart of tomcat ) continues where it stopped without asking
+ * marmotta for every author.
+ *
+ * The file ( provider.journal ) has a header of 24 bytes ( magic, version,
+ * last offset in the list of authors, complete flag ) and then a 64 bits hash
+ * of each processed author, only appended. When the journal is opened the
+ * hashes are read with a memory mapped buffer and the processed authors of a
+ * list are returned as a BitSet. A hash written in half by a crash is ignored.
+ */
+public class HarvestCheckpoint implements Closeable {
+
+    private static final int MAGIC = 0x574b434b;
+
+    private static final int VERSION = 1;
+
+    private static final int HEADER = 24;
+
+    private static final int LAST_OFFSET = 8;
+
+    private static final int COMPLETE = 16;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final RandomAccessFile file;
+
+    private final FileChannel channel;
+
+    /* sorted hashes of the journal when it was opened */
+    private final long[] processed;
+
+    private long size;
+
+    private long lastOffset;
+
+    private final ByteBuffer entry = ByteBuffer.allocate(8);
+
+    private HarvestCheckpoint(RandomAccessFile file, long[] processed, long size, long lastOffset) {
+        this.file = file;
+        this.channel = file.getChannel();
+        this.processed = processed;
+        this.size = size;
+        this.lastOffset = lastOffset;
+    }
+
+    /**
+     * Open the journal of the provider in the directory
+     *
+     * @param directory
+     * @param provider name of the provider without spaces
+     * @param restart when the last harvest was complete, start a new journal
+     * @return
+     * @throws IOException
+     */
+    public static HarvestCheckpoint open(File directory, String provider, boolean restart) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create " + directory);
+        }
+        RandomAccessFile file = new RandomAccessFile(getJournalFile(directory, provider), "rw");
+        try {
+            FileChannel channel = file.getChannel();
+            long[] hashes = new long[0];
+            long lastOffset = -1;
+            boolean valid = channel.size() >= HEADER;
+            if (valid) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                valid = buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION;
+                if (valid && !(restart && buffer.getInt(COMPLETE) == 1)) {
+                    lastOffset = buffer.getLong(LAST_OFFSET);
+                    buffer.position(HEADER);
+                    LongBuffer entries = buffer.slice().asLongBuffer();
+                    hashes = new long[entries.remaining()];
+                    entries.get(hashes);
+                    Arrays.sort(hashes);
+                } else {
+                    valid = false;
+                }
+            }
+            if (!valid) {
+                channel.truncate(0);
+                ByteBuffer header = ByteBuffer.allocate(HEADER);
+                header.putInt(MAGIC).putInt(VERSION).putLong(-1).putInt(0).putInt(0).flip();
+                channel.write(header, 0);
+            } else {
+                writeInt(channel, COMPLETE, 0);
+            }
+            return new HarvestCheckpoint(file, hashes, HEADER + hashes.length * 8L, lastOffset);
+        } catch (IOException | RuntimeException ex) {
+            file.close();
+            throw ex;
+        }
+    }
+
+    public static File getJournalFile(File directory, String provider) {
+        return new File(directory, provider + ".journal");
+    }
+
+    /**
+     * Positions of the authors of the list that are in the journal
+     *
+     * @param authors URIs of the authors
+     * @return
+     */
+    public BitSet completed(List<String> authors) {
+        BitSet completed = new BitSet(authors.size());
+        if (processed.length > 0) {
+            for (int i = 0; i < authors.size(); i++) {
+                if (Arrays.binarySearch(processed, hash(authors.get(i))) >= 0) {
+                    completed.set(i);
+                }
+            }
+        }
+        return completed;
+    }
+
+    /**
+     * Append a processed author
+     *
+     * @param author URI of the author
+     * @param offset position of the author in the list of the harvest
+     * @throws IOException
+     */
+    public synchronized void markProcessed(String author, int offset) throws IOException {
+        entry.clear();
+        entry.putLong(hash(author)).flip();
+        while (entry.hasRemaining()) {
+            channel.write(entry, size + entry.position());
+        }
+        size += 8;
+        if (offset > lastOffset) {
+            lastOffset = offset;
+            ByteBuffer value = ByteBuffer.allocate(8);
+            value.putLong(lastOffset).flip();
+            channel.write(value, LAST_OFFSET);
+        }
+    }
+
+    /**
+     * Mark the harvest as complete, with restart the next harvest starts a new
+     * journal
+     *
+     * @throws IOException
+     */
+    public synchronized void finish() throws IOException {
+        writeInt(channel, COMPLETE, 1);
+        channel.force(true);
+    }
+
+    /* processed authors, the authors of the journal when it was opened and the new ones */
+    public synchronized int size() {
+        return (int) ((size - HEADER) / 8);
+    }
+
+    public synchronized long getLastOffset() {
+        return lastOffset;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            channel.force(true);
+        } finally {
+            file.close();
+        }
+    }
+
+    private static void writeInt(FileChannel channel, long position, int value) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+        buffer.putInt(value).flip();
+        channel.write(buffer, position);
+    }
+
+    /* 64 bits FNV-1a of the URI */
+    private static long hash(String author) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < author.length(); i++) {
+            hash ^= author.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+}
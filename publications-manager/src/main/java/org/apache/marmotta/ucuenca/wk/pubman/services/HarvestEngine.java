@@ -0,0 +1,190 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.pubman.services;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import org.apache.marmotta.ucuenca.wk.commons.function.ConfigurationSnapshot;
+import org.openrdf.model.Value;
+import org.slf4j.Logger;
+
+/**
+ * Harvest of the authors of the platform in a provider. The authors run in a
+ * pool of maxInFlight threads of the provider and the requests of all threads
+ * go through the {@link ProviderRateLimiter} of the provider, so providers
+ * that accept several requests at the same time ( DBLP, Scopus ) harvest
+ * several authors in parallel and the others keep their pace. The progress of
+ * each provider is saved in a {@link HarvestCheckpoint} and reported to the
+ * {@link HarvestJob} of the thread.
+ */
+@ApplicationScoped
+public class HarvestEngine {
+
+    @Inject
+    private Logger log;
+
+    /**
+     * Work of a provider for one author ( subject, fname, lname, ... of
+     * getListOfAuthors )
+     */
+    public interface AuthorTask {
+
+        /**
+         * @param author
+         * @param limiter
+         * @return true when the author was harvested, false when an error was
+         * logged and the author must be harvested again
+         * @throws Exception
+         */
+        boolean harvest(Map<String, Value> author, ProviderRateLimiter limiter) throws Exception;
+    }
+
+    /**
+     * Run the task for all authors and wait until all of them are finished.
+     * The authors of the checkpoint journal of the provider are skipped and
+     * each author harvested without errors ( the task returned true ) is added
+     * to the journal.
+     *
+     * @param provider name of the provider for the log
+     * @param limiter politeness of the provider
+     * @param authors
+     * @param task
+     * @return number of processed authors
+     */
+    public int run(final String provider, final ProviderRateLimiter limiter, List<Map<String, Value>> authors, final AuthorTask task) {
+        final int allPersons = authors.size();
+        final HarvestCheckpoint checkpoint = openCheckpoint(provider);
+        BitSet completed = new BitSet();
+        if (checkpoint != null) {
+            List<String> subjects = new ArrayList<>(allPersons);
+            for (Map<String, Value> author : authors) {
+                subjects.add(author.get("subject").stringValue());
+            }
+            completed = checkpoint.completed(subjects);
+            log.info("Autores ya procesados con " + provider + ": " + completed.cardinality() + " de " + allPersons
+                    + ", ultimo autor procesado: " + checkpoint.getLastOffset());
+        }
+        final AtomicInteger processedPersons = new AtomicInteger(completed.cardinality());
+        final HarvestJob job = HarvestJob.current();
+        if (job != null) {
+            job.begin(allPersons, completed.cardinality());
+        }
+        final AtomicInteger processPercent = new AtomicInteger();
+        boolean finished = false;
+        ExecutorService executor = Executors.newFixedThreadPool(limiter.getMaxInFlight(), new HarvestThreadFactory(provider));
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int i = 0; i < allPersons; i++) {
+                if (completed.get(i)) {
+                    continue;
+                }
+                final Map<String, Value> author = authors.get(i);
+                final int offset = i;
+                tasks.add(executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            if (task.harvest(author, limiter) && checkpoint != null) {
+                                checkpoint.markProcessed(author.get("subject").stringValue(), offset);
+                            }
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                        } catch (Exception ex) {
+                            log.error("Error harvesting " + author.get("subject") + " in " + provider + ": " + ex);
+                        }
+                        int processed = processedPersons.incrementAndGet();
+                        if (job != null) {
+                            job.increment();
+                        }
+                        log.info("Autores procesados con " + provider + ": " + processed + " de " + allPersons);
+                        int percent = processed * 100 / allPersons;
+                        int previous = processPercent.get();
+                        if (percent > previous && processPercent.compareAndSet(previous, percent)) {
+                            log.info("Procesado el: " + percent + " % de " + provider);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : tasks) {
+                future.get();
+            }
+            finished = true;
+        } catch (InterruptedException ex) {
+            log.error("Harvest of " + provider + " interrupted");
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            log.error("Harvest of " + provider + " failed: " + ex.getCause());
+        } finally {
+            executor.shutdownNow();
+            closeCheckpoint(provider, checkpoint, finished);
+        }
+        return processedPersons.get();
+    }
+
+    /*
+     * Journal of the provider in checkpointDirectory, a new journal when all
+     * authors are processed again ( proccesAllAuthors ) and the last harvest
+     * was complete. Null when the journal cannot be used
+     */
+    private HarvestCheckpoint openCheckpoint(String provider) {
+        ConfigurationSnapshot configuration = ConfigurationSnapshot.current();
+        String directory = configuration.getString(ConfigurationSnapshot.PLATFORM, "checkpointDirectory");
+        if (directory == null || directory.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return HarvestCheckpoint.open(new File(directory.trim()), provider.replace(" ", ""), configuration.isProcessAllAuthors());
+        } catch (IOException ex) {
+            log.error("Checkpoint journal of " + provider + " not available: " + ex);
+            return null;
+        }
+    }
+
+    private void closeCheckpoint(String provider, HarvestCheckpoint checkpoint, boolean finished) {
+        if (checkpoint == null) {
+            return;
+        }
+        try {
+            if (finished) {
+                checkpoint.finish();
+            }
+            checkpoint.close();
+        } catch (IOException ex) {
+            log.error("Checkpoint journal of " + provider + " not saved: " + ex);
+        }
+    }
+
+    private static class HarvestThreadFactory implements ThreadFactory {
+
+        private final String provider;
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        HarvestThreadFactory(String provider) {
+            this.provider = provider.replace(" ", "");
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "harvest-" + provider + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+}
@@ -0,0 +1,178 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.pubman.services;
+
+import com.google.gson.JsonObject;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * State and progress of a job of the {@link HarvestJobManager}.
+ *
+ * The services that run in the job ( {@link HarvestEngine}, the integration
+ * to the central graph ) get the job of their thread with {@link #current()}
+ * and report the items to process and the processed items.
+ */
+public class HarvestJob {
+
+    public enum State {
+        QUEUED, RUNNING, FINISHED, FAILED, CANCELLED
+    }
+
+    private static final ThreadLocal<HarvestJob> CURRENT = new ThreadLocal<>();
+
+    private final String type;
+
+    private final AtomicInteger total = new AtomicInteger();
+
+    private final AtomicInteger processed = new AtomicInteger();
+
+    /* items processed in a previous run ( checkpoint ), not counted in the throughput */
+    private final AtomicInteger skipped = new AtomicInteger();
+
+    private volatile State state = State.QUEUED;
+
+    private volatile boolean cancelled = false;
+
+    private volatile String error;
+
+    private final long submitted = System.currentTimeMillis();
+
+    private volatile long started;
+
+    private volatile long finished;
+
+    public HarvestJob(String type) {
+        this.type = type;
+    }
+
+    /**
+     * Job of the current thread, null when the thread does not run a job
+     *
+     * @return
+     */
+    public static HarvestJob current() {
+        return CURRENT.get();
+    }
+
+    void run(Runnable task) {
+        if (cancelled) {
+            state = State.CANCELLED;
+            return;
+        }
+        started = System.currentTimeMillis();
+        state = State.RUNNING;
+        CURRENT.set(this);
+        try {
+            task.run();
+            state = cancelled || Thread.currentThread().isInterrupted() ? State.CANCELLED : State.FINISHED;
+        } catch (RuntimeException ex) {
+            error = ex.toString();
+            state = State.FAILED;
+        } catch (Error ex) {
+            // the job does not stay active, the error goes on to the thread
+            error = ex.toString();
+            state = State.FAILED;
+            throw ex;
+        } finally {
+            CURRENT.remove();
+            finished = System.currentTimeMillis();
+        }
+    }
+
+    void cancel() {
+        cancelled = true;
+        if (state == State.QUEUED) {
+            state = State.CANCELLED;
+            finished = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Items of a new part of the job
+     *
+     * @param items items to process
+     * @param alreadyProcessed items of the part that were processed before
+     */
+    public void begin(int items, int alreadyProcessed) {
+        total.addAndGet(items);
+        processed.addAndGet(alreadyProcessed);
+        skipped.addAndGet(alreadyProcessed);
+    }
+
+    public void increment() {
+        processed.incrementAndGet();
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isActive() {
+        return state == State.QUEUED || state == State.RUNNING;
+    }
+
+    public int getTotal() {
+        return total.get();
+    }
+
+    public int getProcessed() {
+        return processed.get();
+    }
+
+    /**
+     * Processed items per second in this run
+     *
+     * @return
+     */
+    public double getThroughput() {
+        if (started == 0) {
+            return 0;
+        }
+        long end = finished != 0 ? finished : System.currentTimeMillis();
+        double seconds = Math.max(1, end - started) / 1000.0;
+        return (processed.get() - skipped.get()) / seconds;
+    }
+
+    /**
+     * Seconds to process the remaining items, -1 when it is unknown
+     *
+     * @return
+     */
+    public long getEta() {
+        if (state != State.RUNNING) {
+            return state == State.FINISHED ? 0 : -1;
+        }
+        double throughput = getThroughput();
+        int remaining = total.get() - processed.get();
+        return throughput > 0 && remaining >= 0 ? (long) Math.ceil(remaining / throughput) : -1;
+    }
+
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        json.addProperty("type", type);
+        json.addProperty("state", state.name());
+        json.addProperty("processed", processed.get());
+        json.addProperty("total", total.get());
+        json.addProperty("throughput", Math.round(getThroughput() * 1000) / 1000.0);
+        json.addProperty("eta", getEta());
+        json.addProperty("submitted", submitted);
+        if (started != 0) {
+            json.addProperty("started", started);
+        }
+        if (finished != 0) {
+            json.addProperty("finished", finished);
+        }
+        if (error != null) {
+            json.addProperty("error", error);
+        }
+        return json;
+    }
+
+}
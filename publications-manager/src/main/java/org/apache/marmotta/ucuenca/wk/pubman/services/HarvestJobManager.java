@@ -0,0 +1,152 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.pubman.services;
+
+import com.google.gson.JsonArray;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import org.apache.marmotta.ucuenca.wk.commons.function.ConfigurationSnapshot;
+import org.slf4j.Logger;
+
+/**
+ * Background jobs of the publications manager ( harvest of the providers,
+ * load to the central graph, counters ).
+ *
+ * The jobs run in a pool of jobThreads threads ( updatePlatformProcessConfig
+ * ), the others wait in the queue. Only one job of each type is queued or
+ * running at the same time, because the services of the jobs are application
+ * scoped and keep the state of the process in their fields.
+ */
+@ApplicationScoped
+public class HarvestJobManager {
+
+    public static final String SCOPUS = "scopus";
+
+    public static final String DBLP = "dblp";
+
+    public static final String ACADEMICS_KNOWLEDGE = "ak";
+
+    public static final String MICROSOFT_ACADEMICS = "ma";
+
+    public static final String GOOGLE_SCHOLAR = "google";
+
+    public static final String CENTRAL_GRAPH = "central_graph";
+
+    public static final String COUNT_PUBLICATIONS = "count_publications";
+
+    private static final int DEFAULT_THREADS = 2;
+
+    @Inject
+    private Logger log;
+
+    private ExecutorService executor;
+
+    /* last job of each type */
+    private final Map<String, HarvestJob> jobs = new LinkedHashMap<>();
+
+    private final Map<String, Future<?>> futures = new HashMap<>();
+
+    /**
+     * Queue the task as a job of the type
+     *
+     * @param type
+     * @param task
+     * @return false when a job of the type is already queued or running
+     */
+    public synchronized boolean submit(String type, final Runnable task) {
+        HarvestJob last = jobs.get(type);
+        if (last != null && last.isActive()) {
+            log.info("Job " + type + " is already " + last.getState());
+            return false;
+        }
+        final HarvestJob job = new HarvestJob(type);
+        jobs.put(type, job);
+        futures.put(type, getExecutor().submit(new Runnable() {
+            @Override
+            public void run() {
+                job.run(task);
+                log.info("Job " + job.getType() + " " + job.getState());
+            }
+        }));
+        return true;
+    }
+
+    /**
+     * Cancel the queued or running job of the type, the running job is
+     * interrupted
+     *
+     * @param type
+     * @return false when there is not an active job of the type
+     */
+    public synchronized boolean cancel(String type) {
+        HarvestJob job = jobs.get(type);
+        if (job == null || !job.isActive()) {
+            return false;
+        }
+        job.cancel();
+        Future<?> future = futures.get(type);
+        if (future != null) {
+            future.cancel(true);
+        }
+        return true;
+    }
+
+    /**
+     * Last job of the type, null when no job of the type was submitted
+     *
+     * @param type
+     * @return
+     */
+    public synchronized HarvestJob getJob(String type) {
+        return jobs.get(type);
+    }
+
+    public synchronized JsonArray getJobs() {
+        JsonArray array = new JsonArray();
+        for (HarvestJob job : jobs.values()) {
+            array.add(job.toJson());
+        }
+        return array;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private ExecutorService getExecutor() {
+        if (executor == null) {
+            int threads = ConfigurationSnapshot.current().getInt(ConfigurationSnapshot.PLATFORM, "jobThreads", DEFAULT_THREADS);
+            threads = threads > 0 ? threads : DEFAULT_THREADS;
+            executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "pubman-job-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return executor;
+    }
+
+}
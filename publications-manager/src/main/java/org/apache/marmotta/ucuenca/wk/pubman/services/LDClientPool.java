@@ -0,0 +1,90 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.pubman.services;
+
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import org.apache.marmotta.ldclient.model.ClientConfiguration;
+import org.apache.marmotta.ldclient.services.ldclient.LDClient;
+import org.apache.marmotta.ucuenca.wk.commons.function.ConfigurationSnapshot;
+import org.apache.marmotta.ucuenca.wk.provider.commons.ProviderLDClients;
+import org.slf4j.Logger;
+
+/**
+ * LDClients of the providers. Each LDClient has its own pool of HTTP
+ * connections and a thread that closes the idle ones, so the services use one
+ * client for each provider during all the harvests instead of a new client in
+ * each harvest ( never shutdown ), and the connections to the provider are
+ * kept alive between authors.
+ *
+ * The connections of the client of a provider are ldclientConnections.provider
+ * of updatePlatformProcessConfig.properties, with ldclientConnectionTimeout
+ * and ldclientSocketTimeout in milliseconds. All clients, and the clients that
+ * the providers share for their own requests, are shutdown with the
+ * container.
+ */
+@ApplicationScoped
+public class LDClientPool {
+
+    public static final String DBLP = "DBLP";
+
+    public static final String SCOPUS = "SCOPUS";
+
+    public static final String GOOGLE_SCHOLAR = "GoogleScholar";
+
+    public static final String ACADEMICS_KNOWLEDGE = "AcademicsKnowledge";
+
+    public static final String MICROSOFT_ACADEMICS = "MicrosoftAcademics";
+
+    private static final int DEFAULT_CONNECTIONS = 10;
+
+    @Inject
+    private Logger log;
+
+    private final Map<String, LDClient> clients = new HashMap<>();
+
+    /**
+     * Client of the provider, created with the first request
+     *
+     * @param provider name of the provider without spaces
+     * @return
+     */
+    public synchronized LDClient getClient(String provider) {
+        LDClient client = clients.get(provider);
+        if (client == null) {
+            client = new LDClient(createConfiguration(provider));
+            clients.put(provider, client);
+        }
+        return client;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        for (Map.Entry<String, LDClient> client : clients.entrySet()) {
+            try {
+                client.getValue().shutdown();
+            } catch (RuntimeException ex) {
+                log.error("LDClient of " + client.getKey() + " not shutdown: " + ex);
+            }
+        }
+        clients.clear();
+        ProviderLDClients.shutdownAll();
+    }
+
+    private ClientConfiguration createConfiguration(String provider) {
+        ConfigurationSnapshot configuration = ConfigurationSnapshot.current();
+        ClientConfiguration conf = new ClientConfiguration();
+        int connections = configuration.getInt(ConfigurationSnapshot.PLATFORM, "ldclientConnections." + provider, DEFAULT_CONNECTIONS);
+        conf.setMaxParallelRequests(connections > 0 ? connections : DEFAULT_CONNECTIONS);
+        conf.setConnectionTimeout(configuration.getInt(ConfigurationSnapshot.PLATFORM, "ldclientConnectionTimeout", conf.getConnectionTimeout()));
+        conf.setSocketTimeout(configuration.getInt(ConfigurationSnapshot.PLATFORM, "ldclientSocketTimeout", conf.getSocketTimeout()));
+        return conf;
+    }
+
+}
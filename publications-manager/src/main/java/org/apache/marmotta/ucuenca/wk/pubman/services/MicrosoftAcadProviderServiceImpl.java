@@ -17,12 +17,8 @@
  */
 package org.apache.marmotta.ucuenca.wk.pubman.services;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Properties;
 import org.slf4j.Logger;
 
 import javax.enterprise.context.ApplicationScoped;
@@ -30,13 +26,13 @@ import javax.inject.Inject;
 import org.apache.marmotta.commons.sesame.model.ModelCommons;
 import org.apache.marmotta.kiwi.model.rdf.KiWiUriResource;
 import org.apache.marmotta.ldclient.exception.DataRetrievalException;
-import org.apache.marmotta.ldclient.model.ClientConfiguration;
 import org.apache.marmotta.ldclient.model.ClientResponse;
 import org.apache.marmotta.ldclient.services.ldclient.LDClient;
 import org.apache.marmotta.platform.core.exception.InvalidArgumentException;
 import org.apache.marmotta.platform.core.exception.MarmottaException;
 import org.apache.marmotta.platform.sparql.api.sparql.SparqlService;
 import org.apache.marmotta.ucuenca.wk.commons.impl.ConstantServiceImpl;
+import org.apache.marmotta.ucuenca.wk.commons.function.ConfigurationSnapshot;
 import org.apache.marmotta.ucuenca.wk.commons.service.ConstantService;
 import org.apache.marmotta.ucuenca.wk.commons.service.QueriesService;
 import org.apache.marmotta.ucuenca.wk.commons.service.CommonsServices;
@@ -82,6 +78,9 @@ public class MicrosoftAcadProviderServiceImpl implements MicrosoftAcadProviderSe
     @Inject
     private SparqlFunctionsService sparqlFunctionsService;
 
+    @Inject
+    private LDClientPool ldClientPool;
+
     @Inject
     private SparqlService sparqlService;
 
@@ -191,12 +190,11 @@ public class MicrosoftAcadProviderServiceImpl implements MicrosoftAcadProviderSe
 
     @Override
     public String runPublicationsProviderTaskImpl(String param) {
+        BatchedTripleWriter tripleWriter = BatchedTripleWriter.create(sparqlFunctionsService, queriesService, commonsServices);
         try {
 
             //new AuthorVersioningJob(log).proveSomething();
-            ClientConfiguration conf = new ClientConfiguration();
-            //conf.addEndpoint(new DBLPEndpoint());
-            LDClient ldClient = new LDClient(conf);
+            LDClient ldClient = ldClientPool.getClient(LDClientPool.MICROSOFT_ACADEMICS);
             //ClientResponse response = ldClient.retrieveResource("http://rdf.dblp.com/ns/m.0wqhskn");
 
             int allMembers = 0;
@@ -219,32 +217,8 @@ public class MicrosoftAcadProviderServiceImpl implements MicrosoftAcadProviderSe
             RepositoryConnection conUri = null;
             ClientResponse response = null;
 
-            Properties propiedades = new Properties();
-            InputStream entrada = null;
-            Map<String, String> mapping = new HashMap<String, String>();
-            try {
-                ClassLoader classLoader = getClass().getClassLoader();
-                entrada = classLoader.getResourceAsStream("updatePlatformProcessConfig.properties");
-                propiedades.load(entrada);
-                for (String source : propiedades.stringPropertyNames()) {
-                    String target = propiedades.getProperty(source);
-                    mapping.put(source, target);
-
-                }
-            } catch (IOException ex) {
-                ex.printStackTrace();
-            } catch (Exception ex) {
-                ex.printStackTrace();
-            } finally {
-                if (entrada != null) {
-                    try {
-                        entrada.close();
-                    } catch (IOException e) {
-                        e.printStackTrace();
-                    }
-                }
-            }
-            boolean proccesAllAuthors = Boolean.parseBoolean(mapping.get("proccesAllAuthors").toString());
+            ConfigurationSnapshot configuration = ConfigurationSnapshot.current();
+            boolean proccesAllAuthors = configuration.isProcessAllAuthors();
 
             for (Map<String, Value> map : resultAllAuthors) {
                 if (processedPersons == 100) {
@@ -341,12 +315,10 @@ public class MicrosoftAcadProviderServiceImpl implements MicrosoftAcadProviderSe
                             authorNativeResource = URL_TO_FIND_Microsoft;
                             existNativeAuthor = sparqlService.ask(QueryLanguage.SPARQL, queriesService.getAskResourceQuery(providerGraph, authorNativeResource));
 
-                            String InsertQueryOneOf = buildInsertQuery(providerGraph, authorNativeResource, OWL.ONE_OF, authorResource);
-                            updatePub(InsertQueryOneOf);
+                            tripleWriter.add(providerGraph, authorNativeResource, OWL.ONE_OF, authorResource);
 
                             if (existNativeAuthor) {
-                                String sameAsInsertQuery = buildInsertQuery(providerGraph, authorResource, "http://www.w3.org/2002/07/owl#sameAs", authorNativeResource);
-                                updatePub(sameAsInsertQuery);
+                                tripleWriter.add(providerGraph, authorResource, "http://www.w3.org/2002/07/owl#sameAs", authorNativeResource);
                             }
 
                             if (!existNativeAuthor) {
@@ -363,12 +335,10 @@ public class MicrosoftAcadProviderServiceImpl implements MicrosoftAcadProviderSe
                                     String publicationResource = tripletsResource.getValue("object").toString();
                                     //String publicationProperty = tripletsResource.getValue("publicationProperty").toString();
                                     ///insert sparql query, 
-                                    String publicationInsertQuery = buildInsertQuery(providerGraph, authorNativeResource, "http://xmlns.com/foaf/0.1/publications", publicationResource);
-                                    updatePub(publicationInsertQuery);
+                                    tripleWriter.add(providerGraph, authorNativeResource, "http://xmlns.com/foaf/0.1/publications", publicationResource);
 
                                     // sameAs triplet    <http://190.15.141.102:8080/dspace/contribuidor/autor/SaquicelaGalarza_VictorHugo> owl:sameAs <http://dblp.org/pers/xr/s/Saquicela:Victor> 
-                                    String sameAsInsertQuery = buildInsertQuery(providerGraph, authorResource, "http://www.w3.org/2002/07/owl#sameAs", authorNativeResource);
-                                    updatePub(sameAsInsertQuery);
+                                    tripleWriter.add(providerGraph, authorResource, "http://www.w3.org/2002/07/owl#sameAs", authorNativeResource);
 
                                 }
 
@@ -382,9 +352,8 @@ public class MicrosoftAcadProviderServiceImpl implements MicrosoftAcadProviderSe
                                     String publicationProperties = tripletsResource.getValue("publicationProperties").toString();
                                     String publicationPropertiesValue = tripletsResource.getValue("publicationPropertiesValue").toString();
                                     ///insert sparql query, 
-                                    String publicationPropertiesInsertQuery = buildInsertQuery(providerGraph, publicationResource, publicationProperties, publicationPropertiesValue);
                                     //load values publications to publications resource
-                                    updatePub(publicationPropertiesInsertQuery);
+                                    tripleWriter.add(providerGraph, publicationResource, publicationProperties, publicationPropertiesValue);
                                 }
 
                             }//end if numMembers=1
@@ -402,6 +371,8 @@ public class MicrosoftAcadProviderServiceImpl implements MicrosoftAcadProviderSe
             return "True for publications";
         } catch (MarmottaException ex) {
             log.error("Marmotta Exception: " + ex);
+        } finally {
+            tripleWriter.flush();
         }
 
         return "fail";
@@ -409,12 +380,11 @@ public class MicrosoftAcadProviderServiceImpl implements MicrosoftAcadProviderSe
 
     @Override
     public String runTitleProviderTaskImpl() {
+        BatchedTripleWriter tripleWriter = BatchedTripleWriter.create(sparqlFunctionsService, queriesService, commonsServices);
         try {
 
             //new AuthorVersioningJob(log).proveSomething();
-            ClientConfiguration conf = new ClientConfiguration();
-            //conf.addEndpoint(new DBLPEndpoint());
-            LDClient ldClient = new LDClient(conf);
+            LDClient ldClient = ldClientPool.getClient(LDClientPool.MICROSOFT_ACADEMICS);
 
             int allMembers = 0;
             String getAllTitlesDataQuery = queriesService.getAllTitlesDataQuery(constantService.getWkhuskaGraph());
@@ -430,32 +400,8 @@ public class MicrosoftAcadProviderServiceImpl implements MicrosoftAcadProviderSe
             RepositoryConnection conUri = null;
             ClientResponse response = null;
 
-            Properties propiedades = new Properties();
-            InputStream entrada = null;
-            Map<String, String> mapping = new HashMap<String, String>();
-            try {
-                ClassLoader classLoader = getClass().getClassLoader();
-                entrada = classLoader.getResourceAsStream("updatePlatformProcessConfig.properties");
-                propiedades.load(entrada);
-                for (String source : propiedades.stringPropertyNames()) {
-                    String target = propiedades.getProperty(source);
-                    mapping.put(source, target);
-
-                }
-            } catch (IOException ex) {
-                ex.printStackTrace();
-            } catch (Exception ex) {
-                ex.printStackTrace();
-            } finally {
-                if (entrada != null) {
-                    try {
-                        entrada.close();
-                    } catch (IOException e) {
-                        e.printStackTrace();
-                    }
-                }
-            }
-            boolean proccesAllTitles = Boolean.parseBoolean(mapping.get("proccesAllAuthors").toString());
+            ConfigurationSnapshot configuration = ConfigurationSnapshot.current();
+            boolean proccesAllTitles = configuration.isProcessAllAuthors();
 
             for (Map<String, Value> map : resultAllTitles) {
                 processedTitles++;
@@ -527,8 +473,7 @@ public class MicrosoftAcadProviderServiceImpl implements MicrosoftAcadProviderSe
                                     BindingSet tripletsResource = tripletasResult.next();
                                     String abstractLiteral = tripletsResource.getValue("object").toString();
                                     // insert sparql query, 
-                                    String abstractInsertQuery = buildInsertQuery(constantService.getWkhuskaGraph(), publicationResource, "bibo:abstract", abstractLiteral);
-                                    updatePub(abstractInsertQuery);
+                                    tripleWriter.add(constantService.getWkhuskaGraph(), publicationResource, "bibo:abstract", abstractLiteral);
                                 }
                                 // SPARQL to Retrieve and Insert keywords ( bibo:Quote) from MA
                                 String getKeywordsQuery = queriesService.getObjectByPropertyQuery(publicationNativeResource, "bibo:Quote");
@@ -538,8 +483,7 @@ public class MicrosoftAcadProviderServiceImpl implements MicrosoftAcadProviderSe
                                     BindingSet keywordsBs = keywordsResult.next();
                                     String keywordLiteral = keywordsBs.getValue("object").toString();
                                     // insert sparql query, 
-                                    String keywordInsertQuery = buildInsertQuery(constantService.getWkhuskaGraph(), publicationResource, "bibo:Quote", keywordLiteral);
-                                    updatePub(keywordInsertQuery);
+                                    tripleWriter.add(constantService.getWkhuskaGraph(), publicationResource, "bibo:Quote", keywordLiteral);
                                 }
                             }//end if numMembers=1
                             else if (allMembers > 1) {
@@ -565,8 +509,7 @@ public class MicrosoftAcadProviderServiceImpl implements MicrosoftAcadProviderSe
                                             BindingSet tripletsResource = tripletasResult.next();
                                             String abstractLiteral = tripletsResource.getValue("object").toString();
                                             // insert sparql query, 
-                                            String abstractInsertQuery = buildInsertQuery(constantService.getWkhuskaGraph(), publicationResource, "bibo:abstract", abstractLiteral);
-                                            updatePub(abstractInsertQuery);
+                                            tripleWriter.add(constantService.getWkhuskaGraph(), publicationResource, "bibo:abstract", abstractLiteral);
                                         }
                                         // SPARQL to Retrieve and Insert keywords ( bibo:Quote) from MA
                                         String getKeywordsQuery = queriesService.getObjectByPropertyQuery(publicationNativeResource, "bibo:Quote");
@@ -576,8 +519,7 @@ public class MicrosoftAcadProviderServiceImpl implements MicrosoftAcadProviderSe
                                             BindingSet keywordsBs = keywordsResult.next();
                                             String keywordLiteral = keywordsBs.getValue("object").toString();
                                             // insert sparql query, 
-                                            String keywordInsertQuery = buildInsertQuery(constantService.getWkhuskaGraph(), publicationResource, "bibo:Quote", keywordLiteral);
-                                            updatePub(keywordInsertQuery);
+                                            tripleWriter.add(constantService.getWkhuskaGraph(), publicationResource, "bibo:Quote", keywordLiteral);
                                         }
                                         break;
                                     }
@@ -600,6 +542,8 @@ public class MicrosoftAcadProviderServiceImpl implements MicrosoftAcadProviderSe
             return "True for enrichment with Microsoft Academics";
         } catch (MarmottaException ex) {
             log.error("Marmotta Exception: " + ex);
+        } finally {
+            tripleWriter.flush();
         }
         return "fail";
     }
@@ -0,0 +1,216 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.pubman.services;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import org.apache.marmotta.ucuenca.wk.commons.function.ConfigurationSnapshot;
+import org.openrdf.model.URI;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.slf4j.Logger;
+
+/**
+ * Mappings of the properties of the providers ( DBLPRawProvider.properties,
+ * ScopusProvider.properties, ... ) to the properties of the central graph.
+ *
+ * All the mapping files of the module are read the first time the registry is
+ * used, the properties that are URIs are kept as URI objects so the mapping of
+ * a property of a provider graph is a lookup without building strings. The
+ * mappings are read again when the configuration snapshot is replaced ( by
+ * reload() or by the watcher of the configuration files ).
+ */
+@ApplicationScoped
+public class ProviderMappingRegistry {
+
+    /* properties files of the module that are not mappings of providers */
+    private static final Set<String> CONFIGURATION_FILES = new HashSet<>(Arrays.asList(
+            "config-defaults", "config-descriptions", "kiwi-module", "seachProperties", "updatePlatformProcessConfig"));
+
+    @Inject
+    private Logger log;
+
+    private final Map<String, Mapping> mappings = new ConcurrentHashMap<>();
+
+    /* snapshot of the loaded mappings, null before the first use */
+    private volatile ConfigurationSnapshot snapshot;
+
+    /**
+     * Mapping of a provider, the name is the local name of the provider graph
+     * or the name of the endpoint without spaces
+     *
+     * @param provider
+     * @return
+     */
+    public Mapping getMapping(String provider) {
+        ConfigurationSnapshot current = ConfigurationSnapshot.current();
+        if (current != snapshot) {
+            loadAll(current);
+        }
+        Mapping mapping = mappings.get(provider);
+        if (mapping == null) {
+            mapping = new Mapping(current.getProviderMapping(provider));
+            mappings.put(provider, mapping);
+        }
+        return mapping;
+    }
+
+    /**
+     * Read again all the mapping files
+     */
+    public synchronized void reload() {
+        loadAll(ConfigurationSnapshot.reload());
+    }
+
+    /**
+     * Stop the watcher of the configuration files when the application stops
+     */
+    @PreDestroy
+    public void shutdown() {
+        ConfigurationSnapshot.stopWatcher();
+    }
+
+    private synchronized void loadAll(ConfigurationSnapshot current) {
+        if (current == snapshot) {
+            return;
+        }
+        mappings.clear();
+        for (String provider : findMappingFiles()) {
+            mappings.put(provider, new Mapping(current.getProviderMapping(provider)));
+        }
+        snapshot = current;
+        log.info("Provider mappings loaded: " + mappings.keySet());
+    }
+
+    /* names of the properties files next to updatePlatformProcessConfig.properties, in a directory or in the jar of the module */
+    private Set<String> findMappingFiles() {
+        Set<String> providers = new HashSet<>();
+        URL url = getClass().getClassLoader().getResource(ConfigurationSnapshot.PLATFORM);
+        if (url == null) {
+            return providers;
+        }
+        try {
+            if ("file".equals(url.getProtocol())) {
+                File[] files = new File(url.toURI()).getParentFile().listFiles();
+                if (files != null) {
+                    for (File file : files) {
+                        addProvider(providers, file.getName());
+                    }
+                }
+            } else if ("jar".equals(url.getProtocol())) {
+                JarURLConnection connection = (JarURLConnection) url.openConnection();
+                connection.setUseCaches(false);
+                try (JarFile jar = connection.getJarFile()) {
+                    Enumeration<JarEntry> entries = jar.entries();
+                    while (entries.hasMoreElements()) {
+                        String name = entries.nextElement().getName();
+                        if (!name.contains("/")) {
+                            addProvider(providers, name);
+                        }
+                    }
+                }
+            }
+        } catch (IOException | URISyntaxException ex) {
+            log.error("Provider mapping files not found, they are read when they are used: " + ex);
+        }
+        return providers;
+    }
+
+    private void addProvider(Set<String> providers, String fileName) {
+        if (fileName.endsWith(".properties")) {
+            String provider = fileName.substring(0, fileName.length() - ".properties".length());
+            if (!CONFIGURATION_FILES.contains(provider)) {
+                providers.add(provider);
+            }
+        }
+    }
+
+    /**
+     * Mapping of the properties of one provider
+     */
+    public static class Mapping {
+
+        private final Map<String, String> properties;
+
+        private final Map<URI, URI> uris;
+
+        private String titleSource = "";
+
+        private String titleTarget = "";
+
+        Mapping(Map<String, String> properties) {
+            this.properties = properties;
+            ValueFactory factory = ValueFactoryImpl.getInstance();
+            Map<URI, URI> uriMappings = new HashMap<>();
+            for (Map.Entry<String, String> property : properties.entrySet()) {
+                if (property.getValue().contains("title")) {
+                    titleSource = property.getKey();
+                    titleTarget = property.getValue();
+                }
+                if (isURI(property.getKey()) && isURI(property.getValue())) {
+                    uriMappings.put(factory.createURI(property.getKey()), factory.createURI(property.getValue()));
+                }
+            }
+            uris = Collections.unmodifiableMap(uriMappings);
+        }
+
+        /**
+         * Property of the central graph for a property of the provider, null
+         * when the property is not mapped
+         *
+         * @param nativeProperty
+         * @return
+         */
+        public URI map(URI nativeProperty) {
+            return uris.get(nativeProperty);
+        }
+
+        /**
+         * Value of the mapping file for a key ( URI or name like title )
+         *
+         * @param key
+         * @return
+         */
+        public String get(String key) {
+            return properties.get(key);
+        }
+
+        public Map<String, String> getProperties() {
+            return properties;
+        }
+
+        /* property of the title in the provider graph */
+        public String getTitleSource() {
+            return titleSource;
+        }
+
+        /* property of the title in the central graph */
+        public String getTitleTarget() {
+            return titleTarget;
+        }
+
+        private static boolean isURI(String value) {
+            return value.startsWith("http://") || value.startsWith("https://");
+        }
+    }
+
+}
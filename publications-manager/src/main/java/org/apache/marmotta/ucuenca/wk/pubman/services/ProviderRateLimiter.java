@@ -0,0 +1,113 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.pubman.services;
+
+import java.util.concurrent.Semaphore;
+import org.apache.marmotta.ucuenca.wk.commons.function.ConfigurationSnapshot;
+
+/**
+ * Politeness of the requests to a provider: a token bucket of
+ * requestsPerSecond tokens ( with a burst of one second ) and a maximum of
+ * maxInFlight requests at the same time.
+ *
+ * Each request to the provider is between {@link #acquire()} and
+ * {@link #release()}, the threads wait here instead of sleeping a fixed time
+ * between requests.
+ */
+public class ProviderRateLimiter {
+
+    private final double requestsPerSecond;
+
+    private final int maxInFlight;
+
+    private final double capacity;
+
+    private final Semaphore inFlight;
+
+    private double tokens;
+
+    private long lastRefill = System.nanoTime();
+
+    /**
+     * @param requestsPerSecond tokens per second, 0 or less is without limit
+     * @param maxInFlight requests at the same time
+     */
+    public ProviderRateLimiter(double requestsPerSecond, int maxInFlight) {
+        this.requestsPerSecond = requestsPerSecond;
+        this.maxInFlight = maxInFlight > 0 ? maxInFlight : 1;
+        this.capacity = Math.max(1, Math.ceil(requestsPerSecond));
+        this.tokens = capacity;
+        this.inFlight = new Semaphore(this.maxInFlight, true);
+    }
+
+    /**
+     * Limiter of the provider with requestsPerSecond.provider and
+     * maxInFlight.provider of updatePlatformProcessConfig.properties
+     *
+     * @param provider name of the provider without spaces ( DBLP, SCOPUS,
+     * GoogleScholar, ... )
+     * @param requestsPerSecond default value
+     * @param maxInFlight default value
+     * @return
+     */
+    public static ProviderRateLimiter fromConfiguration(String provider, double requestsPerSecond, int maxInFlight) {
+        ConfigurationSnapshot configuration = ConfigurationSnapshot.current();
+        return new ProviderRateLimiter(
+                configuration.getDouble(ConfigurationSnapshot.PLATFORM, "requestsPerSecond." + provider, requestsPerSecond),
+                configuration.getInt(ConfigurationSnapshot.PLATFORM, "maxInFlight." + provider, maxInFlight));
+    }
+
+    /**
+     * Wait for a free request and a token
+     *
+     * @throws InterruptedException
+     */
+    public void acquire() throws InterruptedException {
+        inFlight.acquire();
+        try {
+            takeToken();
+        } catch (InterruptedException ex) {
+            inFlight.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * End of a request started with {@link #acquire()}
+     */
+    public void release() {
+        inFlight.release();
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public double getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    private void takeToken() throws InterruptedException {
+        if (requestsPerSecond <= 0) {
+            return;
+        }
+        while (true) {
+            long wait;
+            synchronized (this) {
+                long now = System.nanoTime();
+                tokens = Math.min(capacity, tokens + (now - lastRefill) * requestsPerSecond / 1e9);
+                lastRefill = now;
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return;
+                }
+                wait = (long) Math.ceil((1 - tokens) * 1000 / requestsPerSecond);
+            }
+            Thread.sleep(Math.max(1, wait));
+        }
+    }
+
+}
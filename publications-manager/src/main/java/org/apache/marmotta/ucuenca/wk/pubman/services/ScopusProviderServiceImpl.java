@@ -21,14 +21,10 @@ import com.google.gson.JsonArray;
 import java.io.BufferedReader;
 import java.io.FileReader;
 //import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.InputStream;
 import java.io.PrintWriter;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Properties;
 import java.util.logging.Level;
 import org.slf4j.Logger;
 
@@ -36,12 +32,12 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import org.apache.marmotta.commons.sesame.model.ModelCommons;
 import org.apache.marmotta.ldclient.exception.DataRetrievalException;
-import org.apache.marmotta.ldclient.model.ClientConfiguration;
 import org.apache.marmotta.ldclient.model.ClientResponse;
 import org.apache.marmotta.ldclient.services.ldclient.LDClient;
 import org.apache.marmotta.platform.core.exception.MarmottaException;
 import org.apache.marmotta.platform.sparql.api.sparql.SparqlService;
 import org.apache.marmotta.ucuenca.wk.commons.impl.ConstantServiceImpl;
+import org.apache.marmotta.ucuenca.wk.commons.function.ConfigurationSnapshot;
 import org.apache.marmotta.ucuenca.wk.commons.service.DistanceService;
 import org.apache.marmotta.ucuenca.wk.commons.service.ConstantService;
 import org.apache.marmotta.ucuenca.wk.commons.service.QueriesService;
@@ -105,6 +101,12 @@ public class ScopusProviderServiceImpl implements ScopusProviderService, Runnabl
     @Inject
     private SparqlFunctionsService sparqlFunctionsService;
 
+    @Inject
+    private HarvestEngine harvestEngine;
+
+    @Inject
+    private LDClientPool ldClientPool;
+
     private int processpercent = 0;
 
     private String URLSEARCHSCOPUS = "http://api.elsevier.com/content/search/author?query=authfirst%28FIRSTNAME%29authlast%28LASTNAME%29+AND+affil%28PAIS%29&apiKey=a3b64e9d82a8f7b14967b9b9ce8d513d&httpAccept=application/xml";
@@ -123,12 +125,7 @@ public class ScopusProviderServiceImpl implements ScopusProviderService, Runnabl
     public String runPublicationsProviderTaskImpl(String param) {
         try {
 
-            ClientConfiguration conf = new ClientConfiguration();
-            LDClient ldClient = new LDClient(conf);
-            int membersSearchResult = 0;
-            String nameToFind = "";
-            String authorResource = "";
-            int priorityToFind = 0;
+            final LDClient ldClient = ldClientPool.getClient(LDClientPool.SCOPUS);
 
             //Get names of universities from endpoints in Spanish and English
             String getEndpointsQuery = queriesService.getlistEndpointNamesQuery();
@@ -136,296 +133,291 @@ public class ScopusProviderServiceImpl implements ScopusProviderService, Runnabl
             
             List<Map<String, Value>> resultAllAuthors = getauthorsData.getListOfAuthors();
 
-            /*To Obtain Processed Percent*/
-            int allPersons = resultAllAuthors.size();
-            int processedPersons = 0;
+            ConfigurationSnapshot configuration = ConfigurationSnapshot.current();
+            final boolean proccesAllAuthors = configuration.isProcessAllAuthors();
+            final boolean semanticAnalizer = configuration.isSemanticAnalizer();
 
-            RepositoryConnection conUri = null;
-            ClientResponse response = null;
+            harvestEngine.run("SCOPUS", ProviderRateLimiter.fromConfiguration("SCOPUS", 4, 4), resultAllAuthors, new HarvestEngine.AuthorTask() {
+                @Override
+                public boolean harvest(Map<String, Value> author, ProviderRateLimiter limiter) throws Exception {
+                    return harvestAuthor(author, limiter, ldClient, proccesAllAuthors, semanticAnalizer);
+                }
+            });
+            return "True for publications";
+        } catch (Exception ex) {
+            log.error("Exception: " + ex);
+        }
+        return "fail";
+    }
 
-            Properties propiedades = new Properties();
-            InputStream entrada = null;
-            Map<String, String> mapping = new HashMap<String, String>();
+    /*
+     * Search of one author in Scopus, the requests to Scopus go through the
+     * limiter
+     */
+    private boolean harvestAuthor(Map<String, Value> map, ProviderRateLimiter limiter, LDClient ldClient,
+            boolean proccesAllAuthors, boolean semanticAnalizer) throws InterruptedException {
+        BatchedTripleWriter tripleWriter = BatchedTripleWriter.create(sparqlFunctionsService, queriesService, commonsServices);
+        RepositoryConnection conUri = null;
+        ClientResponse response = null;
+        int membersSearchResult = 0;
+        String nameToFind = "";
+        String authorResource = map.get("subject").stringValue();
+        String firstName = map.get("fname").stringValue();
+        String lastName = map.get("lname").stringValue();
+        boolean harvested = true;
+        boolean retrievalFailed = false;
+        boolean ask = false;
+        //the authors of the checkpoint journal never get here, the ASK is only for the authors harvested before the journal
+        if (!proccesAllAuthors) {
+            String askTripletQuery = queriesService.getAskProcessAlreadyAuthorProvider(constantService.getScopusGraph(), authorResource);
             try {
-                ClassLoader classLoader = getClass().getClassLoader();
-                entrada = classLoader.getResourceAsStream("updatePlatformProcessConfig.properties");
-                propiedades.load(entrada);
-                for (String source : propiedades.stringPropertyNames()) {
-                    String target = propiedades.getProperty(source);
-                    mapping.put(source, target);
 
+                ask = sparqlService.ask(QueryLanguage.SPARQL, askTripletQuery);
+                if (ask) {
+                    return true;
                 }
-            } catch (IOException ex) {
-                ex.printStackTrace();
             } catch (Exception ex) {
-                ex.printStackTrace();
-            } finally {
-                if (entrada != null) {
-                    try {
-                        entrada.close();
-                    } catch (IOException e) {
-                        e.printStackTrace();
-                    }
-                }
+                log.error("Marmotta Exception:  " + askTripletQuery);
             }
-
-            boolean proccesAllAuthors = Boolean.parseBoolean(mapping.get("proccesAllAuthors").toString());
-            boolean semanticAnalizer = Boolean.parseBoolean(mapping.get("semanticAnalizer").toString());
-
-            for (Map<String, Value> map : resultAllAuthors) {
-                processedPersons++;
-                log.info("Autores procesados con Scopus: " + processedPersons + " de " + allPersons);
-                authorResource = map.get("subject").stringValue();
-                String firstName = map.get("fname").stringValue();
-                String lastName = map.get("lname").stringValue();
-                boolean ask = false;
-                if (!proccesAllAuthors) {
-                    String askTripletQuery = queriesService.getAskProcessAlreadyAuthorProvider(constantService.getScopusGraph(), authorResource);
-                    try {
-
-                        ask = sparqlService.ask(QueryLanguage.SPARQL, askTripletQuery);
-                        if (ask) {
-                            continue;
-                        }
-                    } catch (Exception ex) {
-                        log.error("Marmotta Exception:  " + askTripletQuery);
-                    }
-                }
-                priorityToFind = 1;
+        }
+        try {
+            List<String> uri_search = new ArrayList<>();
+            membersSearchResult = 0;
+            String authorNativeResource = null;
+            String firstNameSearch = firstName.split(" ").length > 1 ? firstName.split(" ")[0] : firstName;
+            String lastNameSearch = lastName.split(" ").length > 1 ? lastName.split(" ")[0] : lastName;
+            String lastNameSearch2 = lastName.split(" ").length > 1 ? lastName.split(" ")[1] : "";
+            uri_search.add(URLSEARCHSCOPUS.replace("FIRSTNAME", firstNameSearch.length() > 0 ? firstNameSearch : firstName).replace("LASTNAME", lastNameSearch.length() > 0 ? lastNameSearch : lastName).replace("AFFILIATION", AFFILIATIONPARAM).replace("PAIS", "Ecuador"));
+            uri_search.add(URLSEARCHSCOPUS.replace("FIRSTNAME", firstNameSearch.length() > 0 ? firstNameSearch : firstName).replace("LASTNAME", lastNameSearch.length() > 1 ? lastNameSearch + "%20" + lastNameSearch2 : lastName).replace("AFFILIATION", ""));
+            uri_search.add(URLSEARCHSCOPUS.replace("FIRSTNAME", firstNameSearch.length() > 0 ? firstNameSearch : firstName).replace("LASTNAME", lastNameSearch.length() > 0 ? lastNameSearch : lastName).replace("AFFILIATION", ""));
+            String scopusfirstName = "";
+            String scopuslastName = "";
+            String scopusAuthorUri = "";
+            String providerGraph = "";
+            List <String> scopusAffiliation = new ArrayList();
+            Boolean testAffiliation = true;
+
+            for (String uri_searchIterator : uri_search) {
                 try {
-                    List<String> uri_search = new ArrayList<>();
+                    boolean existNativeAuthor = false;
+                    nameToFind = uri_searchIterator;
+//                            nameToFind = URLSEARCHSCOPUS.replace("FIRSTNAME", "Mauricio").replace("LASTNAME", "Espinoza").replace("PAIS", "all");
                     membersSearchResult = 0;
-                    String authorNativeResource = null;
-                    String firstNameSearch = firstName.split(" ").length > 1 ? firstName.split(" ")[0] : firstName;
-                    String lastNameSearch = lastName.split(" ").length > 1 ? lastName.split(" ")[0] : lastName;
-                    String lastNameSearch2 = lastName.split(" ").length > 1 ? lastName.split(" ")[1] : "";
-                    uri_search.add(URLSEARCHSCOPUS.replace("FIRSTNAME", firstNameSearch.length() > 0 ? firstNameSearch : firstName).replace("LASTNAME", lastNameSearch.length() > 0 ? lastNameSearch : lastName).replace("AFFILIATION", AFFILIATIONPARAM).replace("PAIS", "Ecuador"));
-                    uri_search.add(URLSEARCHSCOPUS.replace("FIRSTNAME", firstNameSearch.length() > 0 ? firstNameSearch : firstName).replace("LASTNAME", lastNameSearch.length() > 1 ? lastNameSearch + "%20" + lastNameSearch2 : lastName).replace("AFFILIATION", ""));
-                    uri_search.add(URLSEARCHSCOPUS.replace("FIRSTNAME", firstNameSearch.length() > 0 ? firstNameSearch : firstName).replace("LASTNAME", lastNameSearch.length() > 0 ? lastNameSearch : lastName).replace("AFFILIATION", ""));
-                    String scopusfirstName = "";
-                    String scopuslastName = "";
-                    String scopusAuthorUri = "";
-                    String providerGraph = "";
-                    List <String> scopusAffiliation = new ArrayList();
-                    Boolean testAffiliation = true;
-                    
-                    for (String uri_searchIterator : uri_search) {
+
+                    if (!proccesAllAuthors) {
+                        existNativeAuthor = sparqlService.ask(QueryLanguage.SPARQL, queriesService.getAskResourceQuery(constantService.getScopusGraph(), nameToFind.replace(" ", "")));
+                    }
+                    if ((nameToFind.compareTo("") != 0) && !existNativeAuthor) {
+                        limiter.acquire();
                         try {
-                            boolean existNativeAuthor = false;
-                            nameToFind = uri_searchIterator;
-//                            nameToFind = URLSEARCHSCOPUS.replace("FIRSTNAME", "Mauricio").replace("LASTNAME", "Espinoza").replace("PAIS", "all");
-                            membersSearchResult = 0;
+                            response = ldClient.retrieveResource(nameToFind);
+                        } finally {
+                            limiter.release();
+                        }
 
-                            if (!proccesAllAuthors) {
-                                existNativeAuthor = sparqlService.ask(QueryLanguage.SPARQL, queriesService.getAskResourceQuery(constantService.getScopusGraph(), nameToFind.replace(" ", "")));
-                            }
-                            if ((nameToFind.compareTo("") != 0) && !existNativeAuthor) {
-                                response = ldClient.retrieveResource(nameToFind);
-
-                                /**
-                                 * Se inserta la tripleta que muestra el intento
-                                 * de búsqueda (Esta tripleta NO ofrece sentido
-                                 * semantico). Aqui porque el intento debe ser
-                                 * plasmado cuando el proveedor no de error al
-                                 * buscar el recurso.
-                                 */
-                                String nameEndpointofPublications = ldClient.getEndpoint(URLSEARCHSCOPUS + nameToFind).getName();
-                                providerGraph = constantService.getProviderNsGraph() + "/" + nameEndpointofPublications.replace(" ", "");
-                                String InsertQueryOneOf = buildInsertQuery(providerGraph, nameToFind.replace(" ", ""), OWL.ONE_OF, authorResource);
-                                updatePub(InsertQueryOneOf);
-                            } else {
-                                continue;
-                            }
-                            String getMembersQuery = queriesService.getObjectByPropertyQuery("foaf:member");
-                            conUri = ModelCommons.asRepository(response.getData()).getConnection();
-                            conUri.begin();
-                            TupleQueryResult membersResult = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getMembersQuery).evaluate();
-
-                            while (membersResult.hasNext()) {
-                                BindingSet bindingname = membersResult.next();
-                                scopusAuthorUri = bindingname.getValue("object").toString();
-                                membersSearchResult++;
-                            }
-                            if (membersSearchResult == 1) {
-                                /**
-                                 * Getting contributor name to compare using
-                                 * comparisonNames.syntacticComparison function
-                                 * - move this query to Queries Service
-                                 */
-                                String getScopusAuthorName = "SELECT ?firstName ?lastName "
-                                        + " WHERE { "
-                                        + " <" + scopusAuthorUri + ">  <http://www.elsevier.com/xml/svapi/rdf/dtd/givenName> ?firstName. "
-                                        + " <" + scopusAuthorUri + ">  <http://www.elsevier.com/xml/svapi/rdf/dtd/surname> ?lastName. "
-                                        + " }";
-                                TupleQueryResult nameResult = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getScopusAuthorName).evaluate();
-                                while (nameResult.hasNext()) {
-                                    BindingSet binding = nameResult.next();
-                                    scopusfirstName = binding.getValue("firstName").stringValue();
-                                    scopuslastName = binding.getValue("lastName").stringValue();
-                                }
-                                //(Jose Luis) Test the affiliation of the researcher
-                                String getScopusAffiliation = "SELECT ?affiliation "
-                                        + " WHERE { "
-                                        + " <" + scopusAuthorUri + "> <http://www.elsevier.com/xml/svapi/rdf/dtd/affiliation> ?uriAffi. "
-                                        + " ?uriAffi <http://www.w3.org/2004/02/skos/core#prefLabel> ?affiliation "
-                                        + " }";
-                                TupleQueryResult affiResult = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getScopusAffiliation).evaluate();
-                                String affiliation = "";
-                                testAffiliation = true;
-                                while (affiResult.hasNext()) {
-                                    BindingSet binding = affiResult.next();
-                                    affiliation = binding.getValue("affiliation").stringValue();
-                                    scopusAffiliation.add(affiliation);
-                                    testAffiliation = testAffiliation(affiliation);
-                                    if(testAffiliation) break;    
-                                }
-                                break;
-                            }
-                            if (response.getHttpStatus() == 503 || membersSearchResult != 1) {
-                                log.error("Error de getStatus o Error de mas de un author como resultado de " + nameToFind);
-                                continue;
-                            }
-                        } catch (DataRetrievalException e) {
-                            log.error("Data Retrieval Exception: " + e);
+                        /**
+                         * Se inserta la tripleta que muestra el intento
+                         * de búsqueda (Esta tripleta NO ofrece sentido
+                         * semantico). Aqui porque el intento debe ser
+                         * plasmado cuando el proveedor no de error al
+                         * buscar el recurso.
+                         */
+                        String nameEndpointofPublications = ldClient.getEndpoint(URLSEARCHSCOPUS + nameToFind).getName();
+                        providerGraph = constantService.getProviderNsGraph() + "/" + nameEndpointofPublications.replace(" ", "");
+                        tripleWriter.add(providerGraph, nameToFind.replace(" ", ""), OWL.ONE_OF, authorResource);
+                    } else {
+                        continue;
+                    }
+                    String getMembersQuery = queriesService.getObjectByPropertyQuery("foaf:member");
+                    conUri = ModelCommons.asRepository(response.getData()).getConnection();
+                    conUri.begin();
+                    TupleQueryResult membersResult = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getMembersQuery).evaluate();
+
+                    while (membersResult.hasNext()) {
+                        BindingSet bindingname = membersResult.next();
+                        scopusAuthorUri = bindingname.getValue("object").toString();
+                        membersSearchResult++;
+                    }
+                    if (membersSearchResult == 1) {
+                        /**
+                         * Getting contributor name to compare using
+                         * comparisonNames.syntacticComparison function
+                         * - move this query to Queries Service
+                         */
+                        String getScopusAuthorName = "SELECT ?firstName ?lastName "
+                                + " WHERE { "
+                                + " <" + scopusAuthorUri + ">  <http://www.elsevier.com/xml/svapi/rdf/dtd/givenName> ?firstName. "
+                                + " <" + scopusAuthorUri + ">  <http://www.elsevier.com/xml/svapi/rdf/dtd/surname> ?lastName. "
+                                + " }";
+                        TupleQueryResult nameResult = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getScopusAuthorName).evaluate();
+                        while (nameResult.hasNext()) {
+                            BindingSet binding = nameResult.next();
+                            scopusfirstName = binding.getValue("firstName").stringValue();
+                            scopuslastName = binding.getValue("lastName").stringValue();
+                        }
+                        //(Jose Luis) Test the affiliation of the researcher
+                        String getScopusAffiliation = "SELECT ?affiliation "
+                                + " WHERE { "
+                                + " <" + scopusAuthorUri + "> <http://www.elsevier.com/xml/svapi/rdf/dtd/affiliation> ?uriAffi. "
+                                + " ?uriAffi <http://www.w3.org/2004/02/skos/core#prefLabel> ?affiliation "
+                                + " }";
+                        TupleQueryResult affiResult = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getScopusAffiliation).evaluate();
+                        String affiliation = "";
+                        testAffiliation = true;
+                        while (affiResult.hasNext()) {
+                            BindingSet binding = affiResult.next();
+                            affiliation = binding.getValue("affiliation").stringValue();
+                            scopusAffiliation.add(affiliation);
+                            testAffiliation = testAffiliation(affiliation);
+                            if(testAffiliation) break;    
                         }
+                        break;
+                    }
+                    if (response.getHttpStatus() == 503) {
+                        log.error("ErrorCode: " + response.getHttpStatus() + " de " + nameToFind);
+                        retrievalFailed = true;
+                        continue;
+                    }
+                    if (membersSearchResult != 1) {
+                        log.error("Error de mas de un author como resultado de " + nameToFind);
+                        continue;
                     }
-                    
-                    String scopusfullname = scopuslastName + ":" + scopusfirstName;
-                    String localfullname = lastName + ":" + firstName;
+                } catch (DataRetrievalException e) {
+                    log.error("Data Retrieval Exception: " + e);
+                    retrievalFailed = true;
+                }
+            }
+            //no search could be retrieved, the author is searched again in the next harvest
+            if (retrievalFailed && membersSearchResult != 1) {
+                harvested = false;
+            }
+
+            String scopusfullname = scopuslastName + ":" + scopusfirstName;
+            String localfullname = lastName + ":" + firstName;
 
 //                    if (localfullname.toUpperCase().contains("PIEDRA")) {
 //                        localfullname = localfullname.replace(".", "");
 //                    }
-                    if (membersSearchResult == 1 //&& testAffiliation && distance.syntacticComparisonNames("local", localfullname, "scopus", scopusfullname)
-                    ) {
-
-                        List<String> listA = kservice.getKeywordsOfAuthor(authorResource);//dspace
-                        List<String> listB = new ArrayList<String>();//desde la fuente de pub
-                        String getPublicationsAndTitleFromProviderQuery = queriesService.getSubjectAndObjectByPropertyQuery("dc:title");
-                        TupleQuery abstracttitlequery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getPublicationsAndTitleFromProviderQuery); //
-                        TupleQueryResult abstractResult = abstracttitlequery.evaluate();
-
-                        while (abstractResult.hasNext()) {
-                            BindingSet abstractResource = abstractResult.next();
-                            // String abstracttext = abstractResource.getValue("abstract").toString();
-                            String publication = abstractResource.getValue("subject").toString();
-
-                            String titletext = abstractResource.getValue("object").toString();
-                            listB = kservice.getKeywords(titletext);
-                            int cero = 0;
-                            if (semanticAnalizer && listB.size() != cero && listA.size() != cero && distance.semanticComparison(listA, listB)) {
-
-                                String getPublicationsFromProviderQuery = queriesService.getPublicationsPropertiesQuery(publication);
-                                TupleQuery pubquery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getPublicationsFromProviderQuery); //
-                                TupleQueryResult tripletasResult = pubquery.evaluate();
-
-                                while (tripletasResult.hasNext()) {
-                                    try {
-                                        BindingSet tripletsResource = tripletasResult.next();
+            if (membersSearchResult == 1 //&& testAffiliation && distance.syntacticComparisonNames("local", localfullname, "scopus", scopusfullname)
+            ) {
+
+                List<String> listA = kservice.getKeywordsOfAuthor(authorResource);//dspace
+                List<String> listB = new ArrayList<String>();//desde la fuente de pub
+                String getPublicationsAndTitleFromProviderQuery = queriesService.getSubjectAndObjectByPropertyQuery("dc:title");
+                TupleQuery abstracttitlequery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getPublicationsAndTitleFromProviderQuery); //
+                TupleQueryResult abstractResult = abstracttitlequery.evaluate();
+
+                while (abstractResult.hasNext()) {
+                    BindingSet abstractResource = abstractResult.next();
+                    // String abstracttext = abstractResource.getValue("abstract").toString();
+                    String publication = abstractResource.getValue("subject").toString();
+
+                    String titletext = abstractResource.getValue("object").toString();
+                    listB = kservice.getKeywords(titletext);
+                    int cero = 0;
+                    if (semanticAnalizer && listB.size() != cero && listA.size() != cero && distance.semanticComparison(listA, listB)) {
+
+                        String getPublicationsFromProviderQuery = queriesService.getPublicationsPropertiesQuery(publication);
+                        TupleQuery pubquery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getPublicationsFromProviderQuery); //
+                        TupleQueryResult tripletasResult = pubquery.evaluate();
+
+                        while (tripletasResult.hasNext()) {
+                            try {
+                                BindingSet tripletsResource = tripletasResult.next();
+                                //authorNativeResource = tripletsResource.getValue("authorResource").toString();
+                                String publicationProperty = tripletsResource.getValue("property").toString();
+                                String publicationObject = tripletsResource.getValue("value").toString();
+                                ///insert sparql query, 
+                                tripleWriter.add(providerGraph, publication, publicationProperty, publicationObject);
+
+                                // insert dct:contributor      <> dct:contributor <http://dblp.org/pers/xr/s/Saquicela:Victor> 
+                                tripleWriter.add(providerGraph, publication, "http://purl.org/dc/terms/contributor", scopusAuthorUri);
+
+                                // sameAs triplet    <http://190.15.141.102:8080/dspace/contribuidor/autor/SaquicelaGalarza_VictorHugo> owl:sameAs <http://dblp.org/pers/xr/s/Saquicela:Victor> 
+                                tripleWriter.add(providerGraph, authorResource, "http://www.w3.org/2002/07/owl#sameAs", scopusAuthorUri);
+
+                                //if value is an uri then search and insert values of this value
+                                if (commonsServices.isURI(publicationObject)) {
+
+                                    String getResourcesQuery = queriesService.getPublicationsPropertiesQuery(publicationObject);
+                                    TupleQuery resourcequery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getResourcesQuery); //
+                                    TupleQueryResult resourceResult = resourcequery.evaluate();
+
+                                    while (resourceResult.hasNext()) {
+                                        BindingSet resource = resourceResult.next();
                                         //authorNativeResource = tripletsResource.getValue("authorResource").toString();
-                                        String publicationProperty = tripletsResource.getValue("property").toString();
-                                        String publicationObject = tripletsResource.getValue("value").toString();
+                                        String resourceProperty = resource.getValue("property").toString();
+                                        String resourceObject = resource.getValue("value").toString();
                                         ///insert sparql query, 
-                                        String publicationInsertQuery = buildInsertQuery(providerGraph, publication, publicationProperty, publicationObject);
-                                        updatePub(publicationInsertQuery);
-
-                                        // insert dct:contributor      <> dct:contributor <http://dblp.org/pers/xr/s/Saquicela:Victor> 
-                                        String contributorInsertQuery = buildInsertQuery(providerGraph, publication, "http://purl.org/dc/terms/contributor", scopusAuthorUri);
-                                        updatePub(contributorInsertQuery);
-
-                                        // sameAs triplet    <http://190.15.141.102:8080/dspace/contribuidor/autor/SaquicelaGalarza_VictorHugo> owl:sameAs <http://dblp.org/pers/xr/s/Saquicela:Victor> 
-                                        String sameAsInsertQuery = buildInsertQuery(providerGraph, authorResource, "http://www.w3.org/2002/07/owl#sameAs", scopusAuthorUri);
-                                        updatePub(sameAsInsertQuery);
-
-                                        //if value is an uri then search and insert values of this value
-                                        if (commonsServices.isURI(publicationObject)) {
-
-                                            String getResourcesQuery = queriesService.getPublicationsPropertiesQuery(publicationObject);
-                                            TupleQuery resourcequery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getResourcesQuery); //
-                                            TupleQueryResult resourceResult = resourcequery.evaluate();
-
-                                            while (resourceResult.hasNext()) {
-                                                BindingSet resource = resourceResult.next();
-                                                //authorNativeResource = tripletsResource.getValue("authorResource").toString();
-                                                String resourceProperty = resource.getValue("property").toString();
-                                                String resourceObject = resource.getValue("value").toString();
-                                                ///insert sparql query, 
-                                                String resourceInsertQuery = buildInsertQuery(providerGraph, publicationObject, resourceProperty, resourceObject);
-                                                updatePub(resourceInsertQuery);
-                                            }
-                                        }
-                                    } catch (Exception e) {
-                                        log.error("ioexception " + e.toString());
+                                        tripleWriter.add(providerGraph, publicationObject, resourceProperty, resourceObject);
                                     }
-
                                 }
+                            } catch (Exception e) {
+                                log.error("ioexception " + e.toString());
+                            }
+
+                        }
+
+                    }//end IF semantic distance
+                    else if (!semanticAnalizer){
+                        String getPublicationsFromProviderQuery = queriesService.getPublicationsPropertiesQuery(publication);
+                        TupleQuery pubquery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getPublicationsFromProviderQuery); //
+                        TupleQueryResult tripletasResult = pubquery.evaluate();
+
+                        while (tripletasResult.hasNext()) {
+                            try {
+                                BindingSet tripletsResource = tripletasResult.next();
+                                //authorNativeResource = tripletsResource.getValue("authorResource").toString();
+                                String publicationProperty = tripletsResource.getValue("property").toString();
+                                String publicationObject = tripletsResource.getValue("value").toString();
+                                ///insert sparql query, 
+                                tripleWriter.add(providerGraph, publication, publicationProperty, publicationObject);
+
+                                // insert dct:contributor      <> dct:contributor <http://dblp.org/pers/xr/s/Saquicela:Victor> 
+                                tripleWriter.add(providerGraph, publication, "http://purl.org/dc/terms/contributor", scopusAuthorUri);
 
-                            }//end IF semantic distance
-                            else if (!semanticAnalizer){
-                                String getPublicationsFromProviderQuery = queriesService.getPublicationsPropertiesQuery(publication);
-                                TupleQuery pubquery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getPublicationsFromProviderQuery); //
-                                TupleQueryResult tripletasResult = pubquery.evaluate();
+                                // sameAs triplet    <http://190.15.141.102:8080/dspace/contribuidor/autor/SaquicelaGalarza_VictorHugo> owl:sameAs <http://dblp.org/pers/xr/s/Saquicela:Victor> 
+                                tripleWriter.add(providerGraph, authorResource, "http://www.w3.org/2002/07/owl#sameAs", scopusAuthorUri);
 
-                                while (tripletasResult.hasNext()) {
-                                    try {
-                                        BindingSet tripletsResource = tripletasResult.next();
+                                //if value is an uri then search and insert values of this value
+                                if (commonsServices.isURI(publicationObject)) {
+
+                                    String getResourcesQuery = queriesService.getPublicationsPropertiesQuery(publicationObject);
+                                    TupleQuery resourcequery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getResourcesQuery); //
+                                    TupleQueryResult resourceResult = resourcequery.evaluate();
+
+                                    while (resourceResult.hasNext()) {
+                                        BindingSet resource = resourceResult.next();
                                         //authorNativeResource = tripletsResource.getValue("authorResource").toString();
-                                        String publicationProperty = tripletsResource.getValue("property").toString();
-                                        String publicationObject = tripletsResource.getValue("value").toString();
+                                        String resourceProperty = resource.getValue("property").toString();
+                                        String resourceObject = resource.getValue("value").toString();
                                         ///insert sparql query, 
-                                        String publicationInsertQuery = buildInsertQuery(providerGraph, publication, publicationProperty, publicationObject);
-                                        updatePub(publicationInsertQuery);
-
-                                        // insert dct:contributor      <> dct:contributor <http://dblp.org/pers/xr/s/Saquicela:Victor> 
-                                        String contributorInsertQuery = buildInsertQuery(providerGraph, publication, "http://purl.org/dc/terms/contributor", scopusAuthorUri);
-                                        updatePub(contributorInsertQuery);
-
-                                        // sameAs triplet    <http://190.15.141.102:8080/dspace/contribuidor/autor/SaquicelaGalarza_VictorHugo> owl:sameAs <http://dblp.org/pers/xr/s/Saquicela:Victor> 
-                                        String sameAsInsertQuery = buildInsertQuery(providerGraph, authorResource, "http://www.w3.org/2002/07/owl#sameAs", scopusAuthorUri);
-                                        updatePub(sameAsInsertQuery);
-
-                                        //if value is an uri then search and insert values of this value
-                                        if (commonsServices.isURI(publicationObject)) {
-
-                                            String getResourcesQuery = queriesService.getPublicationsPropertiesQuery(publicationObject);
-                                            TupleQuery resourcequery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getResourcesQuery); //
-                                            TupleQueryResult resourceResult = resourcequery.evaluate();
-
-                                            while (resourceResult.hasNext()) {
-                                                BindingSet resource = resourceResult.next();
-                                                //authorNativeResource = tripletsResource.getValue("authorResource").toString();
-                                                String resourceProperty = resource.getValue("property").toString();
-                                                String resourceObject = resource.getValue("value").toString();
-                                                ///insert sparql query, 
-                                                String resourceInsertQuery = buildInsertQuery(providerGraph, publicationObject, resourceProperty, resourceObject);
-                                                updatePub(resourceInsertQuery);
-                                            }
-                                        }
-                                    } catch (Exception e) {
-                                        log.error("ioexception " + e.toString());
+                                        tripleWriter.add(providerGraph, publicationObject, resourceProperty, resourceObject);
                                     }
-
                                 }
-                            }//end else if NO semantic Analizer
+                            } catch (Exception e) {
+                                log.error("ioexception " + e.toString());
+                            }
 
                         }
-                        conUri.commit();
-                        conUri.close();
-                    }
-                  
-                } catch (QueryEvaluationException | MalformedQueryException | RepositoryException ex) {
-                    log.error("Evaluation Exception: " + ex);
-                } catch (Exception e) {
-                    log.error("ioexception " + e.toString());
+                    }//end else if NO semantic Analizer
+
                 }
-                //** end View Data
-                printPercentProcess(processedPersons, allPersons, "SCOPUS");
+                conUri.commit();
+                conUri.close();
             }
-            return "True for publications";
-        } catch (Exception ex) {
-            log.error("Exception: " + ex);
+
+        } catch (InterruptedException ex) {
+            throw ex;
+        } catch (QueryEvaluationException | MalformedQueryException | RepositoryException ex) {
+            log.error("Evaluation Exception: " + ex);
+            harvested = false;
+        } catch (Exception e) {
+            log.error("ioexception " + e.toString());
+            harvested = false;
         }
-        return "fail";
+        //** end View Data
+        return tripleWriter.flush() && harvested;
     }
 
     /** Jose Luis
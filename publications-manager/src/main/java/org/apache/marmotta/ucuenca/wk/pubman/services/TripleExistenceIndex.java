@@ -0,0 +1,136 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.pubman.services;
+
+/**
+ * Memory compact index of the triples of a graph, used to avoid the ASK
+ * queries against marmotta when a triple is surely not in the graph.
+ *
+ * Each triple is stored as a 64 bits hash of subject, predicate and object in
+ * a primitive long set with open addressing ( about 16 bytes per triple ). A
+ * negative answer of {@link #mightContain} is exact, a positive answer can be
+ * a hash collision and must be confirmed with the ASK query.
+ */
+public class TripleExistenceIndex {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /* 0 marks an empty slot, a key with hash 0 is stored with this value */
+    private static final long ZERO_KEY = 0x9e3779b97f4a7c15L;
+
+    private long[] table;
+
+    private int size = 0;
+
+    public TripleExistenceIndex() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public TripleExistenceIndex(int expectedTriples) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < expectedTriples * 2 && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        table = new long[capacity];
+    }
+
+    public synchronized void add(String subject, String predicate, String object) {
+        if (size * 2 >= table.length) {
+            resize(table.length << 1);
+        }
+        if (insert(table, hash(subject, predicate, object))) {
+            size++;
+        }
+    }
+
+    /**
+     * Return false if the triple was never added to the index, true if it
+     * probably exists
+     *
+     * @param subject
+     * @param predicate
+     * @param object
+     * @return
+     */
+    public synchronized boolean mightContain(String subject, String predicate, String object) {
+        long key = hash(subject, predicate, object);
+        int mask = table.length - 1;
+        int slot = (int) mix(key) & mask;
+        while (table[slot] != 0) {
+            if (table[slot] == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void clear() {
+        table = new long[DEFAULT_CAPACITY];
+        size = 0;
+    }
+
+    private void resize(int capacity) {
+        long[] newTable = new long[capacity];
+        for (long key : table) {
+            if (key != 0) {
+                insert(newTable, key);
+            }
+        }
+        table = newTable;
+    }
+
+    private static boolean insert(long[] target, long key) {
+        int mask = target.length - 1;
+        int slot = (int) mix(key) & mask;
+        while (target[slot] != 0) {
+            if (target[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        target[slot] = key;
+        return true;
+    }
+
+    /* FNV-1a of the three terms separated by a char that is not valid in a URI */
+    static long hash(String subject, String predicate, String object) {
+        long h = FNV_OFFSET;
+        h = hash(h, subject);
+        h = (h ^ '\n') * FNV_PRIME;
+        h = hash(h, predicate);
+        h = (h ^ '\n') * FNV_PRIME;
+        h = hash(h, object);
+        h = mix(h);
+        return h == 0 ? ZERO_KEY : h;
+    }
+
+    private static long hash(long h, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return h;
+    }
+
+    /* murmur3 finalizer, spreads the bits before masking the slot */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+}
@@ -42,6 +42,7 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
 import org.apache.marmotta.ucuenca.wk.pubman.api.CommonService;
 import org.apache.marmotta.ucuenca.wk.pubman.services.ReportsImpl;
+import org.apache.marmotta.ucuenca.wk.commons.impl.CachingTranslationService;
 import org.apache.marmotta.ucuenca.wk.commons.service.TranslationService;
 
 @Path("/pubman")
@@ -57,6 +58,9 @@ public class PubWebService {
     @Inject
     private TranslationService traslateService;
 
+    /* one cache of translations for all the requests */
+    private TranslationService cachingTranslateService;
+
     private static final int MAX_TURNS = 100;
     private static final int MIN_TURNS = 0;
     public static final String GET_PUBLICATIONS = "/publications";
@@ -68,6 +72,8 @@ public class PubWebService {
     public static final String GET_AUTHOR_DATA = "/pubsearch";
     public static final String GET_REPORT = "/report";
     public static final String TRANSLATE = "/translate";
+    public static final String JOBS = "/jobs";
+    public static final String JOB_CANCEL = "/jobs/cancel";
     /*
      * Get Publications Data from Source and Load into Provider Graph
      */
@@ -214,8 +220,52 @@ public class PubWebService {
     @Path(TRANSLATE)
     @Produces("application/ld+json")
     public Response translate(@QueryParam("totranslate") String totranslate) {
-        String result = traslateService.translate(totranslate).toString();
+        String result = getCachingTranslateService().translate(totranslate).toString();
         return Response.ok().entity(result).build();
     }
 
+    private synchronized TranslationService getCachingTranslateService() {
+        if (cachingTranslateService == null) {
+            cachingTranslateService = new CachingTranslationService(traslateService);
+        }
+        return cachingTranslateService;
+    }
+
+    /**
+     * State and progress ( processed, total, throughput, eta ) of the
+     * background jobs, of all types or of the type
+     *
+     * @param type scopus, dblp, ak, ma, google, central_graph,
+     * count_publications
+     * @return
+     */
+    @GET
+    @Path(JOBS)
+    @Produces("application/json")
+    public Response getJobs(@QueryParam("type") String type) {
+        if (type == null || type.isEmpty()) {
+            return Response.ok().entity(commonService.getJobs().toString()).build();
+        }
+        JsonObject job = commonService.getJob(type);
+        if (job == null) {
+            return Response.status(Response.Status.NOT_FOUND).entity("No job of type " + type).build();
+        }
+        return Response.ok().entity(job.toString()).build();
+    }
+
+    /**
+     * Cancel the queued or running job of the type
+     *
+     * @param type
+     * @return
+     */
+    @POST
+    @Path(JOB_CANCEL)
+    public Response cancelJob(@QueryParam("type") String type) {
+        if (commonService.cancelJob(type)) {
+            return Response.ok().entity("Job " + type + " cancelled").build();
+        }
+        return Response.status(Response.Status.NOT_FOUND).entity("No active job of type " + type).build();
+    }
+
 }
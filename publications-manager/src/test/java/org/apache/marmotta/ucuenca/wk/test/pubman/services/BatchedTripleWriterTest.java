@@ -0,0 +1,82 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.test.pubman.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.marmotta.ucuenca.wk.commons.impl.CommonsServicesImpl;
+import org.apache.marmotta.ucuenca.wk.commons.impl.QueriesServiceImpl;
+import org.apache.marmotta.ucuenca.wk.pubman.api.SparqlFunctionsService;
+import org.apache.marmotta.ucuenca.wk.pubman.exceptions.PubException;
+import org.apache.marmotta.ucuenca.wk.pubman.services.BatchedTripleWriter;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openrdf.repository.RepositoryConnection;
+
+/**
+ * Test of the batches of INSERT DATA queries of a harvest
+ */
+public class BatchedTripleWriterTest {
+
+    private static final String GRAPH = "http://ucuenca.edu.ec/wkhuska/provider/DBLP";
+
+    private static final String PUBLICATION = "http://ucuenca.edu.ec/wkhuska/publication/";
+
+    private static final String CONTRIBUTOR = "http://purl.org/dc/terms/contributor";
+
+    private static final String AUTHOR = "http://ucuenca.edu.ec/resource/author/";
+
+    /* the queries sent to marmotta */
+    private final List<String> queries = new ArrayList<>();
+
+    @Test
+    public void testBatchSize() {
+        System.out.println("batchSize");
+        BatchedTripleWriter writer = newWriter(2);
+        writer.add(GRAPH, PUBLICATION + "1", CONTRIBUTOR, AUTHOR + "1");
+        Assert.assertTrue(queries.isEmpty());
+        writer.add(GRAPH, PUBLICATION + "2", CONTRIBUTOR, AUTHOR + "1");
+        Assert.assertEquals(1, queries.size());
+        Assert.assertEquals(0, writer.getPendingSize());
+        writer.add(GRAPH, PUBLICATION + "3", CONTRIBUTOR, AUTHOR + "1");
+        Assert.assertTrue(writer.flush());
+        Assert.assertEquals(2, queries.size());
+    }
+
+    @Test
+    public void testFailedTriple() {
+        System.out.println("failedTriple");
+        BatchedTripleWriter writer = newWriter(10);
+        writer.add(GRAPH, PUBLICATION + "1", CONTRIBUTOR, AUTHOR + "1");
+        writer.add(GRAPH, PUBLICATION + "2", CONTRIBUTOR, AUTHOR + "fail");
+        // the batch and one query for each triple
+        Assert.assertFalse(writer.flush());
+        Assert.assertEquals(3, queries.size());
+        // the failed triple is reported by the next flush too
+        Assert.assertFalse(writer.flush());
+    }
+
+    private BatchedTripleWriter newWriter(int batchSize) {
+        SparqlFunctionsService sparqlFunctionsService = new SparqlFunctionsService() {
+            @Override
+            public boolean updatePub(String querytoUpdate) throws PubException {
+                queries.add(querytoUpdate);
+                if (querytoUpdate.contains(AUTHOR + "fail")) {
+                    throw new PubException("bad triple");
+                }
+                return true;
+            }
+
+            @Override
+            public boolean updateLastAuthorsFile(RepositoryConnection con, String querytoUpdate, String endpointUrlUpdate) {
+                return false;
+            }
+        };
+        return new BatchedTripleWriter(sparqlFunctionsService, new QueriesServiceImpl(), new CommonsServicesImpl(),
+                batchSize, 60000);
+    }
+
+}
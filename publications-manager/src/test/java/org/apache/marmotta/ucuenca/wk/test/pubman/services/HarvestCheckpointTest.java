@@ -0,0 +1,93 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.test.pubman.services;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import org.apache.marmotta.ucuenca.wk.pubman.services.HarvestCheckpoint;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test of the journal of the authors harvested in a provider
+ */
+public class HarvestCheckpointTest {
+
+    private static final String AUTHOR = "http://ucuenca.edu.ec/resource/author/";
+
+    private static final List<String> AUTHORS = Arrays.asList(AUTHOR + "juan-perez", AUTHOR + "maria-perez", AUTHOR + "jose-ortiz");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testResume() throws IOException {
+        System.out.println("resume");
+        File directory = folder.getRoot();
+        try (HarvestCheckpoint checkpoint = HarvestCheckpoint.open(directory, "DBLP", true)) {
+            Assert.assertTrue(checkpoint.completed(AUTHORS).isEmpty());
+            checkpoint.markProcessed(AUTHORS.get(0), 0);
+            checkpoint.markProcessed(AUTHORS.get(2), 2);
+        }
+        try (HarvestCheckpoint checkpoint = HarvestCheckpoint.open(directory, "DBLP", true)) {
+            BitSet completed = checkpoint.completed(AUTHORS);
+            Assert.assertTrue(completed.get(0));
+            Assert.assertFalse(completed.get(1));
+            Assert.assertTrue(completed.get(2));
+            Assert.assertEquals(2, checkpoint.size());
+            Assert.assertEquals(2, checkpoint.getLastOffset());
+        }
+    }
+
+    @Test
+    public void testFinish() throws IOException {
+        System.out.println("finish");
+        File directory = folder.getRoot();
+        try (HarvestCheckpoint checkpoint = HarvestCheckpoint.open(directory, "SCOPUS", true)) {
+            checkpoint.markProcessed(AUTHORS.get(1), 1);
+            checkpoint.finish();
+        }
+        // without restart the authors of a complete harvest are kept
+        try (HarvestCheckpoint checkpoint = HarvestCheckpoint.open(directory, "SCOPUS", false)) {
+            Assert.assertTrue(checkpoint.completed(AUTHORS).get(1));
+            checkpoint.finish();
+        }
+        try (HarvestCheckpoint checkpoint = HarvestCheckpoint.open(directory, "SCOPUS", true)) {
+            Assert.assertTrue(checkpoint.completed(AUTHORS).isEmpty());
+            Assert.assertEquals(0, checkpoint.size());
+        }
+    }
+
+    @Test
+    public void testPartialEntry() throws IOException {
+        System.out.println("partialEntry");
+        File directory = folder.getRoot();
+        try (HarvestCheckpoint checkpoint = HarvestCheckpoint.open(directory, "GoogleScholar", true)) {
+            checkpoint.markProcessed(AUTHORS.get(0), 0);
+        }
+        // a hash written in half by a crash
+        try (RandomAccessFile file = new RandomAccessFile(HarvestCheckpoint.getJournalFile(directory, "GoogleScholar"), "rw")) {
+            file.seek(file.length());
+            file.write(new byte[]{1, 2, 3});
+        }
+        try (HarvestCheckpoint checkpoint = HarvestCheckpoint.open(directory, "GoogleScholar", true)) {
+            Assert.assertEquals(1, checkpoint.size());
+            checkpoint.markProcessed(AUTHORS.get(1), 1);
+        }
+        try (HarvestCheckpoint checkpoint = HarvestCheckpoint.open(directory, "GoogleScholar", true)) {
+            BitSet completed = checkpoint.completed(AUTHORS);
+            Assert.assertEquals(2, completed.cardinality());
+            Assert.assertTrue(completed.get(1));
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.test.pubman.services;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.marmotta.ucuenca.wk.pubman.services.ProviderRateLimiter;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test of the politeness of the requests to a provider
+ */
+public class ProviderRateLimiterTest {
+
+    @Test
+    public void testRequestsPerSecond() throws InterruptedException {
+        System.out.println("requestsPerSecond");
+        ProviderRateLimiter limiter = new ProviderRateLimiter(20, 1);
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 30; i++) {
+            limiter.acquire();
+            limiter.release();
+        }
+        // a burst of 20 requests and 10 requests more at 20 per second
+        Assert.assertTrue(System.currentTimeMillis() - start >= 450);
+    }
+
+    @Test
+    public void testMaxInFlight() throws InterruptedException {
+        System.out.println("maxInFlight");
+        final ProviderRateLimiter limiter = new ProviderRateLimiter(0, 2);
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        Thread[] threads = new Thread[6];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int j = 0; j < 5; j++) {
+                            limiter.acquire();
+                            try {
+                                int current = inFlight.incrementAndGet();
+                                synchronized (maxInFlight) {
+                                    maxInFlight.set(Math.max(maxInFlight.get(), current));
+                                }
+                                Thread.sleep(5);
+                                inFlight.decrementAndGet();
+                            } finally {
+                                limiter.release();
+                            }
+                        }
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertEquals(2, maxInFlight.get());
+    }
+
+}
@@ -0,0 +1,48 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.test.pubman.services;
+
+import org.apache.marmotta.ucuenca.wk.pubman.services.TripleExistenceIndex;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test of the index used to avoid ASK queries over the central graph
+ */
+public class TripleExistenceIndexTest {
+
+    private static final String PUBLICATION = "http://ucuenca.edu.ec/wkhuska/publication/";
+
+    private static final String CONTRIBUTOR = "http://purl.org/dc/terms/contributor";
+
+    private static final String AUTHOR = "http://ucuenca.edu.ec/resource/author/";
+
+    @Test
+    public void testMightContain() {
+        System.out.println("mightContain");
+        TripleExistenceIndex index = new TripleExistenceIndex();
+        index.add(PUBLICATION + "title", CONTRIBUTOR, AUTHOR + "juan-perez");
+        Assert.assertTrue(index.mightContain(PUBLICATION + "title", CONTRIBUTOR, AUTHOR + "juan-perez"));
+        Assert.assertFalse(index.mightContain(PUBLICATION + "title", CONTRIBUTOR, AUTHOR + "maria-perez"));
+        Assert.assertFalse(index.mightContain(AUTHOR + "juan-perez", CONTRIBUTOR, PUBLICATION + "title"));
+    }
+
+    @Test
+    public void testResize() {
+        System.out.println("resize");
+        TripleExistenceIndex index = new TripleExistenceIndex();
+        for (int i = 0; i < 10000; i++) {
+            index.add(PUBLICATION + i, CONTRIBUTOR, AUTHOR + i);
+            index.add(PUBLICATION + i, CONTRIBUTOR, AUTHOR + i);
+        }
+        Assert.assertEquals(10000, index.size());
+        for (int i = 0; i < 10000; i++) {
+            Assert.assertTrue(index.mightContain(PUBLICATION + i, CONTRIBUTOR, AUTHOR + i));
+            Assert.assertFalse(index.mightContain(PUBLICATION + i, CONTRIBUTOR, AUTHOR + (i + 1)));
+        }
+    }
+
+}
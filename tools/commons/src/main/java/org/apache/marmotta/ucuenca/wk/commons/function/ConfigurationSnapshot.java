@@ -0,0 +1,329 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.commons.function;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Configuration of the platform read once from the properties files of the
+ * classpath ( parameters.properties, updatePlatformProcessConfig.properties
+ * and the mapping files of the providers ).
+ *
+ * A snapshot does not change, the values used in the loops of the providers
+ * are typed fields. reload() replaces the current snapshot, and when the
+ * properties files are directories of the file system ( not packed in a jar )
+ * the snapshot is reloaded when the files are modified, until stopWatcher() is
+ * called when the application stops.
+ */
+public final class ConfigurationSnapshot {
+
+    public static final String PARAMETERS = "parameters.properties";
+
+    public static final String PLATFORM = "updatePlatformProcessConfig.properties";
+
+    private static volatile ConfigurationSnapshot current;
+
+    private static Thread watcher;
+
+    private static WatchService watchService;
+
+    private static boolean stopped = false;
+
+    private final Map<String, Map<String, String>> files = new ConcurrentHashMap<>();
+
+    private final Map<String, Map<String, String>> providerMappings = new ConcurrentHashMap<>();
+
+    private final String wkhuskaGraph;
+
+    private final Map<String, String> graphs;
+
+    private final boolean processAllAuthors;
+
+    private final boolean semanticAnalizer;
+
+    private final int batchSize;
+
+    private final int batchFlushInterval;
+
+    private final int integrationThreads;
+
+    private final int ngdParallelism;
+
+    private final double semanticDistanceListAListB;
+
+    private final double semanticDistanceWordListB;
+
+    private final double valueDistanceComparation;
+
+    private ConfigurationSnapshot() {
+        Map<String, String> parameters = getFile(PARAMETERS);
+        wkhuskaGraph = parameters.get("wkhuska");
+        Map<String, String> graphNames = new HashMap<>();
+        for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+            if (parameter.getValue().startsWith("/")) {
+                graphNames.put(parameter.getKey(), wkhuskaGraph + parameter.getValue());
+            }
+        }
+        graphNames.put("wkhuska", wkhuskaGraph);
+        graphs = Collections.unmodifiableMap(graphNames);
+        processAllAuthors = getBoolean(PLATFORM, "proccesAllAuthors", false);
+        semanticAnalizer = getBoolean(PLATFORM, "semanticAnalizer", false);
+        batchSize = getInt(PLATFORM, "batchSize", 500);
+        batchFlushInterval = getInt(PLATFORM, "batchFlushInterval", 30000);
+        integrationThreads = getInt(PLATFORM, "integrationThreads", Runtime.getRuntime().availableProcessors());
+        ngdParallelism = getInt(PARAMETERS, "ngdParallelism", 4);
+        semanticDistanceListAListB = getDouble(PARAMETERS, "semanticDistanceListAListB", 1.0);
+        semanticDistanceWordListB = getDouble(PARAMETERS, "semanticDistanceWordListB", 1.0);
+        valueDistanceComparation = getDouble(PARAMETERS, "valueDistanceComparation", 0.7);
+    }
+
+    /**
+     * Current snapshot, loaded the first time it is used
+     *
+     * @return
+     */
+    public static ConfigurationSnapshot current() {
+        ConfigurationSnapshot snapshot = current;
+        return snapshot != null ? snapshot : reload();
+    }
+
+    /**
+     * Read again the properties files and replace the current snapshot
+     *
+     * @return
+     */
+    public static synchronized ConfigurationSnapshot reload() {
+        current = new ConfigurationSnapshot();
+        startWatcher();
+        return current;
+    }
+
+    /**
+     * Stop watching the properties files, the snapshot is not reloaded
+     * anymore when they change
+     */
+    public static synchronized void stopWatcher() {
+        stopped = true;
+        if (watcher != null) {
+            watcher.interrupt();
+            watcher = null;
+        }
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ex) {
+                Logger.getLogger(ConfigurationSnapshot.class.getName()).log(Level.WARNING, null, ex);
+            }
+            watchService = null;
+        }
+    }
+
+    /**
+     * Value of a property, null when the file or the property do not exist
+     *
+     * @param file
+     * @param property
+     * @return
+     */
+    public String getString(String file, String property) {
+        return getFile(file).get(property);
+    }
+
+    public int getInt(String file, String property, int defaultValue) {
+        String value = getString(file, property);
+        try {
+            return value != null ? Integer.parseInt(value.trim()) : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public double getDouble(String file, String property, double defaultValue) {
+        String value = getString(file, property);
+        try {
+            return value != null ? Double.parseDouble(value.trim()) : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public boolean getBoolean(String file, String property, boolean defaultValue) {
+        String value = getString(file, property);
+        return value != null ? Boolean.parseBoolean(value.trim()) : defaultValue;
+    }
+
+    /**
+     * Mapping of properties of a provider ( file name.properties ), with the
+     * ".." of the file replaced by ":"
+     *
+     * @param name
+     * @return
+     */
+    public Map<String, String> getProviderMapping(String name) {
+        Map<String, String> mapping = providerMappings.get(name);
+        if (mapping == null) {
+            Map<String, String> properties = new HashMap<>();
+            for (Map.Entry<String, String> property : getFile(name + ".properties").entrySet()) {
+                properties.put(property.getKey().replace("..", ":"), property.getValue().replace("..", ":"));
+            }
+            mapping = Collections.unmodifiableMap(properties);
+            providerMappings.put(name, mapping);
+        }
+        return mapping;
+    }
+
+    public String getWkhuskaGraph() {
+        return wkhuskaGraph;
+    }
+
+    /**
+     * Graph of parameters.properties ( authors, endpoints, dblp, ... ) under
+     * the wkhuska graph
+     *
+     * @param type
+     * @return
+     */
+    public String getGraph(String type) {
+        return graphs.get(type);
+    }
+
+    public boolean isProcessAllAuthors() {
+        return processAllAuthors;
+    }
+
+    public boolean isSemanticAnalizer() {
+        return semanticAnalizer;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getBatchFlushInterval() {
+        return batchFlushInterval;
+    }
+
+    public int getIntegrationThreads() {
+        return integrationThreads;
+    }
+
+    public int getNgdParallelism() {
+        return ngdParallelism;
+    }
+
+    public double getSemanticDistanceListAListB() {
+        return semanticDistanceListAListB;
+    }
+
+    public double getSemanticDistanceWordListB() {
+        return semanticDistanceWordListB;
+    }
+
+    public double getValueDistanceComparation() {
+        return valueDistanceComparation;
+    }
+
+    private Map<String, String> getFile(String file) {
+        Map<String, String> properties = files.get(file);
+        if (properties == null) {
+            properties = Collections.unmodifiableMap(load(file));
+            files.put(file, properties);
+        }
+        return properties;
+    }
+
+    private static Map<String, String> load(String file) {
+        Map<String, String> mapping = new HashMap<>();
+        try (InputStream entrada = ConfigurationSnapshot.class.getClassLoader().getResourceAsStream(file)) {
+            if (entrada != null) {
+                Properties propiedades = new Properties();
+                propiedades.load(entrada);
+                for (String source : propiedades.stringPropertyNames()) {
+                    mapping.put(source, propiedades.getProperty(source));
+                }
+            }
+        } catch (IOException ex) {
+            Logger.getLogger(ConfigurationSnapshot.class.getName()).log(Level.SEVERE, "Cannot read " + file, ex);
+        }
+        return mapping;
+    }
+
+    /* reload the snapshot when the properties files of the file system change */
+    private static void startWatcher() {
+        if (watcher != null || stopped) {
+            return;
+        }
+        final Set<String> names = new HashSet<>();
+        Set<Path> directories = new HashSet<>();
+        for (String file : new String[]{PARAMETERS, PLATFORM}) {
+            URL url = ConfigurationSnapshot.class.getClassLoader().getResource(file);
+            if (url != null && "file".equals(url.getProtocol())) {
+                try {
+                    directories.add(Paths.get(url.toURI()).getParent());
+                    names.add(file);
+                } catch (URISyntaxException ex) {
+                    Logger.getLogger(ConfigurationSnapshot.class.getName()).log(Level.WARNING, null, ex);
+                }
+            }
+        }
+        if (directories.isEmpty()) {
+            return;
+        }
+        try {
+            final WatchService service = FileSystems.getDefault().newWatchService();
+            for (Path directory : directories) {
+                directory.register(service, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+            }
+            watchService = service;
+            watcher = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    while (!Thread.currentThread().isInterrupted()) {
+                        try {
+                            WatchKey key = service.take();
+                            boolean changed = false;
+                            for (WatchEvent<?> event : key.pollEvents()) {
+                                changed |= names.contains(String.valueOf(event.context()));
+                            }
+                            key.reset();
+                            if (changed) {
+                                reload();
+                                Logger.getLogger(ConfigurationSnapshot.class.getName()).log(Level.INFO, "Configuration reloaded");
+                            }
+                        } catch (InterruptedException | ClosedWatchServiceException ex) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                }
+            }, "configuration-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+        } catch (IOException ex) {
+            Logger.getLogger(ConfigurationSnapshot.class.getName()).log(Level.WARNING, "Configuration files are not watched", ex);
+        }
+    }
+
+}
@@ -0,0 +1,244 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.commons.function;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLEncoder;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.marmotta.ucuenca.wk.commons.impl.CommonsServicesImpl;
+import org.apache.marmotta.ucuenca.wk.commons.service.CommonsServices;
+
+/**
+ * Cache of the number of results ( totalhits ) of the wikipedia searches used
+ * by the semantic distance.
+ *
+ * The counts are searched first in a bounded LRU in memory, then in the cache
+ * table of the database ( SemanticCacheStore ) and finally in wikipedia. The
+ * searches of a matrix are loaded from the database in one query ( prefetch )
+ * and the new responses are saved in one batch ( flush ). Searches that could
+ * not be resolved are kept in a negative cache for a while, so they are not
+ * repeated by each pair of keywords. The instance is shared and can be used by
+ * several threads.
+ */
+public final class HitCountCache {
+
+    private static final String WIKIPEDIA_SEARCH = "https://en.wikipedia.org/w/api.php?action=query&list=search&format=json&srsearch=";
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final CommonsServices commonservices = new CommonsServicesImpl();
+
+    private final SemanticCacheStore store;
+
+    private final long ttl;
+
+    private final long negativeTtl;
+
+    private final Map<String, CachedCount> counts;
+
+    private final Map<String, Long> negative = new ConcurrentHashMap<>();
+
+    /* responses of wikipedia not saved yet in the database */
+    private final ConcurrentMap<String, String> unsaved = new ConcurrentHashMap<>();
+
+    public HitCountCache(SemanticCacheStore store) {
+        this.store = store;
+        final int size = readParameter("ngdCacheSize", 100000);
+        ttl = readParameter("ngdCacheTtl", 86400000);
+        negativeTtl = readParameter("ngdNegativeCacheTtl", 600000);
+        counts = new LinkedHashMap<String, CachedCount>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedCount> eldest) {
+                return size() > size;
+            }
+        };
+    }
+
+    /**
+     * Load in one query of the database the counts of the searches that are
+     * not in memory
+     *
+     * @param queries
+     */
+    public void prefetch(Collection<String> queries) {
+        long now = System.currentTimeMillis();
+        Map<String, String> keys = new HashMap<>();
+        synchronized (counts) {
+            for (String query : queries) {
+                CachedCount cached = counts.get(query);
+                if (cached == null || cached.expiration <= now) {
+                    keys.put(getKey(query), query);
+                }
+            }
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+        Map<String, String> responses;
+        try {
+            responses = store.getAll(keys.keySet());
+        } catch (SQLException | IOException ex) {
+            Logger.getLogger(HitCountCache.class.getName()).log(Level.WARNING, "Counts not read from the cache: {0}", ex.toString());
+            return;
+        }
+        for (Map.Entry<String, String> response : responses.entrySet()) {
+            try {
+                double count = parseTotalHits(response.getValue());
+                synchronized (counts) {
+                    counts.put(keys.get(response.getKey()), new CachedCount(count, now + ttl));
+                }
+            } catch (RuntimeException ex) {
+                // not valid, searched again
+            }
+        }
+    }
+
+    /**
+     * Save in one batch the responses of wikipedia fetched since the last
+     * flush
+     */
+    public void flush() {
+        Map<String, String> responses = new HashMap<>();
+        for (String key : unsaved.keySet()) {
+            String response = unsaved.remove(key);
+            if (response != null) {
+                responses.put(key, response);
+            }
+        }
+        if (responses.isEmpty()) {
+            return;
+        }
+        try {
+            store.putAll(responses);
+        } catch (SQLException | IOException ex) {
+            Logger.getLogger(HitCountCache.class.getName()).log(Level.WARNING, "Counts not saved in the cache: {0}", ex.toString());
+            // saved again with the next flush, unless a newer response replaced them
+            for (Map.Entry<String, String> response : responses.entrySet()) {
+                unsaved.putIfAbsent(response.getKey(), response.getValue());
+            }
+        }
+    }
+
+    /**
+     * Return the number of results of a wikipedia search, 0 when the count is
+     * not available. The searches not prefetched are also looked up in the
+     * database
+     *
+     * @param query
+     * @return
+     */
+    public double getTotalHits(String query) {
+        long now = System.currentTimeMillis();
+        synchronized (counts) {
+            CachedCount cached = counts.get(query);
+            if (cached != null && cached.expiration > now) {
+                return cached.count;
+            }
+        }
+        Long negativeExpiration = negative.get(query);
+        if (negativeExpiration != null) {
+            if (negativeExpiration > now) {
+                return 0;
+            }
+            negative.remove(query);
+        }
+        prefetch(Collections.singleton(query));
+        synchronized (counts) {
+            CachedCount cached = counts.get(query);
+            if (cached != null) {
+                return cached.count;
+            }
+        }
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                double count = fetchTotalHits(query);
+                synchronized (counts) {
+                    counts.put(query, new CachedCount(count, System.currentTimeMillis() + ttl));
+                }
+                return count;
+            } catch (Exception e) {
+                try {
+                    Thread.sleep(1000L * attempt);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        Logger.getLogger(HitCountCache.class.getName()).log(Level.WARNING, "No results count for {0}", query);
+        negative.put(query, System.currentTimeMillis() + negativeTtl);
+        return 0;
+    }
+
+    private double fetchTotalHits(String query) throws IOException {
+        String response = http(WIKIPEDIA_SEARCH + URLEncoder.encode(query, "UTF-8"));
+        double count = parseTotalHits(response);
+        unsaved.put(getKey(query), response);
+        return count;
+    }
+
+    /* key of the response in the cache table, md5 of the url */
+    private String getKey(String query) {
+        try {
+            return commonservices.getMD5(WIKIPEDIA_SEARCH + URLEncoder.encode(query, "UTF-8"));
+        } catch (UnsupportedEncodingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private double parseTotalHits(String response) {
+        JsonObject parse = new JsonParser().parse(response).getAsJsonObject();
+        return parse.get("query").getAsJsonObject().get("searchinfo").getAsJsonObject().get("totalhits").getAsNumber().doubleValue();
+    }
+
+    private String http(String s) throws IOException {
+        final URL url = new URL(s);
+        final URLConnection connection = url.openConnection();
+        connection.setConnectTimeout(60000);
+        connection.setReadTimeout(60000);
+        connection.addRequestProperty("User-Agent", "Mozilla/5.0 (X11; Ubuntu; Linux x86_64; rv:44.0) Gecko/20100101 Firefox/44.0");
+        connection.addRequestProperty("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8");
+        StringBuilder resp = new StringBuilder();
+        try (Scanner reader = new Scanner(connection.getInputStream(), "UTF-8")) {
+            while (reader.hasNextLine()) {
+                resp.append(reader.nextLine()).append("\n");
+            }
+        }
+        return resp.toString();
+    }
+
+    private int readParameter(String name, int defaultValue) {
+        return ConfigurationSnapshot.current().getInt(ConfigurationSnapshot.PARAMETERS, name, defaultValue);
+    }
+
+    private static class CachedCount {
+
+        private final double count;
+
+        private final long expiration;
+
+        CachedCount(double count, long expiration) {
+            this.count = count;
+            this.expiration = expiration;
+        }
+    }
+
+}
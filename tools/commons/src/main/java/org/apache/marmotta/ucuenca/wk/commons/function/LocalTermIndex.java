@@ -0,0 +1,390 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.commons.function;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index of the words of the texts of our own publications ( titles,
+ * abstracts and quotes of the central graph ), used as source of the document
+ * counts of the semantic distance instead of the wikipedia searches.
+ *
+ * The index is a single file mapped in memory: a header, the entries of the
+ * words sorted by hash and the postings ( document, number of positions,
+ * positions ) of each word. Like the wikipedia searches, the words of a term
+ * must appear within 10 words of each other and the words of a pair within 50
+ * words.
+ */
+public final class LocalTermIndex implements TermFrequencySource {
+
+    public static final String INDEX_FILE = "terms.idx";
+
+    private static final int MAGIC = 0x574b5449;
+
+    private static final int VERSION = 1;
+
+    private static final int HEADER = 16;
+
+    /* hash ( long ), offset, documents and length ( int ) of a word */
+    private static final int ENTRY = 20;
+
+    private static final int TERM_SLOP = 10;
+
+    private static final int PAIR_SLOP = 50;
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final ByteBuffer entries;
+
+    private final IntBuffer postings;
+
+    private final int documents;
+
+    private final int words;
+
+    private LocalTermIndex(ByteBuffer index) throws IOException {
+        if (index.capacity() < HEADER || index.getInt(0) != MAGIC || index.getInt(4) != VERSION) {
+            throw new IOException("Not a term index or unsupported version");
+        }
+        documents = index.getInt(8);
+        words = index.getInt(12);
+        entries = index;
+        ByteBuffer postingsRegion = index.duplicate();
+        postingsRegion.position(HEADER + words * ENTRY);
+        postings = postingsRegion.slice().asIntBuffer();
+    }
+
+    /**
+     * Map the index of the directory in memory
+     *
+     * @param directory
+     * @return
+     * @throws IOException
+     */
+    public static LocalTermIndex open(File directory) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(getIndexFile(directory), "r")) {
+            return new LocalTermIndex(file.getChannel().map(MapMode.READ_ONLY, 0, file.length()));
+        }
+    }
+
+    public static File getIndexFile(File directory) {
+        return new File(directory, INDEX_FILE);
+    }
+
+    @Override
+    public double count(String term) {
+        return count(tokenize(term), TERM_SLOP);
+    }
+
+    @Override
+    public double count(String termA, String termB) {
+        Set<String> pair = tokenize(termA);
+        pair.addAll(tokenize(termB));
+        return count(pair, PAIR_SLOP);
+    }
+
+    @Override
+    public double documents() {
+        return documents;
+    }
+
+    @Override
+    public void prefetch(List<String> terms, List<String[]> pairs) {
+        // the counts are read from the mapped file
+    }
+
+    @Override
+    public void flush() {
+        // nothing to save
+    }
+
+    private int count(Set<String> terms, int slop) {
+        if (terms.isEmpty()) {
+            return 0;
+        }
+        int k = terms.size();
+        int[] cursors = new int[k];
+        int[] ends = new int[k];
+        int i = 0;
+        for (String term : terms) {
+            int entry = find(hash(term));
+            if (entry < 0) {
+                return 0;
+            }
+            if (k == 1) {
+                return entries.getInt(HEADER + entry * ENTRY + 12);
+            }
+            cursors[i] = entries.getInt(HEADER + entry * ENTRY + 8);
+            ends[i] = cursors[i] + entries.getInt(HEADER + entry * ENTRY + 16);
+            i++;
+        }
+        int count = 0;
+        int target = 0;
+        while (true) {
+            boolean aligned = true;
+            for (i = 0; i < k; i++) {
+                while (cursors[i] < ends[i] && postings.get(cursors[i]) < target) {
+                    cursors[i] += 2 + postings.get(cursors[i] + 1);
+                }
+                if (cursors[i] >= ends[i]) {
+                    return count;
+                }
+                int document = postings.get(cursors[i]);
+                if (document > target) {
+                    target = document;
+                    aligned = false;
+                }
+            }
+            if (aligned) {
+                if (isNear(cursors, k - 1 + slop)) {
+                    count++;
+                }
+                target++;
+            }
+        }
+    }
+
+    /* true if there is a window of the document with all the words */
+    private boolean isNear(int[] cursors, int window) {
+        int k = cursors.length;
+        int[] positions = new int[k];
+        int[] ends = new int[k];
+        for (int i = 0; i < k; i++) {
+            positions[i] = cursors[i] + 2;
+            ends[i] = positions[i] + postings.get(cursors[i] + 1);
+        }
+        while (true) {
+            int min = 0;
+            int max = Integer.MIN_VALUE;
+            for (int i = 0; i < k; i++) {
+                int position = postings.get(positions[i]);
+                if (position < postings.get(positions[min])) {
+                    min = i;
+                }
+                max = Math.max(max, position);
+            }
+            if (max - postings.get(positions[min]) <= window) {
+                return true;
+            }
+            positions[min]++;
+            if (positions[min] >= ends[min]) {
+                return false;
+            }
+        }
+    }
+
+    private int find(long hash) {
+        int low = 0;
+        int high = words - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = entries.getLong(HEADER + mid * ENTRY);
+            if (value < hash) {
+                low = mid + 1;
+            } else if (value > hash) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /* words of the text in lower case and without accents */
+    private static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : tokenizeAll(text)) {
+            tokens.add(token);
+        }
+        return tokens;
+    }
+
+    private static List<String> tokenizeAll(String text) {
+        String normalized = MARKS.matcher(Normalizer.normalize(text.toLowerCase(), Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_WORD.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /* FNV-1a 64 bits */
+    private static long hash(String word) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < word.length(); i++) {
+            h ^= word.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    /**
+     * Builder of the index, the texts are added by document and the index is
+     * written at the end. The file is replaced atomically, so the index can be
+     * rebuilt while it is used.
+     */
+    public static class Builder {
+
+        private final Map<String, Integer> documentIds = new HashMap<>();
+
+        private final List<Integer> nextPositions = new ArrayList<>();
+
+        private final Map<Long, Postings> postingsByWord = new HashMap<>();
+
+        /**
+         * Add a text of a document, the texts of the same document are not
+         * considered near each other
+         *
+         * @param document
+         * @param text
+         */
+        public synchronized void add(String document, String text) {
+            Integer id = documentIds.get(document);
+            if (id == null) {
+                id = documentIds.size();
+                documentIds.put(document, id);
+                nextPositions.add(0);
+            }
+            int position = nextPositions.get(id);
+            for (String word : tokenizeAll(text)) {
+                Long key = hash(word);
+                Postings wordPostings = postingsByWord.get(key);
+                if (wordPostings == null) {
+                    wordPostings = new Postings();
+                    postingsByWord.put(key, wordPostings);
+                }
+                wordPostings.add(((long) id << 32) | position);
+                position++;
+            }
+            nextPositions.set(id, position + PAIR_SLOP + 1);
+        }
+
+        public synchronized int documents() {
+            return documentIds.size();
+        }
+
+        public synchronized void write(File directory) throws IOException {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Cannot create directory " + directory);
+            }
+            long[] hashes = new long[postingsByWord.size()];
+            int i = 0;
+            for (Long key : postingsByWord.keySet()) {
+                hashes[i++] = key;
+            }
+            Arrays.sort(hashes);
+            long size = HEADER + (long) hashes.length * ENTRY;
+            for (long key : hashes) {
+                postingsByWord.get(key).sort();
+                size += 4L * postingsByWord.get(key).length();
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Term index too large: " + size + " bytes");
+            }
+            File temporal = File.createTempFile("terms", ".tmp", directory);
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporal)))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    out.writeInt(documentIds.size());
+                    out.writeInt(hashes.length);
+                    int offset = 0;
+                    for (long key : hashes) {
+                        Postings wordPostings = postingsByWord.get(key);
+                        out.writeLong(key);
+                        out.writeInt(offset);
+                        out.writeInt(wordPostings.documents());
+                        out.writeInt(wordPostings.length());
+                        offset += wordPostings.length();
+                    }
+                    for (long key : hashes) {
+                        postingsByWord.get(key).write(out);
+                    }
+                }
+                Files.move(temporal.toPath(), getIndexFile(directory).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                if (temporal.exists() && !temporal.delete()) {
+                    temporal.deleteOnExit();
+                }
+            }
+        }
+    }
+
+    /* ( document << 32 | position ) of a word */
+    private static class Postings {
+
+        private long[] values = new long[4];
+
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void sort() {
+            Arrays.sort(values, 0, size);
+        }
+
+        int documents() {
+            int documents = 0;
+            for (int i = 0; i < size; i++) {
+                if (i == 0 || values[i] >>> 32 != values[i - 1] >>> 32) {
+                    documents++;
+                }
+            }
+            return documents;
+        }
+
+        /* number of ints of the postings: document and number of positions of each document, and the positions */
+        int length() {
+            return 2 * documents() + size;
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            int start = 0;
+            while (start < size) {
+                int document = (int) (values[start] >>> 32);
+                int end = start;
+                while (end < size && (int) (values[end] >>> 32) == document) {
+                    end++;
+                }
+                out.writeInt(document);
+                out.writeInt(end - start);
+                for (int i = start; i < end; i++) {
+                    out.writeInt((int) values[i]);
+                }
+                start = end;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,229 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.commons.function;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Normalized Google Distance ( NGD ) between all pairs of a list of terms.
+ *
+ * The count of each distinct term is fetched once and the pair counts are
+ * fetched in parallel by the threads of the executor, shared by all the
+ * matrices so its size bounds the concurrent searches of the application.
+ * Without executor the counts are fetched in the calling thread. The
+ * distances are kept in the upper triangle of the symmetric matrix.
+ */
+public class NgdMatrix {
+
+    private final List<String> terms = new ArrayList<>();
+
+    private final double[] triangle;
+
+    /**
+     * Compute the distances between all pairs of terms
+     *
+     * @param terms
+     * @param counts
+     * @param executor threads of the searches, null to search in the calling
+     * thread
+     */
+    public NgdMatrix(List<String> terms, TermFrequencySource counts, ExecutorService executor) {
+        for (String term : terms) {
+            this.terms.add(term.trim());
+        }
+        int n = this.terms.size();
+        triangle = new double[n * (n - 1) / 2];
+        List<String[]> pairs = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                pairs.add(new String[]{this.terms.get(i), this.terms.get(j)});
+            }
+        }
+        Map<String, Double> hits = fetch(counts, executor, this.terms, pairs);
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                triangle[k++] = ngd(this.terms.get(i), this.terms.get(j), hits, counts.documents());
+            }
+        }
+    }
+
+    /**
+     * Average distance between the terms of a and the terms of b, 2 when one
+     * of the lists is empty
+     *
+     * @param a
+     * @param b
+     * @param counts
+     * @param executor threads of the searches, null to search in the calling
+     * thread
+     * @return
+     */
+    public static double crossAverage(List<String> a, List<String> b, TermFrequencySource counts, ExecutorService executor) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 2;
+        }
+        List<String> all = new ArrayList<>();
+        List<String[]> pairs = new ArrayList<>();
+        for (String t1 : a) {
+            all.add(t1.trim());
+            for (String t2 : b) {
+                pairs.add(new String[]{t1.trim(), t2.trim()});
+            }
+        }
+        for (String t2 : b) {
+            all.add(t2.trim());
+        }
+        Map<String, Double> hits = fetch(counts, executor, all, pairs);
+        double sum = 0;
+        for (String t1 : a) {
+            for (String t2 : b) {
+                sum += ngd(t1.trim(), t2.trim(), hits, counts.documents());
+            }
+        }
+        return sum / (a.size() * b.size());
+    }
+
+    public double distance(int i, int j) {
+        if (i == j) {
+            return 0;
+        }
+        int row = Math.min(i, j);
+        int column = Math.max(i, j);
+        int n = terms.size();
+        return triangle[row * (2 * n - row - 1) / 2 + (column - row - 1)];
+    }
+
+    /**
+     * The n terms with the lowest sum of distances to the other terms, the
+     * most related terms of the list
+     *
+     * @param n
+     * @return
+     */
+    public List<String> topT(int n) {
+        final Map<String, Double> sums = new LinkedHashMap<>();
+        for (int i = 0; i < terms.size(); i++) {
+            for (int j = i + 1; j < terms.size(); j++) {
+                double v = distance(i, j);
+                addDistance(sums, terms.get(i), v);
+                addDistance(sums, terms.get(j), v);
+            }
+        }
+        List<String> sorted = new ArrayList<>(sums.keySet());
+        Collections.sort(sorted, new Comparator<String>() {
+            @Override
+            public int compare(String o1, String o2) {
+                return sums.get(o1).compareTo(sums.get(o2));
+            }
+        });
+        return new ArrayList<>(sorted.subList(0, Math.min(n, sorted.size())));
+    }
+
+    private static void addDistance(Map<String, Double> sums, String term, double v) {
+        Double sum = sums.get(term);
+        sums.put(term, sum == null ? v : sum + v);
+    }
+
+    private static double ngd(String a, String b, Map<String, Double> hits, double documents) {
+        if (a.compareToIgnoreCase(b) == 0) {
+            return 0;
+        }
+        double n0 = hits.get(termKey(a));
+        double n1 = hits.get(termKey(b));
+        double n2 = hits.get(pairKey(a, b));
+        if (n0 == 0 || n1 == 0 || n2 == 0) {
+            return 1;
+        }
+        double l1 = Math.max(Math.log10(n0), Math.log10(n1)) - Math.log10(n2);
+        double l2 = Math.log10(documents) - Math.min(Math.log10(n0), Math.log10(n1));
+        return l1 / l2;
+    }
+
+    private static String termKey(String term) {
+        return term;
+    }
+
+    private static String pairKey(String a, String b) {
+        return a + "\n" + b;
+    }
+
+    /* counts of the distinct terms and pairs, pairs of equal terms are not searched */
+    private static Map<String, Double> fetch(final TermFrequencySource counts, ExecutorService executor, List<String> terms, List<String[]> pairs) {
+        Map<String, Callable<Double>> searches = new LinkedHashMap<>();
+        for (final String term : terms) {
+            searches.put(termKey(term), new Callable<Double>() {
+                @Override
+                public Double call() {
+                    return counts.count(term);
+                }
+            });
+        }
+        for (final String[] pair : pairs) {
+            if (pair[0].compareToIgnoreCase(pair[1]) != 0) {
+                searches.put(pairKey(pair[0], pair[1]), new Callable<Double>() {
+                    @Override
+                    public Double call() {
+                        return counts.count(pair[0], pair[1]);
+                    }
+                });
+            }
+        }
+        // the counts already cached are loaded in one lookup and the new counts saved in one batch
+        counts.prefetch(terms, pairs);
+        try {
+            return search(executor, searches);
+        } finally {
+            counts.flush();
+        }
+    }
+
+    private static Map<String, Double> search(ExecutorService executor, Map<String, Callable<Double>> searches) {
+        Map<String, Double> hits = new LinkedHashMap<>();
+        if (executor == null) {
+            for (Map.Entry<String, Callable<Double>> search : searches.entrySet()) {
+                try {
+                    hits.put(search.getKey(), search.getValue().call());
+                } catch (Exception ex) {
+                    hits.put(search.getKey(), 0.0);
+                }
+            }
+            return hits;
+        }
+        Map<String, Future<Double>> pending = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, Callable<Double>> search : searches.entrySet()) {
+                pending.put(search.getKey(), executor.submit(search.getValue()));
+            }
+            for (Map.Entry<String, Future<Double>> entry : pending.entrySet()) {
+                try {
+                    hits.put(entry.getKey(), entry.getValue().get());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    hits.put(entry.getKey(), 0.0);
+                } catch (ExecutionException ex) {
+                    hits.put(entry.getKey(), 0.0);
+                }
+            }
+            return hits;
+        } finally {
+            // the searches of an interrupted matrix do not keep the threads
+            for (Future<Double> search : pending.values()) {
+                search.cancel(true);
+            }
+        }
+    }
+
+}
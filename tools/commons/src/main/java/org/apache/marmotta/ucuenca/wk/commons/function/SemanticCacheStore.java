@@ -0,0 +1,202 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.commons.function;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import org.apache.commons.io.IOUtils;
+import org.apache.tomcat.jdbc.pool.DataSource;
+import org.apache.tomcat.jdbc.pool.PoolProperties;
+
+/**
+ * Access to the cache table ( key, value ) of the database of /config.cnf,
+ * shared by the semantic distance ( wikipedia searches ) and the translations
+ * for the semantic distance.
+ *
+ * The connections come from a pool of the bean, created with the first query
+ * and closed with the application. The lookups and the updates of several keys
+ * are sent in one query and in one transaction.
+ */
+@ApplicationScoped
+public class SemanticCacheStore {
+
+    private static final String SELECT_ALL_QUERY = "SELECT key, value FROM cache WHERE cache.key = ANY (?)";
+
+    private static final String UPDATE_QUERY = "UPDATE cache SET value = ? WHERE cache.key = ?";
+
+    private static final String INSERT_QUERY = "INSERT INTO cache (key, value) values (?, ?)";
+
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private static final int MAX_CONNECTIONS = 8;
+
+    private DataSource dataSource;
+
+    private synchronized DataSource getDataSource() throws IOException {
+        if (dataSource == null) {
+            InputStream resourceAsStream = SemanticCacheStore.class.getResourceAsStream("/config.cnf");
+            String theString = IOUtils.toString(resourceAsStream, Charset.defaultCharset().toString());
+            JsonObject config = new JsonParser().parse(theString).getAsJsonObject();
+            PoolProperties properties = new PoolProperties();
+            properties.setDriverClassName("org.postgresql.Driver");
+            properties.setUrl(config.get("dbServer").getAsString() + "/" + config.get("dbSchema").getAsString());
+            properties.setUsername(config.get("dbUser").getAsString());
+            properties.setPassword(config.get("dbPassword").getAsString());
+            properties.setMaxActive(MAX_CONNECTIONS);
+            properties.setMaxIdle(MAX_CONNECTIONS);
+            properties.setInitialSize(0);
+            properties.setTestOnBorrow(true);
+            properties.setValidationQuery("SELECT 1");
+            properties.setValidationInterval(30000);
+            dataSource = new DataSource(properties);
+        }
+        return dataSource;
+    }
+
+    /**
+     * Values of the keys that are in the cache, in one query
+     *
+     * @param keys
+     * @return
+     * @throws SQLException
+     * @throws IOException
+     */
+    public Map<String, String> getAll(Collection<String> keys) throws SQLException, IOException {
+        Map<String, String> values = new HashMap<>();
+        if (keys.isEmpty()) {
+            return values;
+        }
+        try (Connection conn = getDataSource().getConnection();
+                PreparedStatement select = conn.prepareStatement(SELECT_ALL_QUERY)) {
+            Array array = conn.createArrayOf("varchar", keys.toArray());
+            select.setArray(1, array);
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    values.put(rs.getString("key"), rs.getString("value"));
+                }
+            }
+            array.free();
+        }
+        return values;
+    }
+
+    /**
+     * Insert or update the values, the updates and the inserts are sent in
+     * batches of one transaction. If the transaction fails ( e.g. a key
+     * inserted meanwhile by another thread ) the values are saved one by one,
+     * and the first error of a value is thrown after the others are saved.
+     *
+     * @param values
+     * @throws SQLException
+     * @throws IOException
+     */
+    public void putAll(Map<String, String> values) throws SQLException, IOException {
+        if (values.isEmpty()) {
+            return;
+        }
+        try (Connection conn = getDataSource().getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                putBatch(conn, new ArrayList<>(values.entrySet()));
+                conn.commit();
+            } catch (SQLException ex) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+                SQLException failure = null;
+                for (Map.Entry<String, String> entry : values.entrySet()) {
+                    try {
+                        put(conn, entry.getKey(), entry.getValue());
+                    } catch (SQLException rowException) {
+                        failure = failure == null ? rowException : failure;
+                    }
+                }
+                if (failure != null) {
+                    throw failure;
+                }
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (dataSource != null) {
+            dataSource.close();
+            dataSource = null;
+        }
+    }
+
+    private void putBatch(Connection conn, List<Map.Entry<String, String>> entries) throws SQLException {
+        List<Map.Entry<String, String>> inserts = new ArrayList<>();
+        try (PreparedStatement update = conn.prepareStatement(UPDATE_QUERY)) {
+            for (Map.Entry<String, String> entry : entries) {
+                update.setString(1, entry.getValue());
+                update.setString(2, entry.getKey());
+                update.addBatch();
+            }
+            int[] counts = update.executeBatch();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    inserts.add(entries.get(i));
+                }
+            }
+        }
+        if (!inserts.isEmpty()) {
+            try (PreparedStatement insert = conn.prepareStatement(INSERT_QUERY)) {
+                for (Map.Entry<String, String> entry : inserts) {
+                    insert.setString(1, entry.getKey());
+                    insert.setString(2, entry.getValue());
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+    }
+
+    /*
+     * Update or insert one value, the key inserted by another connection
+     * after the update is updated again
+     */
+    private void put(Connection conn, String key, String value) throws SQLException {
+        if (update(conn, key, value)) {
+            return;
+        }
+        try (PreparedStatement insert = conn.prepareStatement(INSERT_QUERY)) {
+            insert.setString(1, key);
+            insert.setString(2, value);
+            insert.executeUpdate();
+        } catch (SQLException ex) {
+            if (!UNIQUE_VIOLATION.equals(ex.getSQLState()) || !update(conn, key, value)) {
+                throw ex;
+            }
+        }
+    }
+
+    private boolean update(Connection conn, String key, String value) throws SQLException {
+        try (PreparedStatement update = conn.prepareStatement(UPDATE_QUERY)) {
+            update.setString(1, value);
+            update.setString(2, key);
+            return update.executeUpdate() > 0;
+        }
+    }
+
+}
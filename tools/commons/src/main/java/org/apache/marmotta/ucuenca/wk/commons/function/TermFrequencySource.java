@@ -0,0 +1,57 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.commons.function;
+
+import java.util.List;
+
+/**
+ * Source of the document counts used by the Normalized Google Distance ( NGD
+ * ).
+ *
+ * A count of 0 means that the term is not found or that the count is not
+ * available, the NGD of a pair with a count of 0 is the maximum distance.
+ */
+public interface TermFrequencySource {
+
+    /**
+     * Number of documents where the words of the term appear near each other
+     *
+     * @param term
+     * @return
+     */
+    double count(String term);
+
+    /**
+     * Number of documents where the words of both terms appear near each other
+     *
+     * @param termA
+     * @param termB
+     * @return
+     */
+    double count(String termA, String termB);
+
+    /**
+     * Total number of documents of the source
+     *
+     * @return
+     */
+    double documents();
+
+    /**
+     * Load at once the counts of the terms and pairs that will be requested,
+     * the sources without a remote cache do nothing
+     *
+     * @param terms
+     * @param pairs
+     */
+    void prefetch(List<String> terms, List<String[]> pairs);
+
+    /**
+     * Save the counts fetched since the last flush
+     */
+    void flush();
+
+}
@@ -0,0 +1,210 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.commons.function;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import org.simmetrics.StringMetric;
+import static org.simmetrics.StringMetricBuilder.with;
+import org.simmetrics.metrics.CosineSimilarity;
+import org.simmetrics.metrics.Levenshtein;
+import org.simmetrics.simplifiers.Simplifiers;
+import org.simmetrics.tokenizers.Tokenizers;
+
+/**
+ * Title comparison of publications. The similarity is the average of Cosine
+ * Similarity ( 3-grams ) and Levenshtein.
+ *
+ * To avoid the comparison of a title against all titles of an author, the
+ * titles added to the matcher are indexed by MinHash of their 3-grams in LSH
+ * buckets, and only the titles that share a bucket with the searched title are
+ * compared.
+ *
+ * @param <T> element returned for each title ( URI, query result, ... )
+ */
+public class TitleMatcher<T> {
+
+    private static final StringMetric COSINE
+            = with(new CosineSimilarity<String>())
+            .simplify(Simplifiers.toLowerCase())
+            .simplify(Simplifiers.removeNonWord()).simplifierCache()
+            .tokenize(Tokenizers.qGram(3)).tokenizerCache().build();
+
+    private static final StringMetric LEVENSHTEIN
+            = with(new Levenshtein())
+            .simplify(Simplifiers.removeDiacritics())
+            .simplify(Simplifiers.toLowerCase()).build();
+
+    private static final int BANDS = 16;
+
+    private static final int ROWS = 2;
+
+    private static final int SHINGLE = 3;
+
+    private static final long[] SEEDS = new long[BANDS * ROWS];
+
+    static {
+        long seed = 0x2545f4914f6cdd1dL;
+        for (int i = 0; i < SEEDS.length; i++) {
+            seed = mix(seed + 0x9e3779b97f4a7c15L);
+            SEEDS[i] = seed | 1;
+        }
+    }
+
+    private final double threshold;
+
+    private final List<T> elements = new ArrayList<>();
+
+    private final List<String> titles = new ArrayList<>();
+
+    private final Map<Long, List<Integer>> buckets = new HashMap<>();
+
+    /**
+     * @param threshold minimum similarity to consider that two titles are the
+     * same publication
+     */
+    public TitleMatcher(double threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Cosine Similarity and Levenshtein average between two titles
+     *
+     * @param a
+     * @param b
+     * @return
+     */
+    public static float similarity(String a, String b) {
+        float compare = COSINE.compare(a, b);
+        float compare2 = LEVENSHTEIN.compare(a, b);
+        return (float) ((compare + compare2) / 2.0);
+    }
+
+    public void add(T element, String title) {
+        int position = elements.size();
+        elements.add(element);
+        titles.add(title);
+        for (long bucket : getBuckets(title)) {
+            List<Integer> positions = buckets.get(bucket);
+            if (positions == null) {
+                positions = new ArrayList<>();
+                buckets.put(bucket, positions);
+            }
+            positions.add(position);
+        }
+    }
+
+    /**
+     * Elements whose titles share at least one LSH bucket with the title, in
+     * the order they were added
+     *
+     * @param title
+     * @return
+     */
+    public List<T> candidates(String title) {
+        List<T> result = new ArrayList<>();
+        for (int position : getCandidatePositions(title)) {
+            result.add(elements.get(position));
+        }
+        return result;
+    }
+
+    /**
+     * Elements whose titles have a similarity greater than the threshold, in
+     * the order they were added
+     *
+     * @param title
+     * @return
+     */
+    public List<T> matches(String title) {
+        List<T> result = new ArrayList<>();
+        for (int position : getCandidatePositions(title)) {
+            if (similarity(title, titles.get(position)) > threshold) {
+                result.add(elements.get(position));
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return elements.size();
+    }
+
+    private Set<Integer> getCandidatePositions(String title) {
+        Set<Integer> positions = new TreeSet<>();
+        for (long bucket : getBuckets(title)) {
+            List<Integer> bucketPositions = buckets.get(bucket);
+            if (bucketPositions != null) {
+                positions.addAll(bucketPositions);
+            }
+        }
+        return positions;
+    }
+
+    private static long[] getBuckets(String title) {
+        long[] signature = getSignature(title);
+        long[] result = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            long bucket = band;
+            for (int row = 0; row < ROWS; row++) {
+                bucket = bucket * 0x100000001b3L ^ signature[band * ROWS + row];
+            }
+            result[band] = mix(bucket);
+        }
+        return result;
+    }
+
+    /* MinHash of the 3-grams of the normalized title */
+    private static long[] getSignature(String title) {
+        long[] signature = new long[SEEDS.length];
+        for (int i = 0; i < signature.length; i++) {
+            signature[i] = Long.MAX_VALUE;
+        }
+        for (String shingle : getShingles(title)) {
+            long hash = shingle.hashCode();
+            for (int i = 0; i < SEEDS.length; i++) {
+                long value = mix(hash * SEEDS[i]);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private static Set<String> getShingles(String title) {
+        StringBuilder normalized = new StringBuilder();
+        for (char c : title.toLowerCase().toCharArray()) {
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(c);
+            }
+        }
+        Set<String> shingles = new HashSet<>();
+        if (normalized.length() <= SHINGLE) {
+            shingles.add(normalized.toString());
+            return shingles;
+        }
+        for (int i = 0; i + SHINGLE <= normalized.length(); i++) {
+            shingles.add(normalized.substring(i, i + SHINGLE));
+        }
+        return shingles;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+}
@@ -10,21 +10,20 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
 import com.memetix.mst.language.Language;
 import com.memetix.mst.translate.Translate;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintStream;
-import java.io.UnsupportedEncodingException;
 import java.nio.charset.Charset;
-import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
@@ -37,66 +36,184 @@ import org.apache.commons.httpclient.methods.PostMethod;
 import org.apache.commons.io.IOUtils;
 import org.apache.marmotta.ucuenca.wk.commons.impl.CommonsServicesImpl;
 import org.apache.marmotta.ucuenca.wk.commons.service.CommonsServices;
+import org.apache.marmotta.ucuenca.wk.commons.service.TranslationService;
 
 /**
  *
  * @author FernandoBac
+ *
+ * Translation of the keywords of the semantic distance with yandex. The texts
+ * are searched in the TranslationCache, then in the cache table of the
+ * database ( one query for all texts ) and the rest are translated in grouped
+ * requests of BATCH_SIZE texts.
  */
-public class TranslateForSemanticDistance {
+public class TranslateForSemanticDistance implements TranslationService {
 
-    // JDBC driver name and database URL
-    private String dburl = "";
-    //  Database credentials
-    private String user = "";
-    private String pass = "";
     private CommonsServices commonservices = new CommonsServicesImpl();
 
-    private Connection conn = null;
-    //Statement stmt = null;
+    private static final String TRANSLATOR = "yandex";
 
-    private JsonObject config = null;
+    private static final String LANGUAGE = "auto";
 
-    public TranslateForSemanticDistance() throws IOException, ClassNotFoundException {
-        JsonParser parser = new JsonParser();
-        InputStream resourceAsStream = this.getClass().getResourceAsStream("/config.cnf");
-        //String readFile = readFile("./config.cnf", Charset.defaultCharset());
-        String theString = IOUtils.toString(resourceAsStream, Charset.defaultCharset().toString());
+    private static final String YANDEX_URL = "https://translate.yandex.net/api/v1.5/tr.json/translate";
 
-        config = parser.parse(theString).getAsJsonObject();
-        dburl = dburl + config.get("dbServer").getAsString() + "/" + config.get("dbSchema").getAsString();
-        user = config.get("dbUser").getAsString();
-        pass = config.get("dbPassword").getAsString();
+    private static final String YANDEX_KEY = "trnsl.1.1.20160321T160516Z.43cfb95e23a69315.6c0a2ae19f56388c134615f4740fbb1d400f15d3";
 
-    }
+    /* texts sent in each request of yandex */
+    private static final int BATCH_SIZE = 25;
+
+    /* /config.cnf, read once */
+    private static JsonObject config = null;
+
+    private TranslationCache translationCache = TranslationCache.getInstance();
 
-    public void close() throws SQLException {
-        //conn.close();
+    private SemanticCacheStore store;
+
+    public TranslateForSemanticDistance(SemanticCacheStore store) throws IOException {
+        this.store = store;
+        synchronized (TranslateForSemanticDistance.class) {
+            if (config == null) {
+                JsonParser parser = new JsonParser();
+                InputStream resourceAsStream = this.getClass().getResourceAsStream("/config.cnf");
+                String theString = IOUtils.toString(resourceAsStream, Charset.defaultCharset().toString());
+                config = parser.parse(theString).getAsJsonObject();
+            }
+        }
     }
 
     public List<String> traductor(List<String> join) throws SQLException, IOException, ClassNotFoundException {
-        Class.forName("org.postgresql.Driver");
-        conn = DriverManager.getConnection(dburl, user, pass);
         boolean truevalue = true;
-        List<String> ls = new ArrayList();
+        List<String> words = new ArrayList<>();
         for (String w : join) {
-            if (truevalue) {
-                ls.add(traductorYandex(w.trim()).trim().toLowerCase());
-            } else {
-                ls.add(traductorBing(w.trim()).trim().toLowerCase());
+            words.add(w.trim());
+        }
+        List<String> ls = new ArrayList();
+        if (truevalue) {
+            List<String> translations = translateBatch(words);
+            for (int i = 0; i < words.size(); i++) {
+                String translation = translations.get(i);
+                ls.add(translation != null ? translation : words.get(i).toLowerCase());
+            }
+        } else {
+            for (String w : words) {
+                ls.add(traductorBing(w).trim().toLowerCase());
             }
         }
-        conn.close();
         return ls;
     }
 
-    private String traductorYandex(String palabras) throws UnsupportedEncodingException, SQLException, IOException {
-        String url = "https://translate.yandex.net/api/v1.5/tr.json/translate";
-        //String url = "https://translate.yandex.net/api/v1.5/tr.json/translate?key=trnsl.1.1.20160321T160516Z.43cfb95e23a69315.6c0a2ae19f56388c134615f4740fbb1d400f15d3&lang=en&text=" + URLEncoder.encode(palabras, "UTF-8");
+    @Override
+    public JsonObject translate(String text) {
+        String translation = translateBatch(Collections.singletonList(text.trim())).get(0);
+        JsonObject result = new JsonObject();
+        result.addProperty("result", translation != null ? translation : " No Result ");
+        return result;
+    }
+
+    /**
+     * Translations of yandex in lower case, null for the texts that could not
+     * be translated
+     *
+     * @param texts
+     * @return
+     */
+    @Override
+    public List<String> translateBatch(List<String> texts) {
+        Map<String, String> translations = new HashMap<>();
+        //the translations already done are taken from the cache, without queries to the database
+        Map<String, String> misses = new LinkedHashMap<>();
+        for (String text : texts) {
+            if (!translations.containsKey(text) && !misses.containsValue(text)) {
+                String translation = translationCache.get(TRANSLATOR, LANGUAGE, text);
+                if (translation != null) {
+                    translations.put(text, translation);
+                } else {
+                    misses.put(getRequestKey(text), text);
+                }
+            }
+        }
+        if (!misses.isEmpty()) {
+            Map<String, String> responses = loadResponses(misses.keySet());
+            List<String> pending = new ArrayList<>();
+            for (Map.Entry<String, String> miss : misses.entrySet()) {
+                String translation = responses.containsKey(miss.getKey()) ? parseTranslation(responses.get(miss.getKey())) : null;
+                if (translation != null) {
+                    addTranslation(translations, miss.getValue(), translation);
+                } else {
+                    pending.add(miss.getValue());
+                }
+            }
+            Map<String, String> fetched = new HashMap<>();
+            for (int i = 0; i < pending.size(); i += BATCH_SIZE) {
+                List<String> group = pending.subList(i, Math.min(i + BATCH_SIZE, pending.size()));
+                List<String> groupTranslations = traductorYandex(group);
+                for (int j = 0; groupTranslations != null && j < group.size(); j++) {
+                    addTranslation(translations, group.get(j), groupTranslations.get(j));
+                    JsonArray text = new JsonArray();
+                    text.add(new JsonPrimitive(groupTranslations.get(j)));
+                    JsonObject response = new JsonObject();
+                    response.add("text", text);
+                    fetched.put(getRequestKey(group.get(j)), response.toString());
+                }
+            }
+            saveResponses(fetched);
+        }
+        List<String> result = new ArrayList<>();
+        for (String text : texts) {
+            result.add(translations.get(text));
+        }
+        return result;
+    }
+
+    private void addTranslation(Map<String, String> translations, String text, String translation) {
+        String value = translation.trim().toLowerCase();
+        translations.put(text, value);
+        translationCache.put(TRANSLATOR, LANGUAGE, text, value);
+    }
+
+    /*
+     * Key of the response of a text in the cache table, the same of the
+     * requests of one text
+     */
+    private String getRequestKey(String text) {
         ConcurrentHashMap<String, String> mp = new ConcurrentHashMap<>();
-        mp.put("key", "trnsl.1.1.20160321T160516Z.43cfb95e23a69315.6c0a2ae19f56388c134615f4740fbb1d400f15d3");
+        mp.put("key", YANDEX_KEY);
         mp.put("lang", "en");
-        mp.put("text", palabras);
+        mp.put("text", text);
         mp.put("options", "1");
+        return commonservices.getMD5(YANDEX_URL + mp.toString());
+    }
+
+    private Map<String, String> loadResponses(Collection<String> keys) {
+        try {
+            return store.getAll(keys);
+        } catch (SQLException | IOException ex) {
+            Logger.getLogger(TranslateForSemanticDistance.class.getName()).log(Level.WARNING, "Translations not read from the cache: {0}", ex.toString());
+            return new HashMap<>();
+        }
+    }
+
+    private void saveResponses(Map<String, String> responses) {
+        try {
+            store.putAll(responses);
+        } catch (SQLException | IOException ex) {
+            Logger.getLogger(TranslateForSemanticDistance.class.getName()).log(Level.WARNING, "Translations not saved in the cache: {0}", ex.toString());
+        }
+    }
+
+    /* first translation of a response of yandex, null when it is not valid */
+    private String parseTranslation(String response) {
+        try {
+            JsonArray asArray = new JsonParser().parse(response).getAsJsonObject().get("text").getAsJsonArray();
+            return asArray.size() > 0 ? asArray.get(0).getAsString() : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /* translations of yandex of the texts in one request, null when the translation failed */
+    private List<String> traductorYandex(List<String> palabras) {
+        //String url = "https://translate.yandex.net/api/v1.5/tr.json/translate?key=trnsl.1.1.20160321T160516Z.43cfb95e23a69315.6c0a2ae19f56388c134615f4740fbb1d400f15d3&lang=en&text=" + URLEncoder.encode(palabras, "UTF-8");
         boolean c = true;
         int i = 0;
         int maxqueries = 10;
@@ -106,26 +223,28 @@ public class TranslateForSemanticDistance {
                 if (i == maxqueries) {
                     c = false;
                 }
-                String http = http2(url, mp);
-                String res = http;
                 JsonParser parser = new JsonParser();
-                JsonObject parse = parser.parse(res).getAsJsonObject();
+                JsonObject parse = parser.parse(http2(YANDEX_URL, palabras)).getAsJsonObject();
                 JsonArray asArray = parse.get("text").getAsJsonArray();
-                res = asArray.get(0).getAsString();
-                palabras = res;
-                c = false;
+                if (asArray.size() == palabras.size()) {
+                    List<String> res = new ArrayList<>();
+                    for (JsonElement text : asArray) {
+                        res.add(text.getAsString());
+                    }
+                    return res;
+                }
             } catch (Exception e) {
                 e.printStackTrace(new PrintStream(System.out));
-
-                try {
-                    Thread.sleep(1000);
-                } catch (InterruptedException ex) {
-                    Logger.getLogger(SemanticDistance.class.getName()).log(Level.SEVERE, null, ex);
-                }
+            }
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return null;
             }
             //System.out.println("In2");
         } while (c);
-        return palabras;
+        return null;
 
     }
 
@@ -167,49 +286,27 @@ public class TranslateForSemanticDistance {
         return palabras;
     }
 
-    private synchronized String http2(String s, Map<String, String> mp) throws SQLException, IOException {
-        String md = s + mp.toString();
-        Statement stmt = conn.createStatement();
-        String sql;
-        sql = "SELECT * FROM cache where cache.key='" + commonservices.getMD5(md) + "'";
-        java.sql.ResultSet rs = stmt.executeQuery(sql);
+    private String http2(String s, List<String> texts) throws IOException {
         String resp = "";
-        if (rs.next()) {
-            resp = rs.getString("value");
-            rs.close();
-            stmt.close();
-        } else {
-            rs.close();
-            stmt.close();
-
-            HttpClient client = new HttpClient();
-            PostMethod method = new PostMethod(s);
+        HttpClient client = new HttpClient();
+        PostMethod method = new PostMethod(s);
+        method.addParameter("key", YANDEX_KEY);
+        method.addParameter("lang", "en");
+        method.addParameter("options", "1");
+        //one text parameter for each text, the translations are in the same order
+        for (String text : texts) {
+            method.addParameter("text", text);
+        }
+        int statusCode = client.executeMethod(method);
 
-            //Add any parameter if u want to send it with Post req.
-            for (Map.Entry<String, String> mcc : mp.entrySet()) {
-                method.addParameter(mcc.getKey(), mcc.getValue());
-            }
-            int statusCode = client.executeMethod(method);
-
-            if (statusCode != -1) {
-                InputStream in = method.getResponseBodyAsStream();
-                final Scanner reader = new Scanner(in, "UTF-8");
-                while (reader.hasNextLine()) {
-                    final String line = reader.nextLine();
-                    resp += line + "\n";
-                }
-                reader.close();
-                try {
-                    JsonParser parser = new JsonParser();
-                    parser.parse(resp);
-                    PreparedStatement stmt2 = conn.prepareStatement("INSERT INTO cache (key, value) values (?, ?)");
-                    stmt2.setString(1, commonservices.getMD5(md));
-                    stmt2.setString(2, resp);
-                    stmt2.executeUpdate();
-                    stmt2.close();
-                } catch (Exception e) {
-                }
+        if (statusCode != -1) {
+            InputStream in = method.getResponseBodyAsStream();
+            final Scanner reader = new Scanner(in, "UTF-8");
+            while (reader.hasNextLine()) {
+                final String line = reader.nextLine();
+                resp += line + "\n";
             }
+            reader.close();
         }
 
         return resp;
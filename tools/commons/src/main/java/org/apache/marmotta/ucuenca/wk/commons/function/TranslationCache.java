@@ -0,0 +1,143 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.commons.function;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.marmotta.ucuenca.wk.commons.impl.CommonsServicesImpl;
+import org.apache.marmotta.ucuenca.wk.commons.service.CommonsServices;
+
+/**
+ * Cache of the translations of keywords and texts.
+ *
+ * The translations are searched first in a bounded LRU in memory and then in
+ * an embedded H2 database ( file translationCacheDirectory of
+ * parameters.properties ), keyed by the MD5 of the translator, the source
+ * language and the text. When the database cannot be opened the cache only
+ * works in memory. The instance is shared and can be used by several threads.
+ */
+public final class TranslationCache {
+
+    private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS translation (key VARCHAR(32) PRIMARY KEY, value VARCHAR)";
+
+    private static final String SELECT_QUERY = "SELECT value FROM translation WHERE key = ?";
+
+    private static final String UPSERT_QUERY = "MERGE INTO translation (key, value) KEY (key) VALUES (?, ?)";
+
+    private static TranslationCache instance;
+
+    private final CommonsServices commonservices = new CommonsServicesImpl();
+
+    private final Map<String, String> translations;
+
+    private Connection connection;
+
+    private TranslationCache() {
+        final int maxSize = ConfigurationSnapshot.current().getInt(ConfigurationSnapshot.PARAMETERS, "translationCacheSize", 50000);
+        translations = new LinkedHashMap<String, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxSize;
+            }
+        };
+        String directory = commonservices.readPropertyFromFile("parameters.properties", "translationCacheDirectory");
+        if (directory != null) {
+            try {
+                Class.forName("org.h2.Driver");
+                connection = DriverManager.getConnection("jdbc:h2:file:" + new File(directory.trim(), "translations").getAbsolutePath(), "sa", "");
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(CREATE_TABLE);
+                }
+            } catch (ClassNotFoundException | SQLException ex) {
+                Logger.getLogger(TranslationCache.class.getName()).log(Level.WARNING, "Translation cache only in memory: {0}", ex.toString());
+                connection = null;
+            }
+        }
+    }
+
+    public static synchronized TranslationCache getInstance() {
+        if (instance == null) {
+            instance = new TranslationCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Cached translation of the text, null when the text has not been
+     * translated
+     *
+     * @param translator name of the translator ( bing, yandex, ... )
+     * @param language source language of the text
+     * @param text
+     * @return
+     */
+    public String get(String translator, String language, String text) {
+        String key = getKey(translator, language, text);
+        synchronized (translations) {
+            String translation = translations.get(key);
+            if (translation != null) {
+                return translation;
+            }
+        }
+        String translation = load(key);
+        if (translation != null) {
+            synchronized (translations) {
+                translations.put(key, translation);
+            }
+        }
+        return translation;
+    }
+
+    public void put(String translator, String language, String text, String translation) {
+        String key = getKey(translator, language, text);
+        synchronized (translations) {
+            translations.put(key, translation);
+        }
+        store(key, translation);
+    }
+
+    private synchronized String load(String key) {
+        if (connection == null) {
+            return null;
+        }
+        try (PreparedStatement select = connection.prepareStatement(SELECT_QUERY)) {
+            select.setString(1, key);
+            try (ResultSet rs = select.executeQuery()) {
+                return rs.next() ? rs.getString("value") : null;
+            }
+        } catch (SQLException ex) {
+            Logger.getLogger(TranslationCache.class.getName()).log(Level.SEVERE, null, ex);
+            return null;
+        }
+    }
+
+    private synchronized void store(String key, String translation) {
+        if (connection == null) {
+            return;
+        }
+        try (PreparedStatement upsert = connection.prepareStatement(UPSERT_QUERY)) {
+            upsert.setString(1, key);
+            upsert.setString(2, translation);
+            upsert.executeUpdate();
+        } catch (SQLException ex) {
+            Logger.getLogger(TranslationCache.class.getName()).log(Level.SEVERE, null, ex);
+        }
+    }
+
+    private String getKey(String translator, String language, String text) {
+        return commonservices.getMD5(translator + "|" + language + "|" + text);
+    }
+
+}
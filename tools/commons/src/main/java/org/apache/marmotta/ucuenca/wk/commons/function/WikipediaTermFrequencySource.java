@@ -0,0 +1,68 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.commons.function;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Document counts of the searches in english wikipedia ( totalhits ), a term
+ * is searched with a proximity of 10 words and a pair with a proximity of 50
+ * words.
+ */
+public class WikipediaTermFrequencySource implements TermFrequencySource {
+
+    /* number of documents of the search ( articles of english wikipedia ) */
+    private static final double DOCUMENTS = 5029469;
+
+    private final HitCountCache hitCountCache;
+
+    public WikipediaTermFrequencySource(HitCountCache hitCountCache) {
+        this.hitCountCache = hitCountCache;
+    }
+
+    @Override
+    public double count(String term) {
+        return hitCountCache.getTotalHits(termQuery(term));
+    }
+
+    @Override
+    public double count(String termA, String termB) {
+        return hitCountCache.getTotalHits(pairQuery(termA, termB));
+    }
+
+    @Override
+    public double documents() {
+        return DOCUMENTS;
+    }
+
+    @Override
+    public void prefetch(List<String> terms, List<String[]> pairs) {
+        Set<String> queries = new HashSet<>();
+        for (String term : terms) {
+            queries.add(termQuery(term));
+        }
+        for (String[] pair : pairs) {
+            queries.add(pairQuery(pair[0], pair[1]));
+        }
+        hitCountCache.prefetch(queries);
+    }
+
+    @Override
+    public void flush() {
+        hitCountCache.flush();
+    }
+
+    private static String termQuery(String term) {
+        return "\"" + term + "\"~10";
+    }
+
+    private static String pairQuery(String termA, String termB) {
+        return "\"" + termA + " " + termB + "\"~50";
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.commons.impl;
+
+import com.google.gson.JsonObject;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.marmotta.ucuenca.wk.commons.function.TranslationCache;
+import org.apache.marmotta.ucuenca.wk.commons.service.TranslationService;
+
+/**
+ * Translation service that keeps the translations of other service in the
+ * shared TranslationCache, only the texts that are not in the cache are sent
+ * to the translator.
+ */
+public class CachingTranslationService implements TranslationService {
+
+    private static final String TRANSLATOR = "bing";
+
+    private static final String LANGUAGE = "es";
+
+    private static final String NO_RESULT = " No Result ";
+
+    private final TranslationService delegate;
+
+    private final TranslationCache cache = TranslationCache.getInstance();
+
+    public CachingTranslationService(TranslationService delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public JsonObject translate(String text) {
+        String translation = cache.get(TRANSLATOR, LANGUAGE, text);
+        if (translation == null) {
+            JsonObject result = delegate.translate(text);
+            translation = result.get("result").getAsString();
+            if (NO_RESULT.equals(translation)) {
+                return result;
+            }
+            cache.put(TRANSLATOR, LANGUAGE, text, translation);
+        }
+        JsonObject result = new JsonObject();
+        result.addProperty("result", translation);
+        return result;
+    }
+
+    /**
+     * Translate the distinct texts that are not in the cache, in grouped
+     * requests of the delegate
+     *
+     * @param texts
+     * @return
+     */
+    @Override
+    public List<String> translateBatch(List<String> texts) {
+        Map<String, String> translations = new HashMap<>();
+        Set<String> misses = new LinkedHashSet<>();
+        for (String text : texts) {
+            if (!translations.containsKey(text) && !misses.contains(text)) {
+                String translation = cache.get(TRANSLATOR, LANGUAGE, text);
+                if (translation != null) {
+                    translations.put(text, translation);
+                } else {
+                    misses.add(text);
+                }
+            }
+        }
+        if (!misses.isEmpty()) {
+            List<String> pending = new ArrayList<>(misses);
+            List<String> translated = delegate.translateBatch(pending);
+            for (int i = 0; i < pending.size(); i++) {
+                String translation = translated.get(i);
+                if (translation != null) {
+                    cache.put(TRANSLATOR, LANGUAGE, pending.get(i), translation);
+                }
+                translations.put(pending.get(i), translation);
+            }
+        }
+        List<String> result = new ArrayList<>();
+        for (String text : texts) {
+            result.add(translations.get(text));
+        }
+        return result;
+    }
+
+}
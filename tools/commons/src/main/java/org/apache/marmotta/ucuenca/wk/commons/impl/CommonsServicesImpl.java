@@ -6,17 +6,13 @@
 package org.apache.marmotta.ucuenca.wk.commons.impl;
 
 import org.slf4j.Logger;
-import java.io.IOException;
-import java.io.InputStream;
 import java.math.BigInteger;
+import java.net.MalformedURLException;
 import java.net.URL;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.Properties;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import javax.inject.Inject;
+import org.apache.marmotta.ucuenca.wk.commons.function.ConfigurationSnapshot;
 import org.apache.marmotta.ucuenca.wk.commons.service.CommonsServices;
 
 /**
@@ -53,15 +49,16 @@ public class CommonsServicesImpl implements CommonsServices {
      */
     @Override
     public Boolean isURI(String object) {
-        URL url = null;
+        // the literals are rejected without the exception of URL
+        if (object == null || !(object.regionMatches(true, 0, "http:", 0, 5) || object.regionMatches(true, 0, "https:", 0, 6))) {
+            return false;
+        }
         try {
-            url = new URL(object);
-        } catch (Exception e1) {
+            new URL(object);
+        } catch (MalformedURLException e1) {
             return false;
         }
-        Pattern pat = Pattern.compile("^[hH]ttp(s?)");
-        Matcher mat = pat.matcher(url.getProtocol());
-        return mat.matches(); // return "http".equals(url.getProtocol()) || "https".equals(url.getProtocol()) ;
+        return true;
     }
 
     @Override
@@ -81,32 +78,12 @@ public class CommonsServicesImpl implements CommonsServices {
         }
     }
 
+    /**
+     * Value of a property of a properties file of the classpath, the files are
+     * read once by ConfigurationSnapshot
+     */
     @Override
     public String readPropertyFromFile(String file,String property) {
-        Properties propiedades = new Properties();
-        InputStream entrada = null;
-        ConcurrentHashMap<String, String> mapping = new ConcurrentHashMap<String, String>();
-        try {
-            ClassLoader classLoader = getClass().getClassLoader();
-            entrada = classLoader.getResourceAsStream(file);
-            propiedades.load(entrada);
-            for (String source : propiedades.stringPropertyNames()) {
-                String target = propiedades.getProperty(source);
-                mapping.put(source, target);
-            }
-        } catch (IOException ex) {
-            log.error("IOException in getReadPropertyFromFile CommonsServiceImpl " + ex);
-        } catch (Exception ex) {
-            log.error("Exception in getReadPropertyFromFile CommonsServiceImpl " + ex);
-        } finally {
-            if (entrada != null) {
-                try {
-                    entrada.close();
-                } catch (IOException e) {
-                    log.error("IOException un getReadPropertyFromFile line 106" + e);
-                }
-            }
-        }
-        return mapping.get(property);
+        return ConfigurationSnapshot.current().getString(file, property);
     }
 }
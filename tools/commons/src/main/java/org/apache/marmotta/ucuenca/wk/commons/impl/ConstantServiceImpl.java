@@ -5,7 +5,7 @@
  */
 package org.apache.marmotta.ucuenca.wk.commons.impl;
 
-import org.apache.marmotta.ucuenca.wk.commons.service.CommonsServices;
+import org.apache.marmotta.ucuenca.wk.commons.function.ConfigurationSnapshot;
 import org.apache.marmotta.ucuenca.wk.commons.service.ConstantService;
 
 /**
@@ -18,8 +18,6 @@ public class ConstantServiceImpl implements ConstantService {
     private final static String OWLNS = "http://www.w3.org/2002/07/owl#";
     private final static String LOGO_PATH = "./../wkhuska_webapps/ROOT/wkhome/images/logo_wk.png";
 
-    private CommonsServices commonService = new CommonsServicesImpl();
-
     @Override
     public String getPubProperty() {
         return PUBPROPERTY;
@@ -38,7 +36,7 @@ public class ConstantServiceImpl implements ConstantService {
      */
     @Override
     public String getWkhuskaGraph() {
-        return getSelectedGraph("wkhuska");
+        return ConfigurationSnapshot.current().getWkhuskaGraph();
     }
 
     /**
@@ -49,47 +47,47 @@ public class ConstantServiceImpl implements ConstantService {
      */
     @Override
     public String getAuthorsGraph() {
-        return getWkhuskaGraph() + getSelectedGraph("authors");
+        return ConfigurationSnapshot.current().getGraph("authors");
     }
 
     @Override
     public String getClusterGraph() {
-        return getWkhuskaGraph() + getSelectedGraph("clusters");
+        return ConfigurationSnapshot.current().getGraph("clusters");
     }
 
     @Override
     public String getExternalAuthorsGraph() {
-        return getWkhuskaGraph() + getSelectedGraph("externalauthors");
+        return ConfigurationSnapshot.current().getGraph("externalauthors");
     }
 
     @Override
     public String getDBLPGraph() {
-        return getWkhuskaGraph() + getSelectedGraph("dblp");
+        return ConfigurationSnapshot.current().getGraph("dblp");
     }
 
     @Override
     public String getScopusGraph() {
-            return getWkhuskaGraph() + getSelectedGraph("scopus");
+            return ConfigurationSnapshot.current().getGraph("scopus");
     }
 
     @Override
     public String getMAGraph() {
-            return getWkhuskaGraph() + getSelectedGraph("microsoftacademics");
+            return ConfigurationSnapshot.current().getGraph("microsoftacademics");
     }
 
     @Override
     public String getGSGraph() {
-            return getWkhuskaGraph() + getSelectedGraph("googlescholar");
+            return ConfigurationSnapshot.current().getGraph("googlescholar");
         }
 
     @Override
     public String getEndpointsGraph() {
-        return getWkhuskaGraph() + getSelectedGraph("endpoints");
+        return ConfigurationSnapshot.current().getGraph("endpoints");
     }
 
     @Override
     public String getProviderNsGraph() {
-        return getWkhuskaGraph() + getSelectedGraph("provider");
+        return ConfigurationSnapshot.current().getGraph("provider");
     }
 
     @Override
@@ -143,7 +141,7 @@ public class ConstantServiceImpl implements ConstantService {
     }
 
     public String getSelectedGraph(String type) {
-        return commonService.readPropertyFromFile("parameters.properties", type);
+        return ConfigurationSnapshot.current().getString(ConfigurationSnapshot.PARAMETERS, type);
     }
 
 }
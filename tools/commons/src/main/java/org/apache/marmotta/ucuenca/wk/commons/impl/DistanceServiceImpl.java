@@ -7,40 +7,69 @@ package org.apache.marmotta.ucuenca.wk.commons.impl;
 
 import org.apache.marmotta.ucuenca.wk.commons.function.SyntacticDistance;
 import org.apache.marmotta.ucuenca.wk.commons.function.SemanticDistance;
+import org.apache.marmotta.ucuenca.wk.commons.function.TitleMatcher;
+import org.apache.marmotta.ucuenca.wk.commons.function.ConfigurationSnapshot;
+import org.apache.marmotta.ucuenca.wk.commons.function.LocalTermIndex;
+import org.apache.marmotta.ucuenca.wk.commons.function.HitCountCache;
+import org.apache.marmotta.ucuenca.wk.commons.function.SemanticCacheStore;
+import org.apache.marmotta.ucuenca.wk.commons.function.TermFrequencySource;
+import org.apache.marmotta.ucuenca.wk.commons.function.TranslateForSemanticDistance;
+import org.apache.marmotta.ucuenca.wk.commons.function.WikipediaTermFrequencySource;
+import java.io.File;
 import java.io.IOException;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import org.apache.marmotta.ucuenca.wk.commons.service.CommonsServices;
 import org.apache.marmotta.ucuenca.wk.commons.service.DistanceService;
-import org.simmetrics.metrics.CosineSimilarity;
-import org.simmetrics.metrics.Levenshtein;
-import org.simmetrics.simplifiers.Simplifiers;
-import org.simmetrics.tokenizers.Tokenizers;
-import org.simmetrics.StringMetric;
-import static org.simmetrics.StringMetricBuilder.with;
 
 /**
  *
  * @author Satellite
+ *
+ * The searches of the semantic distances run in ngdParallelism threads shared
+ * by all the comparisons of the application, stopped with the application.
  */
+@ApplicationScoped
 public class DistanceServiceImpl implements DistanceService {
 
     @Inject
     private org.slf4j.Logger log;
 
+    @Inject
+    private SemanticCacheStore cacheStore;
+
     private CommonsServices commonService = new CommonsServicesImpl();
 
+    /* local index of the terms, reopened when the index file is rebuilt */
+    private static LocalTermIndex localTermIndex;
+    private static long localTermIndexModified;
+
+    /* counts of the wikipedia searches, shared by all comparisons */
+    private TermFrequencySource wikipediaCounts;
+
+    private TranslateForSemanticDistance translator;
+
+    private ThreadPoolExecutor ngdExecutor;
+
     @Override
     public boolean semanticComparison(List<String> listA, List<String> listB) {
         try {
-            SemanticDistance dist = new SemanticDistance();
+            SemanticDistance dist = getSemanticDistance();
             double value = dist.semanticKeywordsDistance(listA, listB);
 
-            double semthreshold = Double.parseDouble(commonService.readPropertyFromFile("parameters.properties", "semanticDistanceListAListB"));
+            double semthreshold = ConfigurationSnapshot.current().getSemanticDistanceListAListB();
             if (value < semthreshold) {
                 return true;
             }
@@ -56,10 +85,10 @@ public class DistanceServiceImpl implements DistanceService {
         try {
             List<String> listA = new ArrayList<>();
             listA.add(word);
-            SemanticDistance dist = new SemanticDistance();
+            SemanticDistance dist = getSemanticDistance();
 
             double value = dist.semanticKeywordsDistance(listA, listB);
-            double semthreshold = Double.parseDouble(commonService.readPropertyFromFile("parameters.properties", "semanticDistanceWordListB"));
+            double semthreshold = ConfigurationSnapshot.current().getSemanticDistanceWordListB();
             if (value < semthreshold) {
                 return true;
             }
@@ -70,6 +99,97 @@ public class DistanceServiceImpl implements DistanceService {
         return false;
     }
 
+    /**
+     * Semantic distance with the source of counts of parameters.properties,
+     * termFrequencySource : local uses the index of termIndexDirectory and
+     * wikipedia ( default ) the wikipedia searches
+     */
+    private SemanticDistance getSemanticDistance() throws IOException, ClassNotFoundException {
+        String source = commonService.readPropertyFromFile("parameters.properties", "termFrequencySource");
+        String directory = commonService.readPropertyFromFile("parameters.properties", "termIndexDirectory");
+        if (source != null && "local".equalsIgnoreCase(source.trim()) && directory != null) {
+            LocalTermIndex index = getLocalTermIndex(new File(directory.trim()));
+            if (index != null) {
+                return new SemanticDistance(index, null, getTranslator());
+            }
+            Logger.getLogger(DistanceServiceImpl.class.getName()).log(Level.WARNING, "Local term index not found, using wikipedia");
+        }
+        return new SemanticDistance(getWikipediaCounts(), getNgdExecutor(), getTranslator());
+    }
+
+    private synchronized SemanticCacheStore getCacheStore() {
+        if (cacheStore == null) {
+            // service created with new, outside of the container
+            cacheStore = new SemanticCacheStore();
+        }
+        return cacheStore;
+    }
+
+    private synchronized TermFrequencySource getWikipediaCounts() {
+        if (wikipediaCounts == null) {
+            wikipediaCounts = new WikipediaTermFrequencySource(new HitCountCache(getCacheStore()));
+        }
+        return wikipediaCounts;
+    }
+
+    private synchronized TranslateForSemanticDistance getTranslator() throws IOException {
+        if (translator == null) {
+            translator = new TranslateForSemanticDistance(getCacheStore());
+        }
+        return translator;
+    }
+
+    /*
+     * Threads of the wikipedia searches, resized when ngdParallelism changes,
+     * null to search in the calling thread
+     */
+    private synchronized ExecutorService getNgdExecutor() {
+        int parallelism = ConfigurationSnapshot.current().getNgdParallelism();
+        if (parallelism <= 1) {
+            return null;
+        }
+        if (ngdExecutor == null) {
+            ngdExecutor = new ThreadPoolExecutor(parallelism, parallelism, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "ngd-search-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            ngdExecutor.allowCoreThreadTimeOut(true);
+        } else if (parallelism > ngdExecutor.getMaximumPoolSize()) {
+            ngdExecutor.setMaximumPoolSize(parallelism);
+            ngdExecutor.setCorePoolSize(parallelism);
+        } else if (parallelism < ngdExecutor.getMaximumPoolSize()) {
+            ngdExecutor.setCorePoolSize(parallelism);
+            ngdExecutor.setMaximumPoolSize(parallelism);
+        }
+        return ngdExecutor;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (ngdExecutor != null) {
+            ngdExecutor.shutdownNow();
+            ngdExecutor = null;
+        }
+    }
+
+    private static synchronized LocalTermIndex getLocalTermIndex(File directory) throws IOException {
+        File indexFile = LocalTermIndex.getIndexFile(directory);
+        if (!indexFile.exists()) {
+            return null;
+        }
+        if (localTermIndex == null || indexFile.lastModified() != localTermIndexModified) {
+            localTermIndexModified = indexFile.lastModified();
+            localTermIndex = LocalTermIndex.open(directory);
+        }
+        return localTermIndex;
+    }
+
     @Override
     public boolean syntacticComparisonNames(String... args) {
 
@@ -91,28 +211,9 @@ public class DistanceServiceImpl implements DistanceService {
         return false;
     }
 
+    @Override
     public double cosineSimilarityAndLevenshteinDistance(String param1, String param2) {
-
-        String a = param1;
-        String b = param2;
-
-        StringMetric metric
-                = with(new CosineSimilarity<String>())
-                .simplify(Simplifiers.toLowerCase())
-                .simplify(Simplifiers.removeNonWord()).simplifierCache()
-                .tokenize(Tokenizers.qGram(3)).tokenizerCache().build();
-        float compare = metric.compare(a, b);
-
-        StringMetric metric2
-                = with(new Levenshtein())
-                .simplify(Simplifiers.removeDiacritics())
-                .simplify(Simplifiers.toLowerCase()).build();
-
-        float compare2 = metric2.compare(a, b);
-
-        float similarity = (float) ((compare + compare2) / 2.0);
-
-        return similarity;
+        return TitleMatcher.similarity(param1, param2);
     }
 
 }
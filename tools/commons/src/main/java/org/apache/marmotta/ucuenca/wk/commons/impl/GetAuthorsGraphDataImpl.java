@@ -41,7 +41,8 @@ public class GetAuthorsGraphDataImpl implements GetAuthorsGraphData {
 
     private ConstantService constantService = new ConstantServiceImpl();
 
-    private DistanceService distanceService = new DistanceServiceImpl();
+    @Inject
+    private DistanceService distanceService;
 
     @Inject
     private SparqlService sparqlService;
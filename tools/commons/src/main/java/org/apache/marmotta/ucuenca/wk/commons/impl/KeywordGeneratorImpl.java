@@ -33,6 +33,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.logging.Level;
 import org.apache.commons.io.IOUtils;
+import org.apache.marmotta.ucuenca.wk.commons.service.TranslationService;
 
 /**
  * @author Jose Luis Cullcay
@@ -49,7 +50,7 @@ public class KeywordGeneratorImpl {
     //Para extraer keywords en Espanol usar SpanishAnalyzer, y para Ingles usar StandardAnalyzer
     private final StandardAnalyzer analyzer;
     //private final PorterStemmer stemmer ;
-    private TranslationServiceImpl translator = new TranslationServiceImpl();
+    private TranslationService translator = new CachingTranslationService(new TranslationServiceImpl());
 
     public KeywordGeneratorImpl() {
         this(null);
@@ -98,12 +99,6 @@ public class KeywordGeneratorImpl {
             }
             //"es" para espanol y "en" para ingles.
 
-            if ("es".equals(language)) {
-                //translate the list of words
-                JsonObject jsonKeys = translator.translate(keyString);
-                keyString = jsonKeys.get("result").getAsString();
-            }
-
             //Get the keywords with Lucece
             //KeywordGenerator keywordGenerator = new KeywordGeneratorImpl();
             String[] split = keyString.split(",");
@@ -112,6 +107,16 @@ public class KeywordGeneratorImpl {
                 lista1.add(split[i].trim());
             }
 
+            if ("es".equals(language)) {
+                //translate the list of words in one batch, each word is kept in the cache of translations
+                List<String> translations = translator.translateBatch(lista1);
+                for (int i = 0; i < translations.size(); i++) {
+                    if (translations.get(i) != null) {
+                        lista1.set(i, translations.get(i).trim());
+                    }
+                }
+            }
+
         } catch (IOException ex) {
             java.util.logging.Logger.getLogger(KeywordGeneratorImpl.class.getName()).log(Level.SEVERE, null, ex);
         }
@@ -34,6 +34,9 @@ public class KeywordsServiceImpl implements KeywordsService {
     @Inject
     private SparqlService sparqlService;
 
+    @Inject
+    private DistanceService distanceService;
+
     private final static int MAXKEYWORDS = 10; //maximo retorna 10 keywords desde el texto ( primeras )
 
     @Override
@@ -97,7 +100,6 @@ public class KeywordsServiceImpl implements KeywordsService {
                     keywords.add(keyword);
                 }
             }
-            DistanceService distance = new DistanceServiceImpl();
             String analizedKeyword = keywords.get(0);
             List<String> keywordsG1 = new ArrayList<>();
             List<String> keywordsG2 = new ArrayList<>();
@@ -107,7 +109,7 @@ public class KeywordsServiceImpl implements KeywordsService {
 
                 List<String> onlyKeyword2 = new ArrayList<>();
                 onlyKeyword2.add(key);
-                if (distance.semanticComparison(analizedKeyword, onlyKeyword2)) {
+                if (distanceService.semanticComparison(analizedKeyword, onlyKeyword2)) {
                     keywordsG1.add(keywords.get(i));
                     sumG1++;
                 } else {
@@ -166,8 +168,10 @@ public class KeywordsServiceImpl implements KeywordsService {
          * palabra que va a ser eliminada ( Solo para comparar )
          */
         //si la palabra contiene numeros
-        if (text.matches("^.*\\d.*$")) {
-            return true;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+                return true;
+            }
         }
 
         String[] articlesEs = {
@@ -1,5 +1,7 @@
 package org.apache.marmotta.ucuenca.wk.commons.impl;
 
+import java.util.Arrays;
+import java.util.Collection;
 import org.apache.commons.lang.StringEscapeUtils;
 import org.apache.marmotta.ucuenca.wk.commons.service.QueriesService;
 import org.apache.marmotta.ucuenca.wk.commons.service.ConstantService;
@@ -30,8 +32,34 @@ public class QueriesServiceImpl implements QueriesService {
 
     @Override
     public String getAuthorsQuery(String datagraph) {
-        return PREFIXES
-                + " select ?s where{" + getGraphString(datagraph) + "{"
+        return PREFIXES + getAuthorsSelect(datagraph, "");
+    }
+
+    /**
+     * Return a page of the authors of getAuthorsQuery ordered by the author
+     * uri, with the authors after lastSeen ( keyset pagination )
+     */
+    @Override
+    public String getAuthorsKeysetQuery(String datagraph, String lastSeen, String limit) {
+        return PREFIXES + getAuthorsSelect(datagraph, getKeysetFilter("?s", lastSeen))
+                + " order by ?s" + getLimit(limit);
+    }
+
+    /**
+     * Return a CONSTRUCT query with all triples of the authors, the authors of
+     * a page of getAuthorsKeysetQuery
+     */
+    @Override
+    public String getAuthorsConstructQuery(Collection<String> authors) {
+        StringBuilder values = new StringBuilder();
+        for (String author : authors) {
+            values.append(" <").append(author).append('>');
+        }
+        return " CONSTRUCT { ?s ?p ?o } WHERE { VALUES ?s {" + values + " } ?s ?p ?o }";
+    }
+
+    private String getAuthorsSelect(String datagraph, String filter) {
+        return " select ?s where{" + getGraphString(datagraph) + "{"
                 + " ?doc rdf:type bibo:Document ."
                 + " {"
                 + "      ?doc ?c ?s ."
@@ -47,11 +75,25 @@ public class QueriesServiceImpl implements QueriesService {
                 + "     ?doc a bibo:Article."
                 + "     ?doc ?c ?s ."
                 + "     ?s a foaf:Person."
-                + " } } }"
+                + " } }" + filter + " }"
                 + " group by ?s"
                 + " having (count(?doc)>1)";
     }
 
+    /*
+     * FILTER of the values after lastSeen, empty for the first page
+     */
+    private String getKeysetFilter(String variable, String lastSeen) {
+        if (lastSeen == null) {
+            return "";
+        }
+        return " FILTER (STR(" + variable + ") > " + getStringLiteral(lastSeen) + ")";
+    }
+
+    private String getStringLiteral(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
     @Override
     public String getRetrieveResourceQuery() {
         return "SELECT ?x ?y ?z WHERE { ?x ?y ?z }";
@@ -63,19 +105,31 @@ public class QueriesServiceImpl implements QueriesService {
     @Override
     public String getInsertDataLiteralQuery(String... varargs) {
         String graphSentence = getGraphString(varargs[0]);
-        String subjectSentence = "<" + varargs[1] + ">";
-        String object = null;
-        if (varargs[3].contains("^^")) {
-            object = "\"" + StringEscapeUtils.escapeJava(varargs[3].substring(1, varargs[3].indexOf("^^") - 1)) + "\"" + varargs[3].substring(varargs[3].indexOf("^^"));
+        String triple = getInsertDataLiteralTriple(Arrays.copyOfRange(varargs, 1, varargs.length));
+        if (isURI(varargs[2])) {
+            return INSERTDATA + graphSentence + "  { " + triple + " }}";
         } else {
-            object = "\"" + StringEscapeUtils.escapeJava(varargs[3].substring(1, varargs[3].length() - 1)) + "\"" + (varargs.length > 4 ? varargs[4] != null ? "^^xsd:" + varargs[4] : "^^xsd:string" : "^^xsd:string");
+            return PREFIXES + INSERTDATA + graphSentence + "  { " + triple + " }}";
         }
+    }
 
-        if (isURI(varargs[2])) {
-            return INSERTDATA + graphSentence + "  { " + subjectSentence + " <" + varargs[2] + "> " + object + " }}";
+    /**
+     * Return the triple pattern of a LITERAL object, args: subject, predicate,
+     * object and optionally the xsd type
+     */
+    @Override
+    public String getInsertDataLiteralTriple(String... varargs) {
+        String object = null;
+        if (varargs[2].contains("^^")) {
+            object = "\"" + StringEscapeUtils.escapeJava(varargs[2].substring(1, varargs[2].indexOf("^^") - 1)) + "\"" + varargs[2].substring(varargs[2].indexOf("^^"));
         } else {
-            return PREFIXES + INSERTDATA + graphSentence + "  { " + subjectSentence + " " + varargs[2] + " " + object + " }}";
+            object = "\"" + StringEscapeUtils.escapeJava(varargs[2].substring(1, varargs[2].length() - 1)) + "\"" + (varargs.length > 3 ? varargs[3] != null ? "^^xsd:" + varargs[3] : "^^xsd:string" : "^^xsd:string");
         }
+        return "<" + varargs[0] + "> " + getPredicateSentence(varargs[1]) + " " + object;
+    }
+
+    private String getPredicateSentence(String predicate) {
+        return isURI(predicate) ? "<" + predicate + ">" : predicate;
     }
 
     private boolean isURI(String value) {
@@ -88,12 +142,33 @@ public class QueriesServiceImpl implements QueriesService {
     @Override
     public String getInsertDataUriQuery(String... varargs) {
         String graphSentence = getGraphString(varargs[0]);
-        String subjectSentence = "<" + varargs[1] + ">";
+        String triple = getInsertDataUriTriple(varargs[1], varargs[2], varargs[3]);
         if (isURI(varargs[2])) {
-            return INSERTDATA + graphSentence + " " + "{ " + subjectSentence + " <" + varargs[2] + "> <" + varargs[3] + "> }}";
+            return INSERTDATA + graphSentence + " " + "{ " + triple + " }}";
         } else {
-            return PREFIXES + INSERTDATA + graphSentence + " " + "{ " + subjectSentence + " " + varargs[2] + " <" + varargs[3] + "> }}";
+            return PREFIXES + INSERTDATA + graphSentence + " " + "{ " + triple + " }}";
+        }
+    }
+
+    /**
+     * Return the triple pattern of a URI object, args: subject, predicate,
+     * object
+     */
+    @Override
+    public String getInsertDataUriTriple(String... varargs) {
+        return "<" + varargs[0] + "> " + getPredicateSentence(varargs[1]) + " <" + varargs[2] + ">";
+    }
+
+    /**
+     * Return one INSERT DATA query with all triple patterns of a graph
+     */
+    @Override
+    public String getInsertDataBatchQuery(String graph, Collection<String> triples) {
+        StringBuilder query = new StringBuilder(PREFIXES).append(INSERTDATA).append(getGraphString(graph)).append("{ ");
+        for (String triple : triples) {
+            query.append(triple).append(" . ");
         }
+        return query.append("}}").toString();
     }
 
     /**
@@ -633,6 +708,27 @@ public class QueriesServiceImpl implements QueriesService {
                 + " }";
     }
 
+    /**
+     * Return a page of getDocumentsAuthors ordered by author and document,
+     * with the pairs after lastAuthor and lastDocument ( keyset pagination )
+     */
+    @Override
+    public String getDocumentsAuthorsKeysetQuery(String repository, String graph, String lastAuthor, String lastDocument, String limit) {
+        String filter = "";
+        if (lastAuthor != null && lastDocument != null) {
+            filter = " FILTER (STR(?author) > " + getStringLiteral(lastAuthor)
+                    + " || (STR(?author) = " + getStringLiteral(lastAuthor) + " && STR(?document) > " + getStringLiteral(lastDocument) + ")) ";
+        }
+        return PREFIXES
+                + " SELECT  DISTINCT ?document ?author "
+                + " FROM <" + graph + ">"
+                + " WHERE { "
+                + "   ?document dct:isPartOf <" + repository + ">. "
+                + "   ?document dct:creator ?author. "
+                + filter
+                + " } order by ?author ?document" + getLimit(limit);
+    }
+
     @Override
     public String getResourceUriByType(String type) {
         return PREFIXES + "SELECT DISTINCT * WHERE { ?publicationResource  " + type + " ?authorResource } ";
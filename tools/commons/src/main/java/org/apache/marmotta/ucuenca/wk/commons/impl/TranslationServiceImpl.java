@@ -6,9 +6,11 @@
 package org.apache.marmotta.ucuenca.wk.commons.impl;
 
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import com.memetix.mst.language.Language;
 import com.memetix.mst.translate.Translate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
 import org.apache.marmotta.ucuenca.wk.commons.service.TranslationService;
 
@@ -19,6 +21,18 @@ import org.apache.marmotta.ucuenca.wk.commons.service.TranslationService;
  */
 public class TranslationServiceImpl implements TranslationService {
 
+    private static final int MAX_TRIES = 6;
+
+    /* first wait between tries, doubled after each failure */
+    private static final long INITIAL_BACKOFF = 500;
+
+    private static final long MAX_BACKOFF = 16000;
+
+    /* texts sent in each request of translateBatch */
+    private static final int BATCH_SIZE = 25;
+
+    private final Random rand = new Random();
+
     /**
      * Function to translate a text in any language to English
      *
@@ -28,62 +42,61 @@ public class TranslationServiceImpl implements TranslationService {
      */
     @Override
     public JsonObject translate(String text) {
-        JsonParser parser = new JsonParser();
-        int count = 0;
-        int maxTries = 360;
-        Random rand = new Random();
-        boolean val = true;
-        int client;
-        while (val) {
-            String id;
-            String secret;
+        String[] translation = execute(new String[]{text});
+        JsonObject result = new JsonObject();
+        result.addProperty("result", translation != null ? translation[0] : " No Result ");
+        return result;
+    }
+
+    @Override
+    public List<String> translateBatch(List<String> texts) {
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < texts.size(); i += BATCH_SIZE) {
+            List<String> group = texts.subList(i, Math.min(i + BATCH_SIZE, texts.size()));
+            String[] translations = execute(group.toArray(new String[group.size()]));
+            if (translations != null && translations.length == group.size()) {
+                result.addAll(Arrays.asList(translations));
+            } else {
+                for (int j = 0; j < group.size(); j++) {
+                    result.add(null);
+                }
+            }
+        }
+        return result;
+    }
+
+    /* translation of the texts from Spanish to English, null after MAX_TRIES failures */
+    private String[] execute(String[] texts) {
+        long backoff = INITIAL_BACKOFF;
+        for (int count = 1; count <= MAX_TRIES; count++) {
             try {
                 //Set a valid clientId and clientSecret (choose randomly one of two options).
-                client = rand.nextInt(2);
-                if (client == 0) {
-                    id = "wkhuska";
-                    secret = "qEDpYkIKm6SiCP3l0YgB1k4wvr9Q7gTqhuY/fXFmuNY=";
-                    Translate.setClientId(id);
-                    Translate.setClientSecret(secret);
+                if (rand.nextInt(2) == 0) {
+                    Translate.setClientId("wkhuska");
+                    Translate.setClientSecret("qEDpYkIKm6SiCP3l0YgB1k4wvr9Q7gTqhuY/fXFmuNY=");
                 } else {
-                    id = "keyword_translator";
-                    secret = "uBt2JPP+tVNXx4sYvWtbZ/Nj6whXBhaAwAiDy911qnE=";
-                    Translate.setClientId(id);
-                    Translate.setClientSecret(secret);
+                    Translate.setClientId("keyword_translator");
+                    Translate.setClientSecret("uBt2JPP+tVNXx4sYvWtbZ/Nj6whXBhaAwAiDy911qnE=");
                 }
-                //Ask for a new token every 5 requests (in average)
-                //if (rand.nextInt(4) == 0) {
-                //    Translate.getToken(id, secret);
-                //}
-
-                // Translate an string to English (we can define a different language)
-                String translation = Translate.execute(text, Language.SPANISH, Language.ENGLISH);
-                /*try {
-                 //We will set random between 0 and 1000 milliseconds
-                 Thread.sleep(rand.nextInt(1000));//1000 milliseconds is one second.
-                 } catch (InterruptedException ex) {
-                 Thread.currentThread().interrupt();
-                 }*/
-                //return the translation
-
-                return parser.parse("{\"result\": \"" + translation + "\"}").getAsJsonObject();
-                // break out of loop, or return, on success
+                // Translate the strings to English (we can define a different language)
+                if (texts.length == 1) {
+                    return new String[]{Translate.execute(texts[0], Language.SPANISH, Language.ENGLISH)};
+                }
+                return Translate.execute(texts, Language.SPANISH, Language.ENGLISH);
             } catch (Exception e) {
-                // handle exception
-                count++;
-                if (count == maxTries) {
-                    return  parser.parse("{\"result\": \" No Result \"}").getAsJsonObject(); // Return a blank string. There was a persistant error.
-                } else {
+                if (count < MAX_TRIES) {
                     try {
-                        //We will set random between 0 and 5100 milliseconds
-                        Thread.sleep(rand.nextInt(5100));//1000 milliseconds is one second.
+                        //exponential backoff with random jitter
+                        Thread.sleep(backoff + rand.nextInt((int) backoff));
                     } catch (InterruptedException ex) {
                         Thread.currentThread().interrupt();
+                        return null;
                     }
+                    backoff = Math.min(backoff * 2, MAX_BACKOFF);
                 }
             }
         }
-        return parser.parse("{\"result\": \" No Result \"}").getAsJsonObject();
+        return null;
     }
 
 }
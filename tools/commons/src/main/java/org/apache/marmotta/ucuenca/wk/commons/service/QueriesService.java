@@ -5,6 +5,8 @@
  */
 package org.apache.marmotta.ucuenca.wk.commons.service;
 
+import java.util.Collection;
+
 /**
  *
  * @author Satellite
@@ -35,6 +37,26 @@ public interface QueriesService {
      */
     String getAuthorsQuery(String wkhuskagraph);
 
+    /**
+     * return a page of the authors of getAuthorsQuery ordered by the author
+     * uri, with the authors after lastSeen ( keyset pagination )
+     *
+     * @param wkhuskagraph
+     * @param lastSeen last author of the previous page, null for the first page
+     * @param limit
+     * @return
+     */
+    String getAuthorsKeysetQuery(String wkhuskagraph, String lastSeen, String limit);
+
+    /**
+     * return a CONSTRUCT query with all triples of the authors, the authors of
+     * a page of getAuthorsKeysetQuery
+     *
+     * @param authors uris of the authors
+     * @return
+     */
+    String getAuthorsConstructQuery(Collection<String> authors);
+
     /**
      * return query to obtain all properties of a resource using LDC ( Linked
      * Data Client )
@@ -59,6 +81,32 @@ public interface QueriesService {
      */
     String getInsertDataUriQuery(String... args);
 
+    /**
+     * Return the triple pattern ( without graph ) when object is a LITERAL
+     *
+     * @param args //subject, predicate, object and optionally the xsd type
+     * @return
+     */
+    String getInsertDataLiteralTriple(String... args);
+
+    /**
+     * Return the triple pattern ( without graph ) when object is a URI
+     *
+     * @param args //subject, predicate, object
+     * @return
+     */
+    String getInsertDataUriTriple(String... args);
+
+    /**
+     * Return a single INSERT DATA QUERY with several triple patterns of the
+     * same graph
+     *
+     * @param graph
+     * @param triples
+     * @return
+     */
+    String getInsertDataBatchQuery(String graph, Collection<String> triples);
+
     /**
      *
      * @param graph
@@ -173,6 +221,19 @@ public interface QueriesService {
      */
     String getDocumentsAuthors(String repository, String graph);
 
+    /**
+     * Page of getDocumentsAuthors ordered by author and document ( keyset
+     * pagination )
+     *
+     * @param repository
+     * @param graph
+     * @param lastAuthor author of the last pair of the previous page, null for the first page
+     * @param lastDocument document of the last pair of the previous page
+     * @param limit
+     * @return
+     */
+    String getDocumentsAuthorsKeysetQuery(String repository, String graph, String lastAuthor, String lastDocument, String limit);
+
     /**
      * @See Get all resources of an specific type
      *
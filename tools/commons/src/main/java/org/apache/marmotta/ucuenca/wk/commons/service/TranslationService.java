@@ -6,6 +6,7 @@
 package org.apache.marmotta.ucuenca.wk.commons.service;
 
 import com.google.gson.JsonObject;
+import java.util.List;
 /**
  *
  * @author Jose Luis Cullcay
@@ -13,5 +14,14 @@ import com.google.gson.JsonObject;
 public interface TranslationService {
 
     JsonObject translate(String text);
+
+    /**
+     * Translate a list of texts to English
+     *
+     * @param texts
+     * @return the translations in the same order of the texts, null for the
+     * texts that could not be translated
+     */
+    List<String> translateBatch(List<String> texts);
   
 }
@@ -0,0 +1,35 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.commons.function;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test of the configuration read once from parameters.properties
+ */
+public class ConfigurationSnapshotTest {
+
+    @Test
+    public void testGraphs() {
+        System.out.println("graphs");
+        ConfigurationSnapshot configuration = ConfigurationSnapshot.current();
+        Assert.assertEquals("http://ucuenca.edu.ec/wkhuska", configuration.getWkhuskaGraph());
+        Assert.assertEquals("http://ucuenca.edu.ec/wkhuska/authors", configuration.getGraph("authors"));
+        Assert.assertEquals("http://ucuenca.edu.ec/wkhuska/provider/DBLPRawProvider", configuration.getGraph("dblp"));
+    }
+
+    @Test
+    public void testTypedValues() {
+        System.out.println("typedValues");
+        ConfigurationSnapshot configuration = ConfigurationSnapshot.current();
+        Assert.assertEquals(1.0, configuration.getSemanticDistanceListAListB(), 0.0001);
+        Assert.assertEquals(7, configuration.getInt(ConfigurationSnapshot.PARAMETERS, "missingProperty", 7));
+        Assert.assertNull(configuration.getString("missing.properties", "wkhuska"));
+        Assert.assertSame(configuration, ConfigurationSnapshot.current());
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.commons.function;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test of the lookups of the counts in the cache table, without database
+ */
+public class HitCountCacheTest {
+
+    @Test
+    public void testPrefetchReadsAllQueriesInOneLookup() {
+        System.out.println("prefetchReadsAllQueriesInOneLookup");
+        CountingStore store = new CountingStore();
+        HitCountCache cache = new HitCountCache(store);
+        cache.prefetch(Arrays.asList("\"web\"~10", "\"ontology\"~10", "\"web ontology\"~50"));
+        Assert.assertEquals(1, store.lookups.size());
+        Assert.assertEquals(3, store.lookups.get(0).size());
+        Assert.assertEquals(42, cache.getTotalHits("\"web\"~10"), 0);
+        Assert.assertEquals(42, cache.getTotalHits("\"web ontology\"~50"), 0);
+        Assert.assertEquals(1, store.lookups.size());
+    }
+
+    @Test
+    public void testPrefetchSkipsCountsInMemory() {
+        System.out.println("prefetchSkipsCountsInMemory");
+        CountingStore store = new CountingStore();
+        HitCountCache cache = new HitCountCache(store);
+        Assert.assertEquals(42, cache.getTotalHits("\"web\"~10"), 0);
+        cache.prefetch(Arrays.asList("\"web\"~10", "\"ontology\"~10"));
+        Assert.assertEquals(2, store.lookups.size());
+        Assert.assertEquals(1, store.lookups.get(1).size());
+        cache.prefetch(Collections.singletonList("\"ontology\"~10"));
+        Assert.assertEquals(2, store.lookups.size());
+    }
+
+    @Test
+    public void testSourcePrefetchesTermsAndPairs() {
+        System.out.println("sourcePrefetchesTermsAndPairs");
+        CountingStore store = new CountingStore();
+        TermFrequencySource source = new WikipediaTermFrequencySource(new HitCountCache(store));
+        List<String[]> pairs = new ArrayList<>();
+        pairs.add(new String[]{"web", "ontology"});
+        source.prefetch(Arrays.asList("web", "ontology"), pairs);
+        Assert.assertEquals(1, store.lookups.size());
+        Assert.assertEquals(3, store.lookups.get(0).size());
+        Assert.assertEquals(42, source.count("web", "ontology"), 0);
+        source.flush();
+        Assert.assertEquals(1, store.lookups.size());
+        Assert.assertEquals(0, store.saves);
+    }
+
+    /* store that answers every key with the same count and records the lookups */
+    private static class CountingStore extends SemanticCacheStore {
+
+        private final List<Collection<String>> lookups = new ArrayList<>();
+
+        private int saves;
+
+        @Override
+        public Map<String, String> getAll(Collection<String> keys) {
+            lookups.add(new ArrayList<>(keys));
+            Map<String, String> values = new HashMap<>();
+            for (String key : keys) {
+                values.put(key, "{\"query\":{\"searchinfo\":{\"totalhits\":42}}}");
+            }
+            return values;
+        }
+
+        @Override
+        public void putAll(Map<String, String> values) {
+            saves++;
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.commons.function;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test of the local index of terms used by the semantic distance
+ */
+public class LocalTermIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private LocalTermIndex buildIndex() throws IOException {
+        LocalTermIndex.Builder builder = new LocalTermIndex.Builder();
+        builder.add("http://ucuenca.edu.ec/wkhuska/publication/1", "Semantic Web based integration of bibliographic data");
+        builder.add("http://ucuenca.edu.ec/wkhuska/publication/1", "Linked data of the universities of Ecuador");
+        builder.add("http://ucuenca.edu.ec/wkhuska/publication/2", "A survey on machine learning for ontology matching");
+        builder.add("http://ucuenca.edu.ec/wkhuska/publication/3", "Aprendizaje autom\u00e1tico en la Web Sem\u00e1ntica");
+        File directory = folder.newFolder("terms");
+        builder.write(directory);
+        return LocalTermIndex.open(directory);
+    }
+
+    @Test
+    public void testCount() throws IOException {
+        System.out.println("count");
+        LocalTermIndex index = buildIndex();
+        Assert.assertEquals(3, index.documents(), 0);
+        Assert.assertEquals(2, index.count("web"), 0);
+        Assert.assertEquals(1, index.count("Sem\u00e1ntica"), 0);
+        Assert.assertEquals(1, index.count("semantica"), 0);
+        Assert.assertEquals(1, index.count("machine learning"), 0);
+        Assert.assertEquals(0, index.count("deep learning"), 0);
+        Assert.assertEquals(1, index.count("machine learning", "ontology"), 0);
+        Assert.assertEquals(1, index.count("semantic", "web"), 0);
+    }
+
+    @Test
+    public void testTextsOfDocumentAreNotNear() throws IOException {
+        System.out.println("textsOfDocumentAreNotNear");
+        LocalTermIndex index = buildIndex();
+        Assert.assertEquals(1, index.count("bibliographic data"), 0);
+        Assert.assertEquals(0, index.count("bibliographic ecuador"), 0);
+    }
+
+    @Test
+    public void testNgdMatrix() throws IOException {
+        System.out.println("ngdMatrix");
+        NgdMatrix matrix = new NgdMatrix(Arrays.asList("semantic", "web", "ontology"), buildIndex(), null);
+        Assert.assertTrue(matrix.distance(0, 1) < matrix.distance(0, 2));
+        Assert.assertEquals(matrix.distance(0, 1), matrix.distance(1, 0), 0);
+    }
+
+}
@@ -0,0 +1,37 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.commons.function;
+
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test of the title comparison used to deduplicate publications
+ */
+public class TitleMatcherTest {
+
+    @Test
+    public void testSimilarity() {
+        System.out.println("similarity");
+        String title = "semantic-web-based-integration-of-bibliographic-data";
+        Assert.assertEquals(1.0, TitleMatcher.similarity(title, title), 0.0001);
+        Assert.assertTrue(TitleMatcher.similarity(title, "a-survey-on-machine-learning-for-ontology-matching") < 0.9);
+    }
+
+    @Test
+    public void testMatches() {
+        System.out.println("matches");
+        TitleMatcher<String> matcher = new TitleMatcher<>(0.9);
+        matcher.add("http://ucuenca.edu.ec/wkhuska/publication/1", "semantic-web-based-integration-of-bibliographic-data");
+        matcher.add("http://ucuenca.edu.ec/wkhuska/publication/2", "a-survey-on-machine-learning-for-ontology-matching");
+        List<String> matches = matcher.matches("semantic-web-based-integration-of-bibliographic-data");
+        Assert.assertEquals(1, matches.size());
+        Assert.assertEquals("http://ucuenca.edu.ec/wkhuska/publication/1", matches.get(0));
+        Assert.assertTrue(matcher.candidates("linked-data-for-libraries").isEmpty());
+    }
+
+}
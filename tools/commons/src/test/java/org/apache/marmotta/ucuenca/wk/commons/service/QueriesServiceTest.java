@@ -60,6 +60,34 @@ public class QueriesServiceTest {
         Assert.assertEquals(expResult, result);
     }
 
+    /**
+     * Test of getAuthorsKeysetQuery method, of class QueriesServiceImplService.
+     */
+    @Test
+    public void testGetAuthorsKeysetQuery() {
+        QueriesService instance = new QueriesServiceImpl();
+        String wkhuskagraph = "http://ucuenca.edu.ec/wkhuska";
+        String first = instance.getAuthorsKeysetQuery(wkhuskagraph, null, "100");
+        Assert.assertFalse(first.contains("FILTER"));
+        Assert.assertTrue(first.contains("GRAPH <" + wkhuskagraph + ">"));
+        Assert.assertTrue(first.endsWith(" group by ?s having (count(?doc)>1) order by ?s Limit 100"));
+
+        String next = instance.getAuthorsKeysetQuery(wkhuskagraph, "http://example1.ec/resource/Juan_\"Perez\\", "100");
+        Assert.assertTrue(next.contains(" } } FILTER (STR(?s) > \"http://example1.ec/resource/Juan_\\\"Perez\\\\\") } group by ?s"));
+        Assert.assertTrue(next.endsWith(" order by ?s Limit 100"));
+    }
+
+    /**
+     * Test of getAuthorsConstructQuery method, of class QueriesServiceImplService.
+     */
+    @Test
+    public void testGetAuthorsConstructQuery() {
+        QueriesService instance = new QueriesServiceImpl();
+        String expResult = " CONSTRUCT { ?s ?p ?o } WHERE { VALUES ?s { <http://example1.ec/resource/Juan_Perez> <http://example1.ec/resource/Maria_Perez> } ?s ?p ?o }";
+        String result = instance.getAuthorsConstructQuery(java.util.Arrays.asList("http://example1.ec/resource/Juan_Perez", "http://example1.ec/resource/Maria_Perez"));
+        Assert.assertEquals(expResult, result);
+    }
+
     /**
      * Test of getRetrieveResourceQuery method, of class QueriesServiceImplService.
      */
@@ -114,6 +142,23 @@ public class QueriesServiceTest {
         Assert.assertEquals(expResult, result);
     }
 
+    /**
+     * Test of getInsertDataBatchQuery method, of class QueriesServiceImplService.
+     */
+    @Test
+    public void testGetInsertDataBatchQuery() {
+        System.out.println("getInsertDataBatchQuery");
+        String subject = "http://example1.ec/resource/Juan_Perez";
+        String wkhuskaGraph = "http://ucuenca.edu.ec/wkhuska";
+        QueriesService instance = new QueriesServiceImpl();
+        String typeTriple = instance.getInsertDataUriTriple(subject, "http://www.w3.org/1999/02/22-rdf-syntax-ns#type", "http://xmlns.com/foaf/0.1/Person");
+        String nameTriple = instance.getInsertDataLiteralTriple(subject, "foaf:name", "\"Juan Perez\"");
+        Assert.assertEquals("<" + subject + "> <http://www.w3.org/1999/02/22-rdf-syntax-ns#type> <http://xmlns.com/foaf/0.1/Person>", typeTriple);
+        Assert.assertEquals("<" + subject + "> foaf:name \"Juan Perez\"^^xsd:string", nameTriple);
+        String result = instance.getInsertDataBatchQuery(wkhuskaGraph, java.util.Arrays.asList(typeTriple, nameTriple));
+        Assert.assertTrue(result.endsWith("INSERT DATA {  GRAPH <http://ucuenca.edu.ec/wkhuska> { " + typeTriple + " . " + nameTriple + " . }}"));
+    }
+
     /**
      * Test of isURI method, of class QueriesServiceImplService.
      */